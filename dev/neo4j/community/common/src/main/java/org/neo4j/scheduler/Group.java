@@ -64,6 +64,12 @@ public enum Group
     INDEX_POPULATION_WORK( "IndexPopulationWork", ExecutorServiceFactory.cached() ),
     /** Background index sampling */
     INDEX_SAMPLING( "IndexSampling" ),
+    /**
+     * Background index sampling work, i.e. the partitions of an index that is sampled in parallel.
+     * Not limited on its own, because the sampling jobs waiting for their partitions must not hold back the partitions,
+     * and is instead effectively limited by unsupported.dbms.index_sampling.parallelism * unsupported.dbms.index_sampling.partitions
+     */
+    INDEX_SAMPLING_WORK( "IndexSamplingWork", ExecutorServiceFactory.cached() ),
     /** Background index update applier, for eventually consistent indexes. */
     INDEX_UPDATING( "IndexUpdating", ExecutorServiceFactory.singleThread() ), // Single-threaded to serialise updates with opening/closing/flushing of indexes.
     /** Thread pool for anyone who want some help doing file IO in parallel. */
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.ByteUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+class CompressedPageTierTest
+{
+    private static final int PAGE_SIZE = 8192;
+
+    private long page;
+    private long loadedPage;
+
+    @BeforeEach
+    void setUp()
+    {
+        page = UnsafeUtil.allocateMemory( PAGE_SIZE, INSTANCE );
+        loadedPage = UnsafeUtil.allocateMemory( PAGE_SIZE, INSTANCE );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        UnsafeUtil.free( page, PAGE_SIZE, INSTANCE );
+        UnsafeUtil.free( loadedPage, PAGE_SIZE, INSTANCE );
+    }
+
+    @Test
+    void mustLoadStoredPageOnlyOnce()
+    {
+        CompressedPageTier tier = new CompressedPageTier( ByteUnit.mebiBytes( 4 ), PAGE_SIZE, INSTANCE );
+        try
+        {
+            fillPage( 1 );
+            tier.store( 1, 7, page, PAGE_SIZE );
+
+            assertFalse( tier.load( 1, 8, loadedPage, PAGE_SIZE ) );
+            assertFalse( tier.load( 2, 7, loadedPage, PAGE_SIZE ) );
+            assertTrue( tier.load( 1, 7, loadedPage, PAGE_SIZE ) );
+            assertPageLoaded();
+            assertFalse( tier.load( 1, 7, loadedPage, PAGE_SIZE ) );
+        }
+        finally
+        {
+            tier.close();
+        }
+    }
+
+    @Test
+    void mustReplacePageThatIsStoredAgain()
+    {
+        CompressedPageTier tier = new CompressedPageTier( ByteUnit.mebiBytes( 4 ), PAGE_SIZE, INSTANCE );
+        try
+        {
+            fillPage( 1 );
+            tier.store( 1, 7, page, PAGE_SIZE );
+            fillPage( 2 );
+            tier.store( 1, 7, page, PAGE_SIZE );
+
+            assertThat( tier.pageCount() ).isOne();
+            assertTrue( tier.load( 1, 7, loadedPage, PAGE_SIZE ) );
+            assertPageLoaded();
+        }
+        finally
+        {
+            tier.close();
+        }
+    }
+
+    @Test
+    void mustDropPagesOfInvalidatedFile()
+    {
+        CompressedPageTier tier = new CompressedPageTier( ByteUnit.mebiBytes( 4 ), PAGE_SIZE, INSTANCE );
+        try
+        {
+            fillPage( 1 );
+            for ( int filePageId = 0; filePageId < 10; filePageId++ )
+            {
+                tier.store( 1, filePageId, page, PAGE_SIZE );
+                tier.store( 2, filePageId, page, PAGE_SIZE );
+            }
+
+            tier.invalidate( 1 );
+
+            assertThat( tier.pageCount() ).isEqualTo( 10 );
+            assertFalse( tier.load( 1, 3, loadedPage, PAGE_SIZE ) );
+            assertTrue( tier.load( 2, 3, loadedPage, PAGE_SIZE ) );
+        }
+        finally
+        {
+            tier.close();
+        }
+    }
+
+    @Test
+    void mustDropOldestPagesWhenFull()
+    {
+        // a single stripe of two segments
+        CompressedPageTier tier = new CompressedPageTier( ByteUnit.mebiBytes( 2 ), PAGE_SIZE, INSTANCE );
+        try
+        {
+            int pages = 1000;
+            for ( int filePageId = 0; filePageId < pages; filePageId++ )
+            {
+                fillPage( filePageId );
+                tier.store( 1, filePageId, page, PAGE_SIZE );
+            }
+
+            assertThat( tier.pageCount() ).isLessThan( pages );
+            assertFalse( tier.load( 1, 0, loadedPage, PAGE_SIZE ) );
+            assertTrue( tier.load( 1, pages - 1, loadedPage, PAGE_SIZE ) );
+            assertPageLoaded();
+        }
+        finally
+        {
+            tier.close();
+        }
+    }
+
+    @Test
+    void mustNotCreateTierThatCannotHoldAPage()
+    {
+        assertThrows( IllegalArgumentException.class, () -> new CompressedPageTier( 1024, PAGE_SIZE, INSTANCE ) );
+    }
+
+    /**
+     * Fill the first half of the page with random bytes, and the other half with the given value, so the page compresses to a bit more than half.
+     */
+    private void fillPage( int value )
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for ( int i = 0; i < PAGE_SIZE / 2; i += Long.BYTES )
+        {
+            UnsafeUtil.putLong( page + i, random.nextLong() );
+        }
+        UnsafeUtil.setMemory( page + PAGE_SIZE / 2, PAGE_SIZE / 2, (byte) value );
+    }
+
+    private void assertPageLoaded()
+    {
+        for ( int i = 0; i < PAGE_SIZE; i += Long.BYTES )
+        {
+            assertThat( UnsafeUtil.getLong( loadedPage + i ) ).isEqualTo( UnsafeUtil.getLong( page + i ) );
+        }
+    }
+}
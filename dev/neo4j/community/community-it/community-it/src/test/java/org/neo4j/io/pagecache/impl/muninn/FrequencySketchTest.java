@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FrequencySketchTest
+{
+    @Test
+    void unseenKeysMustHaveNoFrequency()
+    {
+        FrequencySketch sketch = new FrequencySketch( 64, 1000 );
+
+        assertThat( sketch.frequency( 42 ) ).isZero();
+    }
+
+    @Test
+    void frequencyMustCountIncrements()
+    {
+        FrequencySketch sketch = new FrequencySketch( 64, 1000 );
+
+        for ( int i = 1; i <= 5; i++ )
+        {
+            sketch.increment( 42 );
+            assertThat( sketch.frequency( 42 ) ).isEqualTo( i );
+        }
+    }
+
+    @Test
+    void frequencyMustSaturateAtFifteen()
+    {
+        FrequencySketch sketch = new FrequencySketch( 64, 1000 );
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            sketch.increment( 42 );
+        }
+
+        assertThat( sketch.frequency( 42 ) ).isEqualTo( 15 );
+    }
+
+    @Test
+    void frequencyMustNeverBeUnderestimated()
+    {
+        FrequencySketch sketch = new FrequencySketch( 64, 100_000 );
+        for ( long key = 0; key < 1000; key++ )
+        {
+            sketch.increment( key );
+        }
+        for ( int i = 0; i < 3; i++ )
+        {
+            sketch.increment( 7 );
+        }
+
+        for ( long key = 0; key < 1000; key++ )
+        {
+            assertThat( sketch.frequency( key ) ).isGreaterThanOrEqualTo( key == 7 ? 4 : 1 );
+        }
+    }
+
+    @Test
+    void frequentKeysMustStandOutFromKeysSeenOnce()
+    {
+        FrequencySketch sketch = new FrequencySketch( 1024, 100_000 );
+        for ( long key = 0; key < 1024; key++ )
+        {
+            sketch.increment( key );
+        }
+        for ( int i = 0; i < 5; i++ )
+        {
+            sketch.increment( 5000 );
+        }
+
+        int seenOnceAtMostTwice = 0;
+        for ( long key = 0; key < 1024; key++ )
+        {
+            if ( sketch.frequency( key ) <= 2 )
+            {
+                seenOnceAtMostTwice++;
+            }
+        }
+        assertThat( seenOnceAtMostTwice ).isGreaterThan( 1000 );
+        assertThat( sketch.frequency( 5000 ) ).isGreaterThanOrEqualTo( 5 );
+    }
+
+    @Test
+    void countersMustBeHalvedAfterSampleSizeAdditions()
+    {
+        FrequencySketch sketch = new FrequencySketch( 64, 10 );
+        for ( int i = 0; i < 9; i++ )
+        {
+            sketch.increment( 42 );
+        }
+        assertThat( sketch.frequency( 42 ) ).isEqualTo( 9 );
+
+        // the tenth addition ages the sketch
+        sketch.increment( 42 );
+
+        assertThat( sketch.frequency( 42 ) ).isEqualTo( 5 );
+    }
+
+    @Test
+    void agingMustForgetKeysSeenOnce()
+    {
+        FrequencySketch sketch = new FrequencySketch( 64, 10 );
+        sketch.increment( 1 );
+        for ( int i = 0; i < 9; i++ )
+        {
+            sketch.increment( 42 );
+        }
+
+        assertThat( sketch.frequency( 1 ) ).isZero();
+        assertThat( sketch.frequency( 42 ) ).isEqualTo( 4 );
+    }
+}
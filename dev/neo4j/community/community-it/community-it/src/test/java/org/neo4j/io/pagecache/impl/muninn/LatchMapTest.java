@@ -29,6 +29,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.neo4j.test.ThreadTestUtils;
@@ -118,6 +119,108 @@ class LatchMapTest
         latches.takeOrAwaitLatch( 42 ).release();
     }
 
+    @ValueSource( ints = {LatchMap.DEFAULT_FAULT_LOCK_STRIPING, 1 << 10, 1 << 11} )
+    @ParameterizedTest
+    void tryTakeLatchMustReturnLatchIfAvailable( int size )
+    {
+        LatchMap latches = new LatchMap( size );
+        LatchMap.Latch latch = latches.tryTakeLatch( 42 );
+        assertThat( latch ).isNotNull();
+        latch.release();
+        assertThat( latches.tryTakeLatch( 42 ) ).isNotNull();
+    }
+
+    @ValueSource( ints = {LatchMap.DEFAULT_FAULT_LOCK_STRIPING, 1 << 10, 1 << 11} )
+    @ParameterizedTest
+    void tryTakeLatchMustReturnNullWithoutWaitingIfLatchIsTaken( int size )
+    {
+        LatchMap latches = new LatchMap( size );
+        LatchMap.Latch latch = latches.takeOrAwaitLatch( 42 );
+
+        assertThat( latches.tryTakeLatch( 42 ) ).isNull();
+        // identifiers that map to the same latch collide too
+        assertThat( latches.tryTakeLatch( 42 + size ) ).isNull();
+        assertThat( latches.tryTakeLatch( 43 ) ).isNotNull();
+
+        latch.release();
+        assertThat( latches.tryTakeLatch( 42 ) ).isNotNull();
+    }
+
+    @ValueSource( ints = {LatchMap.DEFAULT_FAULT_LOCK_STRIPING, 1 << 10, 1 << 11} )
+    @ParameterizedTest
+    void takeOrAwaitLatchMustAwaitLatchTakenWithTryTakeLatch( int size ) throws Exception
+    {
+        LatchMap latches = new LatchMap( size );
+        AtomicReference<Thread> threadRef = new AtomicReference<>();
+        LatchMap.Latch latch = latches.tryTakeLatch( 42 );
+        assertThat( latch ).isNotNull();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Future<BinaryLatch> future = executor.submit( () ->
+            {
+                threadRef.set( Thread.currentThread() );
+                return latches.takeOrAwaitLatch( 42 );
+            } );
+            Thread th;
+            do
+            {
+                th = threadRef.get();
+            }
+            while ( th == null );
+            ThreadTestUtils.awaitThreadState( th, 10_000, Thread.State.WAITING );
+            latch.release();
+            assertThat( future.get( 1, TimeUnit.SECONDS ) ).isNull();
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void contendedTryTakeLatchMustOnlyGiveTheLatchToOneThreadAtATime() throws Exception
+    {
+        LatchMap latches = new LatchMap( LatchMap.DEFAULT_FAULT_LOCK_STRIPING );
+        AtomicInteger holders = new AtomicInteger();
+        AtomicInteger maxHolders = new AtomicInteger();
+        AtomicInteger taken = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for ( int thread = 0; thread < 4; thread++ )
+            {
+                futures.add( executor.submit( () ->
+                {
+                    for ( int i = 0; i < 100_000; i++ )
+                    {
+                        LatchMap.Latch latch = latches.tryTakeLatch( 42 );
+                        if ( latch != null )
+                        {
+                            maxHolders.accumulateAndGet( holders.incrementAndGet(), Math::max );
+                            taken.incrementAndGet();
+                            holders.decrementAndGet();
+                            latch.release();
+                        }
+                    }
+                } ) );
+            }
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        assertThat( maxHolders.get() ).isEqualTo( 1 );
+        assertThat( taken.get() ).isPositive();
+        assertThat( latches.tryTakeLatch( 42 ) ).isNotNull();
+    }
+
     @Test
     void shouldFailOnSizeNotPowerOfTwo()
     {
@@ -28,10 +28,15 @@ import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.IntSupplier;
 
 import org.neo4j.configuration.Config;
@@ -45,19 +50,23 @@ import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.io.memory.ByteBuffers;
 import org.neo4j.io.pagecache.DelegatingPageSwapper;
 import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageCacheOpenOptions;
 import org.neo4j.io.pagecache.PageCacheTest;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageLoad;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.context.VersionContext;
+import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.DelegatingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.EvictionEvent;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
 import org.neo4j.io.pagecache.tracing.FlushEvent;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
@@ -70,12 +79,20 @@ import org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer.Fault;
 import org.neo4j.memory.ScopedMemoryTracker;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobMonitoringParams;
+import org.neo4j.test.scheduler.JobSchedulerAdapter;
 
 import static java.time.Duration.ofMillis;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static org.eclipse.collections.impl.factory.Sets.immutable;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -84,6 +101,7 @@ import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_buffered_flush_enabled;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_flush_buffer_size_in_pages;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.io.pagecache.buffer.IOBufferFactory.DISABLED_BUFFER_FACTORY;
@@ -1346,6 +1364,884 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         } );
     }
 
+    @Test
+    void shouldFlushGivenFilesInParallel()
+    {
+        assertTimeoutPreemptively( ofMillis( SEMI_LONG_TIMEOUT_MILLIS ), () ->
+        {
+            List<Path> mappedFiles = new ArrayList<>();
+            mappedFiles.add( existingFile( "a" ) );
+            mappedFiles.add( existingFile( "b" ) );
+            getPageCache( fs, maxPages, new FlushRendezvousTracer( mappedFiles.size() ) );
+
+            List<PagedFile> mappedPagedFiles = new ArrayList<>();
+            for ( Path mappedFile : mappedFiles )
+            {
+                PagedFile pagedFile = map( pageCache, mappedFile, filePageSize );
+                mappedPagedFiles.add( pagedFile );
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putInt( 1 );
+                }
+            }
+
+            pageCache.flushAndForce( mappedPagedFiles );
+
+            IOUtils.closeAll( mappedPagedFiles );
+        } );
+    }
+
+    @Test
+    void shouldBoundNumberOfFilesFlushedInParallel() throws IOException
+    {
+        ConcurrentFlushTracer tracer = new ConcurrentFlushTracer();
+        MuninnPageCache.Configuration configuration = MuninnPageCache.config( maxPages ).pageCacheTracer( tracer ).flushParallelism( 2 );
+        try ( MuninnPageCache pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs ), jobScheduler, configuration ) )
+        {
+            List<PagedFile> mappedPagedFiles = new ArrayList<>();
+            for ( int i = 0; i < 6; i++ )
+            {
+                PagedFile pagedFile = map( pageCache, existingFile( "file" + i ), pageCache.pageSize() );
+                mappedPagedFiles.add( pagedFile );
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putInt( 1 );
+                }
+            }
+
+            pageCache.flushAndForce();
+
+            assertEquals( 6, tracer.lastFileFlushes().size() );
+            assertThat( tracer.maxConcurrentFlushes.get() ).isEqualTo( 2 );
+            IOUtils.closeAll( mappedPagedFiles );
+        }
+    }
+
+    @Test
+    void shouldTraceLastFlushOfEveryFile() throws IOException
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        getPageCache( fs, maxPages, tracer );
+        Path fileA = existingFile( "a" );
+        Path fileB = existingFile( "b" );
+
+        try ( PagedFile pagedFileA = map( pageCache, fileA, filePageSize ) )
+        {
+            try ( PagedFile pagedFileB = map( pageCache, fileB, filePageSize ) )
+            {
+                writePages( pagedFileA, 3 );
+                writePages( pagedFileB, 1 );
+
+                pageCache.flushAndForce( List.of( pagedFileA, pagedFileB ) );
+
+                List<FileFlushEvent> flushes = tracer.lastFileFlushes();
+                assertThat( flushes ).extracting( FileFlushEvent::file ).containsExactlyInAnyOrder( fileA, fileB );
+                for ( FileFlushEvent flush : flushes )
+                {
+                    int pages = flush.file().equals( fileA ) ? 3 : 1;
+                    assertEquals( pages, flush.pagesFlushed() );
+                    assertEquals( (long) pages * filePageSize, flush.bytesWritten() );
+                    assertThat( flush.durationNanos() ).isPositive();
+                }
+                assertEquals( 4, tracer.flushes() );
+            }
+            assertThat( tracer.lastFileFlushes() ).extracting( FileFlushEvent::file ).containsExactly( fileA );
+        }
+        assertThat( tracer.lastFileFlushes() ).isEmpty();
+    }
+
+    @Test
+    void evictionMustPassOverPagesOfHighPriorityFiles() throws IOException
+    {
+        try ( MuninnPageCache pageCache = createPageCacheWithoutEvictionThread( 20 );
+              PagedFile highPriority = map( pageCache, existingFile( "a" ), 8, immutable.of( PageCacheOpenOptions.HIGH_PRIORITY ) );
+              PagedFile normal = map( pageCache, existingFile( "b" ), 8 ) )
+        {
+            writePages( highPriority, 6 );
+            writePages( normal, 6 );
+
+            pageCache.evictPages( 6, 0, EvictionRunEvent.NULL );
+
+            assertThat( highPriority.residentPages() ).isEqualTo( 6 );
+            assertThat( normal.residentPages() ).isZero();
+
+            // when there is nothing else to evict, the pages of high priority files are evicted as well
+            pageCache.evictPages( 6, 0, EvictionRunEvent.NULL );
+            assertThat( highPriority.residentPages() ).isZero();
+        }
+    }
+
+    @Test
+    void evictionMustEvictPagesOfLowPriorityFilesRegardlessOfUsage() throws IOException
+    {
+        try ( MuninnPageCache pageCache = createPageCacheWithoutEvictionThread( 20 );
+              PagedFile lowPriority = map( pageCache, existingFile( "a" ), 8, immutable.of( PageCacheOpenOptions.LOW_PRIORITY ) );
+              PagedFile normal = map( pageCache, existingFile( "b" ), 8 ) )
+        {
+            for ( int i = 0; i < 4; i++ )
+            {
+                writePages( lowPriority, 6 );
+                writePages( normal, 6 );
+            }
+
+            pageCache.evictPages( 6, 0, EvictionRunEvent.NULL );
+
+            assertThat( lowPriority.residentPages() ).isZero();
+            assertThat( normal.residentPages() ).isEqualTo( 6 );
+        }
+    }
+
+    @Test
+    void evictionMustKeepReservedPagesOfFiles() throws IOException
+    {
+        try ( MuninnPageCache pageCache = createPageCacheWithoutEvictionThread( 20 );
+              PagedFile reserved = map( pageCache, existingFile( "a" ), 8, immutable.of( PageCacheOpenOptions.reservePages( 3 ) ) );
+              PagedFile normal = map( pageCache, existingFile( "b" ), 8 ) )
+        {
+            writePages( reserved, 6 );
+            writePages( normal, 6 );
+
+            pageCache.evictPages( 9, 0, EvictionRunEvent.NULL );
+
+            assertThat( reserved.residentPages() ).isEqualTo( 3 );
+            assertThat( normal.residentPages() ).isZero();
+        }
+    }
+
+    @Test
+    void mustNotMapFileWithBothHighAndLowPriority() throws IOException
+    {
+        try ( MuninnPageCache pageCache = createPageCacheWithoutEvictionThread( 20 ) )
+        {
+            Path file = existingFile( "a" );
+            assertThrows( IllegalArgumentException.class,
+                    () -> map( pageCache, file, 8, immutable.of( PageCacheOpenOptions.HIGH_PRIORITY, PageCacheOpenOptions.LOW_PRIORITY ) ) );
+        }
+    }
+
+    @Test
+    void tracerMustReportResidentPagesOfMappedFiles() throws IOException
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        getPageCache( fs, maxPages, tracer );
+        Path fileA = existingFile( "a" );
+        Path fileB = existingFile( "b" );
+        try ( PagedFile pagedFileA = map( pageCache, fileA, filePageSize ) )
+        {
+            try ( PagedFile pagedFileB = map( pageCache, fileB, filePageSize ) )
+            {
+                writePages( pagedFileA, 3 );
+                writePages( pagedFileB, 1 );
+
+                assertThat( tracer.residentPages() ).isEqualTo( Map.of( fileA, 3, fileB, 1 ) );
+            }
+            assertThat( tracer.residentPages() ).isEqualTo( Map.of( fileA, 3 ) );
+        }
+        assertThat( tracer.residentPages() ).isEmpty();
+    }
+
+    @Test
+    void evictedPagesMustBeFaultedBackInFromCompressedTier() throws IOException
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCacheWithCompressedTier( 20, tracer );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, 10 );
+            pageCache.evictPages( 10, 0, EvictionRunEvent.NULL );
+            assertThat( pageCache.compressedTier.pageCount() ).isEqualTo( 10 );
+
+            long bytesRead = tracer.bytesRead();
+            assertPages( pagedFile, 10, 0 );
+            assertThat( tracer.bytesRead() ).isEqualTo( bytesRead );
+            assertThat( pageCache.compressedTier.pageCount() ).isZero();
+        }
+    }
+
+    @Test
+    void compressedTierMustNotKeepPagesThatHaveBeenModifiedSinceEviction() throws IOException
+    {
+        try ( MuninnPageCache pageCache = createPageCacheWithCompressedTier( 20, PageCacheTracer.NULL );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, 10 );
+            pageCache.evictPages( 10, 0, EvictionRunEvent.NULL );
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+            {
+                for ( int i = 0; i < 10; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putInt( i + 100 );
+                }
+            }
+            pageCache.evictPages( 10, 0, EvictionRunEvent.NULL );
+
+            assertPages( pagedFile, 10, 100 );
+        }
+    }
+
+    @Test
+    void compressedTierMustForgetPagesOfUnmappedFiles() throws IOException
+    {
+        try ( MuninnPageCache pageCache = createPageCacheWithCompressedTier( 20, PageCacheTracer.NULL ) )
+        {
+            Path file = existingFile( "a" );
+            try ( PagedFile pagedFile = map( pageCache, file, pageCache.pageSize() ) )
+            {
+                writePages( pagedFile, 10 );
+                pageCache.evictPages( 10, 0, EvictionRunEvent.NULL );
+                assertThat( pageCache.compressedTier.pageCount() ).isEqualTo( 10 );
+            }
+            assertThat( pageCache.compressedTier.pageCount() ).isZero();
+
+            try ( StoreChannel channel = fs.write( file ) )
+            {
+                ByteBuffer buffer = ByteBuffers.allocate( Integer.BYTES, INSTANCE );
+                buffer.putInt( 42 ).flip();
+                channel.writeAll( buffer, 0 );
+            }
+            try ( PagedFile pagedFile = map( pageCache, file, pageCache.pageSize() );
+                  PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK, NULL ) )
+            {
+                assertTrue( cursor.next() );
+                assertEquals( 42, cursor.getInt() );
+            }
+        }
+    }
+
+    @Test
+    void compressedTierMustNotKeepPagesThatDoNotCompress() throws IOException
+    {
+        try ( MuninnPageCache pageCache = createPageCacheWithCompressedTier( 20, PageCacheTracer.NULL );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            byte[] bytes = new byte[pageCache.pageSize()];
+            ThreadLocalRandom.current().nextBytes( bytes );
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+            {
+                assertTrue( cursor.next() );
+                cursor.putBytes( bytes );
+            }
+            pageCache.evictPages( 1, 0, EvictionRunEvent.NULL );
+            assertThat( pageCache.compressedTier.pageCount() ).isZero();
+
+            byte[] read = new byte[bytes.length];
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK, NULL ) )
+            {
+                assertTrue( cursor.next() );
+                cursor.getBytes( read );
+            }
+            assertThat( read ).isEqualTo( bytes );
+        }
+    }
+
+    @Test
+    void closeMustWaitForTheEvictionThreadBeforeFreeingTheCompressedTier() throws Exception
+    {
+        EvictionBlockingTracer tracer = new EvictionBlockingTracer();
+        MuninnPageCache.Configuration configuration = MuninnPageCache.config( 20 )
+                .compressedTierSize( ByteUnit.mebiBytes( 4 ) )
+                .pageCacheTracer( tracer );
+        MuninnPageCache pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs ), jobScheduler, configuration );
+        try ( PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, 40 );
+            tracer.evictionStarted.await();
+        }
+
+        tracer.blockEviction = true;
+        Future<?> closing = executor.submit( pageCache::close );
+        tracer.evictionBlocked.await();
+        assertThrows( TimeoutException.class, () -> closing.get( 100, MILLISECONDS ) );
+
+        tracer.releaseEviction.countDown();
+        closing.get();
+    }
+
+    @Test
+    void requestedPagesMustBeLoadedInTheBackground() throws IOException
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        MuninnPageCache.Configuration configuration = MuninnPageCache.config( 20 ).pageCacheTracer( tracer ).disableEvictionThread();
+        try ( MuninnPageCache pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs ), jobScheduler, configuration );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, 10 );
+            pageCache.evictPages( 10, 0, EvictionRunEvent.NULL );
+
+            PageLoad pageLoad = pagedFile.requestPages( new long[]{7, 2, 3, 2, 42, 0}, NULL );
+            pageLoad.await();
+
+            assertTrue( pageLoad.isDone() );
+            assertThat( pagedFile.residentPages() ).isEqualTo( 4 );
+            long faults = tracer.faults();
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK, NULL ) )
+            {
+                for ( long pageId : new long[]{0, 2, 3, 7} )
+                {
+                    assertTrue( cursor.next( pageId ) );
+                    assertEquals( pageId, cursor.getInt() );
+                }
+            }
+            assertThat( tracer.faults() ).isEqualTo( faults );
+        }
+    }
+
+    @Test
+    void pagesRequestedByManyThreadsMustAllBeLoaded() throws Exception
+    {
+        try ( MuninnPageCache pageCache = createPageCacheWithoutEvictionThread( 200 );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, 100 );
+            pageCache.evictPages( 100, 0, EvictionRunEvent.NULL );
+
+            List<Future<?>> requests = new ArrayList<>();
+            for ( int thread = 0; thread < 10; thread++ )
+            {
+                long[] filePageIds = new long[10];
+                for ( int i = 0; i < filePageIds.length; i++ )
+                {
+                    filePageIds[i] = i * 10 + thread;
+                }
+                requests.add( executor.submit( () ->
+                {
+                    pagedFile.requestPages( filePageIds, NULL ).await();
+                    return null;
+                } ) );
+            }
+            for ( Future<?> request : requests )
+            {
+                request.get();
+            }
+
+            assertThat( pagedFile.residentPages() ).isEqualTo( 100 );
+        }
+    }
+
+    @Test
+    void requestingPagesOfUnmappedFileMustFail() throws IOException
+    {
+        try ( MuninnPageCache pageCache = createPageCacheWithoutEvictionThread( 20 ) )
+        {
+            PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() );
+            pagedFile.close();
+
+            assertThrows( FileIsNotMappedException.class, () -> pagedFile.requestPages( new long[]{0}, NULL ) );
+        }
+    }
+
+    @Test
+    void requestedPagesMustBeLoadedByRequestingThreadWithoutPageLoadWorkers() throws IOException
+    {
+        MuninnPageCache.Configuration configuration = MuninnPageCache.config( 20 ).pageLoadWorkers( 0 ).disableEvictionThread();
+        try ( MuninnPageCache pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs ), jobScheduler, configuration );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, 10 );
+            pageCache.evictPages( 10, 0, EvictionRunEvent.NULL );
+
+            PageLoad pageLoad = pagedFile.requestPages( new long[]{1, 5}, NULL );
+
+            assertTrue( pageLoad.isDone() );
+            assertThat( pagedFile.residentPages() ).isEqualTo( 2 );
+        }
+    }
+
+    @Test
+    void touchMustOnlyCountThePagesItLoaded() throws IOException
+    {
+        try ( MuninnPageCache pageCache = createPageCacheWithoutEvictionThread( 20 );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, 10 );
+            pageCache.evictPages( 10, 0, EvictionRunEvent.NULL );
+            readPages( pagedFile, 3, 6 );
+
+            // pages 3 and 6 are in memory already, and pages 10 and 11 are past the end of the file
+            assertThat( pagedFile.touch( 2, 10, NULL ) ).isEqualTo( 6 );
+            assertThat( pagedFile.residentPages() ).isEqualTo( 8 );
+            assertThat( pagedFile.touch( 0, 10, NULL ) ).isEqualTo( 2 );
+            assertThat( pagedFile.touch( 0, 10, NULL ) ).isZero();
+        }
+    }
+
+    @Test
+    void vectoredReadAheadMustReadRunsOfPagesThatAreNotInMemory() throws IOException
+    {
+        VectoredReadSwapperFactory swapperFactory = new VectoredReadSwapperFactory();
+        try ( MuninnPageCache pageCache = createPageCacheWithVectoredReadSwapper( swapperFactory, 512 );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, 10 );
+            pageCache.evictPages( 10, 0, EvictionRunEvent.NULL );
+            readPages( pagedFile, 3, 6 );
+            swapperFactory.reads.clear();
+
+            VectoredReadAhead readAhead = new VectoredReadAhead( (MuninnPagedFile) pagedFile );
+            assertTrue( readAhead.read( 0, 10, PageCursorTracer.NULL ) );
+
+            assertThat( swapperFactory.reads ).containsExactly( "0+3", "4+2", "7+3" );
+            assertThat( pagedFile.residentPages() ).isEqualTo( 10 );
+            assertPageContents( pagedFile, 10 );
+        }
+    }
+
+    @Test
+    void vectoredReadAheadMustNotReadMoreThanRunCapacityPagesAtOnce() throws IOException
+    {
+        VectoredReadSwapperFactory swapperFactory = new VectoredReadSwapperFactory();
+        try ( MuninnPageCache pageCache = createPageCacheWithVectoredReadSwapper( swapperFactory, 64 );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, 10 );
+            pageCache.evictPages( 10, 0, EvictionRunEvent.NULL );
+            swapperFactory.reads.clear();
+
+            assertThat( VectoredReadAhead.runCapacity( pageCache ) ).isEqualTo( 4 );
+            assertTrue( new VectoredReadAhead( (MuninnPagedFile) pagedFile ).read( 0, 10, PageCursorTracer.NULL ) );
+
+            assertThat( swapperFactory.reads ).containsExactly( "0+4", "4+4", "8+2" );
+        }
+    }
+
+    @Test
+    void vectoredReadAheadMustStopAtTheEndOfTheFile() throws IOException
+    {
+        VectoredReadSwapperFactory swapperFactory = new VectoredReadSwapperFactory();
+        try ( MuninnPageCache pageCache = createPageCacheWithVectoredReadSwapper( swapperFactory, 512 );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, 10 );
+            pageCache.evictPages( 10, 0, EvictionRunEvent.NULL );
+            swapperFactory.reads.clear();
+
+            assertFalse( new VectoredReadAhead( (MuninnPagedFile) pagedFile ).read( 8, 15, PageCursorTracer.NULL ) );
+
+            assertThat( swapperFactory.reads ).containsExactly( "8+2" );
+            assertThat( pagedFile.getLastPageId() ).isEqualTo( 9 );
+        }
+    }
+
+    @Test
+    void vectoredReadAheadMustSkipPagesThatOtherThreadsAreFaultingIn() throws IOException
+    {
+        VectoredReadSwapperFactory swapperFactory = new VectoredReadSwapperFactory();
+        try ( MuninnPageCache pageCache = createPageCacheWithVectoredReadSwapper( swapperFactory, 512 );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, 10 );
+            pageCache.evictPages( 10, 0, EvictionRunEvent.NULL );
+            swapperFactory.reads.clear();
+
+            LatchMap.Latch latch = ((MuninnPagedFile) pagedFile).pageFaultLatches.takeOrAwaitLatch( 5 );
+            try
+            {
+                assertTrue( new VectoredReadAhead( (MuninnPagedFile) pagedFile ).read( 0, 10, PageCursorTracer.NULL ) );
+            }
+            finally
+            {
+                latch.release();
+            }
+
+            assertThat( swapperFactory.reads ).containsExactly( "0+5", "6+4" );
+            assertThat( pagedFile.residentPages() ).isEqualTo( 9 );
+        }
+    }
+
+    @Test
+    void failedVectoredReadMustReleaseLatchesAndPages() throws IOException
+    {
+        VectoredReadSwapperFactory swapperFactory = new VectoredReadSwapperFactory();
+        // large enough for the five pages to be read with one vectored read
+        int maxPages = 80;
+        try ( MuninnPageCache pageCache = createPageCacheWithVectoredReadSwapper( swapperFactory, maxPages );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, maxPages );
+            pageCache.evictPages( maxPages, 0, EvictionRunEvent.NULL );
+            // the first page of every vectored read is read, and then the read fails
+            swapperFactory.reads.clear();
+            swapperFactory.failVectoredReads = true;
+
+            MuninnPagedFile muninnPagedFile = (MuninnPagedFile) pagedFile;
+            assertThrows( IOException.class, () -> new VectoredReadAhead( muninnPagedFile ).read( 0, 5, PageCursorTracer.NULL ) );
+            assertThat( swapperFactory.reads ).containsExactly( "0+5" );
+
+            for ( long filePageId = 0; filePageId < 5; filePageId++ )
+            {
+                LatchMap.Latch latch = muninnPagedFile.pageFaultLatches.tryTakeLatch( filePageId );
+                assertNotNull( latch );
+                latch.release();
+            }
+            assertThat( pagedFile.residentPages() ).isZero();
+            // the whole cache can still be filled, so none of the pages of the failed read is stuck locked, or lost to the freelist
+            assertPageContents( pagedFile, maxPages );
+        }
+    }
+
+    @Test
+    void failedReadAheadOfCursorMustNotFailTheCursor() throws IOException
+    {
+        VectoredReadSwapperFactory swapperFactory = new VectoredReadSwapperFactory();
+        try ( MuninnPageCache pageCache = createPageCacheWithVectoredReadSwapper( swapperFactory, 64 );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, 40 );
+            pageCache.evictPages( 40, 0, EvictionRunEvent.NULL );
+            swapperFactory.failVectoredReads = true;
+
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD, NULL ) )
+            {
+                for ( int i = 0; i < 40; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    int value;
+                    do
+                    {
+                        value = cursor.getInt();
+                    }
+                    while ( cursor.shouldRetry() );
+                    assertEquals( i, value );
+                }
+            }
+        }
+    }
+
+    @Test
+    void vectoredReadAheadFailingPartwayMustKeepTheRunsThatWereRead() throws IOException
+    {
+        VectoredReadSwapperFactory swapperFactory = new VectoredReadSwapperFactory();
+        try ( MuninnPageCache pageCache = createPageCacheWithVectoredReadSwapper( swapperFactory, 64 );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, 10 );
+            pageCache.evictPages( 10, 0, EvictionRunEvent.NULL );
+            swapperFactory.reads.clear();
+            swapperFactory.failVectoredReadsAfter = 1;
+
+            MuninnPagedFile muninnPagedFile = (MuninnPagedFile) pagedFile;
+            VectoredReadAhead readAhead = new VectoredReadAhead( muninnPagedFile );
+            assertThrows( IOException.class, () -> readAhead.read( 0, 10, PageCursorTracer.NULL ) );
+
+            assertThat( swapperFactory.reads ).containsExactly( "0+4", "4+4" );
+            assertThat( readAhead.pagesRead() ).isEqualTo( 4 );
+            assertThat( pagedFile.residentPages() ).isEqualTo( 4 );
+            for ( long filePageId = 4; filePageId < 10; filePageId++ )
+            {
+                LatchMap.Latch latch = muninnPagedFile.pageFaultLatches.tryTakeLatch( filePageId );
+                assertNotNull( latch );
+                latch.release();
+            }
+            swapperFactory.failVectoredReadsAfter = Integer.MAX_VALUE;
+            assertPageContents( pagedFile, 10 );
+        }
+    }
+
+    @Test
+    void vectoredReadAheadMustSkipPagesThatAreLockedInsideTheRun() throws IOException
+    {
+        VectoredReadSwapperFactory swapperFactory = new VectoredReadSwapperFactory();
+        try ( MuninnPageCache pageCache = createPageCacheWithVectoredReadSwapper( swapperFactory, 512 );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, 10 );
+            pageCache.evictPages( 10, 0, EvictionRunEvent.NULL );
+            readPages( pagedFile, 2 );
+            swapperFactory.reads.clear();
+
+            try ( PageCursor writer = pagedFile.io( 5, PF_SHARED_WRITE_LOCK, NULL ) )
+            {
+                assertTrue( writer.next() );
+                VectoredReadAhead readAhead = new VectoredReadAhead( (MuninnPagedFile) pagedFile );
+                assertTimeoutPreemptively( ofMillis( 10_000 ), () -> assertTrue( readAhead.read( 0, 10, PageCursorTracer.NULL ) ) );
+                assertThat( readAhead.pagesRead() ).isEqualTo( 8 );
+            }
+
+            assertThat( swapperFactory.reads ).containsExactly( "0+2", "3+2", "6+4" );
+            assertPageContents( pagedFile, 10 );
+        }
+    }
+
+    @Test
+    void pageLoaderMustNotRunMoreWorkersThanItsBound() throws IOException
+    {
+        CapturingJobScheduler scheduler = new CapturingJobScheduler();
+        PageLoader pageLoader = new PageLoader( scheduler, PageCacheTracer.NULL, 2 );
+        try ( MuninnPageCache pageCache = createPageCacheWithoutEvictionThread( 40 );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, 10 );
+            pageCache.evictPages( 10, 0, EvictionRunEvent.NULL );
+
+            List<PageLoad> pageLoads = new ArrayList<>();
+            for ( long filePageId = 0; filePageId < 5; filePageId++ )
+            {
+                pageLoads.add( pageLoader.request( (MuninnPagedFile) pagedFile, new long[]{filePageId, filePageId + 5} ) );
+            }
+            assertThat( scheduler.jobs ).hasSize( 2 );
+            assertThat( pageLoads ).noneMatch( PageLoad::isDone );
+
+            // one worker takes all the waiting requests as one batch, and the other finds nothing left to do
+            scheduler.jobs.get( 0 ).run();
+            assertThat( pageLoads ).allMatch( PageLoad::isDone );
+            scheduler.jobs.get( 1 ).run();
+            for ( PageLoad pageLoad : pageLoads )
+            {
+                pageLoad.await();
+            }
+            assertThat( pagedFile.residentPages() ).isEqualTo( 10 );
+
+            // the workers that stopped no longer count against the bound
+            pageLoader.request( (MuninnPagedFile) pagedFile, new long[]{0} );
+            assertThat( scheduler.jobs ).hasSize( 3 );
+        }
+        finally
+        {
+            pageLoader.close();
+        }
+    }
+
+    @Test
+    void pageLoaderMustSkipPagesThatAreLoadedOrBeingFaultedIn() throws IOException
+    {
+        VectoredReadSwapperFactory swapperFactory = new VectoredReadSwapperFactory();
+        CapturingJobScheduler scheduler = new CapturingJobScheduler();
+        PageLoader pageLoader = new PageLoader( scheduler, PageCacheTracer.NULL, 1 );
+        try ( MuninnPageCache pageCache = createPageCacheWithVectoredReadSwapper( swapperFactory, 512 );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, 10 );
+            pageCache.evictPages( 10, 0, EvictionRunEvent.NULL );
+            readPages( pagedFile, 2 );
+            swapperFactory.reads.clear();
+
+            PageLoad pageLoad = pageLoader.request( (MuninnPagedFile) pagedFile, new long[]{0, 1, 2, 3, 4, 5} );
+            LatchMap.Latch latch = ((MuninnPagedFile) pagedFile).pageFaultLatches.takeOrAwaitLatch( 4 );
+            try
+            {
+                scheduler.jobs.get( 0 ).run();
+            }
+            finally
+            {
+                latch.release();
+            }
+            pageLoad.await();
+
+            assertThat( swapperFactory.reads ).containsExactly( "0+2", "3+1", "5+1" );
+            assertThat( pagedFile.residentPages() ).isEqualTo( 5 );
+        }
+        finally
+        {
+            pageLoader.close();
+        }
+    }
+
+    @Test
+    void pageLoaderMustFailRequestsOfFailedRunAndKeepLoadingLaterRequests() throws IOException
+    {
+        VectoredReadSwapperFactory swapperFactory = new VectoredReadSwapperFactory();
+        CapturingJobScheduler scheduler = new CapturingJobScheduler();
+        PageLoader pageLoader = new PageLoader( scheduler, PageCacheTracer.NULL, 1 );
+        try ( MuninnPageCache pageCache = createPageCacheWithVectoredReadSwapper( swapperFactory, 64 );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, 10 );
+            pageCache.evictPages( 10, 0, EvictionRunEvent.NULL );
+            swapperFactory.reads.clear();
+            swapperFactory.failVectoredReadsAfter = 1;
+
+            PageLoad failing = pageLoader.request( (MuninnPagedFile) pagedFile, new long[]{0, 1, 2, 3, 6, 7} );
+            scheduler.jobs.get( 0 ).run();
+
+            assertTrue( failing.isDone() );
+            assertThrows( IOException.class, failing::await );
+            assertThat( swapperFactory.reads ).containsExactly( "0+4", "6+2" );
+            assertThat( pagedFile.residentPages() ).isEqualTo( 4 );
+
+            swapperFactory.failVectoredReadsAfter = Integer.MAX_VALUE;
+            PageLoad pageLoad = pageLoader.request( (MuninnPagedFile) pagedFile, new long[]{6, 7} );
+            scheduler.jobs.get( 1 ).run();
+            pageLoad.await();
+            assertThat( pagedFile.residentPages() ).isEqualTo( 6 );
+        }
+        finally
+        {
+            pageLoader.close();
+        }
+    }
+
+    @Test
+    void pageLoaderMustFailRequestsThatAreWaitingOrComeInWhenClosed() throws IOException
+    {
+        CapturingJobScheduler scheduler = new CapturingJobScheduler();
+        PageLoader pageLoader = new PageLoader( scheduler, PageCacheTracer.NULL, 1 );
+        try ( MuninnPageCache pageCache = createPageCacheWithoutEvictionThread( 40 );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, 10 );
+            pageCache.evictPages( 10, 0, EvictionRunEvent.NULL );
+
+            PageLoad waiting = pageLoader.request( (MuninnPagedFile) pagedFile, new long[]{0, 1} );
+            pageLoader.close();
+            PageLoad late = pageLoader.request( (MuninnPagedFile) pagedFile, new long[]{2} );
+            scheduler.jobs.get( 0 ).run();
+
+            assertThat( scheduler.jobs ).hasSize( 1 );
+            assertThrows( IOException.class, waiting::await );
+            assertThrows( IOException.class, late::await );
+            assertThat( pagedFile.residentPages() ).isZero();
+        }
+    }
+
+    @Test
+    void pageLoaderMustFailRequestsThatNoWorkerCanBeScheduledFor() throws IOException
+    {
+        CapturingJobScheduler scheduler = new CapturingJobScheduler();
+        scheduler.reject = true;
+        PageLoader pageLoader = new PageLoader( scheduler, PageCacheTracer.NULL, 1 );
+        try ( MuninnPageCache pageCache = createPageCacheWithoutEvictionThread( 40 );
+              PagedFile pagedFile = map( pageCache, existingFile( "a" ), pageCache.pageSize() ) )
+        {
+            writePages( pagedFile, 10 );
+            pageCache.evictPages( 10, 0, EvictionRunEvent.NULL );
+
+            PageLoad rejected = pageLoader.request( (MuninnPagedFile) pagedFile, new long[]{0} );
+            assertThrows( IOException.class, rejected::await );
+
+            // the rejected worker does not count against the bound
+            scheduler.reject = false;
+            PageLoad pageLoad = pageLoader.request( (MuninnPagedFile) pagedFile, new long[]{0} );
+            scheduler.jobs.get( 0 ).run();
+            pageLoad.await();
+            assertThat( pagedFile.residentPages() ).isOne();
+        }
+        finally
+        {
+            pageLoader.close();
+        }
+    }
+
+    private MuninnPageCache createPageCacheWithCompressedTier( int maxPages, PageCacheTracer tracer )
+    {
+        MuninnPageCache.Configuration configuration = MuninnPageCache.config( maxPages )
+                .compressedTierSize( ByteUnit.mebiBytes( 4 ) )
+                .pageCacheTracer( tracer )
+                .disableEvictionThread();
+        return new MuninnPageCache( new SingleFilePageSwapperFactory( fs ), jobScheduler, configuration );
+    }
+
+    private static void assertPages( PagedFile pagedFile, int pages, int firstValue ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK, NULL ) )
+        {
+            for ( int i = 0; i < pages; i++ )
+            {
+                assertTrue( cursor.next() );
+                int value;
+                do
+                {
+                    value = cursor.getInt( 0 );
+                }
+                while ( cursor.shouldRetry() );
+                assertEquals( firstValue + i, value );
+            }
+        }
+    }
+
+    private MuninnPageCache createPageCacheWithoutEvictionThread( int maxPages )
+    {
+        MuninnPageCache.Configuration configuration = MuninnPageCache.config( maxPages ).disableEvictionThread();
+        return new MuninnPageCache( new SingleFilePageSwapperFactory( fs ), jobScheduler, configuration );
+    }
+
+    private MuninnPageCache createPageCacheWithVectoredReadSwapper( VectoredReadSwapperFactory swapperFactory, int maxPages )
+    {
+        return new MuninnPageCache( swapperFactory, jobScheduler, MuninnPageCache.config( maxPages ).disableEvictionThread() );
+    }
+
+    private static void readPages( PagedFile pagedFile, long... filePageIds ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK, NULL ) )
+        {
+            for ( long filePageId : filePageIds )
+            {
+                assertTrue( cursor.next( filePageId ) );
+            }
+        }
+    }
+
+    private static void assertPageContents( PagedFile pagedFile, int pages ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK, NULL ) )
+        {
+            for ( int i = 0; i < pages; i++ )
+            {
+                assertTrue( cursor.next() );
+                int value;
+                do
+                {
+                    value = cursor.getInt();
+                }
+                while ( cursor.shouldRetry() );
+                assertEquals( i, value );
+            }
+        }
+    }
+
+    private static void writePages( PagedFile pagedFile, int pages ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+        {
+            for ( int i = 0; i < pages; i++ )
+            {
+                assertTrue( cursor.next() );
+                cursor.putInt( i );
+            }
+        }
+    }
+
+    private static class EvictionBlockingTracer extends DefaultPageCacheTracer
+    {
+        private final CountDownLatch evictionStarted = new CountDownLatch( 1 );
+        private final CountDownLatch evictionBlocked = new CountDownLatch( 1 );
+        private final CountDownLatch releaseEviction = new CountDownLatch( 1 );
+        private volatile boolean blockEviction;
+
+        @Override
+        public EvictionRunEvent beginPageEvictions( int expectedEvictions )
+        {
+            evictionStarted.countDown();
+            if ( blockEviction )
+            {
+                evictionBlocked.countDown();
+                // the page cache interrupts the eviction thread when it is closed
+                while ( releaseEviction.getCount() > 0 )
+                {
+                    parkNanos( MILLISECONDS.toNanos( 1 ) );
+                }
+            }
+            return super.beginPageEvictions( expectedEvictions );
+        }
+    }
+
+    private static class ConcurrentFlushTracer extends DefaultPageCacheTracer
+    {
+        private final AtomicInteger concurrentFlushes = new AtomicInteger();
+        private final AtomicInteger maxConcurrentFlushes = new AtomicInteger();
+
+        @Override
+        public MajorFlushEvent beginFileFlush( PageSwapper swapper )
+        {
+            maxConcurrentFlushes.accumulateAndGet( concurrentFlushes.incrementAndGet(), Math::max );
+            parkNanos( MILLISECONDS.toNanos( 50 ) );
+            concurrentFlushes.decrementAndGet();
+            return super.beginFileFlush( swapper );
+        }
+    }
+
     private static class FlushRendezvousTracer extends DefaultPageCacheTracer
     {
         private final CountDownLatch latch;
@@ -1656,6 +2552,63 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         }
     }
 
+    /**
+     * Records the vectored reads of its swappers as "startFilePageId+length", and can make them fail after reading their first page.
+     */
+    private class VectoredReadSwapperFactory extends SingleFilePageSwapperFactory
+    {
+        final List<String> reads = new CopyOnWriteArrayList<>();
+        volatile boolean failVectoredReads;
+        volatile int failVectoredReadsAfter = Integer.MAX_VALUE;
+
+        VectoredReadSwapperFactory()
+        {
+            super( MuninnPageCacheTest.this.fs );
+        }
+
+        @Override
+        public PageSwapper createPageSwapper( Path file, int filePageSize, PageEvictionCallback onEviction, boolean createIfNotExist, boolean useDirectIO,
+                boolean preallocateStoreFiles, IOController ioController, SwapperSet swappers ) throws IOException
+        {
+            return new DelegatingPageSwapper(
+                    super.createPageSwapper( file, filePageSize, onEviction, createIfNotExist, useDirectIO, preallocateStoreFiles, ioController, swappers ) )
+            {
+                @Override
+                public long read( long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length ) throws IOException
+                {
+                    reads.add( startFilePageId + "+" + length );
+                    if ( failVectoredReads )
+                    {
+                        super.read( startFilePageId, bufferAddresses[0], bufferLengths[0] );
+                        throw new IOException( "Failed vectored read of " + length + " pages from " + startFilePageId );
+                    }
+                    if ( reads.size() > failVectoredReadsAfter )
+                    {
+                        throw new IOException( "Failed vectored read of " + length + " pages from " + startFilePageId );
+                    }
+                    return super.read( startFilePageId, bufferAddresses, bufferLengths, length );
+                }
+            };
+        }
+    }
+
+    private static class CapturingJobScheduler extends JobSchedulerAdapter
+    {
+        final List<Runnable> jobs = new CopyOnWriteArrayList<>();
+        volatile boolean reject;
+
+        @Override
+        public JobHandle<?> schedule( Group group, JobMonitoringParams monitoredJobParams, Runnable job )
+        {
+            if ( reject )
+            {
+                throw new RejectedExecutionException( "Rejected " + monitoredJobParams );
+            }
+            jobs.add( job );
+            return JobHandle.EMPTY;
+        }
+    }
+
     private class MultiChunkSwapperFilePageSwapperFactory extends SingleFilePageSwapperFactory
     {
         MultiChunkSwapperFilePageSwapperFactory()
@@ -41,6 +41,7 @@ import java.util.stream.Stream;
 
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.DelegatingPageSwapper;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.tracing.DummyPageSwapper;
@@ -1749,6 +1750,105 @@ public class PageListTest
         assertTrue( pageList.isBoundTo( pageRef, swapperId, filePageId ) );
     }
 
+    @ParameterizedTest( name = "pageRef = {0}" )
+    @MethodSource( "argumentsProvider" )
+    public void faultRunMustReadAndBindAllPagesOfTheRun( int pageId ) throws Exception
+    {
+        init( pageId );
+
+        int swapperId = 1;
+        long startFilePageId = 42;
+        List<Long> reads = new ArrayList<>();
+        PageSwapper swapper = new DummyPageSwapper( "some file", pageSize )
+        {
+            @Override
+            public long read( long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length )
+            {
+                for ( int i = 0; i < length; i++ )
+                {
+                    UnsafeUtil.setMemory( bufferAddresses[i], bufferLengths[i], (byte) (startFilePageId + i) );
+                }
+                reads.add( startFilePageId );
+                return (long) length * pageSize;
+            }
+        };
+        long[] pageRefs = {pageRef, nextPageRef};
+        pageList.initBuffer( pageRef );
+        pageList.initBuffer( nextPageRef );
+
+        long bytesRead = pageList.faultRun( pageRefs, 2, swapper, swapperId, startFilePageId, new long[2], new int[]{pageSize, pageSize} );
+
+        assertThat( bytesRead ).isEqualTo( 2L * pageSize );
+        assertThat( reads ).containsExactly( startFilePageId );
+        for ( int i = 0; i < pageRefs.length; i++ )
+        {
+            assertTrue( pageList.isBoundTo( pageRefs[i], swapperId, startFilePageId + i ) );
+            assertThat( UnsafeUtil.getByte( pageList.getAddress( pageRefs[i] ) ) ).isEqualTo( (byte) (startFilePageId + i) );
+            // the pages stay exclusively locked until the caller publishes them
+            assertTrue( pageList.isExclusivelyLocked( pageRefs[i] ) );
+        }
+    }
+
+    @ParameterizedTest( name = "pageRef = {0}" )
+    @MethodSource( "argumentsProvider" )
+    public void faultRunMustNotReadIfAnyPageOfTheRunIsBound( int pageId ) throws Exception
+    {
+        init( pageId );
+
+        pageList.initBuffer( pageRef );
+        pageList.initBuffer( nextPageRef );
+        pageList.fault( nextPageRef, DUMMY_SWAPPER, 1, 7, PageFaultEvent.NULL );
+        AtomicBoolean read = new AtomicBoolean();
+        PageSwapper swapper = new DummyPageSwapper( "some file", pageSize )
+        {
+            @Override
+            public long read( long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length )
+            {
+                read.set( true );
+                return 0;
+            }
+        };
+
+        assertThrows( IllegalStateException.class,
+                () -> pageList.faultRun( new long[]{pageRef, nextPageRef}, 2, swapper, 1, 42, new long[2], new int[]{pageSize, pageSize} ) );
+
+        assertFalse( read.get() );
+        assertFalse( PageList.isLoaded( pageRef ) );
+        assertTrue( pageList.isBoundTo( nextPageRef, 1, 7 ) );
+    }
+
+    @ParameterizedTest( name = "pageRef = {0}" )
+    @MethodSource( "argumentsProvider" )
+    public void failedFaultRunMustLeavePagesLoadedButNotBound( int pageId ) throws Exception
+    {
+        init( pageId );
+
+        int swapperId = 1;
+        long startFilePageId = 42;
+        PageSwapper swapper = new DelegatingPageSwapper( DUMMY_SWAPPER )
+        {
+            @Override
+            public long read( long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length ) throws IOException
+            {
+                throw new IOException( "boom" );
+            }
+        };
+        long[] pageRefs = {pageRef, nextPageRef};
+        pageList.initBuffer( pageRef );
+        pageList.initBuffer( nextPageRef );
+
+        assertThrows( IOException.class,
+                () -> pageList.faultRun( pageRefs, 2, swapper, swapperId, startFilePageId, new long[2], new int[]{pageSize, pageSize} ) );
+
+        for ( int i = 0; i < pageRefs.length; i++ )
+        {
+            // like after a failed page fault, the pages are left for eviction, but no cursor will consider them bound to the file pages
+            assertTrue( PageList.isLoaded( pageRefs[i] ) );
+            assertFalse( pageList.isBoundTo( pageRefs[i], swapperId, startFilePageId + i ) );
+            assertThat( pageList.getSwapperId( pageRefs[i] ) ).isZero();
+        }
+    }
+
     @ParameterizedTest( name = "pageRef = {0}" )
     @MethodSource( "argumentsProvider" )
     public void pageWith5BytesFilePageIdMustBeLoadedAndBoundAfterFault( int pageId ) throws Exception
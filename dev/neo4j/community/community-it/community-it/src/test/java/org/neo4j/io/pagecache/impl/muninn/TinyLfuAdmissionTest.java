@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.tracing.DummyPageSwapper;
+import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.test.scheduler.DaemonThreadFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.io.ByteUnit.MebiByte;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+class TinyLfuAdmissionTest
+{
+    private static final int PAGE_COUNT = 10;
+    private static final int SWAPPER_ID = 1;
+
+    private final DummyPageSwapper swapper = new DummyPageSwapper( "file", UnsafeUtil.pageSize() );
+    private MemoryAllocator mman;
+    private PageList pageList;
+
+    @BeforeEach
+    void setUp()
+    {
+        mman = MemoryAllocator.createAllocator( MebiByte.toBytes( 1 ), EmptyMemoryTracker.INSTANCE );
+        int pageSize = UnsafeUtil.pageSize();
+        pageList = new PageList( PAGE_COUNT, pageSize, mman, new SwapperSet(), VictimPageReference.getVictimPage( pageSize, INSTANCE ), 8 );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        mman.close();
+    }
+
+    @Test
+    void pagesFaultedInOnceMustBeEvictedOldestFirst() throws Exception
+    {
+        TinyLfuAdmission admission = new TinyLfuAdmission( PAGE_COUNT, 1 );
+        for ( int pageId = 0; pageId < 4; pageId++ )
+        {
+            admission.pageFaulted( fault( pageId, 100 + pageId ) );
+        }
+
+        assertThat( admission.pollVictim() ).isEqualTo( pageList.deref( 0 ) );
+        assertThat( admission.pollVictim() ).isEqualTo( pageList.deref( 1 ) );
+        assertThat( admission.pollVictim() ).isEqualTo( pageList.deref( 2 ) );
+        // the most recently faulted page is protected
+        assertThat( admission.pollVictim() ).isZero();
+    }
+
+    @Test
+    void filePagesFaultedInRecentlyMustBeAdmitted() throws Exception
+    {
+        TinyLfuAdmission admission = new TinyLfuAdmission( PAGE_COUNT, 1 );
+        // file page 100 is faulted in twice, as if it was evicted in between
+        admission.pageFaulted( fault( 0, 100 ) );
+        admission.pageFaulted( fault( 1, 100 ) );
+        admission.pageFaulted( fault( 2, 101 ) );
+        admission.pageFaulted( fault( 3, 102 ) );
+
+        // the first fault of file page 100 went on probation, the second one did not
+        assertThat( admission.pollVictim() ).isEqualTo( pageList.deref( 0 ) );
+        assertThat( admission.pollVictim() ).isEqualTo( pageList.deref( 2 ) );
+        assertThat( admission.pollVictim() ).isZero();
+    }
+
+    @Test
+    void pagesUsedMoreThanAScanMustBeLeftToTheClock() throws Exception
+    {
+        TinyLfuAdmission admission = new TinyLfuAdmission( PAGE_COUNT, 1 );
+        long usedPage = fault( 0, 100 );
+        admission.pageFaulted( usedPage );
+        admission.pageFaulted( fault( 1, 101 ) );
+        admission.pageFaulted( fault( 2, 102 ) );
+        for ( int i = 0; i < 3; i++ )
+        {
+            PageList.incrementUsage( usedPage );
+        }
+
+        assertThat( admission.pollVictim() ).isEqualTo( pageList.deref( 1 ) );
+        assertThat( admission.pollVictim() ).isZero();
+    }
+
+    @Test
+    void pagesMustNotBeLostWhenManyFaultsAreBuffered() throws Exception
+    {
+        TinyLfuAdmission admission = new TinyLfuAdmission( PAGE_COUNT, 1 );
+        long pageRef = fault( 0, 100 );
+        // more faults than a fault buffer holds, without anything polling in between
+        for ( int i = 0; i < 1000; i++ )
+        {
+            admission.pageFaulted( pageRef );
+        }
+        admission.pageFaulted( fault( 1, 101 ) );
+
+        // the page was only on probation for its first fault, and the window does not grow beyond the cache
+        assertThat( admission.pollVictim() ).isEqualTo( pageRef );
+        assertThat( admission.pollVictim() ).isZero();
+    }
+
+    @Test
+    void concurrentFaultsAndPollsMustOnlyReturnFaultedPages() throws Exception
+    {
+        TinyLfuAdmission admission = new TinyLfuAdmission( PAGE_COUNT, 4 );
+        long[] pageRefs = new long[PAGE_COUNT];
+        Set<Long> faulted = new HashSet<>();
+        for ( int pageId = 0; pageId < PAGE_COUNT; pageId++ )
+        {
+            pageRefs[pageId] = fault( pageId, 100 + pageId );
+            faulted.add( pageRefs[pageId] );
+        }
+        ExecutorService executor = Executors.newCachedThreadPool( new DaemonThreadFactory() );
+        AtomicBoolean stop = new AtomicBoolean();
+        try
+        {
+            List<Future<?>> faulters = new ArrayList<>();
+            for ( int thread = 0; thread < 4; thread++ )
+            {
+                int offset = thread;
+                faulters.add( executor.submit( () ->
+                {
+                    for ( int i = 0; i < 100_000; i++ )
+                    {
+                        admission.pageFaulted( pageRefs[(offset + i) % PAGE_COUNT] );
+                    }
+                } ) );
+            }
+            Future<Set<Long>> poller = executor.submit( () ->
+            {
+                Set<Long> victims = new HashSet<>();
+                while ( !stop.get() )
+                {
+                    long victim = admission.pollVictim();
+                    if ( victim != 0 )
+                    {
+                        victims.add( victim );
+                    }
+                }
+                return victims;
+            } );
+            for ( Future<?> faulter : faulters )
+            {
+                faulter.get();
+            }
+            stop.set( true );
+
+            assertThat( faulted ).containsAll( poller.get() );
+        }
+        finally
+        {
+            stop.set( true );
+            executor.shutdown();
+        }
+    }
+
+    private long fault( int pageId, long filePageId ) throws Exception
+    {
+        long pageRef = pageList.deref( pageId );
+        pageList.initBuffer( pageRef );
+        pageList.fault( pageRef, swapper, SWAPPER_ID, filePageId, PageFaultEvent.NULL );
+        return pageRef;
+    }
+}
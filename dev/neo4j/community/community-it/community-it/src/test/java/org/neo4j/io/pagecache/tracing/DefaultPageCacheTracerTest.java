@@ -128,6 +128,22 @@ public class DefaultPageCacheTracerTest
         assertCounts( 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1,  0d );
     }
 
+    @Test
+    void mustForgetHeatmapCountsOfUnmappedFiles()
+    {
+        var heatmap = new PageAccessHeatmap( 1 );
+        var tracer = new DefaultPageCacheTracer( heatmap );
+        var pagedFile = Mockito.mock( PagedFile.class );
+        when( pagedFile.path() ).thenReturn( Path.of( "a" ) );
+
+        tracer.mappedFile( 1, pagedFile );
+        heatmap.pinned( pagedFile.path(), 0 );
+        assertThat( heatmap.regions() ).hasSize( 1 );
+
+        tracer.unmappedFile( 1, pagedFile );
+        assertThat( heatmap.regions() ).isEmpty();
+    }
+
     @Test
     void mustCountFlushes()
     {
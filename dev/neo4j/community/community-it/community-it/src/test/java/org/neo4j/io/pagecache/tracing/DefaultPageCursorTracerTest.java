@@ -24,13 +24,17 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
 
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class DefaultPageCursorTracerTest
 {
@@ -117,6 +121,38 @@ class DefaultPageCursorTracerTest
         assertEquals( 84, pageCursorTracer.bytesRead() );
     }
 
+    @Test
+    void reportTimeSpentInPageFaults() throws InterruptedException
+    {
+        PinEvent pinEvent = pageCursorTracer.beginPin( true, 0, swapper );
+        PageFaultEvent pageFaultEvent = pinEvent.beginPageFault( 1, 2 );
+        Thread.sleep( 10 );
+        pageFaultEvent.done();
+        pinEvent.done();
+        pageCursorTracer.reportEvents();
+
+        assertEquals( 1, cacheTracer.faults() );
+        assertTrue( cacheTracer.faultNanos() >= MILLISECONDS.toNanos( 10 ) );
+    }
+
+    @Test
+    void reportTimeSpentInOverlappingPageFaults() throws InterruptedException
+    {
+        PinEvent firstPin = pageCursorTracer.beginPin( true, 0, swapper );
+        PageFaultEvent firstFault = firstPin.beginPageFault( 1, 2 );
+        Thread.sleep( 10 );
+        PinEvent secondPin = pageCursorTracer.beginPin( true, 1, swapper );
+        PageFaultEvent secondFault = secondPin.beginPageFault( 3, 4 );
+        firstFault.done();
+        secondFault.done();
+        firstPin.done();
+        secondPin.done();
+        pageCursorTracer.reportEvents();
+
+        assertEquals( 2, cacheTracer.faults() );
+        assertTrue( cacheTracer.faultNanos() >= MILLISECONDS.toNanos( 10 ) );
+    }
+
     @Test
     void countPageEvictions()
     {
@@ -291,6 +327,53 @@ class DefaultPageCursorTracerTest
         pinEvent.done();
     }
 
+    @Test
+    void countEveryPinAndFaultInHeatmapWithSampleIntervalOfOne()
+    {
+        PageAccessHeatmap heatmap = new PageAccessHeatmap( 1 );
+        pageCursorTracer = new DefaultPageCursorTracer( cacheTracer, TEST_TRACER, heatmap );
+
+        pinAndHit();
+        pinAndHit();
+        pinFaultAndHit();
+
+        List<PageAccessHeatmap.Region> regions = heatmap.regions();
+        assertEquals( 1, regions.size() );
+        assertEquals( Path.of( "filename" ), regions.get( 0 ).file() );
+        assertEquals( 3, regions.get( 0 ).pins() );
+        assertEquals( 1, regions.get( 0 ).faults() );
+    }
+
+    @Test
+    void countOnlySampledPinsInHeatmap()
+    {
+        PageAccessHeatmap heatmap = new PageAccessHeatmap( 4 );
+        pageCursorTracer = new DefaultPageCursorTracer( cacheTracer, TEST_TRACER, heatmap );
+
+        for ( int i = 0; i < 40; i++ )
+        {
+            pinFaultAndHit();
+        }
+
+        List<PageAccessHeatmap.Region> regions = heatmap.regions();
+        assertEquals( 1, regions.size() );
+        // 10 sampled pins, that each count for 4
+        assertEquals( 40, regions.get( 0 ).pins() );
+        assertEquals( 40, regions.get( 0 ).faults() );
+        assertEquals( 40, pageCursorTracer.pins() );
+    }
+
+    @Test
+    void doNotCountPinsInHeatmapWithSampleIntervalOfZero()
+    {
+        PageAccessHeatmap heatmap = new PageAccessHeatmap( 0 );
+        pageCursorTracer = new DefaultPageCursorTracer( cacheTracer, TEST_TRACER, heatmap );
+
+        pinFaultAndHit();
+
+        assertTrue( heatmap.regions().isEmpty() );
+    }
+
     private PageCursorTracer createTracer()
     {
         return new DefaultPageCursorTracer( cacheTracer, TEST_TRACER );
@@ -19,6 +19,9 @@
  */
 package org.neo4j.io.pagecache.tracing;
 
+import java.nio.file.Path;
+import java.util.Map;
+
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
@@ -133,6 +136,12 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         return delegate.usageRatio();
     }
 
+    @Override
+    public Map<Path,Integer> residentPages()
+    {
+        return delegate.residentPages();
+    }
+
     @Override
     public long iopqPerformed()
     {
@@ -175,6 +184,12 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         delegate.faults( faults );
     }
 
+    @Override
+    public void faultNanos( long faultNanos )
+    {
+        delegate.faultNanos( faultNanos );
+    }
+
     @Override
     public void bytesRead( long bytesRead )
     {
@@ -253,6 +268,12 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         return delegate.faults();
     }
 
+    @Override
+    public long faultNanos()
+    {
+        return delegate.faultNanos();
+    }
+
     @Override
     public long evictions()
     {
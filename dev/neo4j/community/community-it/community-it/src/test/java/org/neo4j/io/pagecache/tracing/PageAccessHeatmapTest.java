@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.io.pagecache.tracing.PageAccessHeatmap.REGION_PAGES;
+
+class PageAccessHeatmapTest
+{
+    private final Path fileA = Path.of( "a" );
+    private final Path fileB = Path.of( "b" );
+
+    @Test
+    void mustCountPinsAndFaultsPerFileAndRegion()
+    {
+        PageAccessHeatmap heatmap = new PageAccessHeatmap( 1 );
+        heatmap.pinned( fileB, 0 );
+        heatmap.pinned( fileA, REGION_PAGES - 1 );
+        heatmap.pinned( fileA, 0 );
+        heatmap.faulted( fileA, 0 );
+        heatmap.pinned( fileA, 3 * REGION_PAGES + 5 );
+        heatmap.faulted( fileA, 3 * REGION_PAGES + 5 );
+
+        List<PageAccessHeatmap.Region> regions = heatmap.regions();
+
+        assertThat( regions ).hasSize( 3 );
+        assertRegion( regions.get( 0 ), fileA, 0, 2, 1 );
+        assertRegion( regions.get( 1 ), fileA, 3 * REGION_PAGES, 1, 1 );
+        assertRegion( regions.get( 2 ), fileB, 0, 1, 0 );
+        assertEquals( 3 * REGION_PAGES + REGION_PAGES - 1, regions.get( 1 ).lastPageId() );
+    }
+
+    @Test
+    void mustScaleCountsBySampleInterval()
+    {
+        PageAccessHeatmap heatmap = new PageAccessHeatmap( 100 );
+        heatmap.pinned( fileA, 1 );
+        heatmap.pinned( fileA, 2 );
+        heatmap.faulted( fileA, 2 );
+
+        assertRegion( heatmap.regions().get( 0 ), fileA, 0, 200, 100 );
+    }
+
+    @Test
+    void mustForgetCountsOfForgottenFile()
+    {
+        PageAccessHeatmap heatmap = new PageAccessHeatmap( 1 );
+        heatmap.pinned( fileA, 1 );
+        heatmap.pinned( fileB, 1 );
+
+        heatmap.forget( fileA );
+
+        List<PageAccessHeatmap.Region> regions = heatmap.regions();
+        assertThat( regions ).hasSize( 1 );
+        assertRegion( regions.get( 0 ), fileB, 0, 1, 0 );
+    }
+
+    private static void assertRegion( PageAccessHeatmap.Region region, Path file, long firstPageId, long pins, long faults )
+    {
+        assertEquals( file, region.file() );
+        assertEquals( firstPageId, region.firstPageId() );
+        assertEquals( pins, region.pins() );
+        assertEquals( faults, region.faults() );
+    }
+}
@@ -96,6 +96,12 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
         return 0;
     }
 
+    @Override
+    public long faultNanos()
+    {
+        return 0;
+    }
+
     @Override
     public long evictions()
     {
@@ -212,6 +218,11 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
     {
     }
 
+    @Override
+    public void faultNanos( long faultNanos )
+    {
+    }
+
     @Override
     public void bytesRead( long bytesRead )
     {
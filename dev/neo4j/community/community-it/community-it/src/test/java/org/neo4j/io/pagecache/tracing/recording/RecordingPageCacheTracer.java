@@ -114,6 +114,12 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         return faults.get();
     }
 
+    @Override
+    public long faultNanos()
+    {
+        return 0;
+    }
+
     @Override
     public long pins()
     {
@@ -232,6 +238,11 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         this.faults.getAndAdd( faults );
     }
 
+    @Override
+    public void faultNanos( long faultNanos )
+    {
+    }
+
     @Override
     public void bytesRead( long bytesRead )
     {
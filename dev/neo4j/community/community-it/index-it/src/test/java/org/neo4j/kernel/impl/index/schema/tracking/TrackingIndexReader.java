@@ -28,6 +28,7 @@ import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotApplicableKernelE
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.api.index.IndexProgressor;
 import org.neo4j.kernel.api.index.IndexSampler;
+import org.neo4j.kernel.api.index.PartitionedValueSeek;
 import org.neo4j.kernel.api.index.ValueIndexReader;
 import org.neo4j.values.storable.Value;
 
@@ -61,6 +62,13 @@ public class TrackingIndexReader implements ValueIndexReader
         delegate.query( context, client, constraints, query );
     }
 
+    @Override
+    public PartitionedValueSeek valueSeek( int desiredNumberOfPartitions, IndexQueryConstraints constraints, CursorContext cursorContext,
+            PropertyIndexQuery... query ) throws IndexNotApplicableKernelException
+    {
+        return delegate.valueSeek( desiredNumberOfPartitions, constraints, cursorContext, query );
+    }
+
     @Override
     public void close()
     {
@@ -167,6 +167,29 @@ public interface ProcedureITBase
                 proc( "db.stats.clear", "(section :: STRING?) :: (section :: STRING?, success :: BOOLEAN?, message :: STRING?)",
                         "Clear collected data of a given data section. Valid sections are 'QUERIES'",
                         stringArray( "admin" ), "READ" ),
+                proc( "dbms.debug.capturedPlans", "() :: (fingerprint :: STRING?, planId :: STRING?, query :: STRING?, firstCaptured :: STRING?, " +
+                                "lastCaptured :: STRING?, captureCount :: INTEGER?, executionCount :: INTEGER?, failedExecutionCount :: INTEGER?, " +
+                                "lastRows :: INTEGER?, totalRows :: INTEGER?, queryGraph :: STRING?, ast :: STRING?, semanticState :: STRING?, " +
+                                "logicalPlan :: STRING?, logicalPlanBuilder :: STRING?)",
+                        "List the plans kept in memory by the debug plan printer, most recently captured first. " +
+                        "Plans are only kept when 'unsupported.cypher.plan_printer.mode' is 'CACHE'.",
+                        stringArray( "admin" ), "DBMS" ),
+                proc( "db.debug.compilationPhaseTimes", "() :: (phase :: STRING?, count :: INTEGER?, p50Nanos :: INTEGER?, p99Nanos :: INTEGER?, " +
+                                "maxNanos :: INTEGER?, meanNanos :: INTEGER?)",
+                        "Query compilation time per compilation phase of the current database, in nanoseconds, " +
+                        "followed by the total compilation time. Queries served from the query cache are not included.",
+                        stringArray( "admin" ), "READ" ),
+                proc( "db.debug.cardinalityErrors", "() :: (fingerprint :: STRING?, operator :: STRING?, count :: INTEGER?, meanQError :: FLOAT?, " +
+                                "maxQError :: FLOAT?, underestimated :: INTEGER?, overestimated :: INTEGER?)",
+                        "How far the estimated rows were off from the actual rows, as q-error, in the query executions of the current database " +
+                        "that were profiled because of 'unsupported.cypher.cardinality_tracking.sample_rate'. " +
+                        "Rows without a fingerprint aggregate an operator over all queries.",
+                        stringArray( "admin" ), "READ" ),
+                proc( "db.debug.pageCacheHeatmap", "() :: (file :: STRING?, firstPageId :: INTEGER?, lastPageId :: INTEGER?, pins :: INTEGER?, " +
+                                "faults :: INTEGER?)",
+                        "Estimated page cursor pins and page faults per store file of the current database and region of consecutive pages of the file, " +
+                        "from the pins sampled because of 'unsupported.dbms.memory.pagecache.heatmap.sample_interval'.",
+                        stringArray( "admin" ), "READ" ),
                 proc( "dbms.routing.getRoutingTable", "(context :: MAP?, database = null :: STRING?) :: (ttl :: INTEGER?, servers :: LIST? OF MAP?)",
                         "Returns endpoints of this instance.", stringArray( "reader", "editor", "publisher", "architect", "admin" ), "DBMS" ),
                 proc( "dbms.cluster.routing.getRoutingTable", "(context :: MAP?, database = null :: STRING?) :: (ttl :: INTEGER?, servers :: LIST? OF MAP?)",
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.eclipse.collections.api.list.primitive.LongList;
+import org.eclipse.collections.api.set.primitive.LongSet;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import org.neo4j.common.EntityType;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.schema.IndexType;
+import org.neo4j.internal.kernel.api.Cursor;
+import org.neo4j.internal.kernel.api.CursorFactory;
+import org.neo4j.internal.kernel.api.IndexQueryConstraints;
+import org.neo4j.internal.kernel.api.IndexReadSession;
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.PartitionedScan;
+import org.neo4j.internal.kernel.api.PropertyIndexQuery;
+import org.neo4j.internal.kernel.api.RelationshipTypeIndexCursor;
+import org.neo4j.internal.kernel.api.TokenPredicate;
+import org.neo4j.internal.kernel.api.TokenReadSession;
+import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotApplicableKernelException;
+import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException;
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.IndexOrder;
+import org.neo4j.internal.schema.SchemaDescriptor;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.memory.EmptyMemoryTracker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.neo4j.graphdb.Label.label;
+import static org.neo4j.graphdb.RelationshipType.withName;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unconstrained;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.kernel.impl.newapi.TestUtils.assertDistinct;
+import static org.neo4j.kernel.impl.newapi.TestUtils.concat;
+import static org.neo4j.kernel.impl.newapi.TestUtils.partitionedWorker;
+
+public abstract class ParallelPartitionedIndexScanTestBase<G extends KernelAPIReadTestSupport> extends KernelAPIReadTestBase<G>
+{
+    private static final int NUMBER_OF_NODES = 10_000;
+    private static final int NUMBER_OF_WORKERS = 4;
+    private static final String INDEX_NAME = "fooPropIndex";
+    private static final String FULLTEXT_INDEX_NAME = "fooNameIndex";
+    private static final ToLongFunction<NodeValueIndexCursor> NODE_VALUE_GET = NodeValueIndexCursor::nodeReference;
+    private static final ToLongFunction<NodeLabelIndexCursor> NODE_LABEL_GET = NodeLabelIndexCursor::nodeReference;
+    private static final ToLongFunction<RelationshipTypeIndexCursor> RELATIONSHIP_TYPE_GET = RelationshipTypeIndexCursor::relationshipReference;
+    private static LongSet FOO_NODES;
+    private static LongSet FOO_NODES_IN_RANGE;
+    private static LongSet RELATIONSHIPS;
+
+    @Override
+    public void createTestGraph( GraphDatabaseService graphDb )
+    {
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            tx.schema().indexFor( label( "Foo" ) ).on( "prop" ).withName( INDEX_NAME ).create();
+            tx.schema().indexFor( label( "Foo" ) ).on( "name" ).withIndexType( IndexType.FULLTEXT ).withName( FULLTEXT_INDEX_NAME ).create();
+            tx.commit();
+        }
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            tx.schema().awaitIndexesOnline( 2, TimeUnit.MINUTES );
+        }
+
+        MutableLongSet fooNodes = LongSets.mutable.empty();
+        MutableLongSet fooNodesInRange = LongSets.mutable.empty();
+        MutableLongSet relationships = LongSets.mutable.empty();
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            Node previous = tx.createNode();
+            for ( int i = 0; i < NUMBER_OF_NODES; i++ )
+            {
+                Node node = tx.createNode( label( "Foo" ) );
+                node.setProperty( "prop", i );
+                fooNodes.add( node.getId() );
+                if ( i >= 1_000 && i < 9_000 )
+                {
+                    fooNodesInRange.add( node.getId() );
+                }
+                relationships.add( previous.createRelationshipTo( node, withName( "REL" ) ).getId() );
+                previous = node;
+            }
+            tx.commit();
+        }
+        FOO_NODES = fooNodes;
+        FOO_NODES_IN_RANGE = fooNodesInRange;
+        RELATIONSHIPS = relationships;
+    }
+
+    @Test
+    void shouldSeekAllEntriesOfRangeInPartitions() throws Exception
+    {
+        // given
+        IndexReadSession index = read.indexReadSession( schemaRead.indexGetForName( INDEX_NAME ) );
+        int prop = token.propertyKey( "prop" );
+
+        // when
+        PartitionedScan<NodeValueIndexCursor> scan =
+                read.nodeIndexSeek( index, 10, unconstrained(), PropertyIndexQuery.range( prop, 1_000, true, 9_000, false ) );
+
+        // then
+        assertThat( scan.getNumberOfPartitions() ).isBetween( 1, 10 );
+        LongList found;
+        try ( NodeValueIndexCursor cursor = cursors.allocateNodeValueIndexCursor( NULL, EmptyMemoryTracker.INSTANCE ) )
+        {
+            found = partitionedWorker( scan, () -> cursor, NODE_VALUE_GET ).call();
+        }
+        assertDistinct( found );
+        assertEquals( FOO_NODES_IN_RANGE, LongSets.immutable.withAll( found ) );
+    }
+
+    @Test
+    void shouldScanValueIndexFromMultipleThreads() throws Exception
+    {
+        // given
+        IndexReadSession index = read.indexReadSession( schemaRead.indexGetForName( INDEX_NAME ) );
+        CursorFactory cursors = testSupport.kernelToTest().cursors();
+
+        // when
+        PartitionedScan<NodeValueIndexCursor> scan = read.nodeIndexScan( index, NUMBER_OF_WORKERS, unconstrained() );
+        List<LongList> found = scanFromMultipleThreads( scan, () -> cursors.allocateNodeValueIndexCursor( NULL, EmptyMemoryTracker.INSTANCE ),
+                NODE_VALUE_GET );
+
+        // then
+        assertDistinct( found );
+        assertEquals( FOO_NODES, LongSets.immutable.withAll( concat( found ) ) );
+    }
+
+    @Test
+    void shouldScanLabelIndexFromMultipleThreads() throws Exception
+    {
+        // given
+        TokenReadSession session = tokenReadSession( tx, EntityType.NODE );
+        CursorFactory cursors = testSupport.kernelToTest().cursors();
+
+        // when
+        PartitionedScan<NodeLabelIndexCursor> scan =
+                read.nodeLabelScan( session, NUMBER_OF_WORKERS, new TokenPredicate( token.nodeLabel( "Foo" ) ) );
+        List<LongList> found = scanFromMultipleThreads( scan, () -> cursors.allocateNodeLabelIndexCursor( NULL ), NODE_LABEL_GET );
+
+        // then
+        assertDistinct( found );
+        assertEquals( FOO_NODES, LongSets.immutable.withAll( concat( found ) ) );
+    }
+
+    @Test
+    void shouldScanRelationshipTypeIndexFromMultipleThreads() throws Exception
+    {
+        // given
+        TokenReadSession session = tokenReadSession( tx, EntityType.RELATIONSHIP );
+        CursorFactory cursors = testSupport.kernelToTest().cursors();
+
+        // when
+        PartitionedScan<RelationshipTypeIndexCursor> scan =
+                read.relationshipTypeScan( session, NUMBER_OF_WORKERS, new TokenPredicate( token.relationshipType( "REL" ) ) );
+        List<LongList> found = scanFromMultipleThreads( scan, () -> cursors.allocateRelationshipTypeIndexCursor( NULL ), RELATIONSHIP_TYPE_GET );
+
+        // then
+        assertDistinct( found );
+        assertEquals( RELATIONSHIPS, LongSets.immutable.withAll( concat( found ) ) );
+    }
+
+    @Test
+    void shouldSeeTransactionStateInPartitionedLabelScan() throws Exception
+    {
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            // given
+            int foo = tx.tokenRead().nodeLabel( "Foo" );
+            long created = tx.dataWrite().nodeCreate();
+            tx.dataWrite().nodeAddLabel( created, foo );
+            long deleted = FOO_NODES.longIterator().next();
+            tx.dataWrite().nodeDetachDelete( deleted );
+            MutableLongSet expected = LongSets.mutable.withAll( FOO_NODES );
+            expected.add( created );
+            expected.remove( deleted );
+
+            // when
+            PartitionedScan<NodeLabelIndexCursor> scan =
+                    tx.dataRead().nodeLabelScan( tokenReadSession( tx, EntityType.NODE ), NUMBER_OF_WORKERS, new TokenPredicate( foo ) );
+            LongList found;
+            try ( NodeLabelIndexCursor cursor = tx.cursors().allocateNodeLabelIndexCursor( NULL ) )
+            {
+                found = partitionedWorker( scan, () -> cursor, NODE_LABEL_GET ).call();
+            }
+
+            // then
+            assertDistinct( found );
+            assertEquals( expected, LongSets.immutable.withAll( found ) );
+        }
+    }
+
+    @Test
+    void shouldNotSupportPartitionedIndexSeekWithTransactionState() throws Exception
+    {
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            // given
+            tx.dataWrite().nodeCreate();
+            IndexReadSession index = tx.dataRead().indexReadSession( tx.schemaRead().indexGetForName( INDEX_NAME ) );
+
+            // then
+            assertThrows( IllegalStateException.class, () -> tx.dataRead().nodeIndexScan( index, NUMBER_OF_WORKERS, unconstrained() ) );
+        }
+    }
+
+    @Test
+    void shouldNotSupportOrderedPartitionedIndexSeek() throws Exception
+    {
+        // given
+        IndexReadSession index = read.indexReadSession( schemaRead.indexGetForName( INDEX_NAME ) );
+
+        // then
+        assertThrows( IllegalArgumentException.class,
+                () -> read.nodeIndexScan( index, NUMBER_OF_WORKERS, IndexQueryConstraints.ordered( IndexOrder.ASCENDING ) ) );
+    }
+
+    @Test
+    void shouldNotSupportPartitionedSeekOnIndexThatCanNotBePartitioned() throws Exception
+    {
+        // given
+        IndexReadSession index = read.indexReadSession( schemaRead.indexGetForName( FULLTEXT_INDEX_NAME ) );
+        int name = token.propertyKey( "name" );
+
+        // then
+        assertThrows( IndexNotApplicableKernelException.class,
+                () -> read.nodeIndexSeek( index, NUMBER_OF_WORKERS, unconstrained(), PropertyIndexQuery.fulltextSearch( "foo" ) ) );
+        assertThrows( IndexNotApplicableKernelException.class,
+                () -> read.nodeIndexSeek( index, NUMBER_OF_WORKERS, unconstrained(), PropertyIndexQuery.exists( name ) ) );
+        assertThrows( IndexNotApplicableKernelException.class, () -> read.nodeIndexScan( index, NUMBER_OF_WORKERS, unconstrained() ) );
+    }
+
+    private static <C extends Cursor> List<LongList> scanFromMultipleThreads( PartitionedScan<C> scan, Supplier<C> allocateCursor,
+            ToLongFunction<C> producer ) throws InterruptedException
+    {
+        ExecutorService service = Executors.newFixedThreadPool( NUMBER_OF_WORKERS );
+        try
+        {
+            List<Future<LongList>> futures = new ArrayList<>();
+            for ( int i = 0; i < NUMBER_OF_WORKERS; i++ )
+            {
+                Callable<LongList> worker = partitionedWorker( scan, allocateCursor, producer );
+                futures.add( service.submit( worker ) );
+            }
+            return futures.stream().map( TestUtils::unsafeGet ).collect( Collectors.toList() );
+        }
+        finally
+        {
+            service.shutdown();
+            service.awaitTermination( 1, TimeUnit.MINUTES );
+        }
+    }
+
+    private static TokenReadSession tokenReadSession( KernelTransaction tx, EntityType entityType ) throws IndexNotFoundKernelException
+    {
+        Iterator<IndexDescriptor> indexes = tx.schemaRead().index( SchemaDescriptor.forAnyEntityTokens( entityType ) );
+        IndexDescriptor index = indexes.next();
+        assertThat( indexes.hasNext() ).isFalse();
+        return tx.dataRead().tokenReadSession( index );
+    }
+}
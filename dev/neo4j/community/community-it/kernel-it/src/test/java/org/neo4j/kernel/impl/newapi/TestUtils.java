@@ -38,10 +38,12 @@ import java.util.function.Supplier;
 import java.util.function.ToLongFunction;
 
 import org.neo4j.internal.kernel.api.Cursor;
+import org.neo4j.internal.kernel.api.PartitionedScan;
 import org.neo4j.internal.kernel.api.Scan;
 
 import static java.lang.String.format;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
 
 final class TestUtils
 {
@@ -115,6 +117,25 @@ final class TestUtils
         };
     }
 
+    static <T extends Cursor> Callable<LongList> partitionedWorker( PartitionedScan<T> scan, Supplier<T> supplier, ToLongFunction<T> producer )
+    {
+        return () -> {
+            try ( T entities = supplier.get() )
+            {
+                LongArrayList found = new LongArrayList();
+                while ( scan.reservePartition( entities, NULL ) )
+                {
+                    while ( entities.next() )
+                    {
+                        found.add( producer.applyAsLong( entities ) );
+                    }
+                }
+
+                return found;
+            }
+        };
+    }
+
     static <T> T unsafeGet( Future<T> future )
     {
         try
@@ -267,6 +267,104 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<SplittingTopBehavior> cypher_splitting_top_behavior =
             newBuilder( "unsupported.cypher.splitting_top_behavior", ofEnum( SplittingTopBehavior.class ), SplittingTopBehavior.DEFAULT ).build();
 
+    public enum PlanPrinterMode
+    {
+        SYNC, ASYNC, CACHE
+    }
+    @Internal
+    @Description( "How the debug plan printer emits captured logical plans. \"sync\" renders and prints them on the planning thread, " +
+                  "\"async\" hands a snapshot of the plan to a bounded buffer that is rendered and printed by a background thread, " +
+                  "\"cache\" keeps the unrendered plans in memory, to be rendered on demand by dbms.debug.capturedPlans()." )
+    public static final Setting<PlanPrinterMode> cypher_plan_printer_mode =
+            newBuilder( "unsupported.cypher.plan_printer.mode", ofEnum( PlanPrinterMode.class ), PlanPrinterMode.SYNC ).build();
+
+    @Internal
+    @Description( "Number of captured plans that can be waiting for the background writer when the plan printer runs in \"async\" mode." )
+    public static final Setting<Integer> cypher_plan_printer_buffer_size =
+            newBuilder( "unsupported.cypher.plan_printer.buffer_size", INT, 1024 ).addConstraint( min( 1 ) ).build();
+
+    public enum PlanPrinterOverflowPolicy
+    {
+        DROP, BLOCK
+    }
+    @Internal
+    @Description( "What the planning thread does when the \"async\" plan printer buffer is full. " +
+                  "\"drop\" discards the capture and counts it as dropped, \"block\" waits until the background writer has made room." )
+    public static final Setting<PlanPrinterOverflowPolicy> cypher_plan_printer_overflow_policy =
+            newBuilder( "unsupported.cypher.plan_printer.overflow_policy", ofEnum( PlanPrinterOverflowPolicy.class ),
+                    PlanPrinterOverflowPolicy.DROP ).build();
+
+    @Internal
+    @Description( "Enable the debug plan printer. When disabled, no logical plans are captured and planning pays nothing for the printer." )
+    public static final Setting<Boolean> cypher_plan_printer_enabled =
+            newBuilder( "unsupported.cypher.plan_printer.enabled", BOOL, true ).dynamic().build();
+
+    @Internal
+    @Description( "Fraction of the eligible compilations for which the debug plan printer captures the logical plan. " +
+                  "1.0 captures every compilation, 0.0 captures none." )
+    public static final Setting<Double> cypher_plan_printer_sample_rate =
+            newBuilder( "unsupported.cypher.plan_printer.sample_rate", DOUBLE, 1.0 ).addConstraint( range( 0.0, 1.0 ) ).dynamic().build();
+
+    @Internal
+    @Description( "Only capture plans of queries whose text matches this regular expression. " +
+                  "If neither this nor unsupported.cypher.plan_printer.fingerprints is set, all queries are eligible." )
+    public static final Setting<String> cypher_plan_printer_query_filter =
+            newBuilder( "unsupported.cypher.plan_printer.query_filter", STRING, null ).addConstraint( SettingConstraints.REGEX ).dynamic().build();
+
+    @Internal
+    @Description( "Only capture plans of queries with one of these fingerprints. The fingerprint of a query is printed with every captured plan. " +
+                  "If neither this nor unsupported.cypher.plan_printer.query_filter is set, all queries are eligible." )
+    public static final Setting<List<String>> cypher_plan_printer_fingerprints =
+            newBuilder( "unsupported.cypher.plan_printer.fingerprints", listOf( STRING ), List.of() ).dynamic().build();
+
+    @Internal
+    @Description( "Only capture plans of queries that took at least this long to plan." )
+    public static final Setting<Duration> cypher_plan_printer_min_planning_time =
+            newBuilder( "unsupported.cypher.plan_printer.min_planning_time", DURATION, Duration.ZERO ).dynamic().build();
+
+    @Internal
+    @Description( "Maximum number of plans the debug plan printer captures per second. Captures over the budget are skipped. " +
+                  "0 means no limit." )
+    public static final Setting<Integer> cypher_plan_printer_max_captures_per_second =
+            newBuilder( "unsupported.cypher.plan_printer.max_captures_per_second", INT, 0 ).addConstraint( min( 0 ) ).dynamic().build();
+
+    @Internal
+    @Description( "Print each distinct plan of a query only once. When the same query is planned into the same plan again, " +
+                  "for example after a query cache eviction or a replan, only a short record with the number of sightings is printed." )
+    public static final Setting<Boolean> cypher_plan_printer_deduplicate =
+            newBuilder( "unsupported.cypher.plan_printer.deduplicate", BOOL, true ).dynamic().build();
+
+    @Internal
+    @Description( "Log a record with the runtime statistics of every finished execution of a query that the debug plan printer " +
+                  "may capture, tagged with the same query id, transaction id and plan id as the captured plan. " +
+                  "In \"cache\" mode, the executions are added to the cached plan instead." )
+    public static final Setting<Boolean> cypher_plan_printer_log_executions =
+            newBuilder( "unsupported.cypher.plan_printer.log_executions", BOOL, false ).dynamic().build();
+
+    @Internal
+    @Description( "Maximum number of distinct plans remembered for deduplication by the debug plan printer. " +
+                  "Plans beyond this limit are printed in full every time." )
+    public static final Setting<Integer> cypher_plan_printer_deduplication_size =
+            newBuilder( "unsupported.cypher.plan_printer.deduplication_size", INT, 10000 ).addConstraint( min( 1 ) ).build();
+
+    @Internal
+    @Description( "Maximum number of plans kept in memory when the debug plan printer runs in \"cache\" mode." )
+    public static final Setting<Integer> cypher_plan_printer_cache_size =
+            newBuilder( "unsupported.cypher.plan_printer.cache_size", INT, 100 ).addConstraint( min( 1 ) ).build();
+
+    @Internal
+    @Description( "Upper bound on the estimated heap retained by the plans kept in memory when the debug plan printer runs in \"cache\" mode. " +
+                  "The least recently captured plans are evicted first." )
+    public static final Setting<Long> cypher_plan_printer_cache_max_memory =
+            newBuilder( "unsupported.cypher.plan_printer.cache_max_memory", BYTES, mebiBytes( 64 ) ).addConstraint( min( kibiBytes( 1 ) ) ).build();
+
+    @Internal
+    @Description( "Fraction of query executions that are profiled in the background to compare the estimated number of rows of every " +
+                  "operator with the actual number of rows. The results are available through db.debug.cardinalityErrors(). " +
+                  "0.0 profiles no executions, 1.0 profiles every execution." )
+    public static final Setting<Double> cypher_cardinality_tracking_sample_rate =
+            newBuilder( "unsupported.cypher.cardinality_tracking.sample_rate", DOUBLE, 0.0 ).addConstraint( range( 0.0, 1.0 ) ).dynamic().build();
+
     @Internal
     @Description( "Max number of recent queries to collect in the data collector module. Will round down to the" +
             " nearest power of two. The default number (8192 query invocations) " +
@@ -331,6 +429,19 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Integer> index_sampling_parallelism =
             newBuilder( "unsupported.dbms.index_sampling.parallelism", INT, 4 ).addConstraint( min( 0 ) ).build();
 
+    @Internal
+    @Description( "The number of partitions that a native index is split into when it is sampled. With more than 1, the partitions are " +
+            "sampled by separate threads in parallel. With 1, a native index is sampled on a single thread." )
+    public static final Setting<Integer> index_sampling_partitions =
+            newBuilder( "unsupported.dbms.index_sampling.partitions", INT, 1 ).addConstraint( min( 1 ) ).build();
+
+    @Internal
+    @Description( "The fraction of a native index that is read when it is sampled. With less than 1.0, the index is split into " +
+            "proportionally more partitions and only partitions spread evenly over the index are read, the rest are skipped. " +
+            "The size of the index is then estimated from the read partitions." )
+    public static final Setting<Double> index_sampling_fraction =
+            newBuilder( "unsupported.dbms.index_sampling.fraction", DOUBLE, 1.0 ).addConstraint( range( 0.01, 1.0 ) ).build();
+
     @Internal
     @Description( "Set the maximum number of concurrent index populations across system. " +
             "This also limit the number of threads used to scan store. " +
@@ -551,6 +662,20 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Long> checkpoint_logical_log_rotation_threshold =
             newBuilder( "unsupported.dbms.checkpoint_log.rotation.size", BYTES, mebiBytes( 1 ) ).addConstraint( min( kibiBytes( 1 ) ) ).build();
 
+    @Internal
+    @Description( "Adapt the IO limits of the background checkpoint process, 'dbms.checkpoint.iops.limit' and " +
+            "'dbms.checkpoint.throughput.limit', to the latency of page faults. When page faults take much longer while " +
+            "a checkpoint is running than they take without, the checkpoint is slowed down, and when page faults are " +
+            "fast again, or there are none, it is sped up again, up to the configured limits." )
+    public static final Setting<Boolean> check_point_io_limit_adaptive =
+            newBuilder( "unsupported.dbms.checkpoint.io_limit.adaptive", BOOL, true ).dynamic().build();
+
+    @Internal
+    @Description( "Enforce 'dbms.checkpoint.iops.limit' and 'dbms.checkpoint.throughput.limit' in Neo4j Community Edition, " +
+            "which otherwise does not limit the IO of the background checkpoint process." )
+    public static final Setting<Boolean> community_check_point_io_limit_enabled =
+            newBuilder( "unsupported.dbms.checkpoint.io_limit.community.enabled", BOOL, false ).build();
+
     @Description( "Number of checkpoint logs files to keep." )
     public static final Setting<Integer> checkpoint_logical_log_keep_threshold =
             newBuilder( "unsupported.dbms.checkpoint_log.rotation.keep.files", INT, 3 ).addConstraint( range( 2, 100 ) ).build();
@@ -574,6 +699,56 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     @Internal
     public static final Setting<Boolean> trace_cursors = newBuilder( "unsupported.dbms.debug.trace_cursors", BOOL, false ).build();
 
+    public enum PageCacheEvictionPolicy
+    {
+        CLOCK, TINY_LFU
+    }
+    @Internal
+    @Description( "How the page cache picks pages to evict. CLOCK sweeps over the usage counters of all pages. TINY_LFU puts pages that have not " +
+            "been faulted in recently on probation, and evicts those first, so that a full store scan does not evict the working set." )
+    public static final Setting<PageCacheEvictionPolicy> pagecache_eviction_policy =
+            newBuilder( "unsupported.dbms.memory.pagecache.eviction_policy", ofEnum( PageCacheEvictionPolicy.class ), PageCacheEvictionPolicy.CLOCK )
+                    .build();
+
+    @Internal
+    @Description( "The maximum number of files the page cache flushes at the same time, when it flushes many files at once, like on checkpoints " +
+            "and on shutdown. The flushes share the IO limits of the checkpoint. 1 flushes one file after the other." )
+    public static final Setting<Integer> pagecache_flush_parallelism =
+            newBuilder( "unsupported.dbms.memory.pagecache.flush.parallelism", INT, 8 )
+                    .addConstraint( min( 1 ) ).build();
+
+    @Internal
+    @Description( "The amount of off-heap memory for keeping clean pages that have been evicted from the page cache, compressed with zstd. " +
+            "Page faults of those pages decompress them instead of reading them from the store files. 0 turns it off." )
+    public static final Setting<Long> pagecache_compressed_tier_size =
+            newBuilder( "unsupported.dbms.memory.pagecache.compressed_tier.size", BYTES, 0L ).addConstraint( min( 0L ) ).build();
+
+    @Internal
+    @Description( "Count one in this many page cursor pins, and their page faults, per store file and region of the file, for " +
+            "'db.debug.pageCacheHeatmap'. 0 does not count any pins." )
+    public static final Setting<Integer> pagecache_heatmap_sample_interval =
+            newBuilder( "unsupported.dbms.memory.pagecache.heatmap.sample_interval", INT, 0 ).addConstraint( min( 0 ) ).build();
+
+    @Internal
+    @Description( "The maximum number of threads that load the pages that are requested ahead of time in the background, in batches. " +
+            "0 loads them in the requesting thread." )
+    public static final Setting<Integer> pagecache_page_load_workers =
+            newBuilder( "unsupported.dbms.memory.pagecache.page_load.workers", INT, 4 )
+                    .addConstraint( min( 0 ) ).build();
+
+    @Internal
+    @Description( "Allocate the page cache memory in regions that are aligned to, and advised to the operating system as, transparent huge pages. " +
+            "Only has an effect on Linux, when transparent huge pages are enabled in 'always' or 'madvise' mode." )
+    public static final Setting<Boolean> pagecache_huge_pages =
+            newBuilder( "unsupported.dbms.memory.pagecache.huge_pages", BOOL, false ).build();
+
+    @Internal
+    @Description( "Profile the page cache and warm it up from the profiles when a database starts in Neo4j Community Edition, which otherwise " +
+            "does neither. The profiles are written to the 'profiles' directory of the database. " +
+            "'dbms.memory.pagecache.warmup.enable' can still turn both off." )
+    public static final Setting<Boolean> community_pagecache_warmup_enabled =
+            newBuilder( "unsupported.dbms.memory.pagecache.warmup.community.enabled", BOOL, false ).build();
+
     @Internal
     public static final Setting<Duration> page_cache_tracer_speed_reporting_threshold =
             newBuilder( "unsupported.dbms.debug.page_cache_tracer_speed_reporting_threshold", DURATION, ofSeconds( 10 ) ).build();
@@ -626,6 +801,19 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     @Internal
     public static final Setting<Integer> index_populator_merge_factor = newBuilder( "unsupported.dbms.index.populator_merge_factor", INT, 8 ).build();
 
+    @Internal
+    @Description( "How large part of every node of a native index to fill when the index is built from the sorted entries of the population scan. " +
+            "A lower fill factor leaves room for later inserts, at the cost of a larger index." )
+    public static final Setting<Double> index_populator_fill_factor =
+            newBuilder( "unsupported.dbms.index.populator_fill_factor", DOUBLE, 1.0 ).addConstraint( range( 0.5, 1.0 ) ).build();
+
+    @Internal
+    @Description( "Create new native indexes with keys that share a prefix within a leaf stored only once per leaf. " +
+            "Saves space for indexes on long strings and composite keys with common beginnings, at some cost to inserts. " +
+            "Existing indexes keep the format they were created with." )
+    public static final Setting<Boolean> index_prefix_compressed_leaves =
+            newBuilder( "unsupported.dbms.index.prefix_compressed_leaves", BOOL, false ).build();
+
     @Internal
     public static final Setting<Boolean> id_generator_log_enabled = newBuilder( "unsupported.dbms.idgenerator.log.enabled", BOOL, false ).build();
 
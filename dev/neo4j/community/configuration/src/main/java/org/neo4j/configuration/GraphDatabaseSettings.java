@@ -475,8 +475,8 @@ public class GraphDatabaseSettings implements SettingsDeclaration
             newBuilder( "dbms.checkpoint.interval.time", DURATION, ofMinutes( 15 ) ).build();
 
     @Description( "Limit the number of IOs the background checkpoint process will consume per second. " +
-            "This setting is advisory, is ignored in Neo4j Community Edition, and is followed to " +
-            "best effort in Enterprise Edition. " +
+            "This setting is advisory, is ignored in Neo4j Community Edition unless " +
+            "'unsupported.dbms.checkpoint.io_limit.community.enabled' is set, and is followed to best effort otherwise. " +
             "An IO is in this case a 8 KiB (mostly sequential) write. Limiting the write IO in " +
             "this way will leave more bandwidth in the IO subsystem to service random-read IOs, " +
             "which is important for the response time of queries when the database cannot fit " +
@@ -489,6 +489,14 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<Integer> check_point_iops_limit =
             newBuilder( "dbms.checkpoint.iops.limit", INT, 600 ).dynamic().build();
 
+    @Description( "Limit the number of bytes the background checkpoint process will write per second. " +
+            "Like 'dbms.checkpoint.iops.limit', this setting is advisory, is ignored in Neo4j Community Edition unless " +
+            "'unsupported.dbms.checkpoint.io_limit.community.enabled' is set, and is followed to best effort otherwise. " +
+            "It is useful when the IOs of the checkpoint are large, because consecutive pages are written " +
+            "with one IO. Set this to 0 to remove the limit." )
+    public static final Setting<Long> check_point_throughput_limit =
+            newBuilder( "dbms.checkpoint.throughput.limit", BYTES, 0L ).addConstraint( min( 0L ) ).dynamic().build();
+
     // Index sampling
     @Description( "Enable or disable background index sampling" )
     public static final Setting<Boolean> index_background_sampling_enabled =
@@ -636,18 +644,23 @@ public class GraphDatabaseSettings implements SettingsDeclaration
             newBuilder( "dbms.memory.pagecache.flush.buffer.size_in_pages", INT, 128 ).addConstraint( range( 1, 512 ) ).dynamic().build();
 
     @Description( "The profiling frequency for the page cache. " +
-            "Accurate profiles allow the page cache to do active warmup after a restart, reducing the mean time to performance.\n" +
-            "This feature is available in Neo4j Enterprise Edition." )
+            "Accurate profiles allow the page cache to do active warmup after a restart, reducing the mean time to performance." )
     public static final Setting<Duration> pagecache_warmup_profiling_interval =
             newBuilder( "dbms.memory.pagecache.warmup.profile.interval", DURATION, ofMinutes( 1 ) ).build();
 
     @Description( "Page cache can be configured to perform usage sampling of loaded pages that can be used to construct active load profile. " +
             "According to that profile pages can be reloaded on the restart, replication, etc. " +
             "This setting allows disabling that behavior.\n" +
-            "This feature is available in Neo4j Enterprise Edition." )
+            "This feature is available in Neo4j Enterprise Edition, and in Neo4j Community Edition with " +
+            "'unsupported.dbms.memory.pagecache.warmup.community.enabled'." )
     public static final Setting<Boolean> pagecache_warmup_enabled =
             newBuilder( "dbms.memory.pagecache.warmup.enable", BOOL, true ).build();
 
+    @Description( "The maximum time the page cache warmup may take when a database starts. The database does not become available before the warmup " +
+            "has completed or this time has passed. The warmup is skipped if this is set to zero." )
+    public static final Setting<Duration> pagecache_warmup_max_time =
+            newBuilder( "dbms.memory.pagecache.warmup.max_time", DURATION, ofMinutes( 1 ) ).build();
+
     @Description( "Page cache warmup can be configured to prefetch files, preferably when cache size is bigger than store size. " +
             "Files to be prefetched can be filtered by 'dbms.memory.pagecache.warmup.preload.allowlist'. " +
             "Enabling this disables warmup by profile " )
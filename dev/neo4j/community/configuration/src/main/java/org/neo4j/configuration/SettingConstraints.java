@@ -30,6 +30,7 @@ import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.LongFunction;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 
 import org.neo4j.configuration.helpers.SocketAddress;
@@ -260,6 +261,28 @@ public final class SettingConstraints
         }
     };
 
+    public static final SettingConstraint<String> REGEX = new SettingConstraint<>()
+    {
+        @Override
+        public void validate( String value, Configuration config )
+        {
+            try
+            {
+                Pattern.compile( value );
+            }
+            catch ( PatternSyntaxException e )
+            {
+                throw new IllegalArgumentException( format( "invalid regular expression: %s", e.getDescription() ) );
+            }
+        }
+
+        @Override
+        public String getDescription()
+        {
+            return "is a valid regular expression";
+        }
+    };
+
     public static <T> SettingConstraint<List<T>> size( final int size )
     {
         return new SettingConstraint<>()
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.config
+
+import org.neo4j.configuration.Config
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.configuration.SettingChangeListener
+
+import java.util.concurrent.ThreadLocalRandom
+
+/**
+ * Controller of cardinality tracking, i.e. which query executions are profiled in the background so that the estimated
+ * rows of every operator can be compared with the actual rows. Needed to make the sample rate dynamically configurable.
+ */
+trait CardinalityTrackingController {
+  def shouldTrack(): Boolean
+}
+
+case object NO_CARDINALITY_TRACKING extends CardinalityTrackingController {
+  override def shouldTrack(): Boolean = false
+}
+
+class ConfigCardinalityTrackingController(config: Config) extends CardinalityTrackingController {
+
+  @volatile private var sampleRate: Double = config.get(GraphDatabaseInternalSettings.cypher_cardinality_tracking_sample_rate)
+
+  config.addListener(GraphDatabaseInternalSettings.cypher_cardinality_tracking_sample_rate,
+    new SettingChangeListener[java.lang.Double] {
+      override def accept(before: java.lang.Double, after: java.lang.Double): Unit =
+        sampleRate = after
+    })
+
+  override def shouldTrack(): Boolean = {
+    val rate = sampleRate
+    rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate)
+  }
+}
@@ -31,6 +31,10 @@ import org.neo4j.cypher.internal.options.CypherRuntimeOption
 import org.neo4j.cypher.internal.options.CypherVersion
 
 import java.io.File
+import java.time.Duration
+import java.util.regex.Pattern
+
+import scala.collection.JavaConverters.asScalaBufferConverter
 
 /**
  * Holds all configuration options for the Neo4j Cypher execution engine, compilers and runtimes.
@@ -80,10 +84,17 @@ class CypherConfiguration private (val config: Config) {
   val interpretedPipesFallback: CypherInterpretedPipesFallbackOption = CypherInterpretedPipesFallbackOption.fromConfig(config)
   val operatorFusionOverPipelineLimit: Int = config.get(GraphDatabaseInternalSettings.cypher_pipelined_operator_fusion_over_pipeline_limit).intValue()
   val memoryTrackingController: MemoryTrackingController = new ConfigMemoryTrackingController(config)
+  val cardinalityTrackingController: CardinalityTrackingController = new ConfigCardinalityTrackingController(config)
   val enableMonitors: Boolean = config.get(GraphDatabaseInternalSettings.cypher_enable_runtime_monitors)
   val useJavaCCParser: Boolean = config.get(GraphDatabaseInternalSettings.cypher_parser) != GraphDatabaseInternalSettings.CypherParser.PARBOILED
   val disallowSplittingTop: Boolean = config.get(GraphDatabaseInternalSettings.cypher_splitting_top_behavior) == GraphDatabaseInternalSettings.SplittingTopBehavior.DISALLOW
   val enablePlanningRelationshipIndexes: Boolean = config.get(GraphDatabaseInternalSettings.cypher_enable_planning_relationship_indexes)
+  val planPrinterMode: GraphDatabaseInternalSettings.PlanPrinterMode = config.get(GraphDatabaseInternalSettings.cypher_plan_printer_mode)
+  val planPrinterBufferSize: Int = config.get(GraphDatabaseInternalSettings.cypher_plan_printer_buffer_size).intValue()
+  val planPrinterOverflowPolicy: GraphDatabaseInternalSettings.PlanPrinterOverflowPolicy = config.get(GraphDatabaseInternalSettings.cypher_plan_printer_overflow_policy)
+  val planPrinterDeduplicationSize: Int = config.get(GraphDatabaseInternalSettings.cypher_plan_printer_deduplication_size).intValue()
+  val planPrinterCacheSize: Int = config.get(GraphDatabaseInternalSettings.cypher_plan_printer_cache_size).intValue()
+  val planPrinterCacheMaxMemory: Long = config.get(GraphDatabaseInternalSettings.cypher_plan_printer_cache_max_memory).longValue()
 
   //dynamic configurations
   private var _obfuscateLiterals: Boolean = config.get(GraphDatabaseSettings.log_queries_obfuscate_literals)
@@ -91,4 +102,40 @@ class CypherConfiguration private (val config: Config) {
 
   def obfuscateLiterals: Boolean = _obfuscateLiterals
 
+  @volatile private var _planPrinterEnabled: Boolean = config.get(GraphDatabaseInternalSettings.cypher_plan_printer_enabled)
+  config.addListener[java.lang.Boolean](GraphDatabaseInternalSettings.cypher_plan_printer_enabled, (_: java.lang.Boolean, newValue: java.lang.Boolean) => _planPrinterEnabled = newValue)
+
+  @volatile private var _planPrinterSampleRate: Double = config.get(GraphDatabaseInternalSettings.cypher_plan_printer_sample_rate)
+  config.addListener[java.lang.Double](GraphDatabaseInternalSettings.cypher_plan_printer_sample_rate, (_: java.lang.Double, newValue: java.lang.Double) => _planPrinterSampleRate = newValue)
+
+  @volatile private var _planPrinterQueryFilter: Option[Pattern] = compileQueryFilter(config.get(GraphDatabaseInternalSettings.cypher_plan_printer_query_filter))
+  config.addListener[String](GraphDatabaseInternalSettings.cypher_plan_printer_query_filter, (_: String, newValue: String) => _planPrinterQueryFilter = compileQueryFilter(newValue))
+
+  @volatile private var _planPrinterFingerprints: Set[String] = config.get(GraphDatabaseInternalSettings.cypher_plan_printer_fingerprints).asScala.toSet
+  config.addListener[java.util.List[String]](GraphDatabaseInternalSettings.cypher_plan_printer_fingerprints, (_: java.util.List[String], newValue: java.util.List[String]) => _planPrinterFingerprints = newValue.asScala.toSet)
+
+  @volatile private var _planPrinterMinPlanningTimeNanos: Long = config.get(GraphDatabaseInternalSettings.cypher_plan_printer_min_planning_time).toNanos
+  config.addListener[Duration](GraphDatabaseInternalSettings.cypher_plan_printer_min_planning_time, (_: Duration, newValue: Duration) => _planPrinterMinPlanningTimeNanos = newValue.toNanos)
+
+  @volatile private var _planPrinterMaxCapturesPerSecond: Int = config.get(GraphDatabaseInternalSettings.cypher_plan_printer_max_captures_per_second)
+  config.addListener[Integer](GraphDatabaseInternalSettings.cypher_plan_printer_max_captures_per_second, (_: Integer, newValue: Integer) => _planPrinterMaxCapturesPerSecond = newValue)
+
+  @volatile private var _planPrinterDeduplicate: Boolean = config.get(GraphDatabaseInternalSettings.cypher_plan_printer_deduplicate)
+  config.addListener[java.lang.Boolean](GraphDatabaseInternalSettings.cypher_plan_printer_deduplicate, (_: java.lang.Boolean, newValue: java.lang.Boolean) => _planPrinterDeduplicate = newValue)
+
+  @volatile private var _planPrinterLogExecutions: Boolean = config.get(GraphDatabaseInternalSettings.cypher_plan_printer_log_executions)
+  config.addListener[java.lang.Boolean](GraphDatabaseInternalSettings.cypher_plan_printer_log_executions, (_: java.lang.Boolean, newValue: java.lang.Boolean) => _planPrinterLogExecutions = newValue)
+
+  def planPrinterEnabled: Boolean = _planPrinterEnabled
+  def planPrinterSampleRate: Double = _planPrinterSampleRate
+  def planPrinterQueryFilter: Option[Pattern] = _planPrinterQueryFilter
+  def planPrinterFingerprints: Set[String] = _planPrinterFingerprints
+  def planPrinterMinPlanningTimeNanos: Long = _planPrinterMinPlanningTimeNanos
+  def planPrinterMaxCapturesPerSecond: Int = _planPrinterMaxCapturesPerSecond
+  def planPrinterDeduplicate: Boolean = _planPrinterDeduplicate
+  def planPrinterLogExecutions: Boolean = _planPrinterLogExecutions
+
+  private def compileQueryFilter(regex: String): Option[Pattern] =
+    if (regex == null || regex.isEmpty) None else Some(Pattern.compile(regex))
+
 }
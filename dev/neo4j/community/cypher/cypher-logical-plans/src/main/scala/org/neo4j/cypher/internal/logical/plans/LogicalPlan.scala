@@ -146,14 +146,27 @@ abstract class LogicalPlan(idGen: IdGen)
   def isLeaf: Boolean = lhs.isEmpty && rhs.isEmpty
 
   override def toString: String = {
-    def indent(level: Int, in: String): String = level match {
-      case 0 => in
-      case _ => System.lineSeparator() + "  " * level + in
-    }
+    val sb = new java.lang.StringBuilder()
+    appendTo(sb)
+    sb.toString
+  }
+
+  /**
+   * Writes the same string as `toString`, one operator at a time, to `out`.
+   */
+  def appendTo(out: Appendable): Unit = {
+    def indent(level: Int): Unit =
+      if (level > 0) {
+        out.append(System.lineSeparator())
+        var i = 0
+        while (i < level) {
+          out.append("  ")
+          i += 1
+        }
+      }
 
     val childrenHeap = new mutable.ArrayStack[(String, Int, Option[LogicalPlan])]
     childrenHeap.push(("", 0, Some(this)))
-    val sb = new StringBuilder()
 
     while (childrenHeap.nonEmpty) {
       childrenHeap.pop() match {
@@ -161,11 +174,12 @@ abstract class LogicalPlan(idGen: IdGen)
           val children = plan.lhs.toIndexedSeq ++ plan.rhs.toIndexedSeq
           val nonChildFields = plan.productIterator.filterNot(children.contains).mkString(", ")
           val prodPrefix = plan.productPrefix
-          sb.append(indent(level, s"""$prefix$prodPrefix($nonChildFields) {""".stripMargin))
+          indent(level)
+          out.append(s"""$prefix$prodPrefix($nonChildFields) {""".stripMargin)
 
           (plan.lhs, plan.rhs) match {
             case (None, None) =>
-              sb.append("}")
+              out.append("}")
             case (Some(_), None) =>
               childrenHeap.push((System.lineSeparator() + "  " * level + "}", level + 1, None))
               childrenHeap.push(("LHS -> ", level + 1, plan.lhs))
@@ -175,11 +189,9 @@ abstract class LogicalPlan(idGen: IdGen)
               childrenHeap.push(("LHS -> ", level + 1, plan.lhs))
           }
         case (prefix, _, _) =>
-          sb.append(prefix)
+          out.append(prefix)
       }
     }
-
-    sb.toString()
   }
 
   def satisfiesExpressionDependencies(e: Expression): Boolean = e.dependencies.map(_.name).forall(availableSymbols.contains)
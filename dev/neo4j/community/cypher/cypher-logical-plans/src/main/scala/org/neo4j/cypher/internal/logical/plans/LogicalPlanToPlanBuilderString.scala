@@ -61,11 +61,25 @@ object LogicalPlanToPlanBuilderString {
   /**
    * Generates a string that plays nicely together with `AbstractLogicalPlanBuilder`.
    */
-  def apply(logicalPlan: LogicalPlan): String = render(logicalPlan, None, None)
+  def apply(logicalPlan: LogicalPlan): String = {
+    val sb = new java.lang.StringBuilder()
+    render(logicalPlan, None, None, sb)
+    sb.toString
+  }
 
   def apply(logicalPlan: LogicalPlan,
             extra: LogicalPlan => String,
-            planPrefixDot: LogicalPlan => String): String = render(logicalPlan, Some(extra), Some(planPrefixDot))
+            planPrefixDot: LogicalPlan => String): String = {
+    val sb = new java.lang.StringBuilder()
+    render(logicalPlan, Some(extra), Some(planPrefixDot), sb)
+    sb.toString
+  }
+
+  /**
+   * Writes the same string as `apply`, one operator at a time, to `out`.
+   * Only the text of a single operator is held in memory, which matters for plans with thousands of operators.
+   */
+  def appendTo(logicalPlan: LogicalPlan, out: Appendable): Unit = render(logicalPlan, None, None, out)
 
   def expressionStringifierExtension(expression: Expression): String = {
     expression match {
@@ -77,36 +91,39 @@ object LogicalPlanToPlanBuilderString {
     }
   }
 
-  private def render(logicalPlan: LogicalPlan, extra: Option[LogicalPlan => String], planPrefixDot: Option[LogicalPlan => String]) = {
+  private def render(logicalPlan: LogicalPlan,
+                     extra: Option[LogicalPlan => String],
+                     planPrefixDot: Option[LogicalPlan => String],
+                     out: Appendable): Unit = {
     var childrenStack = LevelPlanItem(0, logicalPlan) :: Nil
-    val sb = new StringBuilder()
 
     while (childrenStack.nonEmpty) {
       val LevelPlanItem(level, plan) = childrenStack.head
       childrenStack = childrenStack.tail
 
-      sb ++= ".|" * level
+      var i = 0
+      while (i < level) {
+        out.append(".|")
+        i += 1
+      }
 
-      sb ++= planPrefixDot.fold(".")(_.apply(plan))
-      sb ++= pre(plan)
-      sb += '('
-      sb ++= par(plan)
-      sb += ')'
-      extra.foreach(e => sb ++= e.apply(plan))
+      out.append(planPrefixDot.fold(".")(_.apply(plan)))
+      out.append(pre(plan))
+      out.append('(')
+      out.append(par(plan))
+      out.append(')')
+      extra.foreach(e => out.append(e.apply(plan)))
 
       plan.lhs.foreach(lhs => childrenStack ::= LevelPlanItem(level, lhs))
       plan.rhs.foreach(rhs => childrenStack ::= LevelPlanItem(level + 1, rhs))
 
-      if (childrenStack.nonEmpty) sb ++= System.lineSeparator()
+      if (childrenStack.nonEmpty) out.append(System.lineSeparator())
     }
 
     if (extra.isEmpty) {
-      sb ++= System.lineSeparator()
-      sb ++= ".build()"
+      out.append(System.lineSeparator())
+      out.append(".build()")
     }
-
-
-    sb.toString()
   }
 
   private def pre(logicalPlan: LogicalPlan): String = {
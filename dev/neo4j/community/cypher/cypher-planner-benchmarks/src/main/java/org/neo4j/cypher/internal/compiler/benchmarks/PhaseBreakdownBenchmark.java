@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.cypher.internal.compiler.phases.LogicalPlanState;
+import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase;
+
+import static org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.AST_REWRITE;
+import static org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.LOGICAL_PLANNING;
+import static org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.PARSING;
+import static org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.PLAN_REWRITING;
+import static org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.QUERY_GRAPH_CONSTRUCTION;
+import static org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.SEMANTIC_CHECK;
+
+/**
+ * The whole pipeline, broken down by {@link CompilationPhase}. Next to the throughput, it reports the mean time and the
+ * mean bytes allocated per compilation in each phase as secondary results. The plan printers run in {@code LOGICAL_PLANNING}.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+// the kernel utilities that the values use need access to the buffer internals on newer JDKs
+@Fork( value = 1, jvmArgsAppend = {"--add-opens=java.base/java.nio=ALL-UNNAMED", "--add-opens=java.base/sun.nio.ch=ALL-UNNAMED"} )
+public class PhaseBreakdownBenchmark
+{
+    @Param
+    public QueryCorpus query;
+
+    @Param( {"NONE", "PLAN_PRINTER_FULL"} )
+    public PlanPrinters printers;
+
+    private final PhaseProfilingTracer tracer = new PhaseProfilingTracer();
+    private CompilationPipelineFixture fixture;
+
+    @Setup
+    public void setUp()
+    {
+        fixture = new CompilationPipelineFixture( query.queryText(), printers.planPrinter, printers.deduplicate, printers.debugPrinter,
+                FrozenPlanContext.socialGraph(), tracer );
+    }
+
+    @Benchmark
+    public LogicalPlanState compile( PhaseCounters counters )
+    {
+        LogicalPlanState result = fixture.compile();
+        counters.compiled( tracer );
+        return result;
+    }
+
+    /**
+     * Per compilation means of the phases, reset for every iteration.
+     */
+    @State( Scope.Thread )
+    @AuxCounters( AuxCounters.Type.EVENTS )
+    public static class PhaseCounters
+    {
+        private PhaseProfilingTracer tracer;
+        private long compilations;
+
+        @Setup( Level.Iteration )
+        public void reset()
+        {
+            // the tracer is only known after the first compilation, when nothing has been traced yet
+            if ( tracer != null )
+            {
+                tracer.reset();
+            }
+            compilations = 0;
+        }
+
+        void compiled( PhaseProfilingTracer tracer )
+        {
+            this.tracer = tracer;
+            compilations++;
+        }
+
+        public double parsingNanos()
+        {
+            return nanos( PARSING );
+        }
+
+        public double parsingBytes()
+        {
+            return bytes( PARSING );
+        }
+
+        public double astRewriteNanos()
+        {
+            return nanos( AST_REWRITE );
+        }
+
+        public double astRewriteBytes()
+        {
+            return bytes( AST_REWRITE );
+        }
+
+        public double semanticCheckNanos()
+        {
+            return nanos( SEMANTIC_CHECK );
+        }
+
+        public double semanticCheckBytes()
+        {
+            return bytes( SEMANTIC_CHECK );
+        }
+
+        public double queryGraphConstructionNanos()
+        {
+            return nanos( QUERY_GRAPH_CONSTRUCTION );
+        }
+
+        public double queryGraphConstructionBytes()
+        {
+            return bytes( QUERY_GRAPH_CONSTRUCTION );
+        }
+
+        public double logicalPlanningNanos()
+        {
+            return nanos( LOGICAL_PLANNING );
+        }
+
+        public double logicalPlanningBytes()
+        {
+            return bytes( LOGICAL_PLANNING );
+        }
+
+        public double planRewritingNanos()
+        {
+            return nanos( PLAN_REWRITING );
+        }
+
+        public double planRewritingBytes()
+        {
+            return bytes( PLAN_REWRITING );
+        }
+
+        private double nanos( CompilationPhase phase )
+        {
+            return compilations == 0 ? 0 : (double) tracer.nanosIn( phase ) / compilations;
+        }
+
+        private double bytes( CompilationPhase phase )
+        {
+            return compilations == 0 ? 0 : (double) tracer.bytesAllocatedIn( phase ) / compilations;
+        }
+    }
+}
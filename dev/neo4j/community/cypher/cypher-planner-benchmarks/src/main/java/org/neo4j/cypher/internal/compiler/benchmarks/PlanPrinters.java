@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.benchmarks;
+
+/**
+ * Which of the plan printers run at the end of planning.
+ */
+public enum PlanPrinters
+{
+    /**
+     * {@code DebugPlanPrinter} is in the pipeline, as always, but plan capture is disabled.
+     */
+    NONE( false, true, false ),
+
+    /**
+     * {@code DebugPlanPrinter} with the default settings. Since the same query is planned over and over, this is the cost of
+     * recognizing a plan that was printed before.
+     */
+    PLAN_PRINTER( true, true, false ),
+
+    /**
+     * {@code DebugPlanPrinter} without deduplication, so every plan is rendered in full.
+     */
+    PLAN_PRINTER_FULL( true, false, false ),
+
+    /**
+     * {@code DebugPlanPrinter} without deduplication, followed by {@code DebugPrinter}, as with {@code CYPHER debug=tostring}.
+     */
+    PLAN_PRINTER_AND_DEBUG_PRINTER( true, false, true );
+
+    final boolean planPrinter;
+    final boolean deduplicate;
+    final boolean debugPrinter;
+
+    PlanPrinters( boolean planPrinter, boolean deduplicate, boolean debugPrinter )
+    {
+        this.planPrinter = planPrinter;
+        this.deduplicate = deduplicate;
+        this.debugPrinter = debugPrinter;
+    }
+
+    CompilationPipelineFixture fixture( QueryCorpus query )
+    {
+        return new CompilationPipelineFixture( query.queryText(), planPrinter, deduplicate, debugPrinter );
+    }
+}
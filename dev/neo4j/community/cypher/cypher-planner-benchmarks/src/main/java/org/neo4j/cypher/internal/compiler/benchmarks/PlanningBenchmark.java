@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.cypher.internal.compiler.phases.LogicalPlanState;
+import org.neo4j.cypher.internal.frontend.phases.BaseState;
+
+/**
+ * Planning of a normalized query, and the whole pipeline from query text to logical plan, with the different plan printers.
+ * Run with {@code -prof gc} to also get the bytes allocated per compilation.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+// the kernel utilities that the values use need access to the buffer internals on newer JDKs
+@Fork( value = 1, jvmArgsAppend = {"--add-opens=java.base/java.nio=ALL-UNNAMED", "--add-opens=java.base/sun.nio.ch=ALL-UNNAMED"} )
+public class PlanningBenchmark
+{
+    @Param
+    public QueryCorpus query;
+
+    @Param
+    public PlanPrinters printers;
+
+    private CompilationPipelineFixture fixture;
+    private BaseState normalized;
+
+    @Setup
+    public void setUp()
+    {
+        fixture = printers.fixture( query );
+        normalized = fixture.normalize( fixture.parse() );
+    }
+
+    @Benchmark
+    public LogicalPlanState plan()
+    {
+        return fixture.plan( normalized );
+    }
+
+    @Benchmark
+    public LogicalPlanState compile()
+    {
+        return fixture.compile();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.benchmarks;
+
+/**
+ * The queries compiled by the benchmarks. The first three are the statements of {@code example-query.cypher}, the others
+ * are shapes that stress particular parts of the planner: join ordering, optional matches and union branches.
+ */
+public enum QueryCorpus
+{
+    EXAMPLE_CREATE( "CREATE (n:Person {name: 'Andy', title: 'Developer'})" ),
+
+    EXAMPLE_MATCH_CREATE( "MATCH\n" +
+                          "  (a:Person),\n" +
+                          "  (b:Person)\n" +
+                          "WHERE a.name = 'Andy' AND b.name = 'Bndy'\n" +
+                          "CREATE (a)-[r:LIKES]->(b)" ),
+
+    EXAMPLE_MATCH( "MATCH (n)-[r:LIKES]-(m) RETURN n,m" ),
+
+    MULTI_WAY_JOIN( "MATCH (p:Person)-[:WORKS_AT]->(c:Company)-[:LOCATED_IN]->(city:City),\n" +
+                    "      (p)-[:LIVES_IN]->(city),\n" +
+                    "      (p)-[:ACTED_IN]->(m:Movie)-[:IN_GENRE]->(g:Genre),\n" +
+                    "      (d:Person)-[:DIRECTED]->(m),\n" +
+                    "      (d)-[:KNOWS]-(p)\n" +
+                    "WHERE city.name = 'Lund' AND g.name = 'Drama' AND d.born < 1970\n" +
+                    "RETURN p.name, c.name, m.title, d.name\n" +
+                    "ORDER BY m.title" ),
+
+    OPTIONAL_MATCH( "MATCH (p:Person {name: 'Andy'})\n" +
+                    "OPTIONAL MATCH (p)-[:KNOWS]-(friend:Person)\n" +
+                    "OPTIONAL MATCH (friend)-[:LIKES]->(m:Movie)<-[:ACTED_IN]-(actor:Person)\n" +
+                    "OPTIONAL MATCH (p)-[:WORKS_AT]->(c:Company)-[:LOCATED_IN]->(city:City)\n" +
+                    "OPTIONAL MATCH (m)-[:IN_GENRE]->(g:Genre)\n" +
+                    "RETURN p.name, collect(DISTINCT friend.name) AS friends, collect(DISTINCT m.title) AS movies,\n" +
+                    "       count(actor) AS actors, c.name, city.name, collect(g.name) AS genres" ),
+
+    UNION( "MATCH (p:Person)-[:ACTED_IN]->(m:Movie) WHERE m.released > 2000 RETURN p.name AS name, m.title AS title\n" +
+           "UNION\n" +
+           "MATCH (p:Person)-[:DIRECTED]->(m:Movie) WHERE m.released > 2000 RETURN p.name AS name, m.title AS title\n" +
+           "UNION\n" +
+           "MATCH (p:Person)-[:LIKES]->(m:Movie)-[:IN_GENRE]->(:Genre {name: 'Drama'}) RETURN p.name AS name, m.title AS title\n" +
+           "UNION\n" +
+           "MATCH (p:Person {name: 'Andy'})-[:KNOWS*1..2]-(f:Person)-[:LIKES]->(m:Movie) RETURN f.name AS name, m.title AS title\n" +
+           "UNION\n" +
+           "MATCH (c:Company)<-[:WORKS_AT]-(p:Person)-[:LIKES]->(m:Movie) WHERE c.name STARTS WITH 'Neo' RETURN p.name AS name, m.title AS title" );
+
+    private final String queryText;
+
+    QueryCorpus( String queryText )
+    {
+        this.queryText = queryText;
+    }
+
+    public String queryText()
+    {
+        return queryText;
+    }
+}
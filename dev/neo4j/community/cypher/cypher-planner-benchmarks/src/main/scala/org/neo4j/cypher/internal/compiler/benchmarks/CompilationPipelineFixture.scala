@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.benchmarks
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.cypher.internal.compiler.CypherPlanner
+import org.neo4j.cypher.internal.compiler.CypherPlannerConfiguration
+import org.neo4j.cypher.internal.compiler.ExecutionModel.Volcano
+import org.neo4j.cypher.internal.compiler.defaultUpdateStrategy
+import org.neo4j.cypher.internal.compiler.phases.Compatibility4_3
+import org.neo4j.cypher.internal.compiler.phases.LogicalPlanState
+import org.neo4j.cypher.internal.compiler.phases.PlannerContext
+import org.neo4j.cypher.internal.compiler.planner.logical.CachedMetricsFactory
+import org.neo4j.cypher.internal.compiler.planner.logical.SimpleMetricsFactory
+import org.neo4j.cypher.internal.compiler.planner.logical.idp.ComponentConnectorPlanner
+import org.neo4j.cypher.internal.compiler.planner.logical.idp.ConfigurableIDPSolverConfig
+import org.neo4j.cypher.internal.compiler.planner.logical.idp.IDPQueryGraphSolver
+import org.neo4j.cypher.internal.compiler.planner.logical.idp.IDPQueryGraphSolverMonitor
+import org.neo4j.cypher.internal.compiler.planner.logical.idp.SingleComponentPlanner
+import org.neo4j.cypher.internal.compiler.planner.logical.simpleExpressionEvaluator
+import org.neo4j.cypher.internal.frontend.phases.BaseState
+import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer
+import org.neo4j.cypher.internal.frontend.phases.Monitors
+import org.neo4j.cypher.internal.options.CypherDebugOption
+import org.neo4j.cypher.internal.options.CypherDebugOptions
+import org.neo4j.cypher.internal.planner.spi.IDPPlannerName
+import org.neo4j.cypher.internal.planner.spi.PlanContext
+import org.neo4j.cypher.internal.util.attribution.SequentialIdGen
+import org.neo4j.cypher.internal.util.devNullLogger
+import org.neo4j.values.virtual.VirtualValues
+
+import java.io.OutputStream
+import java.io.PrintStream
+import java.lang.reflect.Proxy
+import java.time.Clock
+
+import scala.reflect.ClassTag
+
+/**
+ * Runs the phases of the Cypher compilation pipeline for one query, the same way `CypherPlanner` in the cypher module does,
+ * but against a [[FrozenPlanContext]] instead of a database.
+ *
+ * Parsing, normalization and planning can be run separately, so that each can be measured on its own, or all together.
+ * Whatever the plan printers write is discarded.
+ *
+ * @param planPrinter   whether `DebugPlanPrinter` captures plans
+ * @param deduplicate   whether `DebugPlanPrinter` prints a plan it has seen before as a single "seen again" line
+ * @param debugPrinter  whether `DebugPrinter` runs after `DebugPlanPrinter`, as it does with `CYPHER debug=tostring`
+ */
+class CompilationPipelineFixture(queryText: String,
+                                 planPrinter: Boolean,
+                                 deduplicate: Boolean,
+                                 debugPrinter: Boolean,
+                                 planContext: PlanContext,
+                                 tracer: CompilationPhaseTracer) {
+
+  def this(queryText: String, planPrinter: Boolean, deduplicate: Boolean, debugPrinter: Boolean) =
+    this(queryText, planPrinter, deduplicate, debugPrinter, FrozenPlanContext.socialGraph(), CompilationPhaseTracer.NO_TRACING)
+
+  private val config = CypherPlannerConfiguration.withSettings(Map(
+    GraphDatabaseInternalSettings.cypher_plan_printer_enabled -> java.lang.Boolean.valueOf(planPrinter),
+    GraphDatabaseInternalSettings.cypher_plan_printer_deduplicate -> java.lang.Boolean.valueOf(deduplicate)
+  ))
+
+  private val debugOptions =
+    if (debugPrinter) CypherDebugOptions(Set(CypherDebugOption.tostring, CypherDebugOption.logicalPlan))
+    else CypherDebugOptions.default
+
+  private val monitors = CompilationPipelineFixture.NoOpMonitors
+
+  private val metricsFactory = CachedMetricsFactory(SimpleMetricsFactory)
+
+  private val planner = CypherPlanner[PlannerContext](monitors, metricsFactory, config, defaultUpdateStrategy, Clock.systemUTC())
+
+  def parse(): BaseState =
+    planner.parseQuery(queryText, queryText, devNullLogger, IDPPlannerName.name, None, tracer, VirtualValues.EMPTY_MAP, Compatibility4_3)
+
+  def normalize(parsed: BaseState): BaseState =
+    planner.normalizeQuery(parsed, plannerContext())
+
+  def plan(normalized: BaseState): LogicalPlanState =
+    Console.withOut(CompilationPipelineFixture.DiscardingOut) {
+      planner.planPreparedQuery(normalized, plannerContext())
+    }
+
+  /**
+   * Parses, normalizes and plans the query, sharing one planner context between normalization and planning like production does.
+   */
+  def compile(): LogicalPlanState = {
+    val context = plannerContext()
+    val normalized = planner.normalizeQuery(parse(), context)
+    Console.withOut(CompilationPipelineFixture.DiscardingOut) {
+      planner.planPreparedQuery(normalized, context)
+    }
+  }
+
+  // a new context per compilation, as the plan id generator and the cached metrics belong to one compilation
+  private def plannerContext(): PlannerContext = {
+    val solverMonitor = monitors.newMonitor[IDPQueryGraphSolverMonitor]()
+    val solverConfig = new ConfigurableIDPSolverConfig(maxTableSize = config.idpMaxTableSize, iterationDurationLimit = config.idpIterationDuration)
+    val singleComponentPlanner = SingleComponentPlanner(solverConfig)(solverMonitor)
+    val queryGraphSolver = IDPQueryGraphSolver(singleComponentPlanner, ComponentConnectorPlanner(singleComponentPlanner, solverConfig)(solverMonitor))(solverMonitor)
+
+    PlannerContext(
+      tracer,
+      devNullLogger,
+      planContext,
+      queryText,
+      debugOptions,
+      Volcano,
+      None,
+      monitors,
+      metricsFactory,
+      queryGraphSolver,
+      config,
+      defaultUpdateStrategy,
+      Clock.systemUTC(),
+      new SequentialIdGen(),
+      simpleExpressionEvaluator,
+      VirtualValues.EMPTY_MAP)
+  }
+}
+
+object CompilationPipelineFixture {
+
+  private object DiscardingOut extends PrintStream(OutputStream.nullOutputStream())
+
+  /**
+   * Monitors without listeners. Every monitor method is a no-op, which is what production monitors amount to when nothing listens.
+   */
+  object NoOpMonitors extends Monitors {
+
+    override def addMonitorListener[T](monitor: T, tags: String*): Unit = ()
+
+    override def newMonitor[T <: AnyRef : ClassTag](tags: String*): T = {
+      val monitorClass = implicitly[ClassTag[T]].runtimeClass
+      Proxy.newProxyInstance(monitorClass.getClassLoader, Array(monitorClass), (_, _, _) => null).asInstanceOf[T]
+    }
+  }
+}
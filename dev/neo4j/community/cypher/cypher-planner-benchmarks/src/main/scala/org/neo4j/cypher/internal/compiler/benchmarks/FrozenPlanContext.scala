@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.benchmarks
+
+import org.neo4j.cypher.internal.compiler.benchmarks.FrozenPlanContext.Index
+import org.neo4j.cypher.internal.compiler.benchmarks.FrozenPlanContext.RelationshipCount
+import org.neo4j.cypher.internal.logical.plans.ProcedureSignature
+import org.neo4j.cypher.internal.logical.plans.QualifiedName
+import org.neo4j.cypher.internal.logical.plans.UserFunctionSignature
+import org.neo4j.cypher.internal.planner.spi.GraphStatistics
+import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
+import org.neo4j.cypher.internal.planner.spi.IndexOrderCapability
+import org.neo4j.cypher.internal.planner.spi.InstrumentedGraphStatistics
+import org.neo4j.cypher.internal.planner.spi.MutableGraphStatisticsSnapshot
+import org.neo4j.cypher.internal.planner.spi.PlanContext
+import org.neo4j.cypher.internal.util.Cardinality
+import org.neo4j.cypher.internal.util.InternalNotificationLogger
+import org.neo4j.cypher.internal.util.LabelId
+import org.neo4j.cypher.internal.util.PropertyKeyId
+import org.neo4j.cypher.internal.util.RelTypeId
+import org.neo4j.cypher.internal.util.Selectivity
+import org.neo4j.cypher.internal.util.devNullLogger
+
+/**
+ * A plan context over a fixed schema and fixed statistics, so that every compilation in a benchmark sees exactly the same
+ * graph. Nothing is read from a database, and the planner's statistics lookups cost as little as a map lookup.
+ */
+class FrozenPlanContext(nodeCounts: Map[String, Long],
+                        relationshipCounts: Seq[RelationshipCount],
+                        propertyKeys: Seq[String],
+                        indexes: Seq[Index]) extends PlanContext {
+
+  private val labels = nodeCounts.keys.toIndexedSeq.sorted
+  private val relTypes = relationshipCounts.map(_.relType).distinct.sorted.toIndexedSeq
+  private val properties = propertyKeys.distinct.toIndexedSeq
+
+  private val indexDescriptors: Seq[(Index, IndexDescriptor)] = indexes.map { index =>
+    val descriptor = IndexDescriptor.forLabel(LabelId(getLabelId(index.label)), index.properties.map(p => PropertyKeyId(getPropertyKeyId(p))))
+      .withOrderCapability(_ => IndexOrderCapability.BOTH)
+      .unique(index.unique)
+    index -> descriptor
+  }
+
+  private val graphStatistics = new FrozenGraphStatistics
+
+  override def indexesGetForLabel(labelId: Int): Iterator[IndexDescriptor] =
+    descriptorsFor(labelId).iterator
+
+  override def indexesGetForRelType(relTypeId: Int): Iterator[IndexDescriptor] = Iterator.empty
+
+  override def uniqueIndexesGetForLabel(labelId: Int): Iterator[IndexDescriptor] =
+    descriptorsFor(labelId).filter(_.isUnique).iterator
+
+  override def indexExistsForLabel(labelId: Int): Boolean = descriptorsFor(labelId).nonEmpty
+
+  override def indexExistsForRelType(relTypeId: Int): Boolean = false
+
+  override def indexGetForLabelAndProperties(labelName: String, propertyKeys: Seq[String]): Option[IndexDescriptor] =
+    indexDescriptors.collectFirst { case (index, descriptor) if index.label == labelName && index.properties == propertyKeys => descriptor }
+
+  override def indexGetForRelTypeAndProperties(relTypeName: String, propertyKeys: Seq[String]): Option[IndexDescriptor] = None
+
+  override def indexExistsForLabelAndProperties(labelName: String, propertyKey: Seq[String]): Boolean =
+    indexGetForLabelAndProperties(labelName, propertyKey).isDefined
+
+  override def indexExistsForRelTypeAndProperties(relTypeName: String, propertyKey: Seq[String]): Boolean = false
+
+  override def canLookupNodesByLabel: Boolean = true
+
+  override def canLookupRelationshipsByType: Boolean = false
+
+  override def hasNodePropertyExistenceConstraint(labelName: String, propertyKey: String): Boolean = false
+
+  override def getNodePropertiesWithExistenceConstraint(labelName: String): Set[String] = Set.empty
+
+  override def hasRelationshipPropertyExistenceConstraint(labelName: String, propertyKey: String): Boolean = false
+
+  override def getRelationshipPropertiesWithExistenceConstraint(labelName: String): Set[String] = Set.empty
+
+  override def getPropertiesWithExistenceConstraint: Set[String] = Set.empty
+
+  override def txIdProvider: () => Long = () => 0L
+
+  // a fresh snapshot every time, as a new plan context is created for every compilation in production
+  override def statistics: InstrumentedGraphStatistics =
+    InstrumentedGraphStatistics(graphStatistics, new MutableGraphStatisticsSnapshot())
+
+  override def notificationLogger(): InternalNotificationLogger = devNullLogger
+
+  override def txStateHasChanges(): Boolean = false
+
+  override def procedureSignature(name: QualifiedName): ProcedureSignature =
+    throw new IllegalArgumentException(s"There are no procedures in the benchmark schema, but $name was requested")
+
+  override def functionSignature(name: QualifiedName): Option[UserFunctionSignature] = None
+
+  override def getLabelName(id: Int): String = labels(id)
+
+  override def getOptLabelId(labelName: String): Option[Int] = indexOf(labels, labelName)
+
+  override def getLabelId(labelName: String): Int = getOptLabelId(labelName).getOrElse(unknown("label", labelName))
+
+  override def getPropertyKeyName(id: Int): String = properties(id)
+
+  override def getOptPropertyKeyId(propertyKeyName: String): Option[Int] = indexOf(properties, propertyKeyName)
+
+  override def getPropertyKeyId(propertyKeyName: String): Int = getOptPropertyKeyId(propertyKeyName).getOrElse(unknown("property key", propertyKeyName))
+
+  override def getRelTypeName(id: Int): String = relTypes(id)
+
+  override def getOptRelTypeId(relType: String): Option[Int] = indexOf(relTypes, relType)
+
+  override def getRelTypeId(relType: String): Int = getOptRelTypeId(relType).getOrElse(unknown("relationship type", relType))
+
+  private def descriptorsFor(labelId: Int): Seq[IndexDescriptor] =
+    indexDescriptors.collect { case (index, descriptor) if index.label == labels(labelId) => descriptor }
+
+  private def indexOf(tokens: IndexedSeq[String], name: String): Option[Int] = {
+    val id = tokens.indexOf(name)
+    if (id < 0) None else Some(id)
+  }
+
+  private def unknown(kind: String, name: String): Nothing =
+    throw new IllegalArgumentException(s"Unknown $kind in the benchmark schema: $name")
+
+  private class FrozenGraphStatistics extends GraphStatistics {
+
+    private val allNodes = nodeCounts.values.sum
+
+    override def nodesAllCardinality(): Cardinality = Cardinality(allNodes)
+
+    override def nodesWithLabelCardinality(labelId: Option[LabelId]): Cardinality = labelId match {
+      case Some(id) => Cardinality(nodeCounts(labels(id.id)))
+      case None => Cardinality(allNodes)
+    }
+
+    override def patternStepCardinality(fromLabel: Option[LabelId], relTypeId: Option[RelTypeId], toLabel: Option[LabelId]): Cardinality = {
+      val matching = relationshipCounts.filter { count =>
+        fromLabel.forall(id => labels(id.id) == count.fromLabel) &&
+          relTypeId.forall(id => relTypes(id.id) == count.relType) &&
+          toLabel.forall(id => labels(id.id) == count.toLabel)
+      }
+      Cardinality(matching.map(_.count).sum)
+    }
+
+    override def uniqueValueSelectivity(index: IndexDescriptor): Option[Selectivity] =
+      frozenIndex(index).flatMap(i => Selectivity.of(1.0 / i.distinctValues))
+
+    override def indexPropertyExistsSelectivity(index: IndexDescriptor): Option[Selectivity] =
+      frozenIndex(index).flatMap(i => Selectivity.of(i.propertyExistsSelectivity))
+
+    private def frozenIndex(descriptor: IndexDescriptor): Option[Index] =
+      indexDescriptors.collectFirst { case (index, d) if d == descriptor => index }
+  }
+}
+
+object FrozenPlanContext {
+
+  case class RelationshipCount(fromLabel: String, relType: String, toLabel: String, count: Long)
+
+  case class Index(label: String, properties: Seq[String], distinctValues: Long, propertyExistsSelectivity: Double, unique: Boolean = false)
+
+  /**
+   * A small social and movie graph, big enough that the planner has real choices to make between label scans, index seeks
+   * and expand directions.
+   */
+  def socialGraph(): FrozenPlanContext = new FrozenPlanContext(
+    nodeCounts = Map(
+      "Person" -> 100000L,
+      "Movie" -> 20000L,
+      "Company" -> 5000L,
+      "City" -> 1000L,
+      "Genre" -> 40L
+    ),
+    relationshipCounts = Seq(
+      RelationshipCount("Person", "KNOWS", "Person", 800000L),
+      RelationshipCount("Person", "LIKES", "Person", 150000L),
+      RelationshipCount("Person", "LIKES", "Movie", 400000L),
+      RelationshipCount("Person", "ACTED_IN", "Movie", 90000L),
+      RelationshipCount("Person", "DIRECTED", "Movie", 21000L),
+      RelationshipCount("Person", "WORKS_AT", "Company", 70000L),
+      RelationshipCount("Person", "LIVES_IN", "City", 100000L),
+      RelationshipCount("Company", "LOCATED_IN", "City", 5000L),
+      RelationshipCount("Movie", "IN_GENRE", "Genre", 35000L)
+    ),
+    propertyKeys = Seq("name", "title", "born", "released", "since", "rating", "founded", "population"),
+    indexes = Seq(
+      Index("Person", Seq("name"), distinctValues = 90000L, propertyExistsSelectivity = 1.0),
+      Index("Person", Seq("born"), distinctValues = 100L, propertyExistsSelectivity = 0.6),
+      Index("Movie", Seq("title"), distinctValues = 19000L, propertyExistsSelectivity = 1.0),
+      Index("Company", Seq("name"), distinctValues = 5000L, propertyExistsSelectivity = 1.0, unique = true),
+      Index("City", Seq("name"), distinctValues = 1000L, propertyExistsSelectivity = 1.0, unique = true)
+    )
+  )
+}
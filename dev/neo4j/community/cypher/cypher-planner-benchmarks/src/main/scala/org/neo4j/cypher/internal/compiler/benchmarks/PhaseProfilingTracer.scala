@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.benchmarks
+
+import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer
+import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase
+import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhaseEvent
+
+import java.lang.management.ManagementFactory
+
+/**
+ * Sums up the time spent and the bytes allocated in every compilation phase, on the calling thread.
+ *
+ * Not thread safe, every benchmark thread needs its own tracer.
+ */
+class PhaseProfilingTracer extends CompilationPhaseTracer {
+
+  private val threads = ManagementFactory.getThreadMXBean.asInstanceOf[com.sun.management.ThreadMXBean]
+  private val nanos = new Array[Long](CompilationPhase.values().length)
+  private val bytes = new Array[Long](CompilationPhase.values().length)
+
+  override def beginPhase(phase: CompilationPhase): CompilationPhaseEvent = {
+    val threadId = Thread.currentThread().getId
+    val startBytes = threads.getThreadAllocatedBytes(threadId)
+    val startNanos = System.nanoTime()
+    () => {
+      nanos(phase.ordinal()) += System.nanoTime() - startNanos
+      bytes(phase.ordinal()) += threads.getThreadAllocatedBytes(threadId) - startBytes
+    }
+  }
+
+  def nanosIn(phase: CompilationPhase): Long = nanos(phase.ordinal())
+
+  def bytesAllocatedIn(phase: CompilationPhase): Long = bytes(phase.ordinal())
+
+  def reset(): Unit = {
+    java.util.Arrays.fill(nanos, 0L)
+    java.util.Arrays.fill(bytes, 0L)
+  }
+}
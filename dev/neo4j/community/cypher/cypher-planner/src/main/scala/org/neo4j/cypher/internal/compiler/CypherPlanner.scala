@@ -51,6 +51,7 @@ import org.neo4j.cypher.internal.compiler.planner.logical.debug.DebugPlanPrinter
 
 
 import java.time.Clock
+import java.util.regex.Pattern
 import scala.collection.JavaConverters.mapAsJavaMapConverter
 
 case class CypherPlanner[Context <: PlannerContext](monitors: Monitors,
@@ -66,10 +67,10 @@ case class CypherPlanner[Context <: PlannerContext](monitors: Monitors,
       systemPipeLine
     else if (context.debugOptions.toStringEnabled)
       // JHKO add planprinter
-      planPipeLine() andThen DebugPlanPrinter andThen DebugPrinter
+      planPipeLine() andThen DebugPlanPrinter(System.nanoTime()) andThen DebugPrinter
     else
       // JHKO add planprinter
-      planPipeLine() andThen DebugPlanPrinter
+      planPipeLine() andThen DebugPlanPrinter(System.nanoTime())
 
     pipeLine.transform(state, context)
 
@@ -136,4 +137,18 @@ class CypherPlannerConfiguration(config: CypherConfiguration, cfg: Config, val p
   def pipelinedBatchSizeSmall: Int = config.pipelinedBatchSizeSmall
   def pipelinedBatchSizeBig: Int = config.pipelinedBatchSizeBig
   def enablePlanningRelationshipIndexes: Boolean = config.enablePlanningRelationshipIndexes
+  def planPrinterMode: GraphDatabaseInternalSettings.PlanPrinterMode = config.planPrinterMode
+  def planPrinterBufferSize: Int = config.planPrinterBufferSize
+  def planPrinterOverflowPolicy: GraphDatabaseInternalSettings.PlanPrinterOverflowPolicy = config.planPrinterOverflowPolicy
+  def planPrinterEnabled: Boolean = config.planPrinterEnabled
+  def planPrinterSampleRate: Double = config.planPrinterSampleRate
+  def planPrinterQueryFilter: Option[Pattern] = config.planPrinterQueryFilter
+  def planPrinterFingerprints: Set[String] = config.planPrinterFingerprints
+  def planPrinterMinPlanningTimeNanos: Long = config.planPrinterMinPlanningTimeNanos
+  def planPrinterMaxCapturesPerSecond: Int = config.planPrinterMaxCapturesPerSecond
+  def planPrinterDeduplicate: Boolean = config.planPrinterDeduplicate
+  def planPrinterLogExecutions: Boolean = config.planPrinterLogExecutions
+  def planPrinterDeduplicationSize: Int = config.planPrinterDeduplicationSize
+  def planPrinterCacheSize: Int = config.planPrinterCacheSize
+  def planPrinterCacheMaxMemory: Long = config.planPrinterCacheMaxMemory
 }
@@ -28,7 +28,7 @@ import org.neo4j.cypher.internal.compiler.ast.convert.plannerQuery.StatementConv
 import org.neo4j.cypher.internal.frontend.phases.AmbiguousNamesDisambiguated
 import org.neo4j.cypher.internal.frontend.phases.BaseContext
 import org.neo4j.cypher.internal.frontend.phases.BaseState
-import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.LOGICAL_PLANNING
+import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.QUERY_GRAPH_CONSTRUCTION
 import org.neo4j.cypher.internal.frontend.phases.InPredicatesCollapsed
 import org.neo4j.cypher.internal.frontend.phases.Phase
 import org.neo4j.cypher.internal.frontend.phases.StatementCondition
@@ -49,7 +49,7 @@ import org.neo4j.exceptions.InternalException
  * From the normalized ast, create the corresponding PlannerQuery.
  */
 case object CreatePlannerQuery extends Phase[BaseContext, BaseState, LogicalPlanState] with StepSequencer.Step with PlanPipelineTransformerFactory {
-  override def phase = LOGICAL_PLANNING
+  override def phase = QUERY_GRAPH_CONSTRUCTION
 
   override def process(from: BaseState, context: BaseContext): LogicalPlanState = from.statement() match {
     case query: Query =>
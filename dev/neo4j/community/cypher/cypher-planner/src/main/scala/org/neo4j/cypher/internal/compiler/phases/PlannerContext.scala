@@ -29,6 +29,7 @@ import org.neo4j.cypher.internal.compiler.planner.logical.ExpressionEvaluator
 import org.neo4j.cypher.internal.compiler.planner.logical.Metrics
 import org.neo4j.cypher.internal.compiler.planner.logical.MetricsFactory
 import org.neo4j.cypher.internal.compiler.planner.logical.QueryGraphSolver
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.QueryCorrelation
 import org.neo4j.cypher.internal.frontend.phases.BaseContext
 import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer
 import org.neo4j.cypher.internal.frontend.phases.Monitors
@@ -75,7 +76,8 @@ class PlannerContext(cypherExceptionFactory: CypherExceptionFactory,
                      val clock: Clock,
                      val logicalPlanIdGen: IdGen,
                      val params: MapValue,
-                     val executionModel: ExecutionModel) extends BaseContextImpl(cypherExceptionFactory, tracer, notificationLogger, monitors)
+                     val executionModel: ExecutionModel,
+                     val queryCorrelation: QueryCorrelation = QueryCorrelation.NONE) extends BaseContextImpl(cypherExceptionFactory, tracer, notificationLogger, monitors)
 
 object PlannerContext {
   def apply(tracer: CompilationPhaseTracer,
@@ -93,12 +95,13 @@ object PlannerContext {
             clock: Clock,
             logicalPlanIdGen: IdGen,
             evaluator: ExpressionEvaluator,
-            params: MapValue): PlannerContext = {
+            params: MapValue,
+            queryCorrelation: QueryCorrelation = QueryCorrelation.NONE): PlannerContext = {
     val exceptionFactory = Neo4jCypherExceptionFactory(queryText, offset)
 
     val metrics = metricsFactory.newMetrics(planContext.statistics, evaluator, config, executionModel)
 
     new PlannerContext(exceptionFactory, tracer, notificationLogger, planContext,
-      monitors, metrics, config, queryGraphSolver, updateStrategy, debugOptions, clock, logicalPlanIdGen, params, executionModel)
+      monitors, metrics, config, queryGraphSolver, updateStrategy, debugOptions, clock, logicalPlanIdGen, params, executionModel, queryCorrelation)
   }
 }
@@ -35,7 +35,7 @@ import org.neo4j.cypher.internal.expressions.RelationshipPattern
 import org.neo4j.cypher.internal.expressions.RelationshipsPattern
 import org.neo4j.cypher.internal.expressions.Variable
 import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase
-import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.LOGICAL_PLANNING
+import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.QUERY_GRAPH_CONSTRUCTION
 import org.neo4j.cypher.internal.frontend.phases.Phase
 import org.neo4j.cypher.internal.frontend.phases.Transformer
 import org.neo4j.cypher.internal.frontend.phases.factories.PlanPipelineTransformerFactory
@@ -363,7 +363,7 @@ case object OptionalMatchRemover extends PlannerQueryRewriter with StepSequencer
 trait PlannerQueryRewriter extends Phase[PlannerContext, LogicalPlanState, LogicalPlanState] {
   self: Product =>
 
-  override def phase: CompilationPhase = LOGICAL_PLANNING
+  override def phase: CompilationPhase = QUERY_GRAPH_CONSTRUCTION
 
   def instance(from: LogicalPlanState, context: PlannerContext): Rewriter
 
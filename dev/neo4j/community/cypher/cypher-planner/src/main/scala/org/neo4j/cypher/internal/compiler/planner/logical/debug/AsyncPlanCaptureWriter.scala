@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.debug
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings.PlanPrinterOverflowPolicy
+
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.locks.ReentrantReadWriteLock
+
+/**
+ * Hands captures from any number of producer threads to a single background writer thread through a bounded ring buffer.
+ *
+ * When the buffer is full, the producer either drops the capture (counted in [[droppedCount]]) or blocks until the writer
+ * has made room, depending on the overflow policy. Drops are reported to `reportDrops` on the writer thread, before the next
+ * capture is written. Failures in `write` are swallowed, and counted in [[failedCount]], so that the writer thread survives
+ * a single bad capture.
+ */
+class AsyncPlanCaptureWriter[T](val capacity: Int,
+                                val overflowPolicy: PlanPrinterOverflowPolicy,
+                                threadName: String,
+                                reportDrops: Long => Unit = _ => ())
+                               (write: T => Unit) {
+
+  private val buffer = new ArrayBlockingQueue[T](capacity)
+  private val submitted = new AtomicLong()
+  private val dropped = new AtomicLong()
+  private val written = new AtomicLong()
+  private val failed = new AtomicLong()
+  // producers offer under the read lock, so that no capture can be accepted once shutdown has taken the write lock
+  private val closeLock = new ReentrantReadWriteLock()
+  @volatile private var closed = false
+  // only accessed by the writer thread
+  private var reportedDrops = 0L
+
+  private val writerThread = {
+    val thread = new Thread(() => drain(), threadName)
+    thread.setDaemon(true)
+    thread.start()
+    thread
+  }
+
+  /**
+   * Offers a capture to the writer. Captures offered after [[shutdown]] are dropped.
+   *
+   * @return true if the capture was accepted, false if it was dropped.
+   */
+  def submit(capture: T): Boolean = {
+    val accepted = overflowPolicy match {
+      case PlanPrinterOverflowPolicy.DROP =>
+        whileOpen(buffer.offer(capture))
+      case PlanPrinterOverflowPolicy.BLOCK =>
+        try {
+          // wait for room in short steps, so that shutdown is not held back by a full buffer
+          var accepted = false
+          while (!accepted && !closed) {
+            accepted = whileOpen(buffer.offer(capture, 10, TimeUnit.MILLISECONDS))
+          }
+          accepted
+        } catch {
+          case _: InterruptedException =>
+            Thread.currentThread().interrupt()
+            false
+        }
+    }
+    if (accepted) submitted.incrementAndGet() else dropped.incrementAndGet()
+    accepted
+  }
+
+  def submittedCount: Long = submitted.get()
+
+  def droppedCount: Long = dropped.get()
+
+  def writtenCount: Long = written.get()
+
+  def failedCount: Long = failed.get()
+
+  def pendingCount: Int = buffer.size()
+
+  /**
+   * Stops accepting captures, and waits for the writer thread to write everything that was accepted before.
+   */
+  def shutdown(): Unit = {
+    closeLock.writeLock().lock()
+    try {
+      closed = true
+    } finally {
+      closeLock.writeLock().unlock()
+    }
+    writerThread.join()
+  }
+
+  private def whileOpen(offer: => Boolean): Boolean = {
+    closeLock.readLock().lock()
+    try {
+      !closed && offer
+    } finally {
+      closeLock.readLock().unlock()
+    }
+  }
+
+  private def drain(): Unit = {
+    // nothing is accepted once closed is set, so an empty buffer after that means everything has been written
+    while (!closed || !buffer.isEmpty) {
+      try {
+        val capture = buffer.poll(100, TimeUnit.MILLISECONDS)
+        if (capture != null) {
+          reportNewDrops()
+          writeSafely(capture)
+        }
+      } catch {
+        case _: InterruptedException => // re-check closed and drain what is left
+      }
+    }
+    reportNewDrops()
+  }
+
+  private def reportNewDrops(): Unit = {
+    val drops = dropped.get()
+    if (drops > reportedDrops) {
+      try {
+        reportDrops(drops - reportedDrops)
+      } catch {
+        case _: Throwable => // reporting is best effort
+      }
+      reportedDrops = drops
+    }
+  }
+
+  private def writeSafely(capture: T): Unit = {
+    try {
+      write(capture)
+      written.incrementAndGet()
+    } catch {
+      case _: Throwable => // a capture that cannot be rendered must not kill the writer
+        failed.incrementAndGet()
+    }
+  }
+}
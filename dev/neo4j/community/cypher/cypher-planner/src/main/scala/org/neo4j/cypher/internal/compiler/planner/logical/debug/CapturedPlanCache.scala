@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.debug
+
+import org.neo4j.cypher.internal.compiler.phases.LogicalPlanState
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.CapturedPlanCache.CapturedPlan
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.PlanFingerprintStore.PlanKey
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.LogicalPlanToPlanBuilderString
+
+import java.util
+
+import scala.collection.JavaConverters.collectionAsScalaIterableConverter
+
+/**
+ * Keeps the most recently captured plans in memory, without rendering them, so that they can be rendered on demand.
+ *
+ * The cache is bounded both by number of plans and by an estimate of the memory the plans retain. When either bound is
+ * exceeded, the least recently captured plans are evicted. Capturing a plan that is already cached counts as a use, and capturing
+ * a different plan for a query that is cached replaces its plan. Finished executions of a cached plan are added to it.
+ */
+class CapturedPlanCache(maxEntries: Int, maxEstimatedBytes: Long) {
+
+  // access ordered, so iteration goes from least to most recently captured
+  private val plans = new util.LinkedHashMap[PlanKey, CapturedPlan](16, 0.75f, true)
+  private var estimatedBytes = 0L
+  private var evictions = 0L
+
+  def put(key: PlanKey, state: LogicalPlanState, nowMillis: Long): Unit = synchronized {
+    val existing = plans.get(key)
+    if (existing != null && existing.isPlanOf(state)) {
+      existing.seenAgain(nowMillis)
+    } else {
+      val plan = new CapturedPlan(key, state, nowMillis)
+      val replaced = plans.put(key, plan)
+      if (replaced != null) {
+        estimatedBytes -= replaced.estimatedBytes
+      }
+      estimatedBytes += plan.estimatedBytes
+      evictIfNeeded()
+    }
+  }
+
+  /**
+   * Adds a finished execution of `plan` to the cached plan of `key`, if that is the plan that was executed.
+   */
+  def recordExecution(key: PlanKey, plan: LogicalPlan, rows: Long, success: Boolean): Unit = synchronized {
+    val existing = plans.get(key)
+    if (existing != null && existing.isPlan(plan)) {
+      existing.executed(rows, success)
+    }
+  }
+
+  /**
+   * The cached plans, most recently captured first.
+   */
+  def snapshot(): Seq[CapturedPlan] = synchronized {
+    plans.values().asScala.toVector.reverse
+  }
+
+  def size: Int = synchronized(plans.size())
+
+  def estimatedMemoryUsage: Long = synchronized(estimatedBytes)
+
+  def evictionCount: Long = synchronized(evictions)
+
+  def clear(): Unit = synchronized {
+    plans.clear()
+    estimatedBytes = 0L
+  }
+
+  private def evictIfNeeded(): Unit = {
+    val iterator = plans.values().iterator()
+    // never evict the plan that was just added
+    while ((plans.size() > maxEntries || estimatedBytes > maxEstimatedBytes) && plans.size() > 1) {
+      val eldest = iterator.next()
+      iterator.remove()
+      estimatedBytes -= eldest.estimatedBytes
+      evictions += 1
+    }
+  }
+}
+
+object CapturedPlanCache {
+
+  // Rough retained sizes: the AST, semantic table and query graph grow with the query text, the plan with its operators.
+  private val BYTES_PER_QUERY_CHAR = 64L
+  private val BYTES_PER_OPERATOR = 2048L
+
+  /**
+   * A captured plan. The different representations are rendered every time they are asked for, and not retained.
+   */
+  class CapturedPlan(val key: PlanKey, state: LogicalPlanState, val firstCapturedMillis: Long) {
+
+    @volatile private var _lastCapturedMillis = firstCapturedMillis
+    @volatile private var _captureCount = 1L
+    @volatile private var _executionCount = 0L
+    @volatile private var _failedExecutionCount = 0L
+    @volatile private var _lastRows = 0L
+    @volatile private var _totalRows = 0L
+
+    val queryText: String = state.queryText
+
+    val planId: String = PlanFingerprintStore.planId(state.logicalPlan)
+
+    val estimatedBytes: Long =
+      state.queryText.length * BYTES_PER_QUERY_CHAR + state.logicalPlan.flatten.size * BYTES_PER_OPERATOR
+
+    def queryGraph: String = state.query.toString
+    def ast: String = state.statement().toString
+    def semantics: String = state.semantics().toString
+    def logicalPlan: String = state.logicalPlan.toString
+    def logicalPlanBuilder: String = LogicalPlanToPlanBuilderString(state.logicalPlan)
+
+    def lastCapturedMillis: Long = _lastCapturedMillis
+
+    def captureCount: Long = _captureCount
+
+    def executionCount: Long = _executionCount
+
+    def failedExecutionCount: Long = _failedExecutionCount
+
+    /**
+     * Rows returned by the latest execution.
+     */
+    def lastRows: Long = _lastRows
+
+    /**
+     * Rows returned by all executions.
+     */
+    def totalRows: Long = _totalRows
+
+    private[CapturedPlanCache] def isPlanOf(other: LogicalPlanState): Boolean = isPlan(other.logicalPlan)
+
+    private[CapturedPlanCache] def isPlan(plan: LogicalPlan): Boolean = state.logicalPlan == plan
+
+    private[CapturedPlanCache] def executed(rows: Long, success: Boolean): Unit = {
+      _executionCount += 1
+      if (!success) {
+        _failedExecutionCount += 1
+      }
+      _lastRows = rows
+      _totalRows += rows
+    }
+
+    private[CapturedPlanCache] def seenAgain(nowMillis: Long): Unit = {
+      _lastCapturedMillis = nowMillis
+      _captureCount += 1
+    }
+  }
+}
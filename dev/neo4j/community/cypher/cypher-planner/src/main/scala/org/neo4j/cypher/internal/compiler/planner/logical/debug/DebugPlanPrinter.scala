@@ -2,19 +2,24 @@
 
 package org.neo4j.cypher.internal.compiler.planner.logical.debug
 
+import org.neo4j.configuration.GraphDatabaseInternalSettings.PlanPrinterMode
 import org.neo4j.cypher.internal.ast.AliasedReturnItem
 import org.neo4j.cypher.internal.ast.Query
 import org.neo4j.cypher.internal.ast.Return
 import org.neo4j.cypher.internal.ast.ReturnItems
 import org.neo4j.cypher.internal.ast.SingleQuery
 import org.neo4j.cypher.internal.ast.Statement
+import org.neo4j.cypher.internal.compiler.CypherPlannerConfiguration
 import org.neo4j.cypher.internal.compiler.phases.LogicalPlanState
 import org.neo4j.cypher.internal.compiler.phases.PlannerContext
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.CapturedPlanCache.CapturedPlan
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.PlanFingerprintStore.PlanKey
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.PlanFingerprintStore.Sighting
 import org.neo4j.cypher.internal.expressions.ListLiteral
 import org.neo4j.cypher.internal.expressions.StringLiteral
 import org.neo4j.cypher.internal.expressions.Variable
 import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer
-import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.LOGICAL_PLANNING
+import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.PLAN_CAPTURE
 import org.neo4j.cypher.internal.frontend.phases.Phase
 import org.neo4j.cypher.internal.logical.plans.Argument
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
@@ -24,17 +29,20 @@ import org.neo4j.cypher.internal.logical.plans.UnwindCollection
 import org.neo4j.cypher.internal.util.InputPosition
 import org.neo4j.cypher.internal.util.StepSequencer
 import org.neo4j.cypher.internal.util.attribution.SequentialIdGen
+import org.neo4j.values.virtual.MapValue
 
 import org.neo4j.cypher.internal.runtime.debug.DebugLog
 
+import java.time.Instant
+
+import scala.collection.JavaConverters.seqAsJavaListConverter
+
 /*
 	Just print out logical plans
 */
-case object DebugPlanPrinter extends Phase[PlannerContext, LogicalPlanState, LogicalPlanState] {
-
-  DebugLog.beginTime()
+case class DebugPlanPrinter(planningStartNanos: Long) extends Phase[PlannerContext, LogicalPlanState, LogicalPlanState] {
 
-  override def phase: CompilationPhaseTracer.CompilationPhase = LOGICAL_PLANNING
+  override def phase: CompilationPhaseTracer.CompilationPhase = PLAN_CAPTURE
 
   override def process(from: LogicalPlanState, context: PlannerContext): LogicalPlanState = {
 
@@ -52,15 +60,9 @@ case object DebugPlanPrinter extends Phase[PlannerContext, LogicalPlanState, Log
     // else
     //   """Output options are: queryGraph, ast, semanticstate, logicalplan, logicalplanbuilder"""
 
-	try {
-    DebugLog.log(s"######################################################\n######################################################\n######################################################")
-		DebugLog.log(s"QG : \n ${from.query.toString}")
-		DebugLog.log(s"AST: \n ${from.statement().toString}")
-		DebugLog.log(s"SEM: \n ${from.semantics().toString}")
-		DebugLog.log(s"LP : \n ${from.logicalPlan.toString}")
-		DebugLog.log(s"LPB: \n ${LogicalPlanToPlanBuilderString(from.logicalPlan)}")
-	} catch {
-		case _: Throwable => { DebugLog.log( "[DebugPlanPrinter] error occured while fetching logical query plans") }
+	val planningTimeNanos = System.nanoTime() - planningStartNanos
+	if (DebugPlanPrinter.captureFilter.shouldCapture(from.queryText, planningTimeNanos, context.config)) {
+		DebugPlanPrinter.capture(from, context.params, context.config, context.queryCorrelation)
 	}
 
 	// input never changes
@@ -86,4 +88,208 @@ case object DebugPlanPrinter extends Phase[PlannerContext, LogicalPlanState, Log
 
   override def postConditions: Set[StepSequencer.Condition] = Set.empty
 
-}
\ No newline at end of file
+}
+
+object DebugPlanPrinter {
+
+  DebugLog.beginTime()
+
+  /**
+   * Shared by all planners, so that the per-second capture budget is global.
+   */
+  val captureFilter = new PlanCaptureFilter()
+
+  sealed trait CaptureRecord {
+    def capturedAtMillis: Long
+  }
+
+  /**
+   * A plan that has not been printed before. It is rendered in full.
+   */
+  case class PlanCapture(state: LogicalPlanState, key: PlanKey, capturedAtMillis: Long, correlation: QueryCorrelation) extends CaptureRecord
+
+  /**
+   * A plan that has been printed before. Only the sighting is printed.
+   */
+  case class RepeatedPlan(sighting: Sighting, capturedAtMillis: Long, correlation: QueryCorrelation) extends CaptureRecord
+
+  /**
+   * A cached plan that was planned again. The diff against the plan it replaces is only computed when the record is printed.
+   */
+  case class ReplanRecord(previous: LogicalPlanState, current: LogicalPlanState, maybeReason: Option[String], capturedAtMillis: Long)
+    extends CaptureRecord
+
+  /**
+   * A finished execution of a plan, with the runtime statistics of the query. `dbHits` is only known for profiled executions.
+   */
+  case class ExecutionRecord(key: PlanKey,
+                             planId: String,
+                             correlation: QueryCorrelation,
+                             success: Boolean,
+                             rows: Long,
+                             dbHits: Option[Long],
+                             pageHits: Long,
+                             pageFaults: Long,
+                             elapsedMicros: Long,
+                             capturedAtMillis: Long) extends CaptureRecord
+
+  @volatile private var writer: AsyncPlanCaptureWriter[CaptureRecord] = _
+  @volatile private var fingerprintStore: PlanFingerprintStore = _
+  @volatile private var capturedPlanCache: CapturedPlanCache = _
+
+  def capture(from: LogicalPlanState,
+              params: MapValue,
+              config: CypherPlannerConfiguration,
+              correlation: QueryCorrelation = QueryCorrelation.NONE): Unit = {
+    val now = System.currentTimeMillis()
+    val key = PlanKey(from.queryText, params)
+
+    if (config.planPrinterMode == PlanPrinterMode.CACHE) {
+      // nothing is rendered until somebody asks for the plan
+      planCache(config).put(key, from, now)
+    } else {
+      val record =
+        if (config.planPrinterDeduplicate) {
+          val sighting = planStore(config).record(key, from.logicalPlan, now)
+          if (sighting.isFirst) PlanCapture(from, key, now, correlation) else RepeatedPlan(sighting, now, correlation)
+        } else {
+          PlanCapture(from, key, now, correlation)
+        }
+      write(record, config)
+    }
+  }
+
+  /**
+   * Whether finished executions of `queryText` should be reported with [[logExecution]].
+   */
+  def shouldLogExecutions(queryText: String, config: CypherPlannerConfiguration): Boolean =
+    config.planPrinterLogExecutions && captureFilter.isAllowed(queryText, config)
+
+  /**
+   * Logs a finished execution of `plan`. In "cache" mode, nothing is logged, and the execution is added to the cached plan instead.
+   */
+  def logExecution(record: ExecutionRecord, plan: LogicalPlan, config: CypherPlannerConfiguration): Unit =
+    if (config.planPrinterMode == PlanPrinterMode.CACHE) {
+      planCache(config).recordExecution(record.key, plan, record.rows, record.success)
+    } else {
+      write(record, config)
+    }
+
+  private def write(record: CaptureRecord, config: CypherPlannerConfiguration): Unit =
+    if (config.planPrinterMode == PlanPrinterMode.ASYNC) {
+      // LogicalPlanState is immutable, so holding on to it is a cheap snapshot; rendering happens on the writer thread
+      asyncWriter(config).submit(record)
+    } else {
+      printRecord(record)
+    }
+
+  /**
+   * Captures how the plan of a query changed when it was planned again, e.g. because the cached plan had become stale.
+   * Replans go through the same filter, sampling and writer as other captures, and are not captured in "cache" mode.
+   */
+  def captureReplan(previous: LogicalPlanState, current: LogicalPlanState, maybeReason: Option[String], config: CypherPlannerConfiguration): Unit =
+    if (config.planPrinterMode != PlanPrinterMode.CACHE && captureFilter.shouldCapture(current.queryText, config)) {
+      write(ReplanRecord(previous, current, maybeReason, System.currentTimeMillis()), config)
+    }
+
+  /**
+   * The plans kept in memory in "cache" mode, most recently captured first. Empty if no plan has been cached.
+   */
+  def capturedPlans(): java.util.List[CapturedPlan] = {
+    val cache = capturedPlanCache
+    if (cache == null) java.util.Collections.emptyList() else cache.snapshot().asJava
+  }
+
+  def planCache(config: CypherPlannerConfiguration): CapturedPlanCache = {
+    val current = capturedPlanCache
+    if (current != null) {
+      current
+    } else synchronized {
+      if (capturedPlanCache == null) {
+        capturedPlanCache = new CapturedPlanCache(config.planPrinterCacheSize, config.planPrinterCacheMaxMemory)
+      }
+      capturedPlanCache
+    }
+  }
+
+  def planStore(config: CypherPlannerConfiguration): PlanFingerprintStore = {
+    val current = fingerprintStore
+    if (current != null) {
+      current
+    } else synchronized {
+      if (fingerprintStore == null) {
+        fingerprintStore = new PlanFingerprintStore(config.planPrinterDeduplicationSize)
+      }
+      fingerprintStore
+    }
+  }
+
+  /**
+   * The writer shared by all planners. It is replaced when a planner asks for a different buffer size or overflow policy.
+   */
+  def asyncWriter(config: CypherPlannerConfiguration): AsyncPlanCaptureWriter[CaptureRecord] = {
+    val current = writer
+    if (current != null && current.capacity == config.planPrinterBufferSize && current.overflowPolicy == config.planPrinterOverflowPolicy) {
+      current
+    } else synchronized {
+      if (writer == null || writer.capacity != config.planPrinterBufferSize || writer.overflowPolicy != config.planPrinterOverflowPolicy) {
+        val previous = writer
+        val capacity = config.planPrinterBufferSize
+        writer = new AsyncPlanCaptureWriter[CaptureRecord](capacity, config.planPrinterOverflowPolicy, "DebugPlanPrinter",
+          drops => DebugLog.log(s"[DebugPlanPrinter] dropped $drops plan captures, buffer of $capacity was full"))(printRecord)
+        if (previous != null) {
+          previous.shutdown()
+        }
+      }
+      writer
+    }
+  }
+
+  private def printRecord(record: CaptureRecord): Unit = record match {
+    case PlanCapture(state, key, capturedAtMillis, correlation) =>
+      printPlans(state, key, capturedAtMillis, correlation)
+    case RepeatedPlan(sighting, capturedAtMillis, correlation) =>
+      DebugLog.logAt(capturedAtMillis, s"FP : ${sighting.key.queryFingerprint} plan ${sighting.planId}${tag(correlation)} seen again, count ${sighting.count}, first seen at ${Instant.ofEpochMilli(sighting.firstSeenMillis)}")
+    case execution: ExecutionRecord =>
+      DebugLog.logAt(execution.capturedAtMillis, formatExecution(execution))
+    case replan: ReplanRecord =>
+      printReplan(replan)
+  }
+
+  /**
+   * Prints the diff of a replan. Nothing is printed if the plans are the same.
+   */
+  private def printReplan(replan: ReplanRecord): Unit = {
+    val diff = PlanDiff(replan.previous, replan.current)
+    if (diff.nonEmpty) {
+      val fingerprint = PlanCaptureFilter.fingerprint(replan.current.queryText)
+      val reason = replan.maybeReason.fold("")(r => s" ($r)")
+      DebugLog.logAt(replan.capturedAtMillis, s"FP : $fingerprint replanned$reason, ${diff.summary}${diff.changes.map(change => s"\n     $change").mkString}")
+    }
+  }
+
+  private[debug] def formatExecution(execution: ExecutionRecord): String = {
+    val outcome = if (execution.success) "" else " failed,"
+    val dbHits = execution.dbHits.fold("")(hits => s" dbHits $hits,")
+    s"EX : ${execution.key.queryFingerprint} plan ${execution.planId}${tag(execution.correlation)}$outcome rows ${execution.rows},$dbHits " +
+      s"pageHits ${execution.pageHits}, pageFaults ${execution.pageFaults}, elapsed ${execution.elapsedMicros / 1000.0} ms"
+  }
+
+  private def tag(correlation: QueryCorrelation): String =
+    if (correlation == QueryCorrelation.NONE) "" else s" ${correlation.render}"
+
+  private def printPlans(from: LogicalPlanState, key: PlanKey, at: Long, correlation: QueryCorrelation): Unit = DebugLog.atomically {
+	try {
+		DebugLog.logAt(at, s"######################################################\n######################################################\n######################################################")
+		DebugLog.logAt(at, s"FP : ${key.queryFingerprint} plan ${PlanFingerprintStore.planId(from.logicalPlan)}${tag(correlation)}")
+		DebugLog.logAt(at, s"QG : \n ${from.query.toString}")
+		DebugLog.logAt(at, s"AST: \n ${from.statement().toString}")
+		// the semantic state and the plans grow with the query, so they are written out piece by piece
+		DebugLog.appendAt(at, "SEM: \n ")(from.semantics().appendTo)
+		DebugLog.appendAt(at, "LP : \n ")(from.logicalPlan.appendTo)
+		DebugLog.appendAt(at, "LPB: \n ")(LogicalPlanToPlanBuilderString.appendTo(from.logicalPlan, _))
+	} catch {
+		case _: Throwable => { DebugLog.logAt(at, "[DebugPlanPrinter] error occured while fetching logical query plans") }
+	}
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.debug
+
+import org.neo4j.cypher.internal.compiler.CypherPlannerConfiguration
+
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Decides which compilations the debug plan printer captures.
+ *
+ * All settings are read on every call, so changes to the dynamic plan printer settings take effect on the next compilation.
+ * The cheap checks run first and the per-second budget is only spent on compilations that pass all other checks.
+ */
+class PlanCaptureFilter(nanoClock: () => Long = () => System.nanoTime()) {
+
+  private val budgetWindowStart = new AtomicLong(nanoClock())
+  private val capturedInWindow = new AtomicInteger()
+  private val skippedOverBudget = new AtomicLong()
+
+  def shouldCapture(queryText: String, planningTimeNanos: Long, config: CypherPlannerConfiguration): Boolean =
+    config.planPrinterEnabled &&
+      planningTimeNanos >= config.planPrinterMinPlanningTimeNanos &&
+      isAllowed(queryText, config) &&
+      isSampled(config.planPrinterSampleRate) &&
+      withinBudget(config.planPrinterMaxCapturesPerSecond)
+
+  /**
+   * Like [[shouldCapture]], for captures that are not made right after planning, e.g. of replans, and so have no planning time.
+   */
+  def shouldCapture(queryText: String, config: CypherPlannerConfiguration): Boolean =
+    config.planPrinterEnabled &&
+      isAllowed(queryText, config) &&
+      isSampled(config.planPrinterSampleRate) &&
+      withinBudget(config.planPrinterMaxCapturesPerSecond)
+
+  /**
+   * Number of compilations that passed all filters but were not captured because the per-second budget was spent.
+   */
+  def skippedOverBudgetCount: Long = skippedOverBudget.get()
+
+  /**
+   * Whether the query filter and the fingerprints let `queryText` through, regardless of sampling and budget.
+   */
+  def isAllowed(queryText: String, config: CypherPlannerConfiguration): Boolean = {
+    val queryFilter = config.planPrinterQueryFilter
+    val fingerprints = config.planPrinterFingerprints
+    if (queryFilter.isEmpty && fingerprints.isEmpty) {
+      true
+    } else {
+      queryFilter.exists(_.matcher(queryText).find()) ||
+        (fingerprints.nonEmpty && fingerprints.contains(PlanCaptureFilter.fingerprint(queryText)))
+    }
+  }
+
+  private def isSampled(sampleRate: Double): Boolean =
+    sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate)
+
+  private def withinBudget(maxCapturesPerSecond: Int): Boolean = {
+    if (maxCapturesPerSecond <= 0) {
+      true
+    } else {
+      val now = nanoClock()
+      val windowStart = budgetWindowStart.get()
+      if (now - windowStart >= PlanCaptureFilter.BUDGET_WINDOW_NANOS && budgetWindowStart.compareAndSet(windowStart, now)) {
+        capturedInWindow.set(0)
+      }
+      val withinBudget = capturedInWindow.incrementAndGet() <= maxCapturesPerSecond
+      if (!withinBudget) {
+        skippedOverBudget.incrementAndGet()
+      }
+      withinBudget
+    }
+  }
+}
+
+object PlanCaptureFilter {
+
+  private val BUDGET_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1)
+
+  private val FNV_OFFSET_BASIS = 0xcbf29ce484222325L
+  private val FNV_PRIME = 0x100000001b3L
+
+  /**
+   * A stable fingerprint of a query text, insensitive to differences in whitespace.
+   * This is the value to put in the `unsupported.cypher.plan_printer.fingerprints` allow-list.
+   */
+  def fingerprint(queryText: String): String = {
+    var hash = FNV_OFFSET_BASIS
+    var seenContent = false
+    var pendingSpace = false
+    var i = 0
+    while (i < queryText.length) {
+      val c = queryText.charAt(i)
+      if (Character.isWhitespace(c)) {
+        pendingSpace = seenContent
+      } else {
+        if (pendingSpace) {
+          hash = (hash ^ ' ') * FNV_PRIME
+          pendingSpace = false
+        }
+        hash = (hash ^ c) * FNV_PRIME
+        seenContent = true
+      }
+      i += 1
+    }
+    f"$hash%016x"
+  }
+}
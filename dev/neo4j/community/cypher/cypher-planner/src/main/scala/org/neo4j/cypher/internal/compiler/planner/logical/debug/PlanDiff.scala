@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.debug
+
+import org.neo4j.cypher.internal.compiler.phases.LogicalPlanState
+import org.neo4j.cypher.internal.logical.plans.IndexUsage
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.SchemaIndexLookupUsage
+import org.neo4j.cypher.internal.logical.plans.SchemaLabelIndexUsage
+import org.neo4j.cypher.internal.logical.plans.SchemaRelationshipIndexUsage
+import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.Cardinalities
+
+import scala.collection.mutable
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * A compact structural comparison of two plans for the same query, e.g. the cached plan and the plan that replaced it after it became stale.
+ *
+ * The plans are walked side by side. Where the operators differ, the difference is reported and that subtree is not walked further.
+ * Where the same operator has different arguments, or an estimated cardinality that changed by at least a factor of
+ * [[PlanDiff.CARDINALITY_CHANGE_FACTOR]], that is reported as well. On top of that the order of the leaves, i.e. the join order,
+ * and the indexes that are used are compared.
+ *
+ * @param changes one line per difference, at most [[PlanDiff.MAX_CHANGES]] of them.
+ */
+case class PlanDiff(previousPlanId: String,
+                    currentPlanId: String,
+                    previousRows: Double,
+                    currentRows: Double,
+                    changes: Seq[String]) {
+
+  def isEmpty: Boolean = changes.isEmpty
+
+  def nonEmpty: Boolean = changes.nonEmpty
+
+  def summary: String = f"plan $previousPlanId -> $currentPlanId, estimated rows $previousRows%.1f -> $currentRows%.1f"
+}
+
+object PlanDiff {
+
+  val MAX_CHANGES = 20
+  val CARDINALITY_CHANGE_FACTOR = 2.0
+
+  private val MAX_ARGUMENTS_LENGTH = 80
+
+  def apply(previous: LogicalPlanState, current: LogicalPlanState): PlanDiff = {
+    val changes = new ArrayBuffer[String]()
+    val previousCardinalities = previous.planningAttributes.cardinalities
+    val currentCardinalities = current.planningAttributes.cardinalities
+
+    compareTrees(previous.logicalPlan, current.logicalPlan, previousCardinalities, currentCardinalities, changes)
+
+    val previousLeaves = previous.logicalPlan.leaves.map(describeLeaf)
+    val currentLeaves = current.logicalPlan.leaves.map(describeLeaf)
+    if (previousLeaves != currentLeaves) {
+      changes += s"join order: ${previousLeaves.mkString("[", ", ", "]")} -> ${currentLeaves.mkString("[", ", ", "]")}"
+    }
+
+    val previousIndexes = previous.logicalPlan.indexUsage().map(describeIndex).toSet
+    val currentIndexes = current.logicalPlan.indexUsage().map(describeIndex).toSet
+    if (previousIndexes != currentIndexes) {
+      val removed = (previousIndexes -- currentIndexes).toSeq.sorted.map("-" + _)
+      val added = (currentIndexes -- previousIndexes).toSeq.sorted.map("+" + _)
+      changes += s"indexes: ${(removed ++ added).mkString(" ")}"
+    }
+
+    val limited =
+      if (changes.size <= MAX_CHANGES) changes
+      else changes.take(MAX_CHANGES) :+ s"... and ${changes.size - MAX_CHANGES} more"
+
+    PlanDiff(
+      PlanFingerprintStore.planId(previous.logicalPlan),
+      PlanFingerprintStore.planId(current.logicalPlan),
+      rows(previous.logicalPlan, previousCardinalities),
+      rows(current.logicalPlan, currentCardinalities),
+      limited.toVector)
+  }
+
+  private def compareTrees(previousRoot: LogicalPlan,
+                           currentRoot: LogicalPlan,
+                           previousCardinalities: Cardinalities,
+                           currentCardinalities: Cardinalities,
+                           changes: ArrayBuffer[String]): Unit = {
+    val stack = new mutable.ArrayStack[(String, LogicalPlan, LogicalPlan)]
+    stack.push(("root", previousRoot, currentRoot))
+
+    while (stack.nonEmpty) {
+      val (path, previous, current) = stack.pop()
+      if (previous.getClass != current.getClass) {
+        changes += s"$path: ${describe(previous)} -> ${describe(current)}"
+      } else {
+        if (arguments(previous) != arguments(current)) {
+          changes += s"$path: ${describe(previous)} -> ${describe(current)}"
+        }
+        val previousRows = rows(previous, previousCardinalities)
+        val currentRows = rows(current, currentCardinalities)
+        if (changedSignificantly(previousRows, currentRows)) {
+          changes += f"$path: ${previous.productPrefix} estimated rows $previousRows%.1f -> $currentRows%.1f"
+        }
+        // same operator, so the same children
+        (previous.rhs, current.rhs) match {
+          case (Some(p), Some(c)) => stack.push((s"$path.R", p, c))
+          case _ =>
+        }
+        (previous.lhs, current.lhs) match {
+          case (Some(p), Some(c)) => stack.push((s"$path.L", p, c))
+          case _ =>
+        }
+      }
+    }
+  }
+
+  private def rows(plan: LogicalPlan, cardinalities: Cardinalities): Double =
+    if (cardinalities.isDefinedAt(plan.id)) cardinalities.get(plan.id).amount else Double.NaN
+
+  private def changedSignificantly(previous: Double, current: Double): Boolean = {
+    if (previous.isNaN || current.isNaN) {
+      false
+    } else {
+      val low = Math.max(Math.min(previous, current), 1.0)
+      val high = Math.max(Math.max(previous, current), 1.0)
+      high / low >= CARDINALITY_CHANGE_FACTOR
+    }
+  }
+
+  private def arguments(plan: LogicalPlan): Seq[Any] = {
+    val children = plan.lhs.toSeq ++ plan.rhs.toSeq
+    plan.productIterator.filterNot(field => children.exists(_ eq field.asInstanceOf[AnyRef])).toSeq
+  }
+
+  private def describe(plan: LogicalPlan): String = {
+    val args = arguments(plan).mkString(", ")
+    val shortArgs = if (args.length > MAX_ARGUMENTS_LENGTH) args.substring(0, MAX_ARGUMENTS_LENGTH) + "..." else args
+    s"${plan.productPrefix}($shortArgs)"
+  }
+
+  private def describeLeaf(plan: LogicalPlan): String =
+    if (plan.productArity > 0) s"${plan.productPrefix}(${plan.productElement(0)})" else plan.productPrefix
+
+  private def describeIndex(usage: IndexUsage): String = usage match {
+    case SchemaLabelIndexUsage(identifier, _, label, properties) => s"$identifier:$label(${properties.map(_.name).mkString(",")})"
+    case SchemaRelationshipIndexUsage(identifier, _, relType, properties) => s"$identifier:$relType(${properties.map(_.name).mkString(",")})"
+    case SchemaIndexLookupUsage(identifier, entityType) => s"$identifier:$entityType lookup"
+  }
+}
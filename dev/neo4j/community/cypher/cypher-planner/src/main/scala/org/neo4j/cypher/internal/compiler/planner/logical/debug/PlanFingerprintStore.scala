@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.debug
+
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.PlanFingerprintStore.PlanKey
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.PlanFingerprintStore.Sighting
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.values.virtual.MapValue
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Remembers which distinct plans have already been printed, so that a replan that produces the same plan for the same query
+ * only needs a compact "seen again" record instead of all rendered representations.
+ *
+ * Plans are keyed like the query cache, by query text and parameter types, and the store keeps the latest plan of every key.
+ * A plan is only reported as seen again if it is equal to that plan, so plans are never told apart by their hash alone.
+ * The store remembers at most `maxEntries` queries. Once full, plans of new queries are still reported as first sightings
+ * but are not remembered.
+ */
+class PlanFingerprintStore(maxEntries: Int) {
+
+  private val entries = new ConcurrentHashMap[PlanKey, PlanFingerprintStore.Entry]()
+
+  /**
+   * Records that `plan` was planned for `key` at `nowMillis`.
+   */
+  def record(key: PlanKey, plan: LogicalPlan, nowMillis: Long): Sighting = {
+    if (!entries.containsKey(key) && entries.size() >= maxEntries) {
+      Sighting(key, PlanFingerprintStore.planId(plan), count = 1, firstSeenMillis = nowMillis, lastSeenMillis = nowMillis)
+    } else {
+      // a different plan for the same query replaces the previous one, like in the query cache
+      val entry = entries.compute(key, (_, current) =>
+        if (current != null && current.plan == plan) current else new PlanFingerprintStore.Entry(plan, nowMillis))
+      entry.seen(key, nowMillis)
+    }
+  }
+
+  def size: Int = entries.size()
+
+  def clear(): Unit = entries.clear()
+}
+
+object PlanFingerprintStore {
+
+  /**
+   * Identifies a query the same way as the query cache does, by its text and the types of its parameters.
+   */
+  case class PlanKey(queryText: String, parameterTypes: Map[String, Class[_]]) {
+    lazy val queryFingerprint: String = PlanCaptureFilter.fingerprint(queryText)
+  }
+
+  object PlanKey {
+    def apply(queryText: String, params: MapValue): PlanKey = {
+      val parameterTypes = Map.newBuilder[String, Class[_]]
+      params.foreach((name, value) => parameterTypes += name -> value.getClass)
+      PlanKey(queryText, parameterTypes.result())
+    }
+  }
+
+  /**
+   * A short label of a plan for the log. It is derived from the structural hash of the plan, which does not include plan ids,
+   * so it is only used to tell plans apart when reading the log, never to identify them.
+   */
+  def planId(plan: LogicalPlan): String = f"${plan.hashCode}%08x"
+
+  case class Sighting(key: PlanKey, planId: String, count: Long, firstSeenMillis: Long, lastSeenMillis: Long) {
+    def isFirst: Boolean = count == 1
+  }
+
+  private class Entry(val plan: LogicalPlan, firstSeenMillis: Long) {
+    private val count = new AtomicLong()
+    private val planId = PlanFingerprintStore.planId(plan)
+
+    def seen(key: PlanKey, nowMillis: Long): Sighting = Sighting(key, planId, count.incrementAndGet(), firstSeenMillis, nowMillis)
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.debug
+
+/**
+ * The query execution, and the transaction it runs in, that a plan capture or an execution record belongs to.
+ *
+ * The ids are rendered like `dbms.listQueries()` and `dbms.listTransactions()` render them, and like the query log does, so
+ * that a captured plan can be joined with the executions that used it.
+ */
+case class QueryCorrelation(queryId: Long, databaseName: String, transactionId: Long) {
+
+  def render: String = s"query-$queryId $databaseName-transaction-$transactionId"
+}
+
+object QueryCorrelation {
+
+  /**
+   * For compilations that do not belong to an executing query, e.g. in tests.
+   */
+  val NONE: QueryCorrelation = QueryCorrelation(-1L, "", -1L)
+}
@@ -25,7 +25,7 @@ import org.neo4j.cypher.internal.compiler.phases.LogicalPlanState
 import org.neo4j.cypher.internal.compiler.phases.PlannerContext
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.PlanIDsAreCompressed
 import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase
-import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.LOGICAL_PLANNING
+import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.PLAN_REWRITING
 import org.neo4j.cypher.internal.frontend.phases.Phase
 import org.neo4j.cypher.internal.frontend.phases.factories.PlanPipelineTransformerFactory
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
@@ -94,7 +94,7 @@ case object PlanRewriter extends LogicalPlanRewriter with StepSequencer.Step wit
 trait LogicalPlanRewriter extends Phase[PlannerContext, LogicalPlanState, LogicalPlanState] {
   self: Product =>
 
-  override def phase: CompilationPhase = LOGICAL_PLANNING
+  override def phase: CompilationPhase = PLAN_REWRITING
 
   def instance(context: PlannerContext,
                solveds: Solveds,
@@ -24,7 +24,7 @@ import org.neo4j.cypher.internal.compiler.phases.CompilationContains
 import org.neo4j.cypher.internal.compiler.phases.LogicalPlanState
 import org.neo4j.cypher.internal.compiler.phases.PlannerContext
 import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer
-import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.LOGICAL_PLANNING
+import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.PLAN_REWRITING
 import org.neo4j.cypher.internal.frontend.phases.Phase
 import org.neo4j.cypher.internal.frontend.phases.Transformer
 import org.neo4j.cypher.internal.frontend.phases.factories.PlanPipelineTransformerFactory
@@ -46,7 +46,7 @@ case object PlanIDsAreCompressed extends StepSequencer.Condition
  */
 case object CompressPlanIDs extends Phase[PlannerContext, LogicalPlanState, LogicalPlanState] with StepSequencer.Step with PlanPipelineTransformerFactory {
 
-  override def phase: CompilationPhaseTracer.CompilationPhase = LOGICAL_PLANNING
+  override def phase: CompilationPhaseTracer.CompilationPhase = PLAN_REWRITING
 
   override def process(from: LogicalPlanState, context: PlannerContext): LogicalPlanState = {
     val oldAttributes = from.planningAttributes
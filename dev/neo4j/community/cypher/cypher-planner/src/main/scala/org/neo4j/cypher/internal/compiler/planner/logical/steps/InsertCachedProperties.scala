@@ -37,7 +37,7 @@ import org.neo4j.cypher.internal.expressions.PropertyKeyName
 import org.neo4j.cypher.internal.expressions.RELATIONSHIP_TYPE
 import org.neo4j.cypher.internal.expressions.Variable
 import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer
-import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.LOGICAL_PLANNING
+import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.PLAN_REWRITING
 import org.neo4j.cypher.internal.frontend.phases.Phase
 import org.neo4j.cypher.internal.frontend.phases.Transformer
 import org.neo4j.cypher.internal.frontend.phases.factories.PlanPipelineTransformerFactory
@@ -71,7 +71,7 @@ case object PropertiesAreCached extends StepSequencer.Condition
  */
 case class InsertCachedProperties(pushdownPropertyReads: Boolean) extends Phase[PlannerContext, LogicalPlanState, LogicalPlanState] {
 
-  override def phase: CompilationPhaseTracer.CompilationPhase = LOGICAL_PLANNING
+  override def phase: CompilationPhaseTracer.CompilationPhase = PLAN_REWRITING
 
   override def postConditions: Set[StepSequencer.Condition] = InsertCachedProperties.postConditions
 
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.debug
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings.PlanPrinterOverflowPolicy
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+
+import scala.collection.JavaConverters.collectionAsScalaIterableConverter
+
+class AsyncPlanCaptureWriterTest extends CypherFunSuite {
+
+  test("should write all captures on the writer thread") {
+    val written = new ConcurrentLinkedQueue[(Int, String)]()
+    val writer = new AsyncPlanCaptureWriter[Int](16, PlanPrinterOverflowPolicy.BLOCK, "test-writer")(i => written.add((i, Thread.currentThread().getName)))
+
+    (1 to 100).foreach(writer.submit)
+    writer.shutdown()
+
+    written.asScala.map(_._1).toSeq should equal(1 to 100)
+    written.asScala.map(_._2).toSet should equal(Set("test-writer"))
+    writer.submittedCount should equal(100)
+    writer.writtenCount should equal(100)
+    writer.droppedCount should equal(0)
+  }
+
+  test("should drop and count captures when the buffer is full") {
+    val blockWriter = new CountDownLatch(1)
+    val writer = new AsyncPlanCaptureWriter[Int](2, PlanPrinterOverflowPolicy.DROP, "test-writer")(_ => blockWriter.await())
+
+    // one capture is taken by the writer thread, two fill the buffer, the rest must be dropped
+    val accepted = (1 to 10).count(writer.submit)
+    blockWriter.countDown()
+    writer.shutdown()
+
+    accepted should be <= 3
+    writer.droppedCount should equal(10 - accepted)
+    writer.writtenCount should equal(accepted)
+  }
+
+  test("should survive captures that fail to render") {
+    val written = new ConcurrentLinkedQueue[Int]()
+    val writer = new AsyncPlanCaptureWriter[Int](4, PlanPrinterOverflowPolicy.BLOCK, "test-writer")(i =>
+      if (i == 2) throw new IllegalStateException("boom") else written.add(i))
+
+    (1 to 3).foreach(writer.submit)
+    writer.shutdown()
+
+    written.asScala.toSeq should equal(Seq(1, 3))
+    writer.writtenCount should equal(2)
+    writer.failedCount should equal(1)
+  }
+
+  test("should write everything that is queued before shutting down") {
+    val written = new ConcurrentLinkedQueue[Int]()
+    val slowWriter = new AsyncPlanCaptureWriter[Int](64, PlanPrinterOverflowPolicy.BLOCK, "test-writer")(i => {
+      Thread.sleep(1)
+      written.add(i)
+    })
+
+    (1 to 50).foreach(slowWriter.submit)
+    slowWriter.shutdown()
+
+    written.asScala.toSeq should equal(1 to 50)
+    slowWriter.writtenCount should equal(50)
+    slowWriter.pendingCount should equal(0)
+  }
+
+  test("should release blocked producers and drop captures on shutdown") {
+    val writing = new CountDownLatch(1)
+    val blockWriter = new CountDownLatch(1)
+    val writer = new AsyncPlanCaptureWriter[Int](1, PlanPrinterOverflowPolicy.BLOCK, "test-writer")(_ => {
+      writing.countDown()
+      blockWriter.await()
+    })
+    // one capture is taken by the writer thread, one fills the buffer
+    writer.submit(1)
+    writing.await()
+    writer.submit(2)
+    val blockedProducer = new Thread(() => writer.submit(3))
+    blockedProducer.start()
+
+    val shutdown = new Thread(() => writer.shutdown())
+    shutdown.start()
+    blockedProducer.join()
+    blockWriter.countDown()
+    shutdown.join()
+
+    writer.submit(4) should be(false)
+    writer.submittedCount should equal(2)
+    writer.droppedCount should equal(2)
+    writer.writtenCount should equal(2)
+  }
+
+  test("should report drops of its own buffer on the writer thread") {
+    val reported = new ConcurrentLinkedQueue[(Long, String)]()
+    val blockWriter = new CountDownLatch(1)
+    val writer = new AsyncPlanCaptureWriter[Int](1, PlanPrinterOverflowPolicy.DROP, "test-writer",
+      drops => reported.add((drops, Thread.currentThread().getName)))(_ => blockWriter.await())
+
+    val accepted = (1 to 10).count(writer.submit)
+    blockWriter.countDown()
+    writer.shutdown()
+
+    reported.asScala.map(_._1).sum should equal(10 - accepted)
+    reported.asScala.map(_._2).toSet should equal(Set("test-writer"))
+  }
+}
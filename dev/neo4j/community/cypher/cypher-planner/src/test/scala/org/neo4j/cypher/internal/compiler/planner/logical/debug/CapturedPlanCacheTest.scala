@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.debug
+
+import org.neo4j.cypher.internal.compiler.phases.LogicalPlanState
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.PlanFingerprintStore.PlanKey
+import org.neo4j.cypher.internal.frontend.phases.InitialState
+import org.neo4j.cypher.internal.logical.plans.AllNodesScan
+import org.neo4j.cypher.internal.logical.plans.ProduceResult
+import org.neo4j.cypher.internal.planner.spi.IDPPlannerName
+import org.neo4j.cypher.internal.util.AnonymousVariableNameGenerator
+import org.neo4j.cypher.internal.util.attribution.SequentialIdGen
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+class CapturedPlanCacheTest extends CypherFunSuite {
+
+  test("should list the most recently captured plans first") {
+    val cache = new CapturedPlanCache(10, Long.MaxValue)
+
+    cache.put(planKey("MATCH (a) RETURN a"), state("MATCH (a) RETURN a"), 100)
+    cache.put(planKey("MATCH (b) RETURN b"), state("MATCH (b) RETURN b"), 200)
+    cache.put(planKey("MATCH (a) RETURN a"), state("MATCH (a) RETURN a"), 300)
+
+    cache.snapshot().map(_.queryText) should equal(Seq("MATCH (a) RETURN a", "MATCH (b) RETURN b"))
+  }
+
+  test("should count repeated captures of the same plan") {
+    val cache = new CapturedPlanCache(10, Long.MaxValue)
+
+    cache.put(planKey("MATCH (a) RETURN a"), state("MATCH (a) RETURN a"), 100)
+    cache.put(planKey("MATCH (a) RETURN a"), state("MATCH (a) RETURN a"), 300)
+
+    val Seq(plan) = cache.snapshot()
+    plan.captureCount should equal(2)
+    plan.firstCapturedMillis should equal(100)
+    plan.lastCapturedMillis should equal(300)
+    plan.queryText should equal("MATCH (a) RETURN a")
+    plan.logicalPlan should include("AllNodesScan")
+  }
+
+  test("should replace the plan of a query that was planned differently") {
+    val cache = new CapturedPlanCache(10, Long.MaxValue)
+
+    cache.put(planKey("MATCH (a) RETURN a"), state("MATCH (a) RETURN a"), 100)
+    cache.put(planKey("MATCH (a) RETURN a"), state("MATCH (a) RETURN a", variable = "m"), 300)
+
+    val Seq(plan) = cache.snapshot()
+    plan.captureCount should equal(1)
+    plan.firstCapturedMillis should equal(300)
+    plan.logicalPlan should include("m")
+    cache.estimatedMemoryUsage should equal(plan.estimatedBytes)
+  }
+
+  test("should add executions to the cached plan that was executed") {
+    val cache = new CapturedPlanCache(10, Long.MaxValue)
+    val cached = state("MATCH (a) RETURN a")
+    cache.put(planKey("MATCH (a) RETURN a"), cached, 100)
+
+    cache.recordExecution(planKey("MATCH (a) RETURN a"), cached.logicalPlan, 3, success = true)
+    cache.recordExecution(planKey("MATCH (a) RETURN a"), cached.logicalPlan, 1, success = false)
+    cache.recordExecution(planKey("MATCH (a) RETURN a"), state("MATCH (a) RETURN a", variable = "m").logicalPlan, 7, success = true)
+    cache.recordExecution(planKey("MATCH (b) RETURN b"), cached.logicalPlan, 11, success = true)
+
+    val Seq(plan) = cache.snapshot()
+    plan.executionCount should equal(2)
+    plan.failedExecutionCount should equal(1)
+    plan.lastRows should equal(1)
+    plan.totalRows should equal(4)
+  }
+
+  test("should evict the least recently captured plan when full") {
+    val cache = new CapturedPlanCache(2, Long.MaxValue)
+
+    cache.put(planKey("MATCH (a) RETURN a"), state("MATCH (a) RETURN a"), 100)
+    cache.put(planKey("MATCH (b) RETURN b"), state("MATCH (b) RETURN b"), 200)
+    cache.put(planKey("MATCH (a) RETURN a"), state("MATCH (a) RETURN a"), 300)
+    cache.put(planKey("MATCH (c) RETURN c"), state("MATCH (c) RETURN c"), 400)
+
+    cache.snapshot().map(_.queryText) should equal(Seq("MATCH (c) RETURN c", "MATCH (a) RETURN a"))
+    cache.evictionCount should equal(1)
+  }
+
+  test("should evict plans when over the memory estimate but always keep the latest") {
+    val first = state("MATCH (a) RETURN a")
+    val cache = new CapturedPlanCache(10, new CapturedPlanCache.CapturedPlan(planKey("MATCH (a) RETURN a"), first, 0).estimatedBytes)
+
+    cache.put(planKey("MATCH (a) RETURN a"), first, 100)
+    cache.put(planKey("MATCH (b) RETURN b, b AS longer"), state("MATCH (b) RETURN b, b AS longer"), 200)
+
+    cache.snapshot().map(_.queryText) should equal(Seq("MATCH (b) RETURN b, b AS longer"))
+    cache.estimatedMemoryUsage should be > 0L
+    cache.clear()
+    cache.size should equal(0)
+    cache.estimatedMemoryUsage should equal(0)
+  }
+
+  private def planKey(queryText: String): PlanKey = PlanKey(queryText, Map.empty[String, Class[_]])
+
+  private def state(queryText: String, variable: String = "n"): LogicalPlanState = {
+    val plan = ProduceResult(AllNodesScan(variable, Set.empty)(new SequentialIdGen()), Seq(variable))(new SequentialIdGen())
+    LogicalPlanState(InitialState(queryText, None, IDPPlannerName, new AnonymousVariableNameGenerator))
+      .withMaybeLogicalPlan(Some(plan))
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.debug
+
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.DebugPlanPrinter.ExecutionRecord
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.PlanFingerprintStore.PlanKey
+import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.PLAN_CAPTURE
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+class DebugPlanPrinterTest extends CypherFunSuite {
+
+  private val planKey = PlanKey("MATCH (n) RETURN n", Map.empty[String, Class[_]])
+  private val fingerprint = planKey.queryFingerprint
+
+  test("should tag executions with the query and transaction id") {
+    val record = ExecutionRecord(planKey, "3c1e9a7f", QueryCorrelation(12, "neo4j", 34), success = true, rows = 5, dbHits = None,
+      pageHits = 100, pageFaults = 2, elapsedMicros = 1500, capturedAtMillis = 0)
+
+    DebugPlanPrinter.formatExecution(record) should equal(
+      s"EX : $fingerprint plan 3c1e9a7f query-12 neo4j-transaction-34 rows 5, pageHits 100, pageFaults 2, elapsed 1.5 ms")
+  }
+
+  test("should report db hits and failures of executions") {
+    val record = ExecutionRecord(planKey, "3c1e9a7f", QueryCorrelation(12, "neo4j", 34), success = false, rows = 0, dbHits = Some(42),
+      pageHits = 100, pageFaults = 2, elapsedMicros = 1500, capturedAtMillis = 0)
+
+    DebugPlanPrinter.formatExecution(record) should equal(
+      s"EX : $fingerprint plan 3c1e9a7f query-12 neo4j-transaction-34 failed, rows 0, dbHits 42, pageHits 100, pageFaults 2, elapsed 1.5 ms")
+  }
+
+  test("should leave out the tag of uncorrelated records") {
+    val record = ExecutionRecord(planKey, "3c1e9a7f", QueryCorrelation.NONE, success = true, rows = 5, dbHits = None,
+      pageHits = 100, pageFaults = 2, elapsedMicros = 1500, capturedAtMillis = 0)
+
+    DebugPlanPrinter.formatExecution(record) should startWith(s"EX : $fingerprint plan 3c1e9a7f rows 5,")
+  }
+
+  test("should not be timed as logical planning") {
+    DebugPlanPrinter(System.nanoTime()).phase should equal(PLAN_CAPTURE)
+  }
+}
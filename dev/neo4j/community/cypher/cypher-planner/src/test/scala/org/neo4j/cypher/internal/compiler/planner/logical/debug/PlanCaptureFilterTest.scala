@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.debug
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.cypher.internal.compiler.CypherPlannerConfiguration
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.graphdb.config.Setting
+
+import java.time.Duration
+import java.util.concurrent.TimeUnit
+
+class PlanCaptureFilterTest extends CypherFunSuite {
+
+  private val query = "MATCH (n:Person) RETURN n"
+
+  test("should capture everything by default") {
+    new PlanCaptureFilter().shouldCapture(query, 0, CypherPlannerConfiguration.defaults()) shouldBe true
+  }
+
+  test("should not capture when disabled") {
+    val config = configWith(GraphDatabaseInternalSettings.cypher_plan_printer_enabled -> java.lang.Boolean.FALSE)
+
+    new PlanCaptureFilter().shouldCapture(query, 0, config) shouldBe false
+  }
+
+  test("should not capture with sample rate 0") {
+    val config = configWith(GraphDatabaseInternalSettings.cypher_plan_printer_sample_rate -> java.lang.Double.valueOf(0.0))
+
+    new PlanCaptureFilter().shouldCapture(query, 0, config) shouldBe false
+  }
+
+  test("should only capture queries that planned for long enough") {
+    val config = configWith(GraphDatabaseInternalSettings.cypher_plan_printer_min_planning_time -> Duration.ofMillis(10))
+    val filter = new PlanCaptureFilter()
+
+    filter.shouldCapture(query, TimeUnit.MILLISECONDS.toNanos(9), config) shouldBe false
+    filter.shouldCapture(query, TimeUnit.MILLISECONDS.toNanos(10), config) shouldBe true
+  }
+
+  test("should only capture queries matching the query filter") {
+    val config = configWith(GraphDatabaseInternalSettings.cypher_plan_printer_query_filter -> ":Person")
+    val filter = new PlanCaptureFilter()
+
+    filter.shouldCapture(query, 0, config) shouldBe true
+    filter.shouldCapture("MATCH (n:Movie) RETURN n", 0, config) shouldBe false
+  }
+
+  test("should only capture queries in the fingerprint allow-list") {
+    val config = configWith(GraphDatabaseInternalSettings.cypher_plan_printer_fingerprints -> java.util.Collections.singletonList(PlanCaptureFilter.fingerprint(query)))
+    val filter = new PlanCaptureFilter()
+
+    filter.shouldCapture("MATCH  (n:Person)\n RETURN n ", 0, config) shouldBe true
+    filter.shouldCapture("MATCH (n:Movie) RETURN n", 0, config) shouldBe false
+  }
+
+  test("should filter and sample captures without a planning time") {
+    val filter = new PlanCaptureFilter()
+    val filtered = configWith(GraphDatabaseInternalSettings.cypher_plan_printer_query_filter -> ":Person")
+    val unsampled = configWith(GraphDatabaseInternalSettings.cypher_plan_printer_sample_rate -> java.lang.Double.valueOf(0.0))
+    val disabled = configWith(GraphDatabaseInternalSettings.cypher_plan_printer_enabled -> java.lang.Boolean.FALSE)
+    val slowOnly = configWith(GraphDatabaseInternalSettings.cypher_plan_printer_min_planning_time -> Duration.ofMillis(10))
+
+    filter.shouldCapture(query, filtered) shouldBe true
+    filter.shouldCapture("MATCH (n:Movie) RETURN n", filtered) shouldBe false
+    filter.shouldCapture(query, unsampled) shouldBe false
+    filter.shouldCapture(query, disabled) shouldBe false
+    filter.shouldCapture(query, slowOnly) shouldBe true
+  }
+
+  test("fingerprint should ignore whitespace differences but not content") {
+    PlanCaptureFilter.fingerprint(query) should equal(PlanCaptureFilter.fingerprint(s"  $query\n"))
+    PlanCaptureFilter.fingerprint(query) should equal(PlanCaptureFilter.fingerprint("MATCH (n:Person)\n\tRETURN n"))
+    PlanCaptureFilter.fingerprint(query) should not equal PlanCaptureFilter.fingerprint("MATCH (n:Person) RETURN n.name")
+  }
+
+  test("should respect the per-second capture budget") {
+    var now = 0L
+    val config = configWith(GraphDatabaseInternalSettings.cypher_plan_printer_max_captures_per_second -> Integer.valueOf(2))
+    val filter = new PlanCaptureFilter(() => now)
+
+    (1 to 5).map(_ => filter.shouldCapture(query, 0, config)) should equal(Seq(true, true, false, false, false))
+    filter.skippedOverBudgetCount should equal(3)
+
+    now += TimeUnit.SECONDS.toNanos(1)
+    filter.shouldCapture(query, 0, config) shouldBe true
+  }
+
+  private def configWith(setting: (Setting[_], AnyRef)): CypherPlannerConfiguration =
+    CypherPlannerConfiguration.withSettings(Map(setting))
+}
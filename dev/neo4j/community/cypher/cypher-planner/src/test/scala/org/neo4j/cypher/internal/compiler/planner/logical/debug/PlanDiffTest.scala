@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.debug
+
+import org.neo4j.cypher.internal.compiler.phases.LogicalPlanState
+import org.neo4j.cypher.internal.expressions.LabelName
+import org.neo4j.cypher.internal.frontend.phases.InitialState
+import org.neo4j.cypher.internal.logical.plans.AllNodesScan
+import org.neo4j.cypher.internal.logical.plans.CartesianProduct
+import org.neo4j.cypher.internal.logical.plans.IndexOrderNone
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
+import org.neo4j.cypher.internal.logical.plans.ProduceResult
+import org.neo4j.cypher.internal.planner.spi.IDPPlannerName
+import org.neo4j.cypher.internal.util.AnonymousVariableNameGenerator
+import org.neo4j.cypher.internal.util.Cardinality
+import org.neo4j.cypher.internal.util.InputPosition
+import org.neo4j.cypher.internal.util.attribution.IdGen
+import org.neo4j.cypher.internal.util.attribution.SequentialIdGen
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+class PlanDiffTest extends CypherFunSuite {
+
+  private val query = "MATCH (a), (b) RETURN a, b"
+
+  test("should not report differences between structurally equal plans") {
+    val diff = PlanDiff(state(cartesian("a", "b")()), state(cartesian("a", "b")()))
+
+    diff.isEmpty shouldBe true
+    diff.previousPlanId should equal(diff.currentPlanId)
+  }
+
+  test("should report a changed operator and not descend into it") {
+    val label: IdGen => LogicalPlan = NodeByLabelScan("b", LabelName("B")(InputPosition.NONE), Set.empty, IndexOrderNone)(_)
+
+    val diff = PlanDiff(state(cartesian("a", "b")()), state(cartesian("a", "b")(label)))
+
+    diff.changes should contain("root.L.R: AllNodesScan(b, Set()) -> NodeByLabelScan(b, LabelName(B), Set(), IndexOrderNone)")
+    diff.previousPlanId should not equal diff.currentPlanId
+  }
+
+  test("should report a changed join order") {
+    val diff = PlanDiff(state(cartesian("a", "b")()), state(cartesian("b", "a")()))
+
+    diff.changes should contain("join order: [AllNodesScan(a), AllNodesScan(b)] -> [AllNodesScan(b), AllNodesScan(a)]")
+  }
+
+  test("should only report estimated cardinalities that changed significantly") {
+    val previous = state(cartesian("a", "b")(), rows = 10)
+    val slightlyChanged = state(cartesian("a", "b")(), rows = 15)
+    val changed = state(cartesian("a", "b")(), rows = 100)
+
+    PlanDiff(previous, slightlyChanged).isEmpty shouldBe true
+
+    val diff = PlanDiff(previous, changed)
+    diff.changes should contain("root: ProduceResult estimated rows 10.0 -> 100.0")
+    diff.previousRows should equal(10.0)
+    diff.currentRows should equal(100.0)
+  }
+
+  private def cartesian(lhs: String, rhs: String)(rhsLeaf: IdGen => LogicalPlan = AllNodesScan(rhs, Set.empty)(_)): LogicalPlan = {
+    val idGen = new SequentialIdGen()
+    ProduceResult(CartesianProduct(AllNodesScan(lhs, Set.empty)(idGen), rhsLeaf(idGen))(idGen), Seq("a", "b"))(idGen)
+  }
+
+  private def state(plan: LogicalPlan, rows: Double = 1.0): LogicalPlanState = {
+    val state = LogicalPlanState(InitialState(query, None, IDPPlannerName, new AnonymousVariableNameGenerator))
+      .withMaybeLogicalPlan(Some(plan))
+    plan.flatten.foreach(p => state.planningAttributes.cardinalities.set(p.id, Cardinality(rows)))
+    state
+  }
+}
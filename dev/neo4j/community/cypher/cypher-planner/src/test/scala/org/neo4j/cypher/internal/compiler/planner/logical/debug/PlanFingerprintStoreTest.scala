@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.debug
+
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.PlanFingerprintStore.PlanKey
+import org.neo4j.cypher.internal.logical.plans.AllNodesScan
+import org.neo4j.cypher.internal.logical.plans.ProduceResult
+import org.neo4j.cypher.internal.util.attribution.SequentialIdGen
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.values.storable.Values.intValue
+import org.neo4j.values.storable.Values.stringValue
+import org.neo4j.values.virtual.VirtualValues
+
+class PlanFingerprintStoreTest extends CypherFunSuite {
+
+  private val query = "MATCH (n) RETURN n"
+  private val queryKey = PlanKey(query, VirtualValues.EMPTY_MAP)
+  private val plan = ProduceResult(AllNodesScan("n", Set.empty)(new SequentialIdGen()), Seq("n"))(new SequentialIdGen())
+  private val other = ProduceResult(AllNodesScan("m", Set.empty)(new SequentialIdGen()), Seq("m"))(new SequentialIdGen())
+
+  test("should key plans by query text and parameter types") {
+    PlanKey(query, VirtualValues.map(Array("p"), Array(intValue(1)))) should equal(PlanKey(query, VirtualValues.map(Array("p"), Array(intValue(2)))))
+    PlanKey(query, VirtualValues.map(Array("p"), Array(intValue(1)))) should not equal PlanKey(query, VirtualValues.map(Array("p"), Array(stringValue("1"))))
+    PlanKey(query, VirtualValues.EMPTY_MAP) should not equal PlanKey("MATCH (m) RETURN m", VirtualValues.EMPTY_MAP)
+  }
+
+  test("should count repeated sightings of structurally equal plans regardless of plan ids") {
+    val store = new PlanFingerprintStore(10)
+    val samePlanWithOtherIds = ProduceResult(AllNodesScan("n", Set.empty)(new SequentialIdGen(5)), Seq("n"))(new SequentialIdGen(7))
+
+    val first = store.record(queryKey, plan, 100)
+    val second = store.record(queryKey, samePlanWithOtherIds, 200)
+    val third = store.record(queryKey, plan, 300)
+
+    first.isFirst shouldBe true
+    second.isFirst shouldBe false
+    second.count should equal(2)
+    third.count should equal(3)
+    third.firstSeenMillis should equal(100)
+    third.lastSeenMillis should equal(300)
+    third.planId should equal(first.planId)
+    store.size should equal(1)
+  }
+
+  test("should treat a different plan of the same query as a new plan") {
+    val store = new PlanFingerprintStore(10)
+
+    store.record(queryKey, plan, 100).isFirst shouldBe true
+    store.record(queryKey, other, 200).isFirst shouldBe true
+    store.record(queryKey, other, 300).count should equal(2)
+    store.record(queryKey, plan, 400).isFirst shouldBe true
+    store.size should equal(1)
+  }
+
+  test("should not tell plans apart by their hash alone") {
+    val store = new PlanFingerprintStore(10)
+    val colliding = new ProduceResult(other.source, other.columns)(new SequentialIdGen()) {
+      override val hashCode: Int = plan.hashCode
+    }
+
+    store.record(queryKey, plan, 100).isFirst shouldBe true
+    store.record(queryKey, colliding, 200).isFirst shouldBe true
+  }
+
+  test("should not remember queries beyond the maximum size") {
+    val store = new PlanFingerprintStore(1)
+    val otherKey = PlanKey("MATCH (m) RETURN m", VirtualValues.EMPTY_MAP)
+
+    store.record(queryKey, plan, 100).isFirst shouldBe true
+    store.record(otherKey, other, 100).isFirst shouldBe true
+    store.record(otherKey, other, 200).isFirst shouldBe true
+    store.record(queryKey, plan, 200).isFirst shouldBe false
+    store.size should equal(1)
+  }
+}
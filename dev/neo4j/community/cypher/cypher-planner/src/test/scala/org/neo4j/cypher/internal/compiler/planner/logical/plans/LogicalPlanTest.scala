@@ -28,6 +28,18 @@ import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 
 class LogicalPlanTest extends CypherFunSuite with LogicalPlanningTestSupport  {
 
+  test("toString should print children indented below their parent") {
+    val plan = Apply(Argument(Set("a")), Eager(Argument()))
+    val nl = System.lineSeparator()
+
+    plan.toString should equal(
+      s"Apply(false) {$nl  LHS -> Argument(Set(a)) {}$nl  RHS -> Eager() {$nl    LHS -> Argument(Set()) {}$nl  }$nl}")
+
+    val appended = new java.lang.StringBuilder()
+    plan.appendTo(appended)
+    appended.toString should equal(plan.toString)
+  }
+
   test("single row returns itself as the leafs") {
     val argument = Argument(Set("a"))
 
@@ -28,6 +28,9 @@ import org.neo4j.cypher.internal.cache.CaffeineCacheFactory;
 import org.neo4j.cypher.internal.cache.ExecutorBasedCaffeineCacheFactory;
 import org.neo4j.cypher.internal.compiler.CypherPlannerConfiguration;
 import org.neo4j.cypher.internal.config.CypherConfiguration;
+import org.neo4j.cypher.internal.tracing.CardinalityErrors;
+import org.neo4j.cypher.internal.tracing.CompilationPhaseHistograms;
+import org.neo4j.cypher.internal.tracing.CompilationPhaseTimesBean;
 import org.neo4j.kernel.impl.query.QueryEngineProvider;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
@@ -59,6 +62,8 @@ public class CommunityCypherEngineProvider extends QueryEngineProvider
     {
         GraphDatabaseCypherService queryService = new GraphDatabaseCypherService( graphAPI );
         deps.satisfyDependency( queryService );
+        registerCompilationPhaseHistograms( deps, graphAPI, spi );
+        registerCardinalityErrors( deps, spi );
         CypherConfiguration cypherConfig = CypherConfiguration.fromConfig( spi.config() );
         CypherPlannerConfiguration plannerConfig = CypherPlannerConfiguration.fromCypherConfiguration( cypherConfig, spi.config(), isSystemDatabase );
         CypherRuntimeConfiguration runtimeConfig = CypherRuntimeConfiguration.fromCypherConfiguration( cypherConfig );
@@ -80,6 +85,22 @@ public class CommunityCypherEngineProvider extends QueryEngineProvider
         }
     }
 
+    private static void registerCompilationPhaseHistograms( Dependencies deps, GraphDatabaseAPI graphAPI, SPI spi )
+    {
+        // fed by the TimingCompilationTracer of the execution engine, through the database monitors
+        CompilationPhaseHistograms histograms = deps.satisfyDependency( new CompilationPhaseHistograms() );
+        spi.monitors().addMonitorListener( histograms );
+        spi.lifeSupport().add( new CompilationPhaseTimesBean( histograms, graphAPI.databaseName(),
+                                                              spi.logProvider().getLog( CompilationPhaseTimesBean.class ) ) );
+    }
+
+    private static void registerCardinalityErrors( Dependencies deps, SPI spi )
+    {
+        // fed by the query executions that are profiled because of unsupported.cypher.cardinality_tracking.sample_rate
+        CardinalityErrors errors = deps.satisfyDependency( new CardinalityErrors() );
+        spi.monitors().addMonitorListener( errors );
+    }
+
     private static CaffeineCacheFactory makeCacheFactory( SPI spi )
     {
         var monitoredExecutor = spi.jobScheduler().monitoredJobExecutor( Group.CYPHER_CACHE );
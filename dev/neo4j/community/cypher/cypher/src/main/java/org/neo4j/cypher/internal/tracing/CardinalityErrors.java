@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.tracing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listens to the operators of profiled query executions and aggregates how far the estimated rows were off, per operator and per query
+ * fingerprint and operator.
+ * <p>
+ * How far an estimate is off is measured as its q-error, {@code max(estimated / actual, actual / estimated)} with both clamped to at least
+ * one row. It is 1.0 for a perfect estimate and symmetric for over- and underestimates. The mean q-error is the geometric mean, so that a
+ * single extreme misestimate does not hide how well the other estimates did.
+ * <p>
+ * At most {@link #MAX_QUERY_ENTRIES} fingerprint and operator combinations are kept. Once full, new combinations only count towards the
+ * per operator aggregates.
+ */
+public class CardinalityErrors implements CardinalityEstimationMonitor
+{
+    public static final int MAX_QUERY_ENTRIES = 10_000;
+
+    private final ConcurrentHashMap<String,Errors> perOperator = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<QueryOperator,Errors> perQuery = new ConcurrentHashMap<>();
+    private final int maxQueryEntries;
+
+    public CardinalityErrors()
+    {
+        this( MAX_QUERY_ENTRIES );
+    }
+
+    CardinalityErrors( int maxQueryEntries )
+    {
+        this.maxQueryEntries = maxQueryEntries;
+    }
+
+    @Override
+    public void operatorProfiled( String queryFingerprint, String operator, double estimatedRows, long actualRows )
+    {
+        double estimated = Math.max( estimatedRows, 1.0 );
+        double actual = Math.max( actualRows, 1.0 );
+        double qError = Math.max( estimated / actual, actual / estimated );
+        int direction = Double.compare( actual, estimated );
+
+        perOperator.computeIfAbsent( operator, ignored -> new Errors() ).record( qError, direction );
+
+        QueryOperator key = new QueryOperator( queryFingerprint, operator );
+        Errors errors = perQuery.get( key );
+        if ( errors == null && perQuery.size() < maxQueryEntries )
+        {
+            errors = perQuery.computeIfAbsent( key, ignored -> new Errors() );
+        }
+        if ( errors != null )
+        {
+            errors.record( qError, direction );
+        }
+    }
+
+    /**
+     * The errors per operator, ordered by operator and without a query fingerprint, followed by the errors per query fingerprint and operator,
+     * worst mean q-error first.
+     */
+    public List<OperatorErrors> getErrors()
+    {
+        List<OperatorErrors> totals = new ArrayList<>();
+        perOperator.forEach( ( operator, errors ) -> totals.add( errors.snapshot( null, operator ) ) );
+        totals.sort( Comparator.comparing( OperatorErrors::getOperator ) );
+
+        List<OperatorErrors> queries = new ArrayList<>();
+        perQuery.forEach( ( key, errors ) -> queries.add( errors.snapshot( key.queryFingerprint, key.operator ) ) );
+        queries.sort( Comparator.comparingDouble( OperatorErrors::getMeanQError ).reversed() );
+
+        totals.addAll( queries );
+        return totals;
+    }
+
+    public void reset()
+    {
+        perOperator.clear();
+        perQuery.clear();
+    }
+
+    private static final class QueryOperator
+    {
+        private final String queryFingerprint;
+        private final String operator;
+
+        QueryOperator( String queryFingerprint, String operator )
+        {
+            this.queryFingerprint = queryFingerprint;
+            this.operator = operator;
+        }
+
+        @Override
+        public boolean equals( Object o )
+        {
+            if ( this == o )
+            {
+                return true;
+            }
+            if ( o == null || getClass() != o.getClass() )
+            {
+                return false;
+            }
+            QueryOperator that = (QueryOperator) o;
+            return queryFingerprint.equals( that.queryFingerprint ) && operator.equals( that.operator );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash( queryFingerprint, operator );
+        }
+    }
+
+    private static final class Errors
+    {
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sumOfLogQErrors = new DoubleAdder();
+        // q-errors are at least 1.0, and the bits of positive doubles order like the doubles themselves
+        private final LongAccumulator maxQErrorBits = new LongAccumulator( Long::max, Double.doubleToLongBits( 1.0 ) );
+        private final LongAdder underestimated = new LongAdder();
+        private final LongAdder overestimated = new LongAdder();
+
+        void record( double qError, int direction )
+        {
+            count.increment();
+            sumOfLogQErrors.add( Math.log( qError ) );
+            maxQErrorBits.accumulate( Double.doubleToLongBits( qError ) );
+            if ( direction > 0 )
+            {
+                underestimated.increment();
+            }
+            else if ( direction < 0 )
+            {
+                overestimated.increment();
+            }
+        }
+
+        OperatorErrors snapshot( String queryFingerprint, String operator )
+        {
+            long n = count.sum();
+            double mean = n == 0 ? 1.0 : Math.exp( sumOfLogQErrors.sum() / n );
+            return new OperatorErrors( queryFingerprint, operator, n, mean, Double.longBitsToDouble( maxQErrorBits.get() ),
+                                       underestimated.sum(), overestimated.sum() );
+        }
+    }
+
+    public static class OperatorErrors
+    {
+        private final String queryFingerprint;
+        private final String operator;
+        private final long count;
+        private final double meanQError;
+        private final double maxQError;
+        private final long underestimated;
+        private final long overestimated;
+
+        OperatorErrors( String queryFingerprint, String operator, long count, double meanQError, double maxQError, long underestimated,
+                        long overestimated )
+        {
+            this.queryFingerprint = queryFingerprint;
+            this.operator = operator;
+            this.count = count;
+            this.meanQError = meanQError;
+            this.maxQError = maxQError;
+            this.underestimated = underestimated;
+            this.overestimated = overestimated;
+        }
+
+        /**
+         * @return the query fingerprint, or {@code null} for the aggregate over all queries.
+         */
+        public String getQueryFingerprint()
+        {
+            return queryFingerprint;
+        }
+
+        public String getOperator()
+        {
+            return operator;
+        }
+
+        public long getCount()
+        {
+            return count;
+        }
+
+        public double getMeanQError()
+        {
+            return meanQError;
+        }
+
+        public double getMaxQError()
+        {
+            return maxQError;
+        }
+
+        public long getUnderestimated()
+        {
+            return underestimated;
+        }
+
+        public long getOverestimated()
+        {
+            return overestimated;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.tracing;
+
+/**
+ * Notified, through the database monitors, of the estimated and actual rows of the operators of query executions that were
+ * profiled in the background because of {@code unsupported.cypher.cardinality_tracking.sample_rate}.
+ */
+public interface CardinalityEstimationMonitor
+{
+    /**
+     * @param queryFingerprint the fingerprint of the query text, as printed by the debug plan printer
+     * @param operator the name of the logical plan operator
+     * @param estimatedRows the number of rows the planner estimated, taking limits into account
+     * @param actualRows the number of rows the operator produced
+     */
+    void operatorProfiled( String queryFingerprint, String operator, double estimatedRows, long actualRows );
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.tracing;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase;
+
+/**
+ * Listens to the compilations timed by {@link TimingCompilationTracer} and keeps a {@link PhaseTimeHistogram} per compilation phase,
+ * plus one for the total compilation time.
+ * <p>
+ * A phase can run several times per compilation, e.g. there are several AST rewriting steps, so the time of all runs of a phase within
+ * one compilation is recorded as a single value. Queries served from the query cache have no phases and are not recorded.
+ */
+public class CompilationPhaseHistograms implements TimingCompilationTracer.EventListener, CompilationPhaseTimesMXBean
+{
+    public static final String TOTAL = "TOTAL";
+
+    private final Map<CompilationPhase,PhaseTimeHistogram> phases = new EnumMap<>( CompilationPhase.class );
+    private final PhaseTimeHistogram total = new PhaseTimeHistogram();
+
+    public CompilationPhaseHistograms()
+    {
+        for ( CompilationPhase phase : CompilationPhase.values() )
+        {
+            phases.put( phase, new PhaseTimeHistogram() );
+        }
+    }
+
+    @Override
+    public void startQueryCompilation( String query )
+    {
+    }
+
+    @Override
+    public void queryCompiled( TimingCompilationTracer.QueryEvent event )
+    {
+        List<TimingCompilationTracer.PhaseEvent> phaseEvents = event.phases();
+        if ( phaseEvents.isEmpty() )
+        {
+            return;
+        }
+
+        long[] nanosPerPhase = new long[CompilationPhase.values().length];
+        boolean[] seen = new boolean[nanosPerPhase.length];
+        for ( TimingCompilationTracer.PhaseEvent phaseEvent : phaseEvents )
+        {
+            int ordinal = phaseEvent.phase().ordinal();
+            nanosPerPhase[ordinal] += phaseEvent.nanoTime();
+            seen[ordinal] = true;
+        }
+        for ( CompilationPhase phase : CompilationPhase.values() )
+        {
+            if ( seen[phase.ordinal()] )
+            {
+                phases.get( phase ).record( nanosPerPhase[phase.ordinal()] );
+            }
+        }
+        total.record( event.nanoTime() );
+    }
+
+    public PhaseTimeHistogram histogram( CompilationPhase phase )
+    {
+        return phases.get( phase );
+    }
+
+    public PhaseTimeHistogram total()
+    {
+        return total;
+    }
+
+    /**
+     * Phases that have been recorded at least once, in pipeline order, followed by the total compilation time.
+     */
+    @Override
+    public List<PhaseTimes> getPhaseTimes()
+    {
+        List<PhaseTimes> result = new ArrayList<>();
+        phases.forEach( ( phase, histogram ) ->
+        {
+            if ( histogram.count() > 0 )
+            {
+                result.add( PhaseTimes.of( phase.name(), histogram ) );
+            }
+        } );
+        result.add( PhaseTimes.of( TOTAL, total ) );
+        return result;
+    }
+
+    @Override
+    public void reset()
+    {
+        phases.values().forEach( PhaseTimeHistogram::reset );
+        total.reset();
+    }
+
+    public static class PhaseTimes
+    {
+        private final String phase;
+        private final long count;
+        private final long p50Nanos;
+        private final long p99Nanos;
+        private final long maxNanos;
+        private final long meanNanos;
+
+        PhaseTimes( String phase, long count, long p50Nanos, long p99Nanos, long maxNanos, long meanNanos )
+        {
+            this.phase = phase;
+            this.count = count;
+            this.p50Nanos = p50Nanos;
+            this.p99Nanos = p99Nanos;
+            this.maxNanos = maxNanos;
+            this.meanNanos = meanNanos;
+        }
+
+        static PhaseTimes of( String phase, PhaseTimeHistogram histogram )
+        {
+            return new PhaseTimes( phase, histogram.count(), histogram.valueAtPercentile( 50 ), histogram.valueAtPercentile( 99 ),
+                                   histogram.maxNanos(), histogram.meanNanos() );
+        }
+
+        public String getPhase()
+        {
+            return phase;
+        }
+
+        public long getCount()
+        {
+            return count;
+        }
+
+        public long getP50Nanos()
+        {
+            return p50Nanos;
+        }
+
+        public long getP99Nanos()
+        {
+            return p99Nanos;
+        }
+
+        public long getMaxNanos()
+        {
+            return maxNanos;
+        }
+
+        public long getMeanNanos()
+        {
+            return meanNanos;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.tracing;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+
+/**
+ * Registers the {@link CompilationPhaseTimesMXBean} of a database in the platform MBean server while the database is running.
+ */
+public class CompilationPhaseTimesBean extends LifecycleAdapter
+{
+    private final CompilationPhaseTimesMXBean bean;
+    private final String databaseName;
+    private final Log log;
+    private ObjectName registeredName;
+
+    public CompilationPhaseTimesBean( CompilationPhaseTimesMXBean bean, String databaseName, Log log )
+    {
+        this.bean = bean;
+        this.databaseName = databaseName;
+        this.log = log;
+    }
+
+    public static ObjectName objectName( String databaseName ) throws JMException
+    {
+        return new ObjectName( "org.neo4j:name=CompilationPhaseTimes,database=" + ObjectName.quote( databaseName ) );
+    }
+
+    @Override
+    public void start()
+    {
+        try
+        {
+            ObjectName name = objectName( databaseName );
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if ( !server.isRegistered( name ) )
+            {
+                server.registerMBean( bean, name );
+                registeredName = name;
+            }
+        }
+        catch ( JMException e )
+        {
+            // the timings are still available through the procedure
+            log.warn( "Failed to register compilation phase times MBean for database '" + databaseName + "'", e );
+        }
+    }
+
+    @Override
+    public void stop()
+    {
+        if ( registeredName != null )
+        {
+            try
+            {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean( registeredName );
+            }
+            catch ( JMException e )
+            {
+                log.warn( "Failed to unregister compilation phase times MBean for database '" + databaseName + "'", e );
+            }
+            registeredName = null;
+        }
+    }
+}
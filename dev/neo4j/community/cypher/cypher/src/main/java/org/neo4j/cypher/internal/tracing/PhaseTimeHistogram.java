@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.tracing;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations in nanoseconds, with log-linear buckets in the style of HdrHistogram.
+ * <p>
+ * Values are bucketed by their highest set bit, and each power of two is split into {@value #SUB_BUCKET_COUNT} linear sub buckets,
+ * so a reported percentile is at most about 3% above the recorded value. Recording is wait-free apart from the update of the maximum.
+ * Reads are not an atomic snapshot, concurrent recordings may or may not be included.
+ */
+public class PhaseTimeHistogram
+{
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // values below 2 * SUB_BUCKET_COUNT get a bucket each, every power of two above that gets SUB_BUCKET_COUNT buckets
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray( BUCKET_COUNT );
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator( Math::max, 0 );
+
+    public void record( long nanos )
+    {
+        long value = Math.max( 0, nanos );
+        counts.incrementAndGet( bucketIndex( value ) );
+        totalCount.increment();
+        totalNanos.add( value );
+        maxNanos.accumulate( value );
+    }
+
+    public long count()
+    {
+        return totalCount.sum();
+    }
+
+    public long maxNanos()
+    {
+        return maxNanos.get();
+    }
+
+    public long meanNanos()
+    {
+        long count = totalCount.sum();
+        return count == 0 ? 0 : totalNanos.sum() / count;
+    }
+
+    /**
+     * @param percentile between 0 and 100.
+     * @return the highest value that is equivalent to the value at the given percentile, or 0 if nothing has been recorded.
+     */
+    public long valueAtPercentile( double percentile )
+    {
+        long count = totalCount.sum();
+        if ( count == 0 )
+        {
+            return 0;
+        }
+        long countAtPercentile = Math.max( 1, (long) Math.ceil( Math.min( 100.0, percentile ) / 100.0 * count ) );
+        long seen = 0;
+        for ( int i = 0; i < BUCKET_COUNT; i++ )
+        {
+            seen += counts.get( i );
+            if ( seen >= countAtPercentile )
+            {
+                return Math.min( highestEquivalentValue( i ), maxNanos() );
+            }
+        }
+        return maxNanos();
+    }
+
+    public void reset()
+    {
+        for ( int i = 0; i < BUCKET_COUNT; i++ )
+        {
+            counts.set( i, 0 );
+        }
+        totalCount.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    static int bucketIndex( long value )
+    {
+        if ( value < 2 * SUB_BUCKET_COUNT )
+        {
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros( value ) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long highestEquivalentValue( int index )
+    {
+        if ( index < 2 * SUB_BUCKET_COUNT )
+        {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long lowest = (long) (index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -23,6 +23,12 @@ import org.neo4j.cypher.internal.ExecutionPlanCacheTracer.NO_TRACING
 import org.neo4j.cypher.internal.NotificationWrapping.asKernelNotification
 import org.neo4j.cypher.internal.cache.LFUCache
 import org.neo4j.cypher.internal.compiler.phases.LogicalPlanState
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.DebugPlanPrinter
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.DebugPlanPrinter.ExecutionRecord
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.PlanCaptureFilter
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.PlanFingerprintStore
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.PlanFingerprintStore.PlanKey
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.QueryCorrelation
 import org.neo4j.cypher.internal.frontend.PlannerName
 import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
@@ -50,9 +56,11 @@ import org.neo4j.cypher.internal.result.ClosingExecutionResult
 import org.neo4j.cypher.internal.result.ExplainExecutionResult
 import org.neo4j.cypher.internal.result.FailedExecutionResult
 import org.neo4j.cypher.internal.result.InternalExecutionResult
+import org.neo4j.cypher.internal.result.RowCountingQuerySubscriber
 import org.neo4j.cypher.internal.result.StandardInternalExecutionResult
 import org.neo4j.cypher.internal.runtime.DBMS
 import org.neo4j.cypher.internal.runtime.DBMS_READ
+import org.neo4j.cypher.internal.runtime.ExecutionMode
 import org.neo4j.cypher.internal.runtime.ExplainMode
 import org.neo4j.cypher.internal.runtime.InputDataStream
 import org.neo4j.cypher.internal.runtime.InternalQueryType
@@ -67,9 +75,13 @@ import org.neo4j.cypher.internal.runtime.WRITE
 import org.neo4j.cypher.internal.runtime.interpreted.TransactionBoundQueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.TransactionBoundQueryContext.IndexSearchMonitor
 import org.neo4j.cypher.internal.runtime.interpreted.TransactionalContextWrapper
+import org.neo4j.cypher.internal.tracing.CardinalityEstimationMonitor
 import org.neo4j.cypher.internal.util.InternalNotification
 import org.neo4j.cypher.internal.util.TaskCloser
 import org.neo4j.cypher.internal.util.attribution.SequentialIdGen
+import org.neo4j.cypher.result.OperatorProfile
+import org.neo4j.cypher.result.RuntimeResult
+import org.neo4j.cypher.result.RuntimeResult.ConsumptionState
 import org.neo4j.exceptions.InternalException
 import org.neo4j.graphdb.ExecutionPlanDescription
 import org.neo4j.graphdb.Notification
@@ -126,6 +138,8 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
       NO_TRACING
     }
 
+  private val cardinalityMonitor = kernelMonitors.newMonitor(classOf[CardinalityEstimationMonitor])
+
   private val executionPlanCache = if (contextManager.config.executionPlanCacheSize > 0) {
     Some(
       new LFUCache[ExecutionPlanCacheKey, (ExecutionPlan, PlanningAttributes)](planner.cacheFactory, contextManager.config.executionPlanCacheSize))
@@ -177,6 +191,8 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
 
     new CypherExecutableQuery(
       logicalPlan,
+      planState.queryText,
+      PlanKey(planState.queryText, params),
       queryType == READ_ONLY || queryType == DBMS_READ,
       attributes.cardinalities,
       attributes.effectiveCardinalities,
@@ -300,6 +316,8 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
     }
 
   protected class CypherExecutableQuery(logicalPlan: LogicalPlan,
+                                        queryText: String,
+                                        planKey: PlanKey,
                                         readOnly: Boolean,
                                         cardinalities: Cardinalities,
                                         effectiveCardinalities: EffectiveCardinalities,
@@ -334,6 +352,8 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
         providedOrders,
         executionPlan)
 
+    private lazy val queryFingerprint = PlanCaptureFilter.fingerprint(queryText)
+
     private def getQueryContext(transactionalContext: TransactionalContext, debugOptions: CypherDebugOptions, taskCloser: TaskCloser) = {
       val (threadSafeCursorFactory, resourceManager) = executionPlan.threadSafeExecutionResources() match {
         case Some((tFactory, rFactory)) => (tFactory, rFactory(resourceMonitor))
@@ -424,12 +444,27 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
           internalQueryType, allNotifications, subscriber)
       } else {
 
-        val runtimeResult = executionPlan.run(queryContext, innerExecutionMode, params, prePopulateResults, input, subscriber)
+        // profile a sample of the executions in the background, without exposing the profile, to compare estimated and actual rows
+        val trackCardinalities = innerExecutionMode == NormalMode && isOutermostQuery && tracksCardinalities &&
+          contextManager.config.cardinalityTrackingController.shouldTrack()
+        val runtimeMode = if (trackCardinalities) ProfileMode else innerExecutionMode
+        val rowCounter =
+          if (isOutermostQuery && DebugPlanPrinter.shouldLogExecutions(queryText, planner.config)) Some(new RowCountingQuerySubscriber(subscriber))
+          else None
+        val runtimeResult = executionPlan.run(queryContext, runtimeMode, params, prePopulateResults, input, rowCounter.getOrElse(subscriber))
 
         if (isOutermostQuery) {
           transactionalContext.executingQuery().onExecutionStarted(runtimeResult)
         }
         taskCloser.addTask(_ => runtimeResult.close())
+        if (trackCardinalities) {
+          // runs before the runtime result is closed
+          taskCloser.addTask(success => if (success) reportCardinalities(runtimeResult))
+        }
+        rowCounter.foreach { counter =>
+          // runs before the runtime result and the transaction are closed, while the page cache counters are still there
+          taskCloser.addTask(success => logExecution(transactionalContext, runtimeResult, runtimeMode, counter.rows, success))
+        }
 
         new StandardInternalExecutionResult(
           runtimeResult,
@@ -449,6 +484,52 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
       )
     }
 
+    private def tracksCardinalities: Boolean = internalQueryType match {
+      case READ_ONLY | READ_WRITE | WRITE => true
+      case _ => false
+    }
+
+    private def reportCardinalities(runtimeResult: RuntimeResult): Unit = {
+      // rows of a result that was not fully consumed say nothing about the estimates
+      if (runtimeResult.consumptionState == ConsumptionState.EXHAUSTED) {
+        val profile = runtimeResult.queryProfile()
+        executionPlan.rewrittenPlan.getOrElse(logicalPlan).flatten.foreach { plan =>
+          if (effectiveCardinalities.isDefinedAt(plan.id)) {
+            val actualRows = profile.operatorProfile(plan.id.x).rows()
+            if (actualRows != OperatorProfile.NO_DATA) {
+              cardinalityMonitor.operatorProfiled(queryFingerprint, plan.productPrefix, effectiveCardinalities.get(plan.id).amount, actualRows)
+            }
+          }
+        }
+      }
+    }
+
+    private def logExecution(transactionalContext: TransactionalContext,
+                             runtimeResult: RuntimeResult,
+                             runtimeMode: ExecutionMode,
+                             rows: Long,
+                             success: Boolean): Unit = {
+      val executingQuery = transactionalContext.executingQuery()
+      val snapshot = executingQuery.snapshot()
+      // db hits are only counted when the runtime profiles the execution
+      val dbHits = if (runtimeMode == ProfileMode) {
+        val profile = runtimeResult.queryProfile()
+        Some(executionPlan.rewrittenPlan.getOrElse(logicalPlan).flatten.map(plan => profile.operatorProfile(plan.id.x).dbHits())
+          .filter(_ != OperatorProfile.NO_DATA).sum)
+      } else {
+        None
+      }
+      val correlation = QueryCorrelation(
+        executingQuery.internalQueryId(),
+        transactionalContext.databaseId().name(),
+        transactionalContext.kernelTransaction().getUserTransactionId)
+      DebugPlanPrinter.logExecution(
+        ExecutionRecord(planKey, PlanFingerprintStore.planId(logicalPlan), correlation, success, rows, dbHits, snapshot.pageHits(), snapshot.pageFaults(),
+          snapshot.elapsedTimeMicros(), System.currentTimeMillis()),
+        logicalPlan,
+        planner.config)
+    }
+
     override def reusabilityState(lastCommittedTxId: () => Long, ctx: TransactionalContext): ReusabilityState = reusabilityState
 
     override def planDescriptionSupplier(): Supplier[ExecutionPlanDescription] = {
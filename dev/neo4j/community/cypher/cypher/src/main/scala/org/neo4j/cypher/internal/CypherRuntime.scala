@@ -22,6 +22,7 @@ package org.neo4j.cypher.internal
 import org.neo4j.configuration.Config
 import org.neo4j.cypher.internal.ast.semantics.SemanticTable
 import org.neo4j.cypher.internal.compiler.RuntimeUnsupportedNotification
+import org.neo4j.cypher.internal.config.CardinalityTrackingController
 import org.neo4j.cypher.internal.config.CypherConfiguration
 import org.neo4j.cypher.internal.config.MemoryTrackingController
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
@@ -232,6 +233,7 @@ object CypherRuntimeConfiguration {
       schedulerTracing = SchedulerTracingConfiguration.fromCypherConfiguration(config),
       lenientCreateRelationship = config.lenientCreateRelationship,
       memoryTrackingController = config.memoryTrackingController,
+      cardinalityTrackingController = config.cardinalityTrackingController,
       enableMonitors = config.enableMonitors,
       executionPlanCacheSize = config.executionPlanCacheSize
     )
@@ -247,6 +249,7 @@ case class CypherRuntimeConfiguration(pipelinedBatchSizeSmall: Int,
                                       schedulerTracing: SchedulerTracingConfiguration,
                                       lenientCreateRelationship: Boolean,
                                       memoryTrackingController: MemoryTrackingController,
+                                      cardinalityTrackingController: CardinalityTrackingController,
                                       enableMonitors: Boolean,
                                       executionPlanCacheSize: Int) {
 
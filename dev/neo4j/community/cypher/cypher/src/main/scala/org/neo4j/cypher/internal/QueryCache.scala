@@ -195,7 +195,9 @@ class QueryCache[QUERY_KEY <: AnyRef,
 
           replanStrategy match {
             case CypherReplanOption.force =>
-              compileWithExpressionCodeGenAndCache(queryKey, compiler, metaData)
+              val replanned = compileWithExpressionCodeGenAndCache(queryKey, compiler, metaData)
+              onReplan(queryKey, cachedValue.value, replanned, Some("replan=force"))
+              replanned
             case CypherReplanOption.skip =>
               hit(queryKey, cachedValue, metaData)
             case CypherReplanOption.default =>
@@ -208,14 +210,27 @@ class QueryCache[QUERY_KEY <: AnyRef,
                   }
                 case Stale(secondsSincePlan, maybeReason) =>
                   tracer.queryCacheStale(queryKey, secondsSincePlan, metaData, maybeReason)
-                  if (cachedValue.recompiledWithExpressionCodeGen) compileWithExpressionCodeGenAndCache(queryKey, compiler, metaData)
-                  else compileAndCache(queryKey, compiler, metaData)
+                  val replanned =
+                    if (cachedValue.recompiledWithExpressionCodeGen) compileWithExpressionCodeGenAndCache(queryKey, compiler, metaData)
+                    else compileAndCache(queryKey, compiler, metaData)
+                  onReplan(queryKey, cachedValue.value, replanned, maybeReason)
+                  replanned
               }
           }
       }
     }
   }
 
+  /**
+   * Called when a cached query was compiled again, because it had become stale or because replanning was forced.
+   * Does nothing by default.
+   *
+   * @param previous the query that was cached
+   * @param replanned the query it was replaced with
+   * @param maybeReason maybe a reason clarifying why the query was compiled again
+   */
+  protected def onReplan(queryKey: QUERY_KEY, previous: EXECUTABLE_QUERY, replanned: EXECUTABLE_QUERY, maybeReason: Option[String]): Unit = {}
+
   /**
    * Check if certain warnings are not valid anymore.
    */
@@ -42,6 +42,7 @@ import java.time.Clock
  * @param clock Clock used to compute logical plan staleness
  * @param divergence Statistics divergence calculator used to compute logical plan staleness
  * @param lastCommittedTxIdProvider Transation id provider used to compute logical plan staleness
+ * @param replanListener Called with the previous and the new plan when a cached plan is planned again
  * @tparam STATEMENT Type of AST statement used as key
  */
 class AstLogicalPlanCache[STATEMENT <: AnyRef](override val cacheFactory: CaffeineCacheFactory,
@@ -50,7 +51,8 @@ class AstLogicalPlanCache[STATEMENT <: AnyRef](override val cacheFactory: Caffei
                                                clock: Clock,
                                                divergence: StatsDivergenceCalculator,
                                                lastCommittedTxIdProvider: () => Long,
-                                               log: Log)
+                                               log: Log,
+                                               replanListener: (LogicalPlanState, LogicalPlanState, Option[String]) => Unit = (_, _, _) => ())
   extends QueryCache[CacheKey[STATEMENT], CacheableLogicalPlan](
     cacheFactory,
     maximumSize,
@@ -60,6 +62,12 @@ class AstLogicalPlanCache[STATEMENT <: AnyRef](override val cacheFactory: Caffei
       log),
     tracer) {
 
+  override protected def onReplan(queryKey: CacheKey[STATEMENT],
+                                  previous: CacheableLogicalPlan,
+                                  replanned: CacheableLogicalPlan,
+                                  maybeReason: Option[String]): Unit =
+    replanListener(previous.logicalPlanState, replanned.logicalPlanState, maybeReason)
+
   def logStalePlanRemovalMonitor(log: Log): CacheTracer[STATEMENT] =
     new CacheTracer[STATEMENT] {
       override def queryCacheStale(key: STATEMENT, secondsSinceReplan: Int, metaData: String, maybeReason: Option[String]) {
@@ -53,6 +53,8 @@ import org.neo4j.cypher.internal.compiler.phases.LogicalPlanState
 import org.neo4j.cypher.internal.compiler.phases.PlannerContext
 import org.neo4j.cypher.internal.compiler.planner.logical.CachedMetricsFactory
 import org.neo4j.cypher.internal.compiler.planner.logical.SimpleMetricsFactory
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.DebugPlanPrinter
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.QueryCorrelation
 import org.neo4j.cypher.internal.compiler.planner.logical.idp.ComponentConnectorPlanner
 import org.neo4j.cypher.internal.compiler.planner.logical.idp.ConfigurableIDPSolverConfig
 import org.neo4j.cypher.internal.compiler.planner.logical.idp.DPSolverConfig
@@ -187,7 +189,8 @@ case class CypherPlanner(config: CypherPlannerConfiguration,
       clock,
       config.statsDivergenceCalculator,
       txIdProvider,
-      log)
+      log,
+      (previous, current, maybeReason) => DebugPlanPrinter.captureReplan(previous, current, maybeReason, config))
 
   monitors.addMonitorListener(planCache.logStalePlanRemovalMonitor(log), "cypher")
 
@@ -326,7 +329,11 @@ case class CypherPlanner(config: CypherPlannerConfiguration,
       clock,
       new SequentialIdGen(),
       simpleExpressionEvaluator,
-      params)
+      params,
+      QueryCorrelation(
+        transactionalContext.executingQuery().internalQueryId(),
+        transactionalContext.databaseId().name(),
+        transactionalContext.kernelTransaction().getUserTransactionId))
 
     // Prepare query for caching
     val preparedQuery = planner.normalizeQuery(syntacticQuery, plannerContext)
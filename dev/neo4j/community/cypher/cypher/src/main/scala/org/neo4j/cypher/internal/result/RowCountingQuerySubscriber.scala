@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.result
+
+import org.neo4j.graphdb.QueryStatistics
+import org.neo4j.kernel.impl.query.QuerySubscriber
+import org.neo4j.values.AnyValue
+
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Counts the records that are handed to the wrapped subscriber. Records may be handed over by different threads, e.g. by the
+ * workers of a parallel runtime, and the count is read by yet another thread when the query is closed.
+ */
+class RowCountingQuerySubscriber(inner: QuerySubscriber) extends QuerySubscriber {
+
+  private val _rows = new AtomicLong()
+
+  def rows: Long = _rows.get()
+
+  override def onResult(numberOfFields: Int): Unit = inner.onResult(numberOfFields)
+
+  override def onRecord(): Unit = {
+    _rows.incrementAndGet()
+    inner.onRecord()
+  }
+
+  override def onField(offset: Int, value: AnyValue): Unit = inner.onField(offset, value)
+
+  override def onRecordCompleted(): Unit = inner.onRecordCompleted()
+
+  override def onError(throwable: Throwable): Unit = inner.onError(throwable)
+
+  override def onResultCompleted(statistics: QueryStatistics): Unit = inner.onResultCompleted(statistics)
+}
@@ -25,6 +25,7 @@ import org.mockito.Mockito.verifyNoMoreInteractions
 import org.neo4j.cypher.internal.QueryCache.CacheKey
 import org.neo4j.cypher.internal.QueryCache.ParameterTypeMap
 import org.neo4j.cypher.internal.QueryCacheTest.TC
+import org.neo4j.cypher.internal.QueryCacheTest.MyValue
 import org.neo4j.cypher.internal.QueryCacheTest.alwaysStale
 import org.neo4j.cypher.internal.QueryCacheTest.compiled
 import org.neo4j.cypher.internal.QueryCacheTest.compilerWithExpressionCodeGenOption
@@ -41,6 +42,8 @@ import org.neo4j.values.storable.Values
 import org.neo4j.values.virtual.VirtualValues
 import org.scalatest.mockito.MockitoSugar
 
+import scala.collection.mutable.ArrayBuffer
+
 class QueryCacheTest extends CypherFunSuite {
 
   test("size 0 cache should never 'hit' or 'miss' and never compile with expression code generation") {
@@ -189,6 +192,34 @@ class QueryCacheTest extends CypherFunSuite {
     verifyNoMoreInteractions(tracer)
   }
 
+  test("should pass the previous and the new value to onReplan when an item is stale or replanning is forced") {
+    // Given
+    val replans = new ArrayBuffer[(MyValue, MyValue, Option[String])]()
+    val cache = new QueryCache[CacheKey[String], MyValue](TestExecutorCaffeineCacheFactory, 10, alwaysStale(17), newTracer()) {
+      override protected def onReplan(queryKey: CacheKey[String], previous: MyValue, replanned: MyValue, maybeReason: Option[String]): Unit =
+        replans += ((previous, replanned, maybeReason))
+    }
+    val key = newKey("foo")
+
+    // When
+    val first = cache.computeIfAbsentOrStale(key, TC, compilerWithExpressionCodeGenOption(key), CypherReplanOption.default)
+    // Then
+    replans shouldBe empty
+
+    // When
+    val second = cache.computeIfAbsentOrStale(key, TC, compilerWithExpressionCodeGenOption(key), CypherReplanOption.default)
+    val third = cache.computeIfAbsentOrStale(key, TC, compilerWithExpressionCodeGenOption(key), CypherReplanOption.force)
+    // Then
+    replans.size should equal(2)
+    val Seq((stalePrevious, staleReplanned, staleReason), (forcedPrevious, forcedReplanned, forcedReason)) = replans
+    stalePrevious should be theSameInstanceAs first
+    staleReplanned should be theSameInstanceAs second
+    staleReason should equal(None)
+    forcedPrevious should be theSameInstanceAs second
+    forcedReplanned should be theSameInstanceAs third
+    forcedReason should equal(Some("replan=force"))
+  }
+
   test("accessing the cache with replan=skip if item is stale we should hit the cache") {
     // Given
     val tracer = newTracer()
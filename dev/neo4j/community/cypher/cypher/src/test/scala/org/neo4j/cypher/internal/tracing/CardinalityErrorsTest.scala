@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.tracing
+
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+import scala.collection.JavaConverters.asScalaBufferConverter
+
+class CardinalityErrorsTest extends CypherFunSuite {
+
+  test("q-error should be symmetric for over- and underestimates") {
+    val errors = new CardinalityErrors
+
+    errors.operatorProfiled("a", "Expand(All)", 10, 100)
+    errors.operatorProfiled("b", "Expand(All)", 100, 10)
+
+    val Seq(total) = errors.getErrors.asScala.filter(_.getQueryFingerprint == null)
+    total.getOperator should equal("Expand(All)")
+    total.getCount should equal(2)
+    total.getMeanQError should equal(10.0 +- 1e-9)
+    total.getMaxQError should equal(10.0)
+    total.getUnderestimated should equal(1)
+    total.getOverestimated should equal(1)
+  }
+
+  test("should clamp estimates and actual rows to at least one row") {
+    val errors = new CardinalityErrors
+
+    errors.operatorProfiled("a", "Limit", 0.2, 0)
+
+    val Seq(total, _) = errors.getErrors.asScala
+    total.getMeanQError should equal(1.0)
+    total.getUnderestimated should equal(0)
+    total.getOverestimated should equal(0)
+  }
+
+  test("mean q-error should be the geometric mean") {
+    val errors = new CardinalityErrors
+
+    errors.operatorProfiled("a", "NodeByLabelScan", 1, 1)
+    errors.operatorProfiled("a", "NodeByLabelScan", 1, 100)
+
+    val Seq(total, perQuery) = errors.getErrors.asScala
+    total.getMeanQError should equal(10.0 +- 1e-9)
+    perQuery.getQueryFingerprint should equal("a")
+    perQuery.getMeanQError should equal(10.0 +- 1e-9)
+    perQuery.getMaxQError should equal(100.0)
+  }
+
+  test("should list totals per operator first and then queries with the worst estimates first") {
+    val errors = new CardinalityErrors
+
+    errors.operatorProfiled("good", "Filter", 10, 10)
+    errors.operatorProfiled("bad", "Filter", 10, 1000)
+    errors.operatorProfiled("bad", "AllNodesScan", 100, 200)
+
+    errors.getErrors.asScala.map(e => (e.getQueryFingerprint, e.getOperator)) should equal(Seq(
+      (null, "AllNodesScan"),
+      (null, "Filter"),
+      ("bad", "Filter"),
+      ("bad", "AllNodesScan"),
+      ("good", "Filter")))
+  }
+
+  test("should only keep per query errors for a bounded number of queries") {
+    val errors = new CardinalityErrors(1)
+
+    errors.operatorProfiled("a", "Filter", 1, 2)
+    errors.operatorProfiled("b", "Filter", 1, 2)
+    errors.operatorProfiled("a", "Filter", 1, 2)
+
+    val Seq(total, perQuery) = errors.getErrors.asScala
+    total.getCount should equal(3)
+    perQuery.getQueryFingerprint should equal("a")
+    perQuery.getCount should equal(2)
+
+    errors.reset()
+    errors.getErrors shouldBe empty
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.tracing
+
+import java.util.concurrent.TimeUnit.MILLISECONDS
+
+import org.neo4j.cypher.internal.frontend.helpers.closing
+import org.neo4j.cypher.internal.frontend.helpers.using
+import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.AST_REWRITE
+import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.LOGICAL_PLANNING
+import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer.CompilationPhase.PARSING
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+import scala.collection.JavaConverters.asScalaBufferConverter
+
+class CompilationPhaseHistogramsTest extends CypherFunSuite {
+
+  test("should record the time of all runs of a phase within one compilation as one value") {
+    val clock = new FakeClock
+    val histograms = new CompilationPhaseHistograms
+    val tracer = new TimingCompilationTracer(clock, histograms)
+
+    using(tracer.compileQuery("MATCH (n) RETURN n")) { event =>
+      closing(event.beginPhase(PARSING)) {
+        clock.progress(1, MILLISECONDS)
+      }
+      closing(event.beginPhase(AST_REWRITE)) {
+        clock.progress(2, MILLISECONDS)
+      }
+      closing(event.beginPhase(AST_REWRITE)) {
+        clock.progress(3, MILLISECONDS)
+      }
+    }
+
+    histograms.histogram(PARSING).count() should equal(1)
+    histograms.histogram(AST_REWRITE).count() should equal(1)
+    histograms.histogram(AST_REWRITE).maxNanos() should equal(MILLISECONDS.toNanos(5))
+    histograms.histogram(LOGICAL_PLANNING).count() should equal(0)
+    histograms.total().maxNanos() should equal(MILLISECONDS.toNanos(6))
+    histograms.getPhaseTimes.asScala.map(_.getPhase) should equal(Seq("PARSING", "AST_REWRITE", CompilationPhaseHistograms.TOTAL))
+  }
+
+  test("should not record compilations without phases") {
+    val histograms = new CompilationPhaseHistograms
+    val tracer = new TimingCompilationTracer(new FakeClock, histograms)
+
+    using(tracer.compileQuery("MATCH (n) RETURN n")) { _ => }
+
+    histograms.total().count() should equal(0)
+  }
+
+  test("percentiles should be within the bucket precision") {
+    val histogram = new PhaseTimeHistogram
+
+    (1 to 100).foreach(i => histogram.record(i * 1000000L))
+
+    histogram.count() should equal(100)
+    histogram.maxNanos() should equal(100000000L)
+    histogram.valueAtPercentile(100) should equal(100000000L)
+    relativeError(histogram.valueAtPercentile(50), 50000000L) should be < 0.04
+    relativeError(histogram.valueAtPercentile(99), 99000000L) should be < 0.04
+    histogram.meanNanos() should equal(50500000L)
+  }
+
+  test("buckets should cover all values in order") {
+    val values = Seq(0L, 1L, 63L, 64L, 65L, 1000L, 123456789L, Long.MaxValue / 3, Long.MaxValue)
+    val indexes = values.map(PhaseTimeHistogram.bucketIndex)
+
+    indexes should equal(indexes.sorted)
+    values.foreach { value =>
+      PhaseTimeHistogram.highestEquivalentValue(PhaseTimeHistogram.bucketIndex(value)) should be >= value
+    }
+  }
+
+  private def relativeError(actual: Long, expected: Long): Double = Math.abs(actual - expected).toDouble / expected
+}
@@ -363,4 +363,31 @@ case class SemanticState(currentScope: ScopeLocation,
     recordedScopes.get(astNode).map(_.scope)
 
   def withFeature(feature: SemanticFeature): SemanticState = copy(features = features + feature)
+
+  /**
+   * Writes the same string as `toString` to `out`. The type table and the recorded scopes, which have an entry per
+   * expression and AST node, are written one entry at a time instead of being built up as a single string.
+   */
+  def appendTo(out: Appendable): Unit = {
+    out.append(productPrefix).append('(')
+    var first = true
+    productIterator.foreach { field =>
+      if (!first) out.append(',')
+      first = false
+      field match {
+        case map: ASTAnnotationMap[_, _] =>
+          out.append(map.stringPrefix).append('(')
+          var firstEntry = true
+          map.foreach { case (key, value) =>
+            if (!firstEntry) out.append(", ")
+            firstEntry = false
+            out.append(String.valueOf(key)).append(" -> ").append(String.valueOf(value))
+          }
+          out.append(')')
+        case other =>
+          out.append(String.valueOf(other))
+      }
+    }
+    out.append(')')
+  }
 }
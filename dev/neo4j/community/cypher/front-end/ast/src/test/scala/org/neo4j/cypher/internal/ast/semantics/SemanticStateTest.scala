@@ -33,6 +33,20 @@ import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 
 class SemanticStateTest extends CypherFunSuite {
 
+  test("appendTo should write the same as toString") {
+    val variable = Variable("foo")(DummyPosition(0))
+    val property = Property(Variable("bar")(DummyPosition(10)), PropertyKeyName("prop")(DummyPosition(14)))(DummyPosition(10))
+    val state = SemanticState.clean
+      .declareVariable(variable, CTNode).right.get
+      .specifyType(property, CTString).right.get
+      .recordCurrentScope(variable)
+
+    val appended = new java.lang.StringBuilder()
+    state.appendTo(appended)
+
+    appended.toString should equal(state.toString)
+  }
+
   test("should declare variable once") {
     val variable1 = Variable("foo")(DummyPosition(0))
     val variable2 = Variable("foo")(DummyPosition(3))
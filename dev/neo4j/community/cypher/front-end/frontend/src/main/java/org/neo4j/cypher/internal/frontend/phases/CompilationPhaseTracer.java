@@ -25,7 +25,10 @@ public interface CompilationPhaseTracer
         ADDITION_ERRORS,
         SEMANTIC_CHECK,
         AST_REWRITE,
+        QUERY_GRAPH_CONSTRUCTION,
         LOGICAL_PLANNING,
+        PLAN_REWRITING,
+        PLAN_CAPTURE,
         CODE_GENERATION,
         PIPE_BUILDING,
         METADATA_COLLECTION,
@@ -1205,6 +1205,10 @@ class LogicalPlanToPlanBuilderStringTest extends CypherFunSuite with TestName {
         throw new RuntimeException(s"This code did not produce a plan:\n$code")
       }
       rebuiltPlan should equal(plan)
+
+      val streamed = new java.lang.StringBuilder()
+      LogicalPlanToPlanBuilderString.appendTo(plan, streamed)
+      streamed.toString should equal(code)
     }
   }
 }
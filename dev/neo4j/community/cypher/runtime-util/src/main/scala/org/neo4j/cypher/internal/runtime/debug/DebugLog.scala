@@ -41,6 +41,40 @@ object DebugLog {
       println("[%6d ms] %s".format(tn - t0, str))
     }
 
+  def logAt(timeMillis: Long, str: String): Unit =
+    if (ENABLED) {
+      println("[%6d ms] %s".format(timeMillis - t0, str))
+    }
+
+  /**
+   * Like `logAt`, but `body` writes the rest of the message straight to the output, so a large message is never built as a single string.
+   */
+  def appendAt(timeMillis: Long, header: String)(body: Appendable => Unit): Unit =
+    if (ENABLED) {
+      val out = Console.out
+      // keep other log lines from ending up in the middle of the message
+      out.synchronized {
+        out.print("[%6d ms] %s".format(timeMillis - t0, header))
+        try {
+          body(out)
+        } finally {
+          out.println()
+        }
+      }
+    }
+
+  /**
+   * Everything logged in `body` by the calling thread is written as one record, without log lines of other threads in between.
+   */
+  def atomically(body: => Unit): Unit =
+    if (ENABLED) {
+      val out = Console.out
+      // PrintStream locks itself on every write, so holding its lock keeps all other writers out
+      out.synchronized {
+        body
+      }
+    }
+
   def log(str: String, x: Any): Unit =
     if (ENABLED) {
       tn = System.currentTimeMillis()
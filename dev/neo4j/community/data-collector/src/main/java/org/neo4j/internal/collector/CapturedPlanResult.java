@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.collector;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.CapturedPlanCache.CapturedPlan;
+
+@SuppressWarnings( "WeakerAccess" )
+public class CapturedPlanResult
+{
+    public final String fingerprint;
+    public final String planId;
+    public final String query;
+    public final String firstCaptured;
+    public final String lastCaptured;
+    public final long captureCount;
+    public final long executionCount;
+    public final long failedExecutionCount;
+    public final long lastRows;
+    public final long totalRows;
+    public final String queryGraph;
+    public final String ast;
+    public final String semanticState;
+    public final String logicalPlan;
+    public final String logicalPlanBuilder;
+
+    CapturedPlanResult( CapturedPlan plan )
+    {
+        this.fingerprint = plan.key().queryFingerprint();
+        this.planId = plan.planId();
+        this.query = plan.queryText();
+        this.firstCaptured = Instant.ofEpochMilli( plan.firstCapturedMillis() ).toString();
+        this.lastCaptured = Instant.ofEpochMilli( plan.lastCapturedMillis() ).toString();
+        this.captureCount = plan.captureCount();
+        this.executionCount = plan.executionCount();
+        this.failedExecutionCount = plan.failedExecutionCount();
+        this.lastRows = plan.lastRows();
+        this.totalRows = plan.totalRows();
+        this.queryGraph = render( plan::queryGraph );
+        this.ast = render( plan::ast );
+        this.semanticState = render( plan::semantics );
+        this.logicalPlan = render( plan::logicalPlan );
+        this.logicalPlanBuilder = render( plan::logicalPlanBuilder );
+    }
+
+    private static String render( Supplier<String> representation )
+    {
+        try
+        {
+            return representation.get();
+        }
+        catch ( RuntimeException e )
+        {
+            // not every compilation produces every representation, e.g. there is no query graph for some administration commands
+            return null;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.collector;
+
+import java.util.stream.Stream;
+
+import org.neo4j.cypher.internal.compiler.planner.logical.debug.DebugPlanPrinter;
+import org.neo4j.kernel.api.procedure.SystemProcedure;
+import org.neo4j.procedure.Admin;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Procedure;
+
+@SuppressWarnings( "WeakerAccess" )
+public class CapturedPlansProcedures
+{
+    @Admin
+    @SystemProcedure
+    @Description( "List the plans kept in memory by the debug plan printer, most recently captured first. " +
+                  "Plans are only kept when 'unsupported.cypher.plan_printer.mode' is 'CACHE'." )
+    @Procedure( name = "dbms.debug.capturedPlans", mode = Mode.DBMS )
+    public Stream<CapturedPlanResult> capturedPlans()
+    {
+        // rendering is deferred to the stream, so only the rows that are consumed are rendered
+        return DebugPlanPrinter.capturedPlans().stream().map( CapturedPlanResult::new );
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.collector;
+
+import org.neo4j.cypher.internal.tracing.CardinalityErrors.OperatorErrors;
+
+@SuppressWarnings( "WeakerAccess" )
+public class CardinalityErrorsResult
+{
+    public final String fingerprint;
+    public final String operator;
+    public final long count;
+    public final double meanQError;
+    public final double maxQError;
+    public final long underestimated;
+    public final long overestimated;
+
+    CardinalityErrorsResult( OperatorErrors errors )
+    {
+        this.fingerprint = errors.getQueryFingerprint();
+        this.operator = errors.getOperator();
+        this.count = errors.getCount();
+        this.meanQError = errors.getMeanQError();
+        this.maxQError = errors.getMaxQError();
+        this.underestimated = errors.getUnderestimated();
+        this.overestimated = errors.getOverestimated();
+    }
+}
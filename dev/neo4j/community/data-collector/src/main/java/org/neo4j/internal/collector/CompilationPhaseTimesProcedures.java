@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.collector;
+
+import java.util.stream.Stream;
+
+import org.neo4j.common.DependencyResolver;
+import org.neo4j.cypher.internal.tracing.CompilationPhaseHistograms;
+import org.neo4j.kernel.api.procedure.SystemProcedure;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.procedure.Admin;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Procedure;
+
+@SuppressWarnings( "WeakerAccess" )
+public class CompilationPhaseTimesProcedures
+{
+    @Context
+    public GraphDatabaseAPI graphDatabaseAPI;
+
+    @Admin
+    @SystemProcedure
+    @Description( "Query compilation time per compilation phase of the current database, in nanoseconds, " +
+                  "followed by the total compilation time. Queries served from the query cache are not included." )
+    @Procedure( name = "db.debug.compilationPhaseTimes", mode = Mode.READ )
+    public Stream<CompilationPhaseTimesResult> compilationPhaseTimes()
+    {
+        DependencyResolver resolver = graphDatabaseAPI.getDependencyResolver();
+        if ( !resolver.containsDependency( CompilationPhaseHistograms.class ) )
+        {
+            return Stream.empty();
+        }
+        return resolver.resolveDependency( CompilationPhaseHistograms.class )
+                       .getPhaseTimes().stream().map( CompilationPhaseTimesResult::new );
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.collector;
+
+import org.neo4j.cypher.internal.tracing.CompilationPhaseHistograms.PhaseTimes;
+
+@SuppressWarnings( "WeakerAccess" )
+public class CompilationPhaseTimesResult
+{
+    public final String phase;
+    public final long count;
+    public final long p50Nanos;
+    public final long p99Nanos;
+    public final long maxNanos;
+    public final long meanNanos;
+
+    CompilationPhaseTimesResult( PhaseTimes times )
+    {
+        this.phase = times.getPhase();
+        this.count = times.getCount();
+        this.p50Nanos = times.getP50Nanos();
+        this.p99Nanos = times.getP99Nanos();
+        this.maxNanos = times.getMaxNanos();
+        this.meanNanos = times.getMeanNanos();
+    }
+}
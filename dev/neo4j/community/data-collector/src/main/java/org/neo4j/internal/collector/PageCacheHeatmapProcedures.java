@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.collector;
+
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.neo4j.common.DependencyResolver;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.api.procedure.SystemProcedure;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.procedure.Admin;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Procedure;
+
+@SuppressWarnings( "WeakerAccess" )
+public class PageCacheHeatmapProcedures
+{
+    @Context
+    public GraphDatabaseAPI graphDatabaseAPI;
+
+    @Admin
+    @SystemProcedure
+    @Description( "Estimated page cursor pins and page faults per store file of the current database and region of consecutive pages of the file, " +
+                  "from the pins sampled because of 'unsupported.dbms.memory.pagecache.heatmap.sample_interval'." )
+    @Procedure( name = "db.debug.pageCacheHeatmap", mode = Mode.READ )
+    public Stream<PageCacheHeatmapResult> pageCacheHeatmap()
+    {
+        DependencyResolver resolver = graphDatabaseAPI.getDependencyResolver();
+        if ( !resolver.containsDependency( PageCacheTracer.class ) )
+        {
+            return Stream.empty();
+        }
+        PageCacheTracer tracer = resolver.resolveDependency( PageCacheTracer.class );
+        if ( !(tracer instanceof DefaultPageCacheTracer) )
+        {
+            return Stream.empty();
+        }
+        Path databaseDirectory = graphDatabaseAPI.databaseLayout().databaseDirectory();
+        return ((DefaultPageCacheTracer) tracer).heatmap().regions().stream()
+                .filter( region -> region.file().startsWith( databaseDirectory ) )
+                .map( region -> new PageCacheHeatmapResult( databaseDirectory.relativize( region.file() ), region ) );
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+
+import static org.neo4j.index.internal.gbptree.GenerationSafePointerPair.pointer;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.INTERNAL;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
+
+/**
+ * Builds a tree bottom-up from entries in ascending key order. Entries are appended to the rightmost leaf until it is filled to the fill factor,
+ * then a new leaf is started and the splitter between the two leaves is appended to the rightmost internal node of the level above, which in
+ * turn fills up and gets a new sibling in the same way, all the way up to a root that the builder creates as soon as a level has two nodes.
+ * <p>
+ * All nodes are new and written in the unstable generation, so that none of them is reachable from the tree until {@link #finish()} returns
+ * the root and the caller switches to it. Every level only has its rightmost node open, so the builder needs one node per level of memory,
+ * regardless of the number of entries.
+ * <p>
+ * An internal node never gets a sibling with only a child and no key: when an internal node is full, its last key and child are moved to the
+ * new sibling together with the new key and child, and that last key becomes the splitter between the two.
+ */
+class BottomUpTreeBuilder<KEY,VALUE>
+{
+    private final PageCursor cursor;
+    private final TreeNode<KEY,VALUE> treeNode;
+    private final Layout<KEY,VALUE> layout;
+    private final IdProvider idProvider;
+    private final double fillFactor;
+    private final long stableGeneration;
+    private final long unstableGeneration;
+    private final CursorContext cursorContext;
+    /**
+     * The rightmost node of every level, leaves first.
+     */
+    private final List<Level<KEY>> levels = new ArrayList<>();
+    private final KEY lastKey;
+    private final KEY splitter;
+    private final KeyBuffer keyBuffer = new KeyBuffer();
+    private long count;
+
+    BottomUpTreeBuilder( PageCursor cursor, TreeNode<KEY,VALUE> treeNode, Layout<KEY,VALUE> layout, IdProvider idProvider, double fillFactor,
+            long stableGeneration, long unstableGeneration, CursorContext cursorContext )
+    {
+        if ( fillFactor <= 0 || fillFactor > 1 )
+        {
+            throw new IllegalArgumentException( "Fill factor must be larger than 0 and at most 1, but was " + fillFactor );
+        }
+        this.cursor = cursor;
+        this.treeNode = treeNode;
+        this.layout = layout;
+        this.idProvider = idProvider;
+        this.fillFactor = fillFactor;
+        this.stableGeneration = stableGeneration;
+        this.unstableGeneration = unstableGeneration;
+        this.cursorContext = cursorContext;
+        this.lastKey = layout.newKey();
+        this.splitter = layout.newKey();
+    }
+
+    void add( KEY key, VALUE value ) throws IOException
+    {
+        treeNode.validateKeyValueSize( key, value );
+        if ( count == 0 )
+        {
+            long leafId = newNode( LEAF, TreeNode.NO_NODE_FLAG );
+            levels.add( new Level<>( leafId, layout.newKey() ) );
+        }
+        else
+        {
+            if ( layout.compare( lastKey, key ) >= 0 )
+            {
+                throw new IllegalArgumentException( "Keys must be added in strictly ascending order, but " + key + " was added after " + lastKey );
+            }
+            Level<KEY> leaves = levels.get( 0 );
+            TreeNode.goTo( cursor, "leaf", leaves.nodeId );
+            if ( isFull( leaves.keyCount, treeNode.leafOverflow( cursor, leaves.keyCount, key, value ), LEAF ) && !compressFullLeaf( leaves, key, value ) )
+            {
+                long leftLeaf = leaves.nodeId;
+                leaves.nodeId = newNode( LEAF, leftLeaf );
+                leaves.keyCount = 0;
+                leaves.compressed = false;
+                layout.minimalSplitter( lastKey, key, splitter );
+                addToLevel( 1, splitter, leaves.nodeId, leftLeaf );
+                TreeNode.goTo( cursor, "leaf", leaves.nodeId );
+            }
+        }
+
+        Level<KEY> leaves = levels.get( 0 );
+        treeNode.insertKeyValueAt( cursor, key, value, leaves.keyCount, leaves.keyCount, stableGeneration, unstableGeneration, cursorContext );
+        leaves.keyCount++;
+        TreeNode.setKeyCount( cursor, leaves.keyCount );
+        layout.copyKey( key, lastKey );
+        count++;
+    }
+
+    /**
+     * @return id of the root of the built tree, or {@link TreeNode#NO_NODE_FLAG} if no entries were added.
+     */
+    long finish()
+    {
+        return levels.isEmpty() ? TreeNode.NO_NODE_FLAG : levels.get( levels.size() - 1 ).nodeId;
+    }
+
+    /**
+     * Releases the nodes built so far, and the entries they have offloaded, instead of finishing the tree, when an entry could not be added.
+     * Every level is walked from its rightmost node through the left siblings. Only the entries within the key count of a node are complete,
+     * so an entry that failed half way through being added may leave an offloaded entry unreleased.
+     */
+    void abort() throws IOException
+    {
+        for ( int levelIndex = 0; levelIndex < levels.size(); levelIndex++ )
+        {
+            TreeNode.Type type = levelIndex == 0 ? LEAF : INTERNAL;
+            long nodeId = levels.get( levelIndex ).nodeId;
+            while ( TreeNode.isNode( nodeId ) )
+            {
+                TreeNode.goTo( cursor, "built node", nodeId );
+                long leftSibling = pointer( TreeNode.leftSibling( cursor, stableGeneration, unstableGeneration ) );
+                int keyCount = TreeNode.keyCount( cursor );
+                for ( int pos = keyCount - 1; pos >= 0; pos-- )
+                {
+                    if ( type == LEAF )
+                    {
+                        treeNode.removeKeyValueAt( cursor, pos, pos + 1, stableGeneration, unstableGeneration, cursorContext );
+                    }
+                    else
+                    {
+                        treeNode.removeKeyAndRightChildAt( cursor, pos, pos + 1, stableGeneration, unstableGeneration, cursorContext );
+                    }
+                }
+                idProvider.releaseId( stableGeneration, unstableGeneration, nodeId, cursorContext );
+                nodeId = leftSibling;
+            }
+        }
+        levels.clear();
+    }
+
+    /**
+     * @return number of entries added so far.
+     */
+    long count()
+    {
+        return count;
+    }
+
+    /**
+     * Appends the key and its right child to the rightmost node of the given level, creating the level if it does not exist yet.
+     *
+     * @param leftChild the node to the left of {@code rightChild}, which becomes the first child of the level if it is new.
+     */
+    private void addToLevel( int levelIndex, KEY key, long rightChild, long leftChild ) throws IOException
+    {
+        if ( levelIndex == levels.size() )
+        {
+            long nodeId = newNode( INTERNAL, TreeNode.NO_NODE_FLAG );
+            treeNode.setChildAt( cursor, leftChild, 0, stableGeneration, unstableGeneration );
+            levels.add( new Level<>( nodeId, layout.newKey() ) );
+        }
+
+        Level<KEY> level = levels.get( levelIndex );
+        TreeNode.goTo( cursor, "internal", level.nodeId );
+        if ( level.keyCount > 1 && isFull( level.keyCount, treeNode.internalOverflow( cursor, level.keyCount, key ), INTERNAL ) )
+        {
+            // Move the last key and child over to the new sibling, so that it does not end up with only a child if no more keys come
+            int lastPos = level.keyCount - 1;
+            treeNode.keyAt( cursor, level.splitter, lastPos, INTERNAL, cursorContext, keyBuffer );
+            long lastChild = pointer( treeNode.childAt( cursor, level.keyCount, stableGeneration, unstableGeneration ) );
+            treeNode.removeKeyAndRightChildAt( cursor, lastPos, level.keyCount, stableGeneration, unstableGeneration, cursorContext );
+            TreeNode.setKeyCount( cursor, lastPos );
+
+            long leftNode = level.nodeId;
+            level.nodeId = newNode( INTERNAL, leftNode );
+            treeNode.setChildAt( cursor, lastChild, 0, stableGeneration, unstableGeneration );
+            treeNode.insertKeyAndRightChildAt( cursor, key, rightChild, 0, 0, stableGeneration, unstableGeneration, cursorContext );
+            level.keyCount = 1;
+            TreeNode.setKeyCount( cursor, 1 );
+            addToLevel( levelIndex + 1, level.splitter, level.nodeId, leftNode );
+        }
+        else
+        {
+            treeNode.insertKeyAndRightChildAt( cursor, key, rightChild, level.keyCount, level.keyCount, stableGeneration, unstableGeneration,
+                    cursorContext );
+            level.keyCount++;
+            TreeNode.setKeyCount( cursor, level.keyCount );
+        }
+    }
+
+    private boolean isFull( int keyCount, TreeNode.Overflow overflow, TreeNode.Type type )
+    {
+        return overflow != TreeNode.Overflow.NO || treeNode.fillRatio( cursor, keyCount, type ) >= fillFactor;
+    }
+
+    /**
+     * Gives a full leaf one chance to make room by compressing its keys, now that it knows which keys it holds.
+     * @return true if the leaf has room for the key and value after compression, else false.
+     */
+    private boolean compressFullLeaf( Level<KEY> leaves, KEY key, VALUE value )
+    {
+        if ( leaves.compressed )
+        {
+            return false;
+        }
+        leaves.compressed = true;
+        return treeNode.compressLeaf( cursor, leaves.keyCount ) &&
+               !isFull( leaves.keyCount, treeNode.leafOverflow( cursor, leaves.keyCount, key, value ), LEAF );
+    }
+
+    /**
+     * Creates a new node to the right of the given node, or as the first node of a level, and leaves the cursor at the new node.
+     */
+    private long newNode( TreeNode.Type type, long leftSibling ) throws IOException
+    {
+        long nodeId = idProvider.acquireNewId( stableGeneration, unstableGeneration, cursorContext );
+        if ( leftSibling != TreeNode.NO_NODE_FLAG )
+        {
+            TreeNode.goTo( cursor, "left sibling", leftSibling );
+            TreeNode.setRightSibling( cursor, nodeId, stableGeneration, unstableGeneration );
+        }
+        TreeNode.goTo( cursor, "new node", nodeId );
+        if ( type == LEAF )
+        {
+            treeNode.initializeLeaf( cursor, stableGeneration, unstableGeneration );
+        }
+        else
+        {
+            treeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
+        }
+        if ( leftSibling != TreeNode.NO_NODE_FLAG )
+        {
+            TreeNode.setLeftSibling( cursor, leftSibling, stableGeneration, unstableGeneration );
+        }
+        return nodeId;
+    }
+
+    private static class Level<KEY>
+    {
+        private long nodeId;
+        private int keyCount;
+        /**
+         * Whether the rightmost node of this level has been compressed, which is only tried once per node.
+         */
+        private boolean compressed;
+        /**
+         * The key that moves up from this level when its rightmost node gets a new sibling.
+         */
+        private final KEY splitter;
+
+        Level( long nodeId, KEY splitter )
+        {
+            this.nodeId = nodeId;
+            this.splitter = splitter;
+        }
+    }
+}
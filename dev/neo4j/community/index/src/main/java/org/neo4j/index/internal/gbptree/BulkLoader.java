@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Builds the contents of an empty {@link GBPTree} from key/value pairs that are {@link #add(Object, Object) added} in strictly ascending key order.
+ * Leaves and internal nodes are filled one after the other, bottom-up, instead of inserting every entry from the root down. The entries are
+ * visible to readers of the tree first after the bulk loader has been {@link #close() closed}, typically using try-with-resource clause.
+ *
+ * @param <KEY> type of keys
+ * @param <VALUE> type of values
+ */
+public interface BulkLoader<KEY,VALUE> extends Closeable
+{
+    /**
+     * Adds the given {@code key} and {@code value} after all entries added so far.
+     *
+     * @param key key to add, must be larger than all keys added before it.
+     * @param value value to associate with key.
+     * @throws IllegalArgumentException if the key is not larger than the previously added key.
+     * @throws UncheckedIOException on index access error.
+     */
+    void add( KEY key, VALUE value );
+
+    /**
+     * Completes the internal nodes above the added entries and makes them the contents of the tree.
+     *
+     * @throws IOException on index access error.
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Latches that let concurrent writers of a {@link GBPTree} change it at the same time.
+ * <p>
+ * The structure latch is shared by writers that only change the contents of a single leaf, in place. Those changes do not touch the
+ * internal nodes, or the sibling pointers of any node, so the path down the tree can be read without latches, as long as the structure latch
+ * is held. The leaf itself is latched before it is read and changed. Changes that split, merge, rebalance or create successors of nodes
+ * are made with the structure latch held exclusively, when no other writer is in the tree.
+ * <p>
+ * The leaf latches are striped over the page ids. A writer never holds more than one leaf latch, so the striping can not lead to deadlocks.
+ */
+class ConcurrentWriteLatches
+{
+    private static final int STRIPES = 128;
+
+    private final ReadWriteLock structureLatch = new ReentrantReadWriteLock();
+    private final ReentrantLock[] leafLatches = new ReentrantLock[STRIPES];
+
+    ConcurrentWriteLatches()
+    {
+        for ( int i = 0; i < leafLatches.length; i++ )
+        {
+            leafLatches[i] = new ReentrantLock();
+        }
+    }
+
+    void acquireStructureShared()
+    {
+        structureLatch.readLock().lock();
+    }
+
+    void releaseStructureShared()
+    {
+        structureLatch.readLock().unlock();
+    }
+
+    void acquireStructureExclusive()
+    {
+        structureLatch.writeLock().lock();
+    }
+
+    void releaseStructureExclusive()
+    {
+        structureLatch.writeLock().unlock();
+    }
+
+    void acquireLeaf( long treeNodeId )
+    {
+        leafLatch( treeNodeId ).lock();
+    }
+
+    void releaseLeaf( long treeNodeId )
+    {
+        leafLatch( treeNodeId ).unlock();
+    }
+
+    private ReentrantLock leafLatch( long treeNodeId )
+    {
+        return leafLatches[(int) (Long.hashCode( treeNodeId * 0x9E3779B97F4A7C15L ) & (STRIPES - 1))];
+    }
+}
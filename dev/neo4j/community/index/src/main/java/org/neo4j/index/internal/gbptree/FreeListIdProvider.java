@@ -137,8 +137,9 @@ class FreeListIdProvider implements IdProvider
         }
     }
 
+    // Synchronized, since concurrent writers may offload entries from, or free offloaded entries of, their leaves at the same time
     @Override
-    public long acquireNewId( long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException
+    public synchronized long acquireNewId( long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException
     {
         try ( PageCursor cursor = pagedFile.io( 0, PagedFile.PF_SHARED_WRITE_LOCK, cursorContext ) )
         {
@@ -202,7 +203,7 @@ class FreeListIdProvider implements IdProvider
     }
 
     @Override
-    public void releaseId( long stableGeneration, long unstableGeneration, long id, CursorContext cursorContext ) throws IOException
+    public synchronized void releaseId( long stableGeneration, long unstableGeneration, long id, CursorContext cursorContext ) throws IOException
     {
         try ( PageCursor cursor = pagedFile.io( writePageId, PagedFile.PF_SHARED_WRITE_LOCK, cursorContext ) )
         {
@@ -58,6 +58,7 @@ import static java.nio.file.StandardOpenOption.CREATE;
 import static java.util.Arrays.asList;
 import static org.eclipse.collections.impl.factory.Sets.immutable;
 import static org.neo4j.index.internal.gbptree.GBPTreeOpenOptions.NO_FLUSH_ON_CLOSE;
+import static org.neo4j.index.internal.gbptree.GBPTreeOpenOptions.PREFIX_COMPRESSED_LEAVES;
 import static org.neo4j.index.internal.gbptree.Generation.generation;
 import static org.neo4j.index.internal.gbptree.Generation.stableGeneration;
 import static org.neo4j.index.internal.gbptree.Generation.unstableGeneration;
@@ -96,6 +97,10 @@ import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
  * A single writer w/ multiple concurrent readers is supported. Assuming usage adheres to this
  * constraint neither writer nor readers are blocking. Readers are virtually garbage-free.
  * <p>
+ * Alternatively, multiple {@link #concurrentWriter(CursorContext) concurrent writers} can change the tree at the same time, one per thread.
+ * Changes that can be made in place in a single leaf only latch that leaf, while changes to the structure of the tree latch the whole tree,
+ * see {@link ConcurrentWriteLatches}.
+ * <p>
  * An reader of GB+Tree is a {@link SeekCursor} that returns result as it finds them.
  * As the cursor move over keys/values, returned results are considered "behind" it
  * and likewise keys not yet returned "in front of".
@@ -386,6 +391,16 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
      */
     private final SingleWriter writer;
 
+    /**
+     * Creates {@link TreeNode} instances for {@link ConcurrentWriter concurrent writers}, since tree nodes have scratch state of their own.
+     */
+    private final Supplier<TreeNode<KEY,VALUE>> treeNodeFactory;
+
+    /**
+     * Latches of the {@link ConcurrentWriter concurrent writers}, created with the first of them.
+     */
+    private volatile ConcurrentWriteLatches concurrentWriteLatches;
+
     /**
      * Tells whether or not there have been made changes (using {@link #writer(CursorContext)}) to this tree
      * since last call to {@link #checkpoint(CursorContext)}. This variable is set when calling {@link #writer(CursorContext)}
@@ -599,7 +614,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             TreeNodeSelector.Factory format;
             if ( created )
             {
-                format = TreeNodeSelector.selectByLayout( layout );
+                format = TreeNodeSelector.selectByLayout( layout, openOptions.contains( PREFIX_COMPRESSED_LEAVES ) );
                 writeMeta( layout, format, pagedFile, cursorContext );
             }
             else
@@ -611,6 +626,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             this.freeList = new FreeListIdProvider( pagedFile, rootId );
             OffloadStoreImpl<KEY,VALUE> offloadStore = buildOffload( layout, freeList, pagedFile, pageSize );
             this.bTreeNode = format.create( pageSize, layout, offloadStore );
+            this.treeNodeFactory = () -> format.create( pageSize, layout, offloadStore );
             this.writer = new SingleWriter( new InternalTreeLogic<>( freeList, bTreeNode, layout, monitor ) );
 
             // Create or load state
@@ -744,7 +760,8 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         // First time
         monitor.noStoreFile();
         // We need to create this index
-        PagedFile pagedFile = pageCache.map( indexFile, pageCache.pageSize(), databaseName, openOptions.newWith( CREATE ) );
+        var pageCacheOptions = openOptions.newWithoutAll( asList( GBPTreeOpenOptions.values() ) );
+        PagedFile pagedFile = pageCache.map( indexFile, pageCache.pageSize(), databaseName, pageCacheOptions.newWith( CREATE ) );
         created = true;
         return pagedFile;
     }
@@ -1047,6 +1064,33 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         return partitionedSeekInternal( fromInclusive, toExclusive, numberOfPartitions, this, cursorContext );
     }
 
+    /**
+     * Partitions the provided key range into {@code numberOfPartitions} partitions, the same way as
+     * {@link #partitionedSeek(Object, Object, int, CursorContext)} does, but returns the edges of the partitions instead of seekers.
+     * Partition {@code i} is the range from edge {@code i} (inclusive) to edge {@code i + 1} (exclusive), so the caller can seek each
+     * partition when, and from the thread where, it is needed.
+     *
+     * @param fromInclusive lower bound of the target range to seek (inclusive).
+     * @param toExclusive higher bound of the target range to seek (exclusive).
+     * @param numberOfPartitions number of partitions desired by the caller. If the tree is small a lower number of partitions may be returned.
+     * The number of partitions will never be higher than the provided {@code numberOfPartitions}.
+     * @param cursorContext underlying page cursor context
+     * @return the edges of the partitions, one more than the number of partitions, starting with {@code fromInclusive} and ending
+     * with {@code toExclusive}.
+     * @throws IOException on error reading from index.
+     */
+    public List<KEY> partitionEdges( KEY fromInclusive, KEY toExclusive, int numberOfPartitions, CursorContext cursorContext ) throws IOException
+    {
+        List<Pair<KEY,KEY>> partitions = partitionInternal( fromInclusive, toExclusive, numberOfPartitions, cursorContext );
+        List<KEY> edges = new ArrayList<>( partitions.size() + 1 );
+        for ( Pair<KEY,KEY> partition : partitions )
+        {
+            edges.add( partition.getLeft() );
+        }
+        edges.add( partitions.get( partitions.size() - 1 ).getRight() );
+        return edges;
+    }
+
     /**
      * We want to create a given number of partitions of the range given by <code>fromInclusive</code> and <code>toExclusive</code>.
      * We want the number of entries in each partition to be as equal as possible. We let the number of subtrees in each partition
@@ -1092,6 +1136,30 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
     private Collection<Seeker<KEY,VALUE>> partitionedSeekInternal( KEY fromInclusive, KEY toExclusive, int numberOfPartitions,
             Seeker.Factory<KEY,VALUE> seekerFactory, CursorContext cursorContext )
             throws IOException
+    {
+        List<Seeker<KEY,VALUE>> seekers = new ArrayList<>();
+        boolean success = false;
+        try
+        {
+            for ( Pair<KEY,KEY> partition : partitionInternal( fromInclusive, toExclusive, numberOfPartitions, cursorContext ) )
+            {
+                seekers.add( seekerFactory.seek( partition.getLeft(), partition.getRight(), cursorContext ) );
+            }
+            success = true;
+        }
+        finally
+        {
+            if ( !success )
+            {
+                IOUtils.closeAll( seekers );
+            }
+        }
+
+        return seekers;
+    }
+
+    private List<Pair<KEY,KEY>> partitionInternal( KEY fromInclusive, KEY toExclusive, int numberOfPartitions, CursorContext cursorContext )
+            throws IOException
     {
         Preconditions.checkArgument( layout.compare( fromInclusive, toExclusive ) <= 0, "Partitioned seek only supports forward seeking for the time being" );
 
@@ -1127,25 +1195,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
 
         // From the set of splitter keys, create partitions
         KeyPartitioning<KEY> partitioning = new KeyPartitioning<>( layout );
-        List<Seeker<KEY,VALUE>> seekers = new ArrayList<>();
-        boolean success = false;
-        try
-        {
-            for ( Pair<KEY,KEY> partition : partitioning.partition( splitterKeysInRange, fromInclusive, toExclusive, numberOfPartitions ) )
-            {
-                seekers.add( seekerFactory.seek( partition.getLeft(), partition.getRight(), cursorContext ) );
-            }
-            success = true;
-        }
-        finally
-        {
-            if ( !success )
-            {
-                IOUtils.closeAll( seekers );
-            }
-        }
-
-        return seekers;
+        return partitioning.partition( splitterKeysInRange, fromInclusive, toExclusive, numberOfPartitions );
     }
 
     /**
@@ -1406,11 +1456,120 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         return writer;
     }
 
+    /**
+     * Returns a {@link Writer} able to modify the index, at the same time as other writers returned from this method, each of them used by
+     * a single thread. Changes that can be made in place in a single leaf are made concurrently with the changes of other concurrent writers,
+     * while changes to the structure of the tree, e.g. splits and the copying of stable nodes on the first change after a checkpoint, wait
+     * for the other concurrent writers to finish their current change, and keep them waiting until done.
+     * <p>
+     * The returned writer must be closed, typically by using try-with-resource clause. It excludes the {@link #writer(CursorContext) single writer}
+     * and {@link #checkpoint(CursorContext) checkpoints} until closed. The {@link ValueMerger} of a merge may be asked to merge the same entry twice,
+     * if the merged value does not fit where the existing value was.
+     *
+     * @param cursorContext underlying page cursor context
+     * @return a new concurrent {@link Writer} for this index.
+     * @throws IOException on error accessing the index.
+     */
+    public Writer<KEY,VALUE> concurrentWriter( CursorContext cursorContext ) throws IOException
+    {
+        return concurrentWriter( InternalTreeLogic.DEFAULT_SPLIT_RATIO, cursorContext );
+    }
+
+    /**
+     * @param ratioToKeepInLeftOnSplit Decide how much to keep in left node on split, 0=keep nothing, 0.5=split 50-50, 1=keep everything.
+     * @param cursorContext underlying page cursor context
+     * @return a new concurrent {@link Writer} for this index.
+     * @throws IOException on error accessing the index.
+     * @see #concurrentWriter(CursorContext)
+     */
+    public Writer<KEY,VALUE> concurrentWriter( double ratioToKeepInLeftOnSplit, CursorContext cursorContext ) throws IOException
+    {
+        assertNotReadOnly( "Open concurrent tree writer." );
+        ConcurrentWriter concurrentWriter = new ConcurrentWriter( concurrentWriteLatches(), ratioToKeepInLeftOnSplit, cursorContext );
+        changesSinceLastCheckpoint = true;
+        return concurrentWriter;
+    }
+
+    /**
+     * Returns a {@link BulkLoader} that builds the contents of this tree, which must be empty, from entries added in ascending key order.
+     * Leaves and internal nodes are filled bottom-up, one after the other, until the given part of their space is used. A fill factor below 1
+     * leaves room in every node for later inserts, so that they do not split the nodes right away.
+     * <p>
+     * The returned bulk loader must be closed, typically by using try-with-resource clause, which is when its entries become visible to readers.
+     * It excludes the {@link #writer(CursorContext) writers} and {@link #checkpoint(CursorContext) checkpoints} until closed.
+     *
+     * @param fillFactor how large part of the space of every node to fill, larger than 0 and at most 1.
+     * @param cursorContext underlying page cursor context
+     * @return a new {@link BulkLoader} for this index.
+     * @throws IOException on error accessing the index.
+     * @throws IllegalStateException if the tree is not empty.
+     */
+    public BulkLoader<KEY,VALUE> bulkLoader( double fillFactor, CursorContext cursorContext ) throws IOException
+    {
+        assertNotReadOnly( "Open tree bulk loader." );
+        TreeBulkLoader bulkLoader = new TreeBulkLoader( fillFactor, cursorContext );
+        changesSinceLastCheckpoint = true;
+        return bulkLoader;
+    }
+
+    private ConcurrentWriteLatches concurrentWriteLatches()
+    {
+        ConcurrentWriteLatches latches = concurrentWriteLatches;
+        if ( latches == null )
+        {
+            synchronized ( this )
+            {
+                latches = concurrentWriteLatches;
+                if ( latches == null )
+                {
+                    latches = new ConcurrentWriteLatches();
+                    concurrentWriteLatches = latches;
+                }
+            }
+        }
+        return latches;
+    }
+
     private void setRoot( long rootId, long rootGeneration )
     {
         this.root = new Root( rootId, rootGeneration );
     }
 
+    /**
+     * Makes the changes to the root that a change made by a writer propagated all the way up: a new root above the split root, or the successor
+     * of the root. Leaves the cursor at the new root, if the root changed.
+     *
+     * @return {@code true} if the root changed, so that the tree logic of the writer needs to be initialized at the new root.
+     */
+    private boolean handleRootChanges( PageCursor cursor, TreeNode<KEY,VALUE> treeNode, StructurePropagation<KEY> structurePropagation,
+            long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException
+    {
+        boolean rootChanged = false;
+        if ( structurePropagation.hasRightKeyInsert )
+        {
+            // New root
+            long newRootId = freeList.acquireNewId( stableGeneration, unstableGeneration, cursorContext );
+            PageCursorUtil.goTo( cursor, "new root", newRootId );
+
+            treeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
+            treeNode.setChildAt( cursor, structurePropagation.midChild, 0,
+                    stableGeneration, unstableGeneration );
+            treeNode.insertKeyAndRightChildAt( cursor, structurePropagation.rightKey, structurePropagation.rightChild, 0, 0,
+                    stableGeneration, unstableGeneration, cursorContext );
+            TreeNode.setKeyCount( cursor, 1 );
+            setRoot( GenerationSafePointerPair.pointer( newRootId ), unstableGeneration );
+            monitor.treeGrowth();
+            rootChanged = true;
+        }
+        else if ( structurePropagation.hasMidChildUpdate )
+        {
+            setRoot( GenerationSafePointerPair.pointer( structurePropagation.midChild ), unstableGeneration );
+            rootChanged = true;
+        }
+        structurePropagation.clear();
+        return rootChanged;
+    }
+
     /**
      * Bump unstable generation, increasing the gap between stable and unstable generation. All pointers and tree nodes
      * with generation in this gap are considered to be 'crashed' and will be cleaned up by {@link CleanupJob}
@@ -1726,13 +1885,6 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             checkOutOfBounds( cursor );
         }
 
-        private void setRoot( long rootPointer )
-        {
-            long rootId = GenerationSafePointerPair.pointer( rootPointer );
-            GBPTree.this.setRoot( rootId, unstableGeneration );
-            treeLogic.initialize( cursor, ratioToKeepInLeftOnSplit );
-        }
-
         @Override
         public VALUE remove( KEY key )
         {
@@ -1761,26 +1913,10 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
 
         private void handleStructureChanges( CursorContext cursorContext ) throws IOException
         {
-            if ( structurePropagation.hasRightKeyInsert )
+            if ( handleRootChanges( cursor, bTreeNode, structurePropagation, stableGeneration, unstableGeneration, cursorContext ) )
             {
-                // New root
-                long newRootId = freeList.acquireNewId( stableGeneration, unstableGeneration, cursorContext );
-                PageCursorUtil.goTo( cursor, "new root", newRootId );
-
-                bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
-                bTreeNode.setChildAt( cursor, structurePropagation.midChild, 0,
-                        stableGeneration, unstableGeneration );
-                bTreeNode.insertKeyAndRightChildAt( cursor, structurePropagation.rightKey, structurePropagation.rightChild, 0, 0,
-                        stableGeneration, unstableGeneration, cursorContext );
-                TreeNode.setKeyCount( cursor, 1 );
-                setRoot( newRootId );
-                monitor.treeGrowth();
-            }
-            else if ( structurePropagation.hasMidChildUpdate )
-            {
-                setRoot( structurePropagation.midChild );
+                treeLogic.initialize( cursor, ratioToKeepInLeftOnSplit );
             }
-            structurePropagation.clear();
         }
 
         @Override
@@ -1805,6 +1941,298 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         }
     }
 
+    /**
+     * A {@link Writer} of which there can be many at the same time, see {@link #concurrentWriter(CursorContext)}. Every change first tries
+     * to change a single leaf in place, with the structure latched shared and the leaf latched, and otherwise makes the change the way the
+     * single writer does, with the structure latched exclusively. Every change starts from the root, since the path down the tree
+     * that the previous change took may have been changed by other writers since.
+     */
+    private class ConcurrentWriter implements Writer<KEY,VALUE>
+    {
+        private final ConcurrentWriteLatches latches;
+        private final TreeNode<KEY,VALUE> treeNode;
+        private final InternalTreeLogic<KEY,VALUE> treeLogic;
+        private final StructurePropagation<KEY> structurePropagation;
+        private final double ratioToKeepInLeftOnSplit;
+        private final CursorContext cursorContext;
+        private final PageCursor cursor;
+
+        // Writer can't live past a checkpoint because of the mutex with checkpoint,
+        // therefore safe to locally cache these generation fields from the volatile generation in the tree
+        private final long stableGeneration;
+        private final long unstableGeneration;
+        private boolean closed;
+
+        ConcurrentWriter( ConcurrentWriteLatches latches, double ratioToKeepInLeftOnSplit, CursorContext cursorContext ) throws IOException
+        {
+            this.latches = latches;
+            this.ratioToKeepInLeftOnSplit = ratioToKeepInLeftOnSplit;
+            this.cursorContext = cursorContext;
+            this.treeNode = treeNodeFactory.get();
+            this.treeLogic = new InternalTreeLogic<>( freeList, treeNode, layout, monitor );
+            this.structurePropagation = new StructurePropagation<>( layout.newKey(), layout.newKey(), layout.newKey() );
+
+            // Block here until cleaning has completed, if cleaning was required
+            lock.concurrentWriterLock();
+            PageCursor rootCursor = null;
+            try
+            {
+                assertRecoveryCleanSuccessful();
+                rootCursor = pagedFile.io( 0L /*Ignored*/, PagedFile.PF_SHARED_WRITE_LOCK, cursorContext );
+                stableGeneration = stableGeneration( generation );
+                unstableGeneration = unstableGeneration( generation );
+            }
+            catch ( Throwable e )
+            {
+                IOUtils.closeAllSilently( rootCursor );
+                lock.concurrentWriterUnlock();
+                appendTreeInformation( e );
+                throw e;
+            }
+            this.cursor = rootCursor;
+        }
+
+        @Override
+        public void put( KEY key, VALUE value )
+        {
+            merge( key, value, ValueMergers.overwrite() );
+        }
+
+        @Override
+        public void merge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger )
+        {
+            internalMerge( key, value, valueMerger, true );
+        }
+
+        @Override
+        public void mergeIfExists( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger )
+        {
+            internalMerge( key, value, valueMerger, false );
+        }
+
+        private void internalMerge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists )
+        {
+            try
+            {
+                InternalTreeLogic.LeafChange change;
+                latches.acquireStructureShared();
+                try
+                {
+                    goToRoot();
+                    change = treeLogic.insertInLeafLatched( cursor, latches, key, value, valueMerger, createIfNotExists,
+                            stableGeneration, unstableGeneration, cursorContext );
+                }
+                finally
+                {
+                    latches.releaseStructureShared();
+                }
+
+                if ( change == InternalTreeLogic.LeafChange.NEEDS_STRUCTURE_CHANGE )
+                {
+                    latches.acquireStructureExclusive();
+                    try
+                    {
+                        goToRoot();
+                        treeLogic.insert( cursor, structurePropagation, key, value, valueMerger, createIfNotExists,
+                                stableGeneration, unstableGeneration, cursorContext );
+                        handleRootChanges( cursor, treeNode, structurePropagation, stableGeneration, unstableGeneration, cursorContext );
+                    }
+                    finally
+                    {
+                        latches.releaseStructureExclusive();
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable t )
+            {
+                appendTreeInformation( t );
+                throw t;
+            }
+
+            checkOutOfBounds( cursor );
+        }
+
+        @Override
+        public VALUE remove( KEY key )
+        {
+            VALUE result;
+            try
+            {
+                VALUE into = layout.newValue();
+                InternalTreeLogic.LeafChange change;
+                latches.acquireStructureShared();
+                try
+                {
+                    goToRoot();
+                    change = treeLogic.removeFromLeafLatched( cursor, latches, key, into, stableGeneration, unstableGeneration, cursorContext );
+                }
+                finally
+                {
+                    latches.releaseStructureShared();
+                }
+
+                if ( change == InternalTreeLogic.LeafChange.NEEDS_STRUCTURE_CHANGE )
+                {
+                    latches.acquireStructureExclusive();
+                    try
+                    {
+                        goToRoot();
+                        result = treeLogic.remove( cursor, structurePropagation, key, into, stableGeneration, unstableGeneration, cursorContext );
+                        handleRootChanges( cursor, treeNode, structurePropagation, stableGeneration, unstableGeneration, cursorContext );
+                    }
+                    finally
+                    {
+                        latches.releaseStructureExclusive();
+                    }
+                }
+                else
+                {
+                    result = change == InternalTreeLogic.LeafChange.DONE ? into : null;
+                }
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+
+            checkOutOfBounds( cursor );
+            return result;
+        }
+
+        /**
+         * The root only changes with the structure latched exclusively, so it is stable while this writer holds the structure latch.
+         */
+        private void goToRoot() throws IOException
+        {
+            root.goTo( cursor );
+            assert assertNoSuccessor( cursor, stableGeneration, unstableGeneration );
+            treeLogic.initialize( cursor, ratioToKeepInLeftOnSplit );
+        }
+
+        @Override
+        public void close()
+        {
+            if ( closed )
+            {
+                throw new IllegalStateException( "Tried to close concurrent writer of " + GBPTree.this + ", but writer is already closed." );
+            }
+            closed = true;
+            cursor.close();
+            lock.concurrentWriterUnlock();
+        }
+    }
+
+    /**
+     * A {@link BulkLoader} that builds the tree in new nodes next to the empty root, see {@link BottomUpTreeBuilder}, and switches the root
+     * to the built tree when closed. Until then the new nodes are not reachable and a crash leaves them to be reclaimed like any other
+     * nodes written after the last checkpoint. If an entry could not be added, the tree is left empty and the new nodes are released when closed.
+     */
+    private class TreeBulkLoader implements BulkLoader<KEY,VALUE>
+    {
+        private final CursorContext cursorContext;
+        private final PageCursor cursor;
+        private final BottomUpTreeBuilder<KEY,VALUE> builder;
+        // Bulk loader can't live past a checkpoint because of the mutex with checkpoint,
+        // therefore safe to locally cache these generation fields from the volatile generation in the tree
+        private final long stableGeneration;
+        private final long unstableGeneration;
+        private boolean failed;
+        private boolean closed;
+
+        TreeBulkLoader( double fillFactor, CursorContext cursorContext ) throws IOException
+        {
+            this.cursorContext = cursorContext;
+
+            // Block here until cleaning has completed, if cleaning was required
+            lock.writerAndCleanerLock();
+            PageCursor rootCursor = null;
+            try
+            {
+                assertRecoveryCleanSuccessful();
+                rootCursor = openRootCursor( PagedFile.PF_SHARED_WRITE_LOCK, cursorContext );
+                if ( !TreeNode.isLeaf( rootCursor ) || TreeNode.keyCount( rootCursor ) != 0 )
+                {
+                    throw new IllegalStateException( "Can only bulk load into an empty tree, but " + GBPTree.this + " has entries" );
+                }
+                stableGeneration = stableGeneration( generation );
+                unstableGeneration = unstableGeneration( generation );
+                builder = new BottomUpTreeBuilder<>( rootCursor, bTreeNode, layout, freeList, fillFactor, stableGeneration, unstableGeneration,
+                        cursorContext );
+            }
+            catch ( Throwable e )
+            {
+                IOUtils.closeAllSilently( rootCursor );
+                lock.writerAndCleanerUnlock();
+                appendTreeInformation( e );
+                throw e;
+            }
+            this.cursor = rootCursor;
+        }
+
+        @Override
+        public void add( KEY key, VALUE value )
+        {
+            try
+            {
+                builder.add( key, value );
+                checkOutOfBounds( cursor );
+            }
+            catch ( IOException e )
+            {
+                failed = true;
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable t )
+            {
+                failed = true;
+                appendTreeInformation( t );
+                throw t;
+            }
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            if ( closed )
+            {
+                throw new IllegalStateException( "Tried to close bulk loader of " + GBPTree.this + ", but bulk loader is already closed." );
+            }
+            closed = true;
+            try
+            {
+                if ( failed )
+                {
+                    builder.abort();
+                    return;
+                }
+                long newRootId = builder.finish();
+                if ( newRootId != TreeNode.NO_NODE_FLAG )
+                {
+                    long oldRootId = root.id();
+                    setRoot( newRootId, unstableGeneration );
+                    freeList.releaseId( stableGeneration, unstableGeneration, oldRootId, cursorContext );
+                }
+            }
+            finally
+            {
+                cursor.close();
+                lock.writerAndCleanerUnlock();
+            }
+        }
+    }
+
     /**
      * Total size limit for key and value.
      * This limit includes storage overhead that is specific to key implementation for example entity id or meta data about type.
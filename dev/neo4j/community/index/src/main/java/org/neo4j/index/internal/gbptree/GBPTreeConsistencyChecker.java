@@ -65,6 +65,7 @@ class GBPTreeConsistencyChecker<KEY>
     private final boolean reportDirty;
     private final GenerationKeeper generationTarget = new GenerationKeeper();
     private final MutableLongList offloadIds = new LongArrayList();
+    private final KeyBuffer keyBuffer = new KeyBuffer();
 
     GBPTreeConsistencyChecker( TreeNode<KEY,?> node, Layout<KEY,?> layout, IdProvider idProvider, long stableGeneration,
             long unstableGeneration, boolean reportDirty )
@@ -300,7 +301,7 @@ class GBPTreeConsistencyChecker<KEY>
             {
                 child = childAt( cursor, pos, generationTarget );
                 childGeneration = generationTarget.generation;
-                node.keyAt( cursor, readKey, pos, INTERNAL, cursorContext );
+                node.keyAt( cursor, readKey, pos, INTERNAL, cursorContext, keyBuffer );
             }
             while ( cursor.shouldRetry() );
             checkAfterShouldRetry( cursor );
@@ -367,7 +368,7 @@ class GBPTreeConsistencyChecker<KEY>
             boolean first = true;
             for ( int pos = 0; pos < keyCount; pos++ )
             {
-                node.keyAt( cursor, readKey, pos, type, cursorContext );
+                node.keyAt( cursor, readKey, pos, type, cursorContext, keyBuffer );
                 if ( !range.inRange( readKey ) )
                 {
                     KEY keyCopy = layout.newKey();
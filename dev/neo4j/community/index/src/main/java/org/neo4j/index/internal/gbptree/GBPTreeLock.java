@@ -26,10 +26,19 @@ import java.util.concurrent.locks.LockSupport;
 
 import org.neo4j.util.VisibleForTesting;
 
+/**
+ * Writer and cleaner locks of a {@link GBPTree}, which are exclusive, and a concurrent writer lock, which any number of concurrent writers
+ * can hold at the same time. Concurrent writers exclude the writer and cleaner locks, and vice versa. Threads that wait for the writer or
+ * cleaner lock keep new concurrent writers out, so that a checkpoint gets its turn while concurrent writers come and go.
+ */
 class GBPTreeLock
 {
     private static final long writerLockBit = 0x00000000_00000001L;
     private static final long cleanerLockBit = 0x00000000_00000002L;
+    private static final long waiterUnit = 0x00000000_00000100L;
+    private static final long waitersMask = 0x00000000_FFFFFF00L;
+    private static final long concurrentWriterUnit = 0x00000001_00000000L;
+    private static final long concurrentWritersMask = 0xFFFFFFFF_00000000L;
     @SuppressWarnings( "unused" ) // accessed via VarHandle
     private long state;
     private static final VarHandle STATE;
@@ -85,21 +94,63 @@ class GBPTreeLock
         doUnlock( writerLockBit | cleanerLockBit );
     }
 
-    private void doLock( long targetLockBit )
+    void concurrentWriterLock()
     {
         long currentState;
-        long newState;
         do
         {
             currentState = (long) STATE.getVolatile( this );
-            while ( !canLock( currentState, targetLockBit ) )
+            while ( (currentState & (writerLockBit | cleanerLockBit | waitersMask)) != 0 )
             {
-                // sleep
                 sleep();
                 currentState = (long) STATE.getVolatile( this );
             }
-            newState = currentState | targetLockBit;
-        } while ( !STATE.weakCompareAndSet( this, currentState, newState ) );
+        }
+        while ( !STATE.weakCompareAndSet( this, currentState, currentState + concurrentWriterUnit ) );
+    }
+
+    void concurrentWriterUnlock()
+    {
+        long currentState;
+        do
+        {
+            currentState = (long) STATE.getVolatile( this );
+            if ( (currentState & concurrentWritersMask) == 0 )
+            {
+                throw new IllegalStateException( "Can not unlock concurrent writer lock that is not locked" );
+            }
+        }
+        while ( !STATE.weakCompareAndSet( this, currentState, currentState - concurrentWriterUnit ) );
+    }
+
+    private void doLock( long targetLockBit )
+    {
+        boolean waiting = false;
+        while ( true )
+        {
+            long currentState = (long) STATE.getVolatile( this );
+            if ( canLock( currentState, targetLockBit ) )
+            {
+                long newState = currentState | targetLockBit;
+                if ( waiting && (newState & waitersMask) != 0 )
+                {
+                    newState -= waiterUnit;
+                }
+                if ( STATE.weakCompareAndSet( this, currentState, newState ) )
+                {
+                    return;
+                }
+            }
+            else if ( !waiting )
+            {
+                // Register as waiter, to keep new concurrent writers out
+                waiting = STATE.weakCompareAndSet( this, currentState, currentState + waiterUnit );
+            }
+            else
+            {
+                sleep();
+            }
+        }
     }
 
     private void doUnlock( long targetLockBit )
@@ -120,7 +171,7 @@ class GBPTreeLock
 
     private static boolean canLock( long state, long targetLockBit )
     {
-        return (state & targetLockBit) == 0;
+        return (state & targetLockBit) == 0 && (state & concurrentWritersMask) == 0;
     }
 
     private static boolean canUnlock( long state, long targetLockBit )
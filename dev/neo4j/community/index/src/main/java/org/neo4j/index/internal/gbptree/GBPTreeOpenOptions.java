@@ -27,5 +27,7 @@ import java.nio.file.OpenOption;
 public enum GBPTreeOpenOptions implements OpenOption
 {
     // do not flush index file on close
-    NO_FLUSH_ON_CLOSE
+    NO_FLUSH_ON_CLOSE,
+    // prefix compress keys in leaves of new trees with dynamic size layout, existing trees keep the format they were created with
+    PREFIX_COMPRESSED_LEAVES
 }
@@ -200,6 +200,7 @@ public class GBPTreeStructure<KEY, VALUE>
         long offloadId;
         KEY key = layout.newKey();
         VALUE value = layout.newValue();
+        KeyBuffer keyBuffer = new KeyBuffer();
         for ( int i = 0; i < keyCount; i++ )
         {
             long child = -1;
@@ -207,7 +208,7 @@ public class GBPTreeStructure<KEY, VALUE>
             {
                 TreeNode.Type type = isLeaf ? LEAF : INTERNAL;
                 offloadId = node.offloadIdAt( cursor, i, type );
-                node.keyAt( cursor, key, i, type, cursorContext );
+                node.keyAt( cursor, key, i, type, cursorContext, keyBuffer );
                 if ( isLeaf )
                 {
                     node.valueAt( cursor, value, i, cursorContext );
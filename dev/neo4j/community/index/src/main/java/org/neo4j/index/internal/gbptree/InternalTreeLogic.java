@@ -88,12 +88,33 @@ class InternalTreeLogic<KEY,VALUE>
 {
     static final double DEFAULT_SPLIT_RATIO = 0.5;
 
+    /**
+     * Outcome of a change that a concurrent writer tries to make to a single leaf, in place.
+     */
+    enum LeafChange
+    {
+        /**
+         * The change has been made.
+         */
+        DONE,
+        /**
+         * There was nothing to change, i.e. the key to remove was not in the tree.
+         */
+        NOT_FOUND,
+        /**
+         * The change needs changes to the structure of the tree, and has to be made with {@link #insert} or {@link #remove}, with the structure
+         * latched exclusively. Nothing has been changed.
+         */
+        NEEDS_STRUCTURE_CHANGE
+    }
+
     private final IdProvider idProvider;
     private final TreeNode<KEY,VALUE> bTreeNode;
     private final Layout<KEY,VALUE> layout;
     private final KEY newKeyPlaceHolder;
     private final KEY readKey;
     private final VALUE readValue;
+    private final KeyBuffer keyBuffer = new KeyBuffer();
     private final GBPTree.Monitor monitor;
 
     /**
@@ -303,7 +324,7 @@ class InternalTreeLogic<KEY,VALUE>
                 }
                 else
                 {
-                    bTreeNode.keyAt( cursor, level.lower, childPos - 1, INTERNAL, cursorContext );
+                    bTreeNode.keyAt( cursor, level.lower, childPos - 1, INTERNAL, cursorContext, keyBuffer );
                 }
             }
             level.upperIsOpenEnded = childPos >= keyCount &&
@@ -317,7 +338,7 @@ class InternalTreeLogic<KEY,VALUE>
                 }
                 else
                 {
-                    bTreeNode.keyAt( cursor, level.upper, childPos, INTERNAL, cursorContext );
+                    bTreeNode.keyAt( cursor, level.upper, childPos, INTERNAL, cursorContext, keyBuffer );
                 }
             }
 
@@ -400,7 +421,7 @@ class InternalTreeLogic<KEY,VALUE>
 
     private int search( PageCursor cursor, TreeNode.Type type, KEY key, KEY readKey, int keyCount, CursorContext cursorContext )
     {
-        int searchResult = KeySearch.search( cursor, bTreeNode, type, key, readKey, keyCount, cursorContext );
+        int searchResult = KeySearch.search( cursor, bTreeNode, type, key, readKey, keyCount, cursorContext, keyBuffer );
         KeySearch.assertSuccess( searchResult );
         return searchResult;
     }
@@ -775,6 +796,157 @@ class InternalTreeLogic<KEY,VALUE>
         return into;
     }
 
+    /**
+     * Counterpart of {@link #insert(PageCursor, StructurePropagation, Object, Object, ValueMerger, boolean, long, long, CursorContext)} for
+     * concurrent writers, that holds the structure latch of {@code latches} shared. Moves the cursor down to the leaf for {@code key},
+     * latches the leaf and makes the change in place, if it can be made without changing the structure of the tree, i.e. if the leaf is of the
+     * unstable generation and the entry fits in it.
+     * <p>
+     * In the rare case of a merge that can not be made in place, the {@code valueMerger} may be asked to merge the same entry again by the
+     * following call to {@link #insert(PageCursor, StructurePropagation, Object, Object, ValueMerger, boolean, long, long, CursorContext) insert}.
+     *
+     * @param cursor {@link PageCursor} pinned to root of tree, with this logic {@link #initialize(PageCursor, double) initialized} at it.
+     * @param latches latches of the concurrent writers of the tree.
+     * @return {@link LeafChange#DONE} if the change has been made, or if there was no change to make, otherwise
+     * {@link LeafChange#NEEDS_STRUCTURE_CHANGE}.
+     * @throws IOException on cursor failure
+     */
+    LeafChange insertInLeafLatched( PageCursor cursor, ConcurrentWriteLatches latches, KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger,
+            boolean createIfNotExists, long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException
+    {
+        assert cursorIsAtExpectedLocation( cursor );
+        bTreeNode.validateKeyValueSize( key, value );
+        moveToCorrectLeaf( cursor, key, stableGeneration, unstableGeneration, cursorContext );
+
+        long leafId = cursor.getCurrentPageId();
+        latches.acquireLeaf( leafId );
+        try
+        {
+            if ( TreeNode.generation( cursor ) != unstableGeneration )
+            {
+                // A successor has to be created, which changes the parent
+                return LeafChange.NEEDS_STRUCTURE_CHANGE;
+            }
+
+            int keyCount = TreeNode.keyCount( cursor );
+            int search = search( cursor, LEAF, key, readKey, keyCount, cursorContext );
+            int pos = positionOf( search );
+            if ( isHit( search ) )
+            {
+                return mergeValueInPlace( cursor, key, value, valueMerger, pos, keyCount, stableGeneration, unstableGeneration, cursorContext );
+            }
+            if ( !createIfNotExists )
+            {
+                return LeafChange.DONE;
+            }
+
+            Overflow overflow = bTreeNode.leafOverflow( cursor, keyCount, key, value );
+            if ( overflow == YES )
+            {
+                return LeafChange.NEEDS_STRUCTURE_CHANGE;
+            }
+            if ( overflow == NO_NEED_DEFRAG )
+            {
+                bTreeNode.defragmentLeaf( cursor );
+            }
+            bTreeNode.insertKeyValueAt( cursor, key, value, pos, keyCount, stableGeneration, unstableGeneration, cursorContext );
+            TreeNode.setKeyCount( cursor, keyCount + 1 );
+            return LeafChange.DONE;
+        }
+        finally
+        {
+            latches.releaseLeaf( leafId );
+        }
+    }
+
+    private LeafChange mergeValueInPlace( PageCursor cursor, KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, int pos, int keyCount,
+            long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException
+    {
+        bTreeNode.valueAt( cursor, readValue, pos, cursorContext );
+        ValueMerger.MergeResult mergeResult = valueMerger.merge( readKey, key, readValue, value );
+        if ( mergeResult == ValueMerger.MergeResult.UNCHANGED )
+        {
+            return LeafChange.DONE;
+        }
+
+        if ( mergeResult == ValueMerger.MergeResult.REPLACED || mergeResult == ValueMerger.MergeResult.MERGED )
+        {
+            VALUE mergedValue = mergeResult == ValueMerger.MergeResult.REPLACED ? value : readValue;
+            if ( bTreeNode.setValueAt( cursor, mergedValue, pos ) )
+            {
+                return LeafChange.DONE;
+            }
+            // The merged value has another size. If it fits next to the old one, it certainly fits in its place.
+            if ( bTreeNode.leafOverflow( cursor, keyCount, key, mergedValue ) == YES )
+            {
+                return LeafChange.NEEDS_STRUCTURE_CHANGE;
+            }
+            bTreeNode.removeKeyValueAt( cursor, pos, keyCount, stableGeneration, unstableGeneration, cursorContext );
+            TreeNode.setKeyCount( cursor, keyCount - 1 );
+            if ( bTreeNode.leafOverflow( cursor, keyCount - 1, key, mergedValue ) == NO_NEED_DEFRAG )
+            {
+                bTreeNode.defragmentLeaf( cursor );
+            }
+            bTreeNode.insertKeyValueAt( cursor, key, mergedValue, pos, keyCount - 1, stableGeneration, unstableGeneration, cursorContext );
+            TreeNode.setKeyCount( cursor, keyCount );
+            return LeafChange.DONE;
+        }
+
+        if ( mergeResult == ValueMerger.MergeResult.REMOVED )
+        {
+            if ( keyCount == 1 )
+            {
+                // Leave it to the rebalancing of the exclusive path to empty a leaf
+                return LeafChange.NEEDS_STRUCTURE_CHANGE;
+            }
+            bTreeNode.removeKeyValueAt( cursor, pos, keyCount, stableGeneration, unstableGeneration, cursorContext );
+            TreeNode.setKeyCount( cursor, keyCount - 1 );
+            return LeafChange.DONE;
+        }
+        throw new UnsupportedOperationException( "Unexpected merge result " + mergeResult );
+    }
+
+    /**
+     * Counterpart of {@link #remove(PageCursor, StructurePropagation, Object, Object, long, long, CursorContext)} for concurrent writers, that
+     * hold the structure latch of {@code latches} shared. Moves the cursor down to the leaf for {@code key}, latches the leaf and removes the entry
+     * in place, if the leaf is of the unstable generation and keeps at least one other entry. An underflow of the leaf is left to the next
+     * change of the leaf that is made with the structure latched exclusively.
+     *
+     * @param cursor {@link PageCursor} pinned to root of tree, with this logic {@link #initialize(PageCursor, double) initialized} at it.
+     * @param latches latches of the concurrent writers of the tree.
+     * @param into {@code VALUE} instance to write removed value to.
+     * @return whether the entry was removed, was not found, or needs changes to the structure of the tree to be removed.
+     * @throws IOException on cursor failure
+     */
+    LeafChange removeFromLeafLatched( PageCursor cursor, ConcurrentWriteLatches latches, KEY key, VALUE into, long stableGeneration,
+            long unstableGeneration, CursorContext cursorContext ) throws IOException
+    {
+        assert cursorIsAtExpectedLocation( cursor );
+        moveToCorrectLeaf( cursor, key, stableGeneration, unstableGeneration, cursorContext );
+
+        long leafId = cursor.getCurrentPageId();
+        latches.acquireLeaf( leafId );
+        try
+        {
+            int keyCount = TreeNode.keyCount( cursor );
+            int search = search( cursor, LEAF, key, readKey, keyCount, cursorContext );
+            if ( !isHit( search ) )
+            {
+                return LeafChange.NOT_FOUND;
+            }
+            if ( TreeNode.generation( cursor ) != unstableGeneration || keyCount == 1 )
+            {
+                return LeafChange.NEEDS_STRUCTURE_CHANGE;
+            }
+            simplyRemoveFromLeaf( cursor, into, keyCount, positionOf( search ), stableGeneration, unstableGeneration, cursorContext );
+            return LeafChange.DONE;
+        }
+        finally
+        {
+            latches.releaseLeaf( leafId );
+        }
+    }
+
     private void handleStructureChanges( PageCursor cursor, StructurePropagation<KEY> structurePropagation,
             long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException
     {
@@ -1010,7 +1182,7 @@ class InternalTreeLogic<KEY,VALUE>
 
             // Create new version of node, save rightmost key in structurePropagation, remove rightmost key and child
             createSuccessorIfNeeded( cursor, structurePropagation, UPDATE_MID_CHILD, stableGeneration, unstableGeneration, cursorContext );
-            bTreeNode.keyAt( cursor, structurePropagation.bubbleKey, keyCount - 1, INTERNAL, cursorContext );
+            bTreeNode.keyAt( cursor, structurePropagation.bubbleKey, keyCount - 1, INTERNAL, cursorContext, keyBuffer );
             simplyRemoveFromInternal( cursor, keyCount, keyCount - 1, false, stableGeneration, unstableGeneration, cursorContext );
 
             return true;
@@ -1189,7 +1361,7 @@ class InternalTreeLogic<KEY,VALUE>
     {
         // Read the right-most key from the right sibling to use when comparing whether or not
         // a common parent covers the keys in right sibling too
-        bTreeNode.keyAt( rightSiblingCursor, structurePropagation.rightKey, rightSiblingKeyCount - 1, LEAF, cursorContext );
+        bTreeNode.keyAt( rightSiblingCursor, structurePropagation.rightKey, rightSiblingKeyCount - 1, LEAF, cursorContext, keyBuffer );
         merge( cursor, keyCount, rightSiblingCursor, rightSiblingKeyCount, stableGeneration, unstableGeneration, cursorContext );
 
         // Propagate change
@@ -1207,7 +1379,7 @@ class InternalTreeLogic<KEY,VALUE>
     {
         // Read the left-most key from the left sibling to use when comparing whether or not
         // a common parent covers the keys in left sibling too
-        bTreeNode.keyAt( leftSiblingCursor, structurePropagation.leftKey, 0, LEAF, cursorContext );
+        bTreeNode.keyAt( leftSiblingCursor, structurePropagation.leftKey, 0, LEAF, cursorContext, keyBuffer );
         merge( leftSiblingCursor, leftSiblingKeyCount, cursor, keyCount, stableGeneration, unstableGeneration, cursorContext );
 
         // Propagate change
@@ -1241,7 +1413,7 @@ class InternalTreeLogic<KEY,VALUE>
         // Propagate change
         structurePropagation.hasLeftKeyReplace = true;
         structurePropagation.keyReplaceStrategy = REPLACE;
-        bTreeNode.keyAt( rightCursor, structurePropagation.leftKey, 0, LEAF, cursorContext );
+        bTreeNode.keyAt( rightCursor, structurePropagation.leftKey, 0, LEAF, cursorContext, keyBuffer );
     }
 
     /**
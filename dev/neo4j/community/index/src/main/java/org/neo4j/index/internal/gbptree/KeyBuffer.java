@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * Scratch space for a serialized key, used by {@link TreeNodeDynamicSize} when encoding and decoding prefix compressed keys.
+ * Not thread safe, each reader and writer keeps its own and passes it along when reading keys. Grows on demand, so readers
+ * of trees without prefix compressed keys never allocate anything.
+ */
+final class KeyBuffer
+{
+    private byte[] bytes = new byte[0];
+    private PageCursor cursor;
+
+    /**
+     * @param size number of bytes needed.
+     * @return bytes of this buffer, at least the given size. Contents are not kept if the buffer needs to grow.
+     */
+    byte[] bytes( int size )
+    {
+        if ( bytes.length < size )
+        {
+            bytes = new byte[Math.max( size, bytes.length << 1 )];
+            cursor = null;
+        }
+        return bytes;
+    }
+
+    /**
+     * @param size number of bytes needed.
+     * @return cursor over the bytes of this buffer, at offset zero.
+     */
+    PageCursor cursor( int size )
+    {
+        bytes( size );
+        if ( cursor == null )
+        {
+            cursor = ByteArrayPageCursor.wrap( bytes );
+        }
+        cursor.setOffset( 0 );
+        return cursor;
+    }
+}
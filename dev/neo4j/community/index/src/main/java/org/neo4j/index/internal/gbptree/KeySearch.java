@@ -67,6 +67,16 @@ class KeySearch
      */
     static <KEY,VALUE> int search( PageCursor cursor, TreeNode<KEY,VALUE> bTreeNode, TreeNode.Type type, KEY key,
             KEY readKey, int keyCount, CursorContext cursorContext )
+    {
+        return search( cursor, bTreeNode, type, key, readKey, keyCount, cursorContext, new KeyBuffer() );
+    }
+
+    /**
+     * Same as {@link #search(PageCursor, TreeNode, TreeNode.Type, Object, Object, int, CursorContext)}, with scratch space
+     * for decoding keys that the caller keeps between searches.
+     */
+    static <KEY,VALUE> int search( PageCursor cursor, TreeNode<KEY,VALUE> bTreeNode, TreeNode.Type type, KEY key,
+            KEY readKey, int keyCount, CursorContext cursorContext, KeyBuffer keyBuffer )
     {
         if ( keyCount == 0 )
         {
@@ -83,12 +93,12 @@ class KeySearch
         int comparison;
 
         // key greater than greatest key in node
-        if ( comparator.compare( key, bTreeNode.keyAt( cursor, readKey, higher, type, cursorContext ) ) > 0 )
+        if ( comparator.compare( key, bTreeNode.keyAt( cursor, readKey, higher, type, cursorContext, keyBuffer ) ) > 0 )
         {
             pos = keyCount;
         }
         // key smaller than or equal to smallest key in node
-        else if ( (comparison = comparator.compare( key, bTreeNode.keyAt( cursor, readKey, lower, type, cursorContext ) )) <= 0 )
+        else if ( (comparison = comparator.compare( key, bTreeNode.keyAt( cursor, readKey, lower, type, cursorContext, keyBuffer ) )) <= 0 )
         {
             if ( comparison == 0 )
             {
@@ -105,7 +115,7 @@ class KeySearch
             while ( lower < higher )
             {
                 pos = (lower + higher) / 2;
-                comparison = comparator.compare( key, bTreeNode.keyAt( cursor, readKey, pos, type, cursorContext ) );
+                comparison = comparator.compare( key, bTreeNode.keyAt( cursor, readKey, pos, type, cursorContext, keyBuffer ) );
                 if ( comparison <= 0 )
                 {
                     higher = pos;
@@ -121,7 +131,7 @@ class KeySearch
             }
             pos = lower;
 
-            hit = comparator.compare( key, bTreeNode.keyAt( cursor, readKey, pos, type, cursorContext ) ) == 0;
+            hit = comparator.compare( key, bTreeNode.keyAt( cursor, readKey, pos, type, cursorContext, keyBuffer ) ) == 0;
         }
         return searchResult( pos, hit );
     }
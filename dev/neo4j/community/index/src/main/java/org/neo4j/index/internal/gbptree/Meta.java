@@ -164,7 +164,10 @@ public class Meta
                     layout.identifier(), layout.majorVersion(), layout.minorVersion() ) );
         }
 
-        Factory formatByLayout = TreeNodeSelector.selectByLayout( layout );
+        // Prefix compression is chosen when the tree is created, any layout supporting it can open a tree with or without it
+        boolean prefixCompressedLeaves = formatIdentifier == TreeNodeDynamicSize.FORMAT_IDENTIFIER &&
+                                         formatVersion == TreeNodeDynamicSize.FORMAT_VERSION_PREFIX_COMPRESSED;
+        Factory formatByLayout = TreeNodeSelector.selectByLayout( layout, prefixCompressedLeaves );
         if ( formatByLayout.formatIdentifier() != formatIdentifier ||
              formatByLayout.formatVersion() != formatVersion )
         {
@@ -238,6 +238,11 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
      */
     private final TreeNode<KEY,VALUE> bTreeNode;
 
+    /**
+     * Scratch space for decoding keys read from tree nodes.
+     */
+    private final KeyBuffer keyBuffer = new KeyBuffer();
+
     /**
      * Contains the highest returned key, i.e. from the last call to {@link #next()} returning {@code true}.
      */
@@ -371,7 +376,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
     private long pointerGeneration;
 
     /**
-     * Result from {@link KeySearch#search(PageCursor, TreeNode, TreeNode.Type, Object, Object, int, CursorContext)}.
+     * Result from {@link KeySearch#search(PageCursor, TreeNode, TreeNode.Type, Object, Object, int, CursorContext, KeyBuffer)}.
      */
     private int searchResult;
 
@@ -691,7 +696,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
             if ( verifyExpectedFirstAfterGoToNext )
             {
                 pos = seekForward ? 0 : keyCount - 1;
-                bTreeNode.keyAt( cursor, firstKeyInNode, pos, isInternal ? INTERNAL : LEAF, cursorContext );
+                bTreeNode.keyAt( cursor, firstKeyInNode, pos, isInternal ? INTERNAL : LEAF, cursorContext, keyBuffer );
             }
 
             if ( concurrentWriteHappened )
@@ -731,11 +736,11 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
                 }
                 if ( !isInternal )
                 {
-                    bTreeNode.keyValueAt( cursor, mutableKeys[cachedLength], mutableValues[cachedLength], readPos, cursorContext );
+                    bTreeNode.keyValueAt( cursor, mutableKeys[cachedLength], mutableValues[cachedLength], readPos, cursorContext, keyBuffer );
                 }
                 else
                 {
-                    bTreeNode.keyAt( cursor, mutableKeys[cachedLength], readPos, INTERNAL, cursorContext );
+                    bTreeNode.keyAt( cursor, mutableKeys[cachedLength], readPos, INTERNAL, cursorContext, keyBuffer );
                 }
 
                 if ( insideEndRange( exactMatch, cachedLength ) )
@@ -935,7 +940,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
      */
     private int searchKey( KEY key, TreeNode.Type type )
     {
-        return KeySearch.search( cursor, bTreeNode, type, key, mutableKeys[0], keyCount, cursorContext );
+        return KeySearch.search( cursor, bTreeNode, type, key, mutableKeys[0], keyCount, cursorContext, keyBuffer );
     }
 
     private static int positionOf( int searchResult, boolean lookingForChildPosition )
@@ -1071,7 +1076,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
                 if ( keyCountIsSane( keyCount ) )
                 {
                     int firstPos = seekForward ? 0 : keyCount - 1;
-                    bTreeNode.keyAt( scout, expectedFirstAfterGoToNext, firstPos, LEAF, cursorContext );
+                    bTreeNode.keyAt( scout, expectedFirstAfterGoToNext, firstPos, LEAF, cursorContext, keyBuffer );
                 }
             }
 
@@ -249,6 +249,24 @@ abstract class TreeNode<KEY,VALUE>
 
     abstract void keyValueAt( PageCursor cursor, KEY intoKey, VALUE intoValue, int pos, CursorContext cursorContext );
 
+    /**
+     * Same as {@link #keyAt(PageCursor, Object, int, Type, CursorContext)}, with scratch space for decoding the key
+     * that the caller keeps between reads.
+     */
+    KEY keyAt( PageCursor cursor, KEY into, int pos, Type type, CursorContext cursorContext, KeyBuffer keyBuffer )
+    {
+        return keyAt( cursor, into, pos, type, cursorContext );
+    }
+
+    /**
+     * Same as {@link #keyValueAt(PageCursor, Object, Object, int, CursorContext)}, with scratch space for decoding the key
+     * that the caller keeps between reads.
+     */
+    void keyValueAt( PageCursor cursor, KEY intoKey, VALUE intoValue, int pos, CursorContext cursorContext, KeyBuffer keyBuffer )
+    {
+        keyValueAt( cursor, intoKey, intoValue, pos, cursorContext );
+    }
+
     abstract void insertKeyAndRightChildAt( PageCursor cursor, KEY key, long child, int pos, int keyCount,
             long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException;
 
@@ -355,8 +373,22 @@ abstract class TreeNode<KEY,VALUE>
      */
     abstract void defragmentInternal( PageCursor cursor );
 
+    /**
+     * Re-encode keys in leaf more compactly, if the format supports it, to make room for further insert without having to split.
+     * @return true if any space was reclaimed, else false.
+     */
+    boolean compressLeaf( PageCursor cursor, int keyCount )
+    {
+        return false;
+    }
+
     abstract boolean leafUnderflow( PageCursor cursor, int keyCount );
 
+    /**
+     * @return how large part of the space for keys, values and children of the node is used, between 0 and 1.
+     */
+    abstract double fillRatio( PageCursor cursor, int keyCount, Type type );
+
     /**
      * How do we best rebalance left and right leaf?
      * Can we move keys from underflowing left to right so that none of them underflow?
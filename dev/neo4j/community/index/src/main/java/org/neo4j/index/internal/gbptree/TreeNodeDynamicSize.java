@@ -24,9 +24,12 @@ import org.eclipse.collections.api.stack.primitive.MutableIntStack;
 import org.eclipse.collections.impl.stack.mutable.primitive.IntArrayStack;
 
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
 import java.util.Arrays;
 import java.util.StringJoiner;
 
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.CursorException;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.util.VisibleForTesting;
@@ -63,6 +66,15 @@ import static org.neo4j.io.ByteUnit.kibiBytes;
  * [NODETYPE][TYPE][GENERATION][KEYCOUNT][RIGHTSIBLING][LEFTSIBLING][SUCCESSOR][ALLOCOFFSET][DEADSPACE]|[C0,K0*,C1,K1*,C2,K2*,C3]->  <-[K2,K0,K1]
  *  0         1     2           6         10            34           58         82           84          86
  *
+ * Prefix compressed format ({@link #FORMAT_VERSION_PREFIX_COMPRESSED}) extends the leaf header with a prefix area. It holds
+ * a key prefix shared by (most of) the keys in the leaf, chosen when the leaf is split or filled by a bulk load.
+ * Internal nodes keep the header above.
+ * [                   HEADER   86B + 1B + prefix capacity                   ]|[KEY_OFFSETS]##########[KEYS_VALUES]
+ * [NODETYPE][TYPE][GENERATION]...[ALLOCOFFSET][DEADSPACE][PREFIXLENGTH][PREFIX]|[K0*,K1*,K2*]->      <-[KV0,KV2,KV1]
+ *
+ * Each inlined key in such a leaf is stored as the number of leading bytes it shares with the prefix, followed by the rest of its bytes.
+ * Keys can still be read individually, so binary search over the offset array works the same as in uncompressed nodes.
+ *
  * ---
  *
  * Concepts describing the part of a node containing the data
@@ -87,6 +99,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 {
     static final byte FORMAT_IDENTIFIER = 3;
     static final byte FORMAT_VERSION = 0;
+    static final byte FORMAT_VERSION_PREFIX_COMPRESSED = 1;
 
     /**
      * This is the fixed key value size cap in 4.0 and it is based on
@@ -100,6 +113,9 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     static final int USE_2B_OFFSET_PAGE_SIZE_LIMIT = (int) kibiBytes( 64 );
     private static final int LEAST_NUMBER_OF_ENTRIES_PER_PAGE = 2;
     private static final int MINIMUM_ENTRY_SIZE_CAP = Long.SIZE;
+    private static final int SIZE_PREFIX_LENGTH = 1;
+    private static final int SIZE_SHARED_PREFIX_LENGTH = 1;
+    private static final int MAX_PREFIX_CAPACITY = 0xFF;
 
     private final DynamicSizeOffsetFormat offsetFormat;
     private final int inlineKeyValueSizeCap;
@@ -109,24 +125,48 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     private final MutableIntStack aliveKeysOffset = new IntArrayStack();
     private final int[] oldOffset;
     private final int[] newOffset;
-    private final int totalSpace;
-    private final int halfSpace;
+    private final int leafTotalSpace;
+    private final int leafHalfSpace;
+    private final int internalTotalSpace;
     private final KEY tmpKeyLeft;
     private final KEY tmpKeyRight;
     private final OffloadStore<KEY,VALUE> offloadStore;
+    private final boolean prefixCompressedLeaves;
+    private final int leafHeaderLength;
+    private final int internalHeaderLength;
+    private final int prefixCapacity;
+    private final int bytePosPrefixLength;
+    private final int bytePosPrefix;
+    private final byte[] newPrefix;
+    private final KeyBuffer writerKeyBuffer = new KeyBuffer();
+    private byte[] nodeCopy;
 
     TreeNodeDynamicSize( int pageSize, Layout<KEY,VALUE> layout, OffloadStore<KEY,VALUE> offloadStore )
+    {
+        this( pageSize, layout, offloadStore, false );
+    }
+
+    TreeNodeDynamicSize( int pageSize, Layout<KEY,VALUE> layout, OffloadStore<KEY,VALUE> offloadStore, boolean prefixCompressedLeaves )
     {
         super( pageSize, layout );
 
         this.offsetFormat = selectOffsetFormat( pageSize );
+        this.prefixCompressedLeaves = prefixCompressedLeaves;
+        // At most 1/64 of the page is reserved for the prefix, and its length must fit in a single byte
+        this.prefixCapacity = prefixCompressedLeaves ? Math.min( MAX_PREFIX_CAPACITY, pageSize >> 6 ) : 0;
+        this.bytePosPrefixLength = offsetFormat.getHeaderLength();
+        this.bytePosPrefix = bytePosPrefixLength + SIZE_PREFIX_LENGTH;
+        this.internalHeaderLength = offsetFormat.getHeaderLength();
+        this.leafHeaderLength = prefixCompressedLeaves ? bytePosPrefix + prefixCapacity : internalHeaderLength;
+        this.newPrefix = new byte[prefixCapacity];
         int maxKeyCount = pageSize / (getTotalOverhead( offsetFormat ) + SIZE_KEY_VALUE_SIZE);
         this.oldOffset = new int[maxKeyCount];
         this.newOffset = new int[maxKeyCount];
 
         this.offloadStore = offloadStore;
-        totalSpace = pageSize - offsetFormat.getHeaderLength();
-        halfSpace = totalSpace >> 1;
+        leafTotalSpace = pageSize - leafHeaderLength;
+        leafHalfSpace = leafTotalSpace >> 1;
+        internalTotalSpace = pageSize - internalHeaderLength;
 
         /*
         The page size will affect how large entries (key-value pairs) we can fit.
@@ -185,10 +225,21 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
                       If false, the most significant key is simply included in key size.
         keyValueSizeCap - The entry size limit for this tree.
         inlineKeyValueSizeCap - How large entries can be inlined?
+
+        Prefix compressed leaves have a larger header and store one more byte per inlined key, both of which are
+        accounted for in the inline cap so that two entries at the cap still fit in a leaf.
          */
         msbIsOffload = useOffloadStore( pageSize );
-        inlineKeyValueSizeCap = inlineKeyValueSizeCap( pageSize );
-        keyValueSizeCap = keyValueSizeCapFromPageSize( pageSize );
+        if ( prefixCompressedLeaves )
+        {
+            inlineKeyValueSizeCap = inlineKeyValueSizeCap( pageSize, leafHeaderLength ) - SIZE_SHARED_PREFIX_LENGTH;
+            keyValueSizeCap = msbIsOffload ? keyValueSizeCapFromPageSize( pageSize ) : inlineKeyValueSizeCap;
+        }
+        else
+        {
+            inlineKeyValueSizeCap = inlineKeyValueSizeCap( pageSize );
+            keyValueSizeCap = keyValueSizeCapFromPageSize( pageSize );
+        }
 
         if ( inlineKeyValueSizeCap < MINIMUM_ENTRY_SIZE_CAP )
         {
@@ -223,9 +274,13 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     @VisibleForTesting
     public static int inlineKeyValueSizeCap( int pageSize )
     {
-        DynamicSizeOffsetFormat offsetFormat = selectOffsetFormat( pageSize );
-        int totalOverhead = getTotalOverhead( offsetFormat );
-        int capToFitNumberOfEntriesPerPage = (pageSize - offsetFormat.getHeaderLength()) / LEAST_NUMBER_OF_ENTRIES_PER_PAGE - totalOverhead;
+        return inlineKeyValueSizeCap( pageSize, selectOffsetFormat( pageSize ).getHeaderLength() );
+    }
+
+    private static int inlineKeyValueSizeCap( int pageSize, int headerLength )
+    {
+        int totalOverhead = getTotalOverhead( selectOffsetFormat( pageSize ) );
+        int capToFitNumberOfEntriesPerPage = (pageSize - headerLength) / LEAST_NUMBER_OF_ENTRIES_PER_PAGE - totalOverhead;
         return Math.min( FIXED_MAX_KEY_VALUE_SIZE_CAP, capToFitNumberOfEntriesPerPage );
     }
 
@@ -239,6 +294,10 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     {
         setAllocOffset( cursor, pageSize );
         setDeadSpace( cursor, 0 );
+        if ( prefixCompressedLeaves && isLeaf( cursor ) )
+        {
+            setPrefixLength( cursor, 0 );
+        }
     }
 
     @Override
@@ -258,6 +317,12 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
     @Override
     KEY keyAt( PageCursor cursor, KEY into, int pos, Type type, CursorContext cursorContext )
+    {
+        return keyAt( cursor, into, pos, type, cursorContext, new KeyBuffer() );
+    }
+
+    @Override
+    KEY keyAt( PageCursor cursor, KEY into, int pos, Type type, CursorContext cursorContext, KeyBuffer keyBuffer )
     {
         placeCursorAtActualKey( cursor, pos, type );
 
@@ -286,13 +351,19 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
                 readUnreliableKeyValueSize( cursor, keySize, valueSize, keyValueSize, pos );
                 return into;
             }
-            layout.readKey( cursor, into, keySize );
+            readKey( cursor, into, keySize, type, keyBuffer );
         }
         return into;
     }
 
     @Override
     void keyValueAt( PageCursor cursor, KEY intoKey, VALUE intoValue, int pos, CursorContext cursorContext )
+    {
+        keyValueAt( cursor, intoKey, intoValue, pos, cursorContext, new KeyBuffer() );
+    }
+
+    @Override
+    void keyValueAt( PageCursor cursor, KEY intoKey, VALUE intoValue, int pos, CursorContext cursorContext, KeyBuffer keyBuffer )
     {
         placeCursorAtActualKey( cursor, pos, LEAF );
 
@@ -319,7 +390,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
                 readUnreliableKeyValueSize( cursor, keySize, valueSize, keyValueSize, pos );
                 return;
             }
-            layout.readKey( cursor, intoKey, keySize );
+            readKey( cursor, intoKey, keySize, LEAF, keyBuffer );
             layout.readValue( cursor, intoValue, valueSize );
         }
     }
@@ -370,7 +441,15 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int keySize = layout.keySize( key );
         int valueSize = layout.valueSize( value );
         int newKeyValueOffset;
-        if ( canInline( keySize + valueSize ) )
+        if ( canInline( keySize + valueSize ) && prefixCompressedLeaves )
+        {
+            // Write prefix compressed key and value
+            byte[] keyBytes = serialize( key, keySize );
+            int sharedPrefixLength = sharedPrefixLength( cursor, keyBytes, keySize );
+            newKeyValueOffset = putPrefixCompressedKey( cursor, currentKeyValueOffset, keyBytes, keySize, sharedPrefixLength, valueSize );
+            layout.writeValue( cursor, value );
+        }
+        else if ( canInline( keySize + valueSize ) )
         {
             newKeyValueOffset = currentKeyValueOffset - keySize - valueSize - getOverhead( keySize, valueSize, false );
 
@@ -612,7 +691,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     @Override
     boolean reasonableKeyCount( int keyCount )
     {
-        return keyCount >= 0 && keyCount <= totalSpace / getTotalOverhead( offsetFormat );
+        return keyCount >= 0 && keyCount <= internalTotalSpace / getTotalOverhead( offsetFormat );
     }
 
     @Override
@@ -651,7 +730,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int allocSpace = getAllocSpace( cursor, currentKeyCount, LEAF );
 
         // How much space do we need?
-        int neededSpace = totalSpaceOfKeyValue( newKey, newValue );
+        int neededSpace = totalSpaceOfKeyValue( cursor, newKey, newValue );
 
         // There is your answer!
         return neededSpace <= allocSpace ? Overflow.NO :
@@ -821,7 +900,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     @Override
     boolean leafUnderflow( PageCursor cursor, int keyCount )
     {
-        int halfSpace = this.halfSpace;
+        int halfSpace = this.leafHalfSpace;
         int allocSpace = getAllocSpace( cursor, keyCount, LEAF );
         int deadSpace = getDeadSpace( cursor );
         int availableSpace = allocSpace + deadSpace;
@@ -829,13 +908,126 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return availableSpace > halfSpace;
     }
 
+    @Override
+    double fillRatio( PageCursor cursor, int keyCount, Type type )
+    {
+        int totalSpace = totalSpace( type );
+        int usedSpace = totalSpace - getAllocSpace( cursor, keyCount, type ) - getDeadSpace( cursor );
+        return (double) usedSpace / totalSpace;
+    }
+
+    @Override
+    boolean compressLeaf( PageCursor cursor, int keyCount )
+    {
+        if ( !prefixCompressedLeaves || keyCount == 0 )
+        {
+            return false;
+        }
+
+        // Find the longest prefix shared by all inlined keys, offloaded keys are not prefix compressed
+        int newPrefixLength = -1;
+        for ( int pos = 0; pos < keyCount; pos++ )
+        {
+            placeCursorAtActualKey( cursor, pos, LEAF );
+            long keyValueSize = readKeyValueSize( cursor, msbIsOffload );
+            if ( !extractOffload( keyValueSize ) )
+            {
+                int keySize = Math.max( 0, readPrefixCompressedKeyBytes( cursor, extractKeySize( keyValueSize ), writerKeyBuffer ) );
+                byte[] keyBytes = writerKeyBuffer.bytes( keySize );
+                if ( newPrefixLength == -1 )
+                {
+                    newPrefixLength = Math.min( keySize, prefixCapacity );
+                    System.arraycopy( keyBytes, 0, newPrefix, 0, newPrefixLength );
+                }
+                else
+                {
+                    int mismatch = Arrays.mismatch( newPrefix, 0, newPrefixLength, keyBytes, 0, keySize );
+                    newPrefixLength = mismatch == -1 ? newPrefixLength : mismatch;
+                }
+            }
+        }
+        if ( newPrefixLength <= 0 || newPrefixLength == sharedPrefixLength( cursor, newPrefix, newPrefixLength ) )
+        {
+            // No common prefix, or the prefix of this node already starts with it so no key would get shorter
+            return false;
+        }
+
+        // Only worth rewriting if the entries take up less space with the new prefix
+        int newActiveSpace = 0;
+        for ( int pos = 0; pos < keyCount; pos++ )
+        {
+            placeCursorAtActualKey( cursor, pos, LEAF );
+            long keyValueSize = readKeyValueSize( cursor, msbIsOffload );
+            int keySize = extractKeySize( keyValueSize );
+            int valueSize = extractValueSize( keyValueSize );
+            boolean offload = extractOffload( keyValueSize );
+            if ( !offload )
+            {
+                int sharedPrefixLength = cursor.getByte() & 0xFF;
+                keySize += sharedPrefixLength - newPrefixLength;
+            }
+            newActiveSpace += bytesKeyOffset() + getOverhead( keySize, valueSize, offload ) + keySize + valueSize;
+        }
+        if ( newActiveSpace >= totalActiveSpace( cursor, keyCount, LEAF ) )
+        {
+            return false;
+        }
+
+        // Rewrite all entries, reading them from a copy of the node
+        if ( nodeCopy == null )
+        {
+            nodeCopy = new byte[pageSize];
+        }
+        cursor.setOffset( 0 );
+        cursor.getBytes( nodeCopy );
+        PageCursor copyCursor = ByteArrayPageCursor.wrap( nodeCopy );
+        setPrefixLength( cursor, newPrefixLength );
+        cursor.setOffset( bytePosPrefix );
+        cursor.putBytes( newPrefix, 0, newPrefixLength );
+
+        int allocOffset = pageSize;
+        for ( int pos = 0; pos < keyCount; pos++ )
+        {
+            placeCursorAtActualKey( copyCursor, pos, LEAF );
+            int fromKeyOffset = copyCursor.getOffset();
+            long keyValueSize = readKeyValueSize( copyCursor, msbIsOffload );
+            int keySize = extractKeySize( keyValueSize );
+            int valueSize = extractValueSize( keyValueSize );
+            if ( extractOffload( keyValueSize ) )
+            {
+                int entrySize = getOverhead( keySize, valueSize, true );
+                allocOffset -= entrySize;
+                cursor.setOffset( allocOffset );
+                cursor.putBytes( nodeCopy, fromKeyOffset, entrySize );
+            }
+            else
+            {
+                int fullKeySize = Math.max( 0, readPrefixCompressedKeyBytes( copyCursor, keySize, writerKeyBuffer ) );
+                allocOffset = putPrefixCompressedKey( cursor, allocOffset, writerKeyBuffer.bytes( fullKeySize ), fullKeySize, newPrefixLength, valueSize );
+                cursor.putBytes( nodeCopy, copyCursor.getOffset(), valueSize );
+            }
+            cursor.setOffset( keyPosOffsetLeaf( pos ) );
+            offsetFormat.putOffset( cursor, allocOffset );
+        }
+        setAllocOffset( cursor, allocOffset );
+        setDeadSpace( cursor, 0 );
+
+        // Zero pad reclaimed area
+        int endOfOffsetArray = keyPosOffsetLeaf( keyCount );
+        zeroPad( cursor, endOfOffsetArray, allocOffset - endOfOffsetArray );
+        return true;
+    }
+
     @Override
     int canRebalanceLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
     {
+        // Prefix compressed keys are re-encoded when moved between leaves with different prefixes, which changes their size
+        boolean transcode = needsTranscoding( leftCursor, rightCursor );
         int leftActiveSpace = totalActiveSpace( leftCursor, leftKeyCount, LEAF );
         int rightActiveSpace = totalActiveSpace( rightCursor, rightKeyCount, LEAF );
+        int leftActiveSpaceInRight = transcode ? totalSpaceOfKeyValuesIn( leftCursor, leftKeyCount, rightCursor ) : leftActiveSpace;
 
-        if ( leftActiveSpace + rightActiveSpace < totalSpace )
+        if ( leftActiveSpaceInRight + rightActiveSpace < leafTotalSpace )
         {
             // We can merge
             return -1;
@@ -850,12 +1042,14 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int currentDelta = Math.abs( leftActiveSpace - rightActiveSpace );
         int keysToMove = 0;
         int lastChunkSize;
+        int lastChunkSizeInRight;
         do
         {
             keysToMove++;
             lastChunkSize = totalSpaceOfKeyValue( leftCursor, leftKeyCount - keysToMove );
+            lastChunkSizeInRight = transcode ? totalSpaceOfKeyValueIn( leftCursor, leftKeyCount - keysToMove, rightCursor ) : lastChunkSize;
             leftActiveSpace -= lastChunkSize;
-            rightActiveSpace += lastChunkSize;
+            rightActiveSpace += lastChunkSizeInRight;
 
             prevDelta = currentDelta;
             currentDelta = Math.abs( leftActiveSpace - rightActiveSpace );
@@ -863,19 +1057,20 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         while ( currentDelta < prevDelta );
         keysToMove--; // Move back to optimal split
         leftActiveSpace += lastChunkSize;
-        rightActiveSpace -= lastChunkSize;
+        rightActiveSpace -= lastChunkSizeInRight;
 
-        int halfSpace = this.halfSpace;
-        boolean canRebalance = leftActiveSpace > halfSpace && rightActiveSpace > halfSpace;
+        int halfSpace = this.leafHalfSpace;
+        boolean canRebalance = leftActiveSpace > halfSpace && rightActiveSpace > halfSpace && rightActiveSpace <= leafTotalSpace;
         return canRebalance ? keysToMove : 0;
     }
 
     @Override
     boolean canMergeLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
     {
-        int leftActiveSpace = totalActiveSpace( leftCursor, leftKeyCount, LEAF );
+        int leftActiveSpace = needsTranscoding( leftCursor, rightCursor ) ? totalSpaceOfKeyValuesIn( leftCursor, leftKeyCount, rightCursor )
+                                                                          : totalActiveSpace( leftCursor, leftKeyCount, LEAF );
         int rightActiveSpace = totalActiveSpace( rightCursor, rightKeyCount, LEAF );
-        int totalSpace = this.totalSpace;
+        int totalSpace = this.leafTotalSpace;
         return totalSpace >= leftActiveSpace + rightActiveSpace;
     }
 
@@ -892,14 +1087,14 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         KEY rightInSplit;
         if ( splitPos == insertPos )
         {
-            leftInSplit = keyAt( leftCursor, tmpKeyLeft, splitPos - 1, LEAF, cursorContext );
+            leftInSplit = keyAt( leftCursor, tmpKeyLeft, splitPos - 1, LEAF, cursorContext, writerKeyBuffer );
             rightInSplit = newKey;
 
         }
         else
         {
             int rightPos = insertPos < splitPos ? splitPos - 1 : splitPos;
-            rightInSplit = keyAt( leftCursor, tmpKeyRight, rightPos, LEAF, cursorContext );
+            rightInSplit = keyAt( leftCursor, tmpKeyRight, rightPos, LEAF, cursorContext, writerKeyBuffer );
 
             if ( rightPos == insertPos )
             {
@@ -908,13 +1103,19 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             else
             {
                 int leftPos = rightPos - 1;
-                leftInSplit = keyAt( leftCursor, tmpKeyLeft, leftPos, LEAF, cursorContext );
+                leftInSplit = keyAt( leftCursor, tmpKeyLeft, leftPos, LEAF, cursorContext, writerKeyBuffer );
             }
         }
         layout.minimalSplitter( leftInSplit, rightInSplit, newSplitter );
 
         int rightKeyCount = keyCountAfterInsert - splitPos;
 
+        if ( prefixCompressedLeaves )
+        {
+            // Same prefix in both halves means keys can be moved as they are, and take up the space splitPos was calculated with
+            copyPrefix( leftCursor, rightCursor );
+        }
+
         if ( insertPos < splitPos )
         {
             //                v---------v       copy
@@ -942,6 +1143,10 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         }
         TreeNode.setKeyCount( leftCursor, splitPos );
         TreeNode.setKeyCount( rightCursor, rightKeyCount );
+
+        // Each half now covers a narrower key range, which may share a longer prefix
+        compressLeaf( leftCursor, splitPos );
+        compressLeaf( rightCursor, rightKeyCount );
     }
 
     @Override
@@ -958,7 +1163,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         }
         else
         {
-            keyAt( leftCursor, newSplitter, insertPos < splitPos ? splitPos - 1 : splitPos, INTERNAL, cursorContext );
+            keyAt( leftCursor, newSplitter, insertPos < splitPos ? splitPos - 1 : splitPos, INTERNAL, cursorContext, writerKeyBuffer );
         }
         int rightKeyCount = keyCountAfterInsert - splitPos - 1; // -1 because don't keep prim key in internal
 
@@ -1042,21 +1247,16 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     // NOTE: Does update keyCount
     private void moveKeysAndValues( PageCursor fromCursor, int fromPos, PageCursor toCursor, int toPos, int count )
     {
-        int firstAllocOffset = getAllocOffset( toCursor );
-        int toAllocOffset = firstAllocOffset;
+        boolean transcode = needsTranscoding( fromCursor, toCursor );
+        int toAllocOffset = getAllocOffset( toCursor );
         for ( int i = 0; i < count; i++, toPos++ )
         {
-            toAllocOffset = moveRawKeyValue( fromCursor, fromPos + i, toCursor, toAllocOffset );
+            toAllocOffset = moveRawKeyValue( fromCursor, fromPos + i, toCursor, toAllocOffset, transcode );
             toCursor.setOffset( keyPosOffsetLeaf( toPos ) );
             offsetFormat.putOffset( toCursor, toAllocOffset );
         }
         setAllocOffset( toCursor, toAllocOffset );
 
-        // Update deadSpace
-        int deadSpace = getDeadSpace( fromCursor );
-        int totalMovedBytes = firstAllocOffset - toAllocOffset;
-        setDeadSpace( fromCursor, deadSpace + totalMovedBytes );
-
         // Key count
         setKeyCount( fromCursor, fromPos );
     }
@@ -1066,7 +1266,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
      * Mark transferred key as dead.
      * @return new alloc offset in 'to'
      */
-    private int moveRawKeyValue( PageCursor fromCursor, int fromPos, PageCursor toCursor, int toAllocOffset )
+    private int moveRawKeyValue( PageCursor fromCursor, int fromPos, PageCursor toCursor, int toAllocOffset, boolean transcode )
     {
         // What to copy?
         placeCursorAtActualKey( fromCursor, fromPos, LEAF );
@@ -1077,16 +1277,51 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         boolean offload = extractOffload( keyValueSize );
 
         // Copy
-        int toCopy = getOverhead( keySize, valueSize, offload ) + keySize + valueSize;
-        int newRightAllocSpace = toAllocOffset - toCopy;
-        fromCursor.copyTo( fromKeyOffset, toCursor, newRightAllocSpace, toCopy );
+        int newRightAllocSpace = copyKeyValue( fromCursor, fromKeyOffset, keySize, valueSize, offload, toCursor, toAllocOffset, transcode );
 
         // Put tombstone
         fromCursor.setOffset( fromKeyOffset );
         putTombstone( fromCursor );
+
+        // Update deadSpace
+        int deadSpace = getDeadSpace( fromCursor );
+        setDeadSpace( fromCursor, deadSpace + getOverhead( keySize, valueSize, offload ) + keySize + valueSize );
         return newRightAllocSpace;
     }
 
+    /**
+     * Copy entry at 'fromKeyOffset' in 'from' to physical position next to current alloc offset in 'to'.
+     * Cursor in 'from' is expected to be placed right after the key value size of the entry.
+     * @return new alloc offset in 'to'
+     */
+    private int copyKeyValue( PageCursor fromCursor, int fromKeyOffset, int keySize, int valueSize, boolean offload, PageCursor toCursor,
+            int toAllocOffset, boolean transcode )
+    {
+        if ( transcode && !offload )
+        {
+            // Re-encode key relative to the prefix in 'to'
+            int fullKeySize = readPrefixCompressedKeyBytes( fromCursor, keySize, writerKeyBuffer );
+            if ( fullKeySize < 0 )
+            {
+                throw new TreeInconsistencyException( "Tried to move unreliable prefix compressed key, id=%d, keySize=%d",
+                        fromCursor.getCurrentPageId(), keySize );
+            }
+            int valueOffset = fromCursor.getOffset();
+            byte[] keyBytes = writerKeyBuffer.bytes( fullKeySize );
+            int sharedPrefixLength = sharedPrefixLength( toCursor, keyBytes, fullKeySize );
+            int newAllocOffset = putPrefixCompressedKey( toCursor, toAllocOffset, keyBytes, fullKeySize, sharedPrefixLength, valueSize );
+            if ( valueSize > 0 )
+            {
+                fromCursor.copyTo( valueOffset, toCursor, toCursor.getOffset(), valueSize );
+            }
+            return newAllocOffset;
+        }
+        int toCopy = getOverhead( keySize, valueSize, offload ) + keySize + valueSize;
+        int newAllocOffset = toAllocOffset - toCopy;
+        fromCursor.copyTo( fromKeyOffset, toCursor, newAllocOffset, toCopy );
+        return newAllocOffset;
+    }
+
     @Override
     void copyKeyValuesFromLeftToRight( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
     {
@@ -1104,10 +1339,11 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
     private void copyKeysAndValues( PageCursor fromCursor, int fromPos, PageCursor toCursor, int toPos, int count )
     {
+        boolean transcode = needsTranscoding( fromCursor, toCursor );
         int toAllocOffset = getAllocOffset( toCursor );
         for ( int i = 0; i < count; i++, toPos++ )
         {
-            toAllocOffset = copyRawKeyValue( fromCursor, fromPos + i, toCursor, toAllocOffset );
+            toAllocOffset = copyRawKeyValue( fromCursor, fromPos + i, toCursor, toAllocOffset, transcode );
             toCursor.setOffset( keyPosOffsetLeaf( toPos ) );
             offsetFormat.putOffset( toCursor, toAllocOffset );
         }
@@ -1119,7 +1355,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
      * Does NOT mark transferred key as dead.
      * @return new alloc offset in 'to'
      */
-    private int copyRawKeyValue( PageCursor fromCursor, int fromPos, PageCursor toCursor, int toAllocOffset )
+    private int copyRawKeyValue( PageCursor fromCursor, int fromPos, PageCursor toCursor, int toAllocOffset, boolean transcode )
     {
         // What to copy?
         placeCursorAtActualKey( fromCursor, fromPos, LEAF );
@@ -1130,10 +1366,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         boolean offload = extractOffload( keyValueSize );
 
         // Copy
-        int toCopy = getOverhead( keySize, valueSize, offload ) + keySize + valueSize;
-        int newRightAllocSpace = toAllocOffset - toCopy;
-        fromCursor.copyTo( fromKeyOffset, toCursor, newRightAllocSpace, toCopy );
-        return newRightAllocSpace;
+        return copyKeyValue( fromCursor, fromKeyOffset, keySize, valueSize, offload, toCursor, toAllocOffset, transcode );
     }
 
     private int getAllocSpace( PageCursor cursor, int keyCount, Type type )
@@ -1260,7 +1493,8 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
      */
     private int splitPosInternal( PageCursor cursor, int insertPos, KEY newKey, int keyCountAfterInsert, double ratioToKeepInLeftOnSplit )
     {
-        int targetLeftSpace = (int) (this.totalSpace * ratioToKeepInLeftOnSplit);
+        int totalSpace = this.internalTotalSpace;
+        int targetLeftSpace = (int) (totalSpace * ratioToKeepInLeftOnSplit);
         int splitPos = 0;
         int currentPos = 0;
         int accumulatedLeftSpace = childSize(); // Leftmost child will always be included in left side
@@ -1333,13 +1567,14 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
      */
     private int splitPosInLeaf( PageCursor cursor, int insertPos, KEY newKey, VALUE newValue, int keyCountAfterInsert, double ratioToKeepInLeftOnSplit )
     {
-        int targetLeftSpace = (int) (this.totalSpace * ratioToKeepInLeftOnSplit);
+        int totalSpace = this.leafTotalSpace;
+        int targetLeftSpace = (int) (totalSpace * ratioToKeepInLeftOnSplit);
         int splitPos = 0;
         int currentPos = 0;
         int accumulatedLeftSpace = 0;
         int currentDelta = targetLeftSpace;
         int prevDelta;
-        int spaceOfNewKey = totalSpaceOfKeyValue( newKey, newValue );
+        int spaceOfNewKey = totalSpaceOfKeyValue( cursor, newKey, newValue );
         int totalSpaceIncludingNewKey = totalActiveSpace( cursor, keyCountAfterInsert - 1, LEAF ) + spaceOfNewKey;
         boolean includedNew = false;
         boolean prevPosPossible;
@@ -1388,16 +1623,34 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     {
         int deadSpace = getDeadSpace( cursor );
         int allocSpace = getAllocSpace( cursor, keyCount, type );
-        return totalSpace - deadSpace - allocSpace;
+        return totalSpace( type ) - deadSpace - allocSpace;
     }
 
-    private int totalSpaceOfKeyValue( KEY key, VALUE value )
+    private int totalSpace( Type type )
+    {
+        return type == LEAF ? leafTotalSpace : internalTotalSpace;
+    }
+
+    private int headerLength( Type type )
+    {
+        return type == LEAF ? leafHeaderLength : internalHeaderLength;
+    }
+
+    /**
+     * @param cursor {@link PageCursor} pinned to the leaf the key and value would be inserted into, prefix compressed keys take up different
+     * amounts of space in different leaves.
+     */
+    private int totalSpaceOfKeyValue( PageCursor cursor, KEY key, VALUE value )
     {
         int keySize = layout.keySize( key );
         int valueSize = layout.valueSize( value );
         boolean canInline = canInline( keySize + valueSize );
         if ( canInline )
         {
+            if ( prefixCompressedLeaves )
+            {
+                keySize = SIZE_SHARED_PREFIX_LENGTH + keySize - sharedPrefixLength( cursor, serialize( key, keySize ), keySize );
+            }
             return bytesKeyOffset() + getOverhead( keySize, valueSize, false ) + keySize + valueSize;
         }
         else
@@ -1430,6 +1683,34 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return bytesKeyOffset() + getOverhead( keySize, valueSize, offload ) + keySize + valueSize;
     }
 
+    /**
+     * Space the entry at the given position in 'from' would take up if it was moved to 'to', where its key may be encoded with a different prefix.
+     */
+    private int totalSpaceOfKeyValueIn( PageCursor fromCursor, int pos, PageCursor toCursor )
+    {
+        placeCursorAtActualKey( fromCursor, pos, LEAF );
+        long keyValueSize = readKeyValueSize( fromCursor, msbIsOffload );
+        int keySize = extractKeySize( keyValueSize );
+        int valueSize = extractValueSize( keyValueSize );
+        boolean offload = extractOffload( keyValueSize );
+        if ( !offload )
+        {
+            int fullKeySize = Math.max( 0, readPrefixCompressedKeyBytes( fromCursor, keySize, writerKeyBuffer ) );
+            keySize = SIZE_SHARED_PREFIX_LENGTH + fullKeySize - sharedPrefixLength( toCursor, writerKeyBuffer.bytes( fullKeySize ), fullKeySize );
+        }
+        return bytesKeyOffset() + getOverhead( keySize, valueSize, offload ) + keySize + valueSize;
+    }
+
+    private int totalSpaceOfKeyValuesIn( PageCursor fromCursor, int keyCount, PageCursor toCursor )
+    {
+        int space = 0;
+        for ( int pos = 0; pos < keyCount; pos++ )
+        {
+            space += totalSpaceOfKeyValueIn( fromCursor, pos, toCursor );
+        }
+        return space;
+    }
+
     private int totalSpaceOfKeyChild( PageCursor cursor, int pos )
     {
         placeCursorAtActualKey( cursor, pos, INTERNAL );
@@ -1462,6 +1743,131 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return offsetFormat.getOffset( cursor, offsetFormat.getBytePosDeadSpace() );
     }
 
+    @VisibleForTesting
+    int getPrefixLength( PageCursor cursor )
+    {
+        return cursor.getByte( bytePosPrefixLength ) & 0xFF;
+    }
+
+    private void setPrefixLength( PageCursor cursor, int prefixLength )
+    {
+        cursor.putByte( bytePosPrefixLength, (byte) prefixLength );
+    }
+
+    private void copyPrefix( PageCursor fromCursor, PageCursor toCursor )
+    {
+        fromCursor.copyTo( bytePosPrefixLength, toCursor, bytePosPrefixLength, SIZE_PREFIX_LENGTH + getPrefixLength( fromCursor ) );
+    }
+
+    /**
+     * Keys can be moved between two prefix compressed leaves as they are only if the leaves have the same prefix.
+     */
+    private boolean needsTranscoding( PageCursor fromCursor, PageCursor toCursor )
+    {
+        if ( !prefixCompressedLeaves )
+        {
+            return false;
+        }
+        int prefixLength = getPrefixLength( fromCursor );
+        if ( prefixLength != getPrefixLength( toCursor ) )
+        {
+            return true;
+        }
+        for ( int i = 0; i < prefixLength; i++ )
+        {
+            if ( fromCursor.getByte( bytePosPrefix + i ) != toCursor.getByte( bytePosPrefix + i ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return number of leading bytes of the given serialized key that are the same as in the prefix of the node.
+     */
+    private int sharedPrefixLength( PageCursor cursor, byte[] keyBytes, int keySize )
+    {
+        int limit = Math.min( Math.min( getPrefixLength( cursor ), prefixCapacity ), keySize );
+        int sharedPrefixLength = 0;
+        while ( sharedPrefixLength < limit && cursor.getByte( bytePosPrefix + sharedPrefixLength ) == keyBytes[sharedPrefixLength] )
+        {
+            sharedPrefixLength++;
+        }
+        return sharedPrefixLength;
+    }
+
+    private byte[] serialize( KEY key, int keySize )
+    {
+        layout.writeKey( writerKeyBuffer.cursor( keySize ), key );
+        return writerKeyBuffer.bytes( keySize );
+    }
+
+    /**
+     * Write key value size and prefix compressed key of an entry next to the given alloc offset, leaving cursor where the value goes.
+     * @return offset of the written entry, i.e. the new alloc offset
+     */
+    private int putPrefixCompressedKey( PageCursor cursor, int allocOffset, byte[] keyBytes, int keySize, int sharedPrefixLength, int valueSize )
+    {
+        int storedKeySize = SIZE_SHARED_PREFIX_LENGTH + keySize - sharedPrefixLength;
+        int newAllocOffset = allocOffset - getOverhead( storedKeySize, valueSize, false ) - storedKeySize - valueSize;
+        cursor.setOffset( newAllocOffset );
+        putKeyValueSize( cursor, storedKeySize, valueSize, false );
+        cursor.putByte( (byte) sharedPrefixLength );
+        cursor.putBytes( keyBytes, sharedPrefixLength, keySize - sharedPrefixLength );
+        return newAllocOffset;
+    }
+
+    /**
+     * Read prefix compressed key at cursor into its full serialized form, leaving cursor right after the stored key.
+     * @return size of the serialized key, or -1 if the stored key is unreliable, in which case a cursor exception is set.
+     */
+    private int readPrefixCompressedKeyBytes( PageCursor cursor, int storedKeySize, KeyBuffer keyBuffer )
+    {
+        int sharedPrefixLength = cursor.getByte() & 0xFF;
+        int suffixSize = storedKeySize - SIZE_SHARED_PREFIX_LENGTH;
+        if ( suffixSize < 0 || sharedPrefixLength > Math.min( getPrefixLength( cursor ), prefixCapacity ) ||
+             suffixSize > keyValueSizeCap() )
+        {
+            cursor.setCursorException( format( "Read unreliable prefix compressed key, id=%d, keySize=%d, sharedPrefixLength=%d, prefixLength=%d",
+                    cursor.getCurrentPageId(), storedKeySize, sharedPrefixLength, getPrefixLength( cursor ) ) );
+            return -1;
+        }
+        byte[] into = keyBuffer.bytes( sharedPrefixLength + suffixSize );
+        for ( int i = 0; i < sharedPrefixLength; i++ )
+        {
+            into[i] = cursor.getByte( bytePosPrefix + i );
+        }
+        cursor.getBytes( into, sharedPrefixLength, suffixSize );
+        return sharedPrefixLength + suffixSize;
+    }
+
+    private void readKey( PageCursor cursor, KEY into, int keySize, Type type, KeyBuffer keyBuffer )
+    {
+        if ( type == INTERNAL || !prefixCompressedLeaves )
+        {
+            layout.readKey( cursor, into, keySize );
+            return;
+        }
+
+        int fullKeySize = readPrefixCompressedKeyBytes( cursor, keySize, keyBuffer );
+        if ( fullKeySize < 0 )
+        {
+            return;
+        }
+        PageCursor keyCursor = keyBuffer.cursor( fullKeySize );
+        try
+        {
+            layout.readKey( keyCursor, into, fullKeySize );
+            keyCursor.checkAndClearCursorException();
+        }
+        catch ( CursorException | IndexOutOfBoundsException | BufferUnderflowException e )
+        {
+            // Can only happen on an inconsistent read, signal retry through the page cursor
+            cursor.setCursorException( "Failed to read prefix compressed key, cause: " + e.getMessage() );
+        }
+    }
+
     private void placeCursorAtActualKey( PageCursor cursor, int pos, Type type )
     {
         // Set cursor to correct place in offset array
@@ -1472,10 +1878,11 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int keyOffset = offsetFormat.getOffset( cursor );
 
         // Verify offset is reasonable
-        if ( keyOffset >= pageSize || keyOffset < offsetFormat.getHeaderLength() )
+        int headerLength = headerLength( type );
+        if ( keyOffset >= pageSize || keyOffset < headerLength )
         {
             cursor.setCursorException( format( "Tried to read key on offset=%d, headerLength=%d, pageSize=%d, pos=%d",
-                    keyOffset, offsetFormat.getHeaderLength(), pageSize, pos ) );
+                    keyOffset, headerLength, pageSize, pos ) );
             return;
         }
 
@@ -1508,13 +1915,13 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
     private int keyPosOffsetLeaf( int pos )
     {
-        return offsetFormat.getHeaderLength() + pos * bytesKeyOffset();
+        return leafHeaderLength + pos * bytesKeyOffset();
     }
 
     private int keyPosOffsetInternal( int pos )
     {
         // header + childPointer + pos * (keyPosOffsetSize + childPointer)
-        return offsetFormat.getHeaderLength() + childSize() + pos * keyChildSize();
+        return internalHeaderLength + childSize() + pos * keyChildSize();
     }
 
     private int keyChildSize()
@@ -1535,7 +1942,8 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     @Override
     public String toString()
     {
-        return "TreeNodeDynamicSize[pageSize:" + pageSize + ", keyValueSizeCap:" + keyValueSizeCap() + ", inlineKeyValueSizeCap:" + inlineKeyValueSizeCap + "]";
+        return "TreeNodeDynamicSize[pageSize:" + pageSize + ", keyValueSizeCap:" + keyValueSizeCap() + ", inlineKeyValueSizeCap:" + inlineKeyValueSizeCap +
+               ", prefixCompressedLeaves:" + prefixCompressedLeaves + "]";
     }
 
     private String asString( PageCursor cursor, boolean includeValue, boolean includeAllocSpace,
@@ -1551,7 +1959,8 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         // HEADER
         int allocOffset = getAllocOffset( cursor );
         int deadSpace = getDeadSpace( cursor );
-        String additionalHeader = "{" + cursor.getCurrentPageId() + "} [allocOffset=" + allocOffset + " deadSpace=" + deadSpace + "] ";
+        String additionalHeader = "{" + cursor.getCurrentPageId() + "} [allocOffset=" + allocOffset + " deadSpace=" + deadSpace +
+                (prefixCompressedLeaves && type == LEAF ? " prefixLength=" + getPrefixLength( cursor ) : "") + "] ";
 
         // OFFSET ARRAY
         String offsetArray = readOffsetArray( cursor, stableGeneration, unstableGeneration, type );
@@ -1566,6 +1975,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         // KEYS
         KEY readKey = layout.newKey();
         VALUE readValue = layout.newValue();
+        KeyBuffer keyBuffer = new KeyBuffer();
         StringJoiner keys = new StringJoiner( " " );
         cursor.setOffset( allocOffset );
         while ( cursor.getOffset() < cursor.getCurrentPageSize() )
@@ -1603,7 +2013,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             }
             else
             {
-                layout.readKey( cursor, readKey, keySize );
+                readKey( cursor, readKey, keySize, type, keyBuffer );
                 if ( type == LEAF )
                 {
                     layout.readValue( cursor, readValue, valueSize );
@@ -1665,6 +2075,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             int activeSpace = totalActiveSpaceRaw( cursor, keyCount, type );
             int deadSpace = getDeadSpace( cursor );
             int allocSpace = getAllocSpace( cursor, keyCount, type );
+            int totalSpace = totalSpace( type );
             if ( activeSpace + deadSpace + allocSpace != totalSpace )
             {
                 hasInconsistency = true;
@@ -1682,6 +2093,13 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             }
         }
 
+        // Verify prefix fits in the header
+        if ( prefixCompressedLeaves && type == LEAF && getPrefixLength( cursor ) > prefixCapacity )
+        {
+            hasInconsistency = true;
+            joiner.add( format( "Prefix is larger than its space in header, prefixLength=%d, prefixCapacity=%d", getPrefixLength( cursor ), prefixCapacity ) );
+        }
+
         if ( allocOffset < pageSize && allocOffset >= 0 )
         {
             // Verify allocOffset point at start of key
@@ -1722,7 +2140,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     private int totalActiveSpaceRaw( PageCursor cursor, int keyCount, Type type )
     {
         // Offset array
-        int offsetArrayStart = offsetFormat.getHeaderLength();
+        int offsetArrayStart = headerLength( type );
         int offsetArrayEnd = keyPosOffset( keyCount, type );
         int offsetArraySize = offsetArrayEnd - offsetArrayStart;
 
@@ -1792,8 +2210,8 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     }
 
     @VisibleForTesting
-    public int getHeaderLength()
+    public int getHeaderLength( PageCursor cursor )
     {
-        return offsetFormat.getHeaderLength();
+        return headerLength( isLeaf( cursor ) ? LEAF : INTERNAL );
     }
 }
@@ -350,6 +350,12 @@ class TreeNodeFixedSize<KEY,VALUE> extends TreeNode<KEY,VALUE>
         return keyCount < (leafMaxKeyCount() + 1) / 2;
     }
 
+    @Override
+    double fillRatio( PageCursor cursor, int keyCount, Type type )
+    {
+        return (double) keyCount / (type == LEAF ? leafMaxKeyCount() : internalMaxKeyCount());
+    }
+
     @Override
     int canRebalanceLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
     {
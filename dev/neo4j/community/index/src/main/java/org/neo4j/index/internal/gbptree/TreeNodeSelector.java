@@ -75,6 +75,30 @@ class TreeNodeSelector
         }
     };
 
+    /**
+     * Creates {@link TreeNodeDynamicSize} instances with prefix compressed keys in leaves.
+     */
+    private static final Factory DYNAMIC_PREFIX_COMPRESSED = new Factory()
+    {
+        @Override
+        public <KEY,VALUE> TreeNode<KEY,VALUE> create( int pageSize, Layout<KEY,VALUE> layout, OffloadStore<KEY,VALUE> offloadStore )
+        {
+            return new TreeNodeDynamicSize<>( pageSize, layout, offloadStore, true );
+        }
+
+        @Override
+        public byte formatIdentifier()
+        {
+            return TreeNodeDynamicSize.FORMAT_IDENTIFIER;
+        }
+
+        @Override
+        public byte formatVersion()
+        {
+            return TreeNodeDynamicSize.FORMAT_VERSION_PREFIX_COMPRESSED;
+        }
+    };
+
     /**
      * Selects a format based on the given {@link Layout}.
      *
@@ -82,9 +106,25 @@ class TreeNodeSelector
      * @return a {@link Factory} capable of instantiating the selected format.
      */
     static Factory selectByLayout( Layout<?,?> layout )
+    {
+        return selectByLayout( layout, false );
+    }
+
+    /**
+     * Selects a format based on the given {@link Layout} and whether or not keys in leaves should be prefix compressed.
+     *
+     * @param layout {@link Layout} dictating which {@link TreeNode} to instantiate.
+     * @param prefixCompressedLeaves whether or not to select the prefix compressed version of the format, only available for dynamic size layouts.
+     * @return a {@link Factory} capable of instantiating the selected format.
+     */
+    static Factory selectByLayout( Layout<?,?> layout, boolean prefixCompressedLeaves )
     {
         // For now the selection is done in a simple fashion, by looking at layout.fixedSize().
-        return layout.fixedSize() ? FIXED : DYNAMIC;
+        if ( layout.fixedSize() )
+        {
+            return FIXED;
+        }
+        return prefixCompressedLeaves ? DYNAMIC_PREFIX_COMPRESSED : DYNAMIC;
     }
 
     /**
@@ -106,6 +146,10 @@ class TreeNodeSelector
         {
             return DYNAMIC;
         }
+        else if ( formatIdentifier == TreeNodeDynamicSize.FORMAT_IDENTIFIER && formatVersion == TreeNodeDynamicSize.FORMAT_VERSION_PREFIX_COMPRESSED )
+        {
+            return DYNAMIC_PREFIX_COMPRESSED;
+        }
         throw new IllegalArgumentException(
                 format( "Unknown format identifier:%d and version:%d combination", formatIdentifier, formatVersion ) );
     }
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.eclipse.collections.api.set.ImmutableSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.rule.PageCacheConfig;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.eclipse.collections.impl.factory.Sets.immutable;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+import static org.neo4j.index.internal.gbptree.OffloadStoreImpl.keyValueSizeCapFromPageSize;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+@EphemeralTestDirectoryExtension
+class GBPTreeBulkLoaderTest
+{
+    private static final int PAGE_SIZE = 512;
+
+    @RegisterExtension
+    static PageCacheSupportExtension pageCacheExtension = new PageCacheSupportExtension( PageCacheConfig.config().withPageSize( PAGE_SIZE ) );
+    @Inject
+    private TestDirectory directory;
+    @Inject
+    private PageCache pageCache;
+
+    private static Stream<TestLayout<?,?>> layouts()
+    {
+        return Stream.of(
+                SimpleLongLayout.longLayout().withFixedSize( true ).build(),
+                SimpleLongLayout.longLayout().withFixedSize( false ).build(),
+                // every 10th entry is offloaded
+                new SimpleByteArrayLayout( keyValueSizeCapFromPageSize( PAGE_SIZE ) / 2, 10 ) );
+    }
+
+    private static Stream<Arguments> layoutsAndFillFactors()
+    {
+        return layouts().flatMap( layout -> Stream.of( arguments( layout, 0.5 ), arguments( layout, 0.8 ), arguments( layout, 1.0 ) ) );
+    }
+
+    @ParameterizedTest
+    @MethodSource( "layoutsAndFillFactors" )
+    <KEY,VALUE> void shouldBuildTreeFromAscendingEntries( TestLayout<KEY,VALUE> layout, double fillFactor ) throws IOException
+    {
+        shouldBuildTreeFromAscendingEntries( layout, fillFactor, immutable.empty() );
+    }
+
+    @ParameterizedTest
+    @ValueSource( doubles = {0.5, 0.8, 1.0} )
+    void shouldBuildPrefixCompressedTreeFromAscendingEntries( double fillFactor ) throws IOException
+    {
+        shouldBuildTreeFromAscendingEntries( new SimpleByteArrayLayout( keyValueSizeCapFromPageSize( PAGE_SIZE ) / 2, 10 ), fillFactor,
+                immutable.of( GBPTreeOpenOptions.PREFIX_COMPRESSED_LEAVES ) );
+    }
+
+    private <KEY,VALUE> void shouldBuildTreeFromAscendingEntries( TestLayout<KEY,VALUE> layout, double fillFactor, ImmutableSet<OpenOption> openOptions )
+            throws IOException
+    {
+        Path file = directory.file( "index" );
+        int count = 10_000;
+        try ( GBPTree<KEY,VALUE> tree = new GBPTreeBuilder<>( pageCache, file, layout ).with( openOptions ).build() )
+        {
+            // when
+            try ( BulkLoader<KEY,VALUE> bulkLoader = tree.bulkLoader( fillFactor, NULL ) )
+            {
+                for ( long seed = 0; seed < count; seed++ )
+                {
+                    bulkLoader.add( layout.key( seed * 2 ), layout.value( seed * 2 ) );
+                }
+            }
+
+            // then
+            assertEntries( tree, layout, count, 2 );
+            assertTrue( tree.consistencyCheck( NULL ) );
+
+            // and the tree must take regular changes afterwards, between and after the loaded keys
+            try ( Writer<KEY,VALUE> writer = tree.writer( NULL ) )
+            {
+                for ( long seed = 0; seed < count; seed++ )
+                {
+                    writer.put( layout.key( seed * 2 + 1 ), layout.value( seed * 2 + 1 ) );
+                }
+            }
+            assertEntries( tree, layout, count * 2, 1 );
+            assertTrue( tree.consistencyCheck( NULL ) );
+            tree.checkpoint( NULL );
+        }
+
+        try ( GBPTree<KEY,VALUE> tree = new GBPTreeBuilder<>( pageCache, file, layout ).build() )
+        {
+            assertEntries( tree, layout, count * 2, 1 );
+            assertTrue( tree.consistencyCheck( NULL ) );
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource( "layouts" )
+    <KEY,VALUE> void shouldNotShowEntriesToReadersBeforeClosed( TestLayout<KEY,VALUE> layout ) throws IOException
+    {
+        try ( GBPTree<KEY,VALUE> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            try ( BulkLoader<KEY,VALUE> bulkLoader = tree.bulkLoader( 1.0, NULL ) )
+            {
+                for ( long seed = 0; seed < 1_000; seed++ )
+                {
+                    bulkLoader.add( layout.key( seed ), layout.value( seed ) );
+                }
+
+                try ( Seeker<KEY,VALUE> seeker = tree.seek( layout.key( 0 ), layout.key( Long.MAX_VALUE ), NULL ) )
+                {
+                    assertFalse( seeker.next() );
+                }
+            }
+
+            assertEntries( tree, layout, 1_000, 1 );
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource( "layouts" )
+    <KEY,VALUE> void shouldLeaveTreeEmptyIfNothingAdded( TestLayout<KEY,VALUE> layout ) throws IOException
+    {
+        try ( GBPTree<KEY,VALUE> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            tree.bulkLoader( 1.0, NULL ).close();
+
+            assertEntries( tree, layout, 0, 1 );
+            try ( Writer<KEY,VALUE> writer = tree.writer( NULL ) )
+            {
+                writer.put( layout.key( 0 ), layout.value( 0 ) );
+            }
+            assertEntries( tree, layout, 1, 1 );
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource( "layouts" )
+    <KEY,VALUE> void shouldLeaveTreeEmptyAndConsistentIfAddFailed( TestLayout<KEY,VALUE> layout ) throws IOException
+    {
+        try ( GBPTree<KEY,VALUE> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            try ( BulkLoader<KEY,VALUE> bulkLoader = tree.bulkLoader( 1.0, NULL ) )
+            {
+                for ( long seed = 1; seed <= 1_000; seed++ )
+                {
+                    bulkLoader.add( layout.key( seed ), layout.value( seed ) );
+                }
+                assertThrows( IllegalArgumentException.class, () -> bulkLoader.add( layout.key( 0 ), layout.value( 0 ) ) );
+            }
+
+            assertEntries( tree, layout, 0, 1 );
+            assertTrue( tree.consistencyCheck( NULL ) );
+
+            try ( Writer<KEY,VALUE> writer = tree.writer( NULL ) )
+            {
+                writer.put( layout.key( 0 ), layout.value( 0 ) );
+            }
+            assertEntries( tree, layout, 1, 1 );
+            assertTrue( tree.consistencyCheck( NULL ) );
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource( "layouts" )
+    <KEY,VALUE> void shouldBeConsistentAfterReopeningWithoutCheckpoint( TestLayout<KEY,VALUE> layout ) throws IOException
+    {
+        Path file = directory.file( "index" );
+        try ( GBPTree<KEY,VALUE> tree = new GBPTreeBuilder<>( pageCache, file, layout ).build() )
+        {
+            try ( BulkLoader<KEY,VALUE> bulkLoader = tree.bulkLoader( 1.0, NULL ) )
+            {
+                for ( long seed = 0; seed < 1_000; seed++ )
+                {
+                    bulkLoader.add( layout.key( seed ), layout.value( seed ) );
+                }
+            }
+            assertEntries( tree, layout, 1_000, 1 );
+            // no checkpoint
+        }
+
+        try ( GBPTree<KEY,VALUE> tree = new GBPTreeBuilder<>( pageCache, file, layout ).build() )
+        {
+            // the bulk load was not checkpointed, so the tree is back to being empty
+            assertEntries( tree, layout, 0, 1 );
+            assertTrue( tree.consistencyCheck( NULL ) );
+
+            try ( Writer<KEY,VALUE> writer = tree.writer( NULL ) )
+            {
+                for ( long seed = 0; seed < 1_000; seed++ )
+                {
+                    writer.put( layout.key( seed ), layout.value( seed ) );
+                }
+            }
+            assertEntries( tree, layout, 1_000, 1 );
+            assertTrue( tree.consistencyCheck( NULL ) );
+        }
+    }
+
+    @Test
+    void shouldThrowOnKeysOutOfOrder() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build();
+              BulkLoader<MutableLong,MutableLong> bulkLoader = tree.bulkLoader( 1.0, NULL ) )
+        {
+            bulkLoader.add( layout.key( 2 ), layout.value( 2 ) );
+
+            assertThrows( IllegalArgumentException.class, () -> bulkLoader.add( layout.key( 2 ), layout.value( 2 ) ) );
+            assertThrows( IllegalArgumentException.class, () -> bulkLoader.add( layout.key( 1 ), layout.value( 1 ) ) );
+        }
+    }
+
+    @Test
+    void shouldThrowIfTreeIsNotEmpty() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+            {
+                writer.put( layout.key( 0 ), layout.value( 0 ) );
+            }
+
+            assertThrows( IllegalStateException.class, () -> tree.bulkLoader( 1.0, NULL ) );
+
+            // and the failed bulk loader must not keep the writer locked out
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+            {
+                writer.put( layout.key( 1 ), layout.value( 1 ) );
+            }
+        }
+    }
+
+    @Test
+    void shouldThrowOnInvalidFillFactor() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            assertThrows( IllegalArgumentException.class, () -> tree.bulkLoader( 0, NULL ) );
+            assertThrows( IllegalArgumentException.class, () -> tree.bulkLoader( 1.1, NULL ) );
+        }
+    }
+
+    private static <KEY,VALUE> void assertEntries( GBPTree<KEY,VALUE> tree, TestLayout<KEY,VALUE> layout, int count, int stride ) throws IOException
+    {
+        long expected = 0;
+        try ( Seeker<KEY,VALUE> seeker = tree.seek( layout.key( 0 ), layout.key( Long.MAX_VALUE ), NULL ) )
+        {
+            while ( seeker.next() )
+            {
+                assertEquals( expected, layout.keySeed( seeker.key() ) );
+                assertEquals( expected, layout.valueSeed( seeker.value() ) );
+                expected += stride;
+            }
+        }
+        assertEquals( (long) count * stride, expected );
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.test.Race;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.rule.PageCacheConfig;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.test.Race.throwing;
+
+@EphemeralTestDirectoryExtension
+class GBPTreeConcurrentWriterTest
+{
+    private static final int THREADS = 4;
+    private static final int KEYS_PER_THREAD = 2_000;
+
+    @RegisterExtension
+    static PageCacheSupportExtension pageCacheExtension = new PageCacheSupportExtension( PageCacheConfig.config().withPageSize( 512 ) );
+    @Inject
+    private TestDirectory directory;
+    @Inject
+    private PageCache pageCache;
+
+    private static Stream<TestLayout<?,?>> layouts()
+    {
+        return Stream.of(
+                SimpleLongLayout.longLayout().withFixedSize( true ).build(),
+                SimpleLongLayout.longLayout().withFixedSize( false ).build(),
+                new SimpleByteArrayLayout() );
+    }
+
+    @ParameterizedTest
+    @MethodSource( "layouts" )
+    <KEY,VALUE> void concurrentWritersMustInsertInterleavedKeys( TestLayout<KEY,VALUE> layout ) throws IOException
+    {
+        try ( GBPTree<KEY,VALUE> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            // when every writer inserts every THREADS:th key, so that they all write to the same leaves
+            Race race = new Race();
+            race.addContestants( THREADS, thread -> throwing( () ->
+            {
+                try ( Writer<KEY,VALUE> writer = tree.concurrentWriter( NULL ) )
+                {
+                    for ( long seed = thread; seed < THREADS * KEYS_PER_THREAD; seed += THREADS )
+                    {
+                        writer.put( layout.key( seed ), layout.value( seed ) );
+                    }
+                }
+            } ) );
+            race.goUnchecked();
+
+            // then
+            assertEntries( tree, layout, 1, 0 );
+            assertTrue( tree.consistencyCheck( NULL ) );
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource( "layouts" )
+    <KEY,VALUE> void concurrentWritersMustRemoveAndOverwriteAcrossCheckpoints( TestLayout<KEY,VALUE> layout ) throws IOException
+    {
+        Path file = directory.file( "index" );
+        try ( GBPTree<KEY,VALUE> tree = new GBPTreeBuilder<>( pageCache, file, layout ).build() )
+        {
+            // given a checkpointed tree, so that the first change of every node has to create its successor
+            try ( Writer<KEY,VALUE> writer = tree.writer( NULL ) )
+            {
+                for ( long seed = 0; seed < THREADS * KEYS_PER_THREAD; seed++ )
+                {
+                    writer.put( layout.key( seed ), layout.value( seed ) );
+                }
+            }
+            tree.checkpoint( NULL );
+
+            // when removing the even keys and overwriting the odd keys with values of other sizes, with checkpoints in between
+            AtomicInteger runningWriters = new AtomicInteger( THREADS );
+            Race race = new Race();
+            race.addContestants( THREADS, thread -> throwing( () ->
+            {
+                long seed = thread;
+                while ( seed < THREADS * KEYS_PER_THREAD )
+                {
+                    try ( Writer<KEY,VALUE> writer = tree.concurrentWriter( NULL ) )
+                    {
+                        for ( int i = 0; i < 100 && seed < THREADS * KEYS_PER_THREAD; i++, seed += THREADS )
+                        {
+                            if ( seed % 2 == 0 )
+                            {
+                                VALUE removed = writer.remove( layout.key( seed ) );
+                                assertNotNull( removed );
+                                assertEquals( seed, layout.valueSeed( removed ) );
+                            }
+                            else
+                            {
+                                writer.put( layout.key( seed ), layout.value( seed + 1 ) );
+                            }
+                        }
+                    }
+                }
+                runningWriters.decrementAndGet();
+            } ) );
+            race.addContestant( throwing( () ->
+            {
+                while ( runningWriters.get() > 0 )
+                {
+                    tree.checkpoint( NULL );
+                }
+            } ) );
+            race.goUnchecked();
+
+            // then
+            assertEntries( tree, layout, 2, 1 );
+            assertTrue( tree.consistencyCheck( NULL ) );
+            tree.checkpoint( NULL );
+        }
+
+        try ( GBPTree<KEY,VALUE> tree = new GBPTreeBuilder<>( pageCache, file, layout ).build() )
+        {
+            assertEntries( tree, layout, 2, 1 );
+            assertTrue( tree.consistencyCheck( NULL ) );
+        }
+    }
+
+    /**
+     * Asserts that the tree has the keys {@code first}, {@code first + stride}, ... and that the values of the odd keys are from the next seed.
+     */
+    private static <KEY,VALUE> void assertEntries( GBPTree<KEY,VALUE> tree, TestLayout<KEY,VALUE> layout, int stride, int first ) throws IOException
+    {
+        long expected = first;
+        try ( Seeker<KEY,VALUE> seeker = tree.seek( layout.key( 0 ), layout.key( Long.MAX_VALUE ), NULL ) )
+        {
+            while ( seeker.next() )
+            {
+                assertEquals( expected, layout.keySeed( seeker.key() ) );
+                long valueSeed = stride == 1 ? expected : expected + 1;
+                assertEquals( valueSeed, layout.valueSeed( seeker.value() ) );
+                expected += stride;
+            }
+        }
+        assertEquals( THREADS * KEYS_PER_THREAD + first, expected );
+    }
+}
@@ -163,6 +163,45 @@ class GBPTreeLockTest
         assertOnlyOneSucceeds( lock::writerAndCleanerLock, lock::writerAndCleanerLock );
     }
 
+    @Test
+    void test_race_concurrentWritersVsConcurrentWriters() throws Throwable
+    {
+        assertBothSucceeds( lock::concurrentWriterLock, lock::concurrentWriterLock );
+        lock.concurrentWriterUnlock();
+        lock.concurrentWriterUnlock();
+        assertThrows( IllegalStateException.class, lock::concurrentWriterUnlock );
+    }
+
+    @Test
+    void test_race_concurrentWriterVsUL()
+    {
+        assertOnlyOneSucceeds( lock::concurrentWriterLock, lock::cleanerLock );
+    }
+
+    @Test
+    void test_race_concurrentWriterVsLU()
+    {
+        assertOnlyOneSucceeds( lock::concurrentWriterLock, lock::writerLock );
+    }
+
+    @Test
+    void test_race_concurrentWriterVsLL()
+    {
+        assertOnlyOneSucceeds( lock::concurrentWriterLock, lock::writerAndCleanerLock );
+    }
+
+    @Test
+    void writerLockMustWaitForConcurrentWriters() throws Exception
+    {
+        lock.concurrentWriterLock();
+        lock.concurrentWriterLock();
+        assertThrows( IllegalStateException.class, lock::writerUnlock );
+
+        lock.concurrentWriterUnlock();
+        assertBlock( lock::writerLock, lock::concurrentWriterUnlock );
+        assertLU();
+    }
+
     private void assertOnlyOneSucceeds( Runnable lockAction1, Runnable lockAction2 )
     {
         assertUU();
@@ -320,6 +320,53 @@ class GBPTreeTest
         }
     }
 
+    @Test
+    void shouldKeepPrefixCompressedLeavesWhenReopenedWithoutOption() throws Exception
+    {
+        // GIVEN
+        SimpleByteArrayLayout byteArrayLayout = new SimpleByteArrayLayout();
+        int count = 5_000;
+        try ( PageCache pageCache = createPageCache( defaultPageSize ) )
+        {
+            GBPTreeBuilder<RawBytes,RawBytes> builder = new GBPTreeBuilder<>( pageCache, indexFile, byteArrayLayout );
+            try ( GBPTree<RawBytes,RawBytes> index = builder.with( immutable.of( GBPTreeOpenOptions.PREFIX_COMPRESSED_LEAVES ) ).build() )
+            {
+                try ( Writer<RawBytes,RawBytes> writer = index.writer( NULL ) )
+                {
+                    for ( int i = 0; i < count; i++ )
+                    {
+                        writer.put( byteArrayLayout.key( i ), byteArrayLayout.value( i ) );
+                    }
+                    for ( int i = 0; i < count; i += 3 )
+                    {
+                        writer.remove( byteArrayLayout.key( i ) );
+                    }
+                }
+                index.checkpoint( NULL );
+            }
+
+            // WHEN
+            try ( GBPTree<RawBytes,RawBytes> index = builder.with( immutable.<OpenOption>empty() ).build() )
+            {
+                // THEN
+                assertTrue( index.consistencyCheck( NULL ) );
+                try ( Seeker<RawBytes,RawBytes> seeker = index.seek( byteArrayLayout.key( 0 ), byteArrayLayout.key( count ), NULL ) )
+                {
+                    for ( int i = 0; i < count; i++ )
+                    {
+                        if ( i % 3 != 0 )
+                        {
+                            assertTrue( seeker.next() );
+                            assertEquals( i, byteArrayLayout.keySeed( seeker.key() ) );
+                            assertEquals( i, byteArrayLayout.valueSeed( seeker.value() ) );
+                        }
+                    }
+                    assertFalse( seeker.next() );
+                }
+            }
+        }
+    }
+
     @Test
     void shouldReturnNoResultsOnEmptyIndex() throws Exception
     {
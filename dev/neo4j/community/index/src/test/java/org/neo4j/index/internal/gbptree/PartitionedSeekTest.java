@@ -146,6 +146,36 @@ class PartitionedSeekTest
         }
     }
 
+    @Test
+    void shouldPartitionTreeIntoEdgesAndFindAll() throws IOException
+    {
+        try ( GBPTree<MutableLong,MutableLong> tree = instantiateTree() )
+        {
+            // given
+            int numberOfRootChildren = random.nextInt( 1, 10 );
+            int numberOfDesiredLevels = random.nextInt( 2, 4 );
+            int numberOfDesiredPartitions = random.nextInt( 1, 10 );
+            int high = insertEntriesUntil( tree, numberOfDesiredLevels, numberOfRootChildren );
+            long from = random.nextLong( 0, high - 1 );
+            long to = random.nextLong( from, high );
+
+            // when
+            List<MutableLong> edges = tree.partitionEdges( layout.key( from ), layout.key( to ), numberOfDesiredPartitions, NULL );
+
+            // then
+            assertThat( edges.size() ).isBetween( 2, numberOfDesiredPartitions + 1 );
+            assertEquals( from, layout.keySeed( edges.get( 0 ) ) );
+            assertEquals( to, layout.keySeed( edges.get( edges.size() - 1 ) ) );
+            List<Seeker<MutableLong,MutableLong>> seekers = new ArrayList<>();
+            for ( int i = 0; i < edges.size() - 1; i++ )
+            {
+                seekers.add( tree.seek( edges.get( i ), edges.get( i + 1 ), NULL ) );
+            }
+            IntList entryCountPerPartition = assertEntries( from, to, seekers );
+            verifyEntryCountPerPartition( entryCountPerPartition );
+        }
+    }
+
     @Test
     void shouldCreateReasonablePartitionsWhenFromInclusiveMatchKeyInRoot() throws IOException
     {
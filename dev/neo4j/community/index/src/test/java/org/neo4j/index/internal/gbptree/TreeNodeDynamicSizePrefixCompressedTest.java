@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.index.internal.gbptree.TreeNode.Overflow.YES;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+public class TreeNodeDynamicSizePrefixCompressedTest extends TreeNodeTestBase<RawBytes,RawBytes>
+{
+    private final SimpleByteArrayLayout layout = new SimpleByteArrayLayout();
+
+    @Override
+    protected TestLayout<RawBytes,RawBytes> getLayout()
+    {
+        return layout;
+    }
+
+    @Override
+    protected TreeNodeDynamicSize<RawBytes,RawBytes> getNode( int pageSize, Layout<RawBytes,RawBytes> layout,
+            OffloadStore<RawBytes,RawBytes> offloadStore )
+    {
+        return new TreeNodeDynamicSize<>( pageSize, layout, offloadStore, true );
+    }
+
+    @Override
+    void assertAdditionalHeader( PageCursor cursor, TreeNode<RawBytes,RawBytes> node, int pageSize )
+    {
+        // When
+        int currentAllocSpace = dynamicNode().getAllocOffset( cursor );
+
+        // Then
+        assertEquals( pageSize, currentAllocSpace, "allocSpace point to end of page" );
+        if ( TreeNode.isLeaf( cursor ) )
+        {
+            assertEquals( 0, dynamicNode().getPrefixLength( cursor ), "no prefix in new leaf" );
+        }
+    }
+
+    @Test
+    void shouldReclaimSpaceWhenCompressingKeysWithCommonPrefix() throws IOException
+    {
+        // Given
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        List<String> keys = keys( "user/", 0, 10 );
+        insert( cursor, keys );
+        int allocOffsetBefore = dynamicNode().getAllocOffset( cursor );
+
+        // When
+        boolean compressed = node.compressLeaf( cursor, keys.size() );
+
+        // Then
+        assertTrue( compressed );
+        assertEquals( "user/000".length(), dynamicNode().getPrefixLength( cursor ) );
+        assertTrue( dynamicNode().getAllocOffset( cursor ) > allocOffsetBefore );
+        assertKeys( cursor, keys );
+        assertConsistent( cursor, keys.size() );
+    }
+
+    @Test
+    void shouldNotCompressKeysWithoutCommonPrefix() throws IOException
+    {
+        // Given
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        List<String> keys = List.of( "apple", "banana", "cherry" );
+        insert( cursor, keys );
+
+        // When
+        boolean compressed = node.compressLeaf( cursor, keys.size() );
+
+        // Then
+        assertFalse( compressed );
+        assertEquals( 0, dynamicNode().getPrefixLength( cursor ) );
+        assertKeys( cursor, keys );
+    }
+
+    @Test
+    void shouldNotCompressAgainWhenPrefixAlreadyShared() throws IOException
+    {
+        // Given
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        List<String> keys = keys( "user/", 0, 10 );
+        insert( cursor, keys );
+        assertTrue( node.compressLeaf( cursor, keys.size() ) );
+
+        // When
+        boolean compressedAgain = node.compressLeaf( cursor, keys.size() );
+
+        // Then
+        assertFalse( compressedAgain );
+        assertKeys( cursor, keys );
+    }
+
+    @Test
+    void shouldReadAndWriteKeysSharingOnlyPartOfPrefix() throws IOException
+    {
+        // Given
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        List<String> keys = new ArrayList<>( keys( "user/", 0, 10 ) );
+        insert( cursor, keys );
+        assertTrue( node.compressLeaf( cursor, keys.size() ) );
+
+        // When
+        keys.add( 0, "use" );
+        keys.add( "user/1" );
+        keys.add( "zebra" );
+        insertAt( cursor, "use", 0, keys.size() - 3 );
+        insertAt( cursor, "user/1", keys.size() - 2, keys.size() - 2 );
+        insertAt( cursor, "zebra", keys.size() - 1, keys.size() - 1 );
+
+        // Then
+        assertKeys( cursor, keys );
+        assertConsistent( cursor, keys.size() );
+    }
+
+    @Test
+    void shouldTranscodeKeysWhenMergingLeavesWithDifferentPrefixes() throws IOException
+    {
+        // Given
+        PageCursor left = cursor;
+        PageCursor right = rightCursor();
+        List<String> leftKeys = keys( "apple/", 0, 8 );
+        List<String> rightKeys = keys( "banana/", 0, 8 );
+        compressedLeaf( left, leftKeys );
+        compressedLeaf( right, rightKeys );
+        assertTrue( node.canMergeLeaves( left, leftKeys.size(), right, rightKeys.size() ) );
+
+        // When
+        node.copyKeyValuesFromLeftToRight( left, leftKeys.size(), right, rightKeys.size() );
+
+        // Then
+        List<String> expected = new ArrayList<>( leftKeys );
+        expected.addAll( rightKeys );
+        assertKeys( right, expected );
+        assertConsistent( right, expected.size() );
+    }
+
+    @Test
+    void shouldTranscodeKeysWhenRebalancingLeavesWithDifferentPrefixes() throws IOException
+    {
+        // Given
+        PageCursor left = cursor;
+        PageCursor right = rightCursor();
+        List<String> leftKeys = keys( "apple/", 0, 8 );
+        List<String> rightKeys = keys( "banana/", 0, 8 );
+        compressedLeaf( left, leftKeys );
+        compressedLeaf( right, rightKeys );
+        int fromPos = 5;
+
+        // When
+        node.moveKeyValuesFromLeftToRight( left, leftKeys.size(), right, rightKeys.size(), fromPos );
+
+        // Then
+        List<String> expectedRight = new ArrayList<>( leftKeys.subList( fromPos, leftKeys.size() ) );
+        expectedRight.addAll( rightKeys );
+        assertKeys( left, leftKeys.subList( 0, fromPos ) );
+        assertKeys( right, expectedRight );
+        assertConsistent( left, fromPos );
+        assertConsistent( right, expectedRight.size() );
+    }
+
+    @Test
+    void shouldCompressBothHalvesOnSplit() throws IOException
+    {
+        // Given
+        PageCursor left = cursor;
+        PageCursor right = rightCursor();
+        node.initializeLeaf( left, STABLE_GENERATION, UNSTABLE_GENERATION );
+        node.initializeLeaf( right, STABLE_GENERATION, UNSTABLE_GENERATION );
+        List<String> keys = new ArrayList<>();
+        int keyCount = 0;
+        String newKey = key( "user/", keyCount );
+        while ( node.leafOverflow( left, keyCount, rawBytes( newKey ), value( keyCount ) ) != YES )
+        {
+            insertAt( left, newKey, keyCount, keyCount );
+            keys.add( newKey );
+            keyCount++;
+            newKey = key( "user/", keyCount );
+        }
+
+        // When
+        node.doSplitLeaf( left, keyCount, right, keyCount, rawBytes( newKey ), value( keyCount ), layout.newKey(), 0.5, STABLE_GENERATION,
+                UNSTABLE_GENERATION, NULL );
+        keys.add( newKey );
+
+        // Then
+        int leftKeyCount = TreeNode.keyCount( left );
+        int rightKeyCount = TreeNode.keyCount( right );
+        assertEquals( keys.size(), leftKeyCount + rightKeyCount );
+        assertTrue( dynamicNode().getPrefixLength( left ) > 0 );
+        assertTrue( dynamicNode().getPrefixLength( right ) > 0 );
+        assertKeys( left, keys.subList( 0, leftKeyCount ) );
+        assertKeys( right, keys.subList( leftKeyCount, keys.size() ) );
+        assertConsistent( left, leftKeyCount );
+        assertConsistent( right, rightKeyCount );
+    }
+
+    @Test
+    void shouldOnlyReservePrefixSpaceInLeaves()
+    {
+        // Given
+        TreeNodeDynamicSize<RawBytes,RawBytes> uncompressedNode = new TreeNodeDynamicSize<>( PAGE_SIZE, layout, createOffloadStore() );
+        uncompressedNode.initializeInternal( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        int uncompressedHeaderLength = uncompressedNode.getHeaderLength( cursor );
+
+        // When
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        int leafHeaderLength = dynamicNode().getHeaderLength( cursor );
+        node.initializeInternal( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        int internalHeaderLength = dynamicNode().getHeaderLength( cursor );
+
+        // Then
+        assertTrue( leafHeaderLength > uncompressedHeaderLength );
+        assertEquals( uncompressedHeaderLength, internalHeaderLength );
+    }
+
+    private TreeNodeDynamicSize<RawBytes,RawBytes> dynamicNode()
+    {
+        return (TreeNodeDynamicSize<RawBytes,RawBytes>) node;
+    }
+
+    private PageCursor rightCursor()
+    {
+        PageAwareByteArrayCursor right = cursor.duplicate( cursor.getCurrentPageId() + 1 );
+        right.next();
+        return right;
+    }
+
+    private void compressedLeaf( PageCursor cursor, List<String> keys ) throws IOException
+    {
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        insert( cursor, keys );
+        assertTrue( node.compressLeaf( cursor, keys.size() ) );
+    }
+
+    private void insert( PageCursor cursor, List<String> keys ) throws IOException
+    {
+        for ( int pos = 0; pos < keys.size(); pos++ )
+        {
+            insertAt( cursor, keys.get( pos ), pos, pos );
+        }
+    }
+
+    private void insertAt( PageCursor cursor, String key, int pos, int keyCount ) throws IOException
+    {
+        node.insertKeyValueAt( cursor, rawBytes( key ), value( pos ), pos, keyCount, STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+        TreeNode.setKeyCount( cursor, keyCount + 1 );
+    }
+
+    private void assertKeys( PageCursor cursor, List<String> expectedKeys )
+    {
+        assertEquals( expectedKeys.size(), TreeNode.keyCount( cursor ) );
+        RawBytes readKey = layout.newKey();
+        RawBytes readValue = layout.newValue();
+        KeyBuffer keyBuffer = new KeyBuffer();
+        for ( int pos = 0; pos < expectedKeys.size(); pos++ )
+        {
+            node.keyValueAt( cursor, readKey, readValue, pos, NULL );
+            assertEquals( expectedKeys.get( pos ), new String( readKey.bytes, UTF_8 ) );
+            assertEquals( expectedKeys.get( pos ), new String( node.keyAt( cursor, readKey, pos, LEAF, NULL ).bytes, UTF_8 ) );
+            assertEquals( expectedKeys.get( pos ), new String( node.keyAt( cursor, readKey, pos, LEAF, NULL, keyBuffer ).bytes, UTF_8 ) );
+        }
+    }
+
+    private void assertConsistent( PageCursor cursor, int keyCount )
+    {
+        assertEquals( "", node.checkMetaConsistency( cursor, keyCount, LEAF, new ThrowingConsistencyCheckVisitor<>() ) );
+    }
+
+    private static List<String> keys( String prefix, int from, int count )
+    {
+        List<String> keys = new ArrayList<>();
+        for ( int i = from; i < from + count; i++ )
+        {
+            keys.add( key( prefix, i ) );
+        }
+        return keys;
+    }
+
+    private static String key( String prefix, int number )
+    {
+        return prefix + String.format( "%05d", number );
+    }
+
+    private RawBytes rawBytes( String string )
+    {
+        RawBytes key = layout.newKey();
+        key.bytes = string.getBytes( UTF_8 );
+        return key;
+    }
+
+    private RawBytes value( long seed )
+    {
+        return layout.value( seed );
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmarks;
+
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.eclipse.collections.api.factory.Sets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.configuration.helpers.DatabaseReadOnlyChecker;
+import org.neo4j.index.internal.gbptree.BulkLoader;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_READER;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_WRITER;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_MONITOR;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+/**
+ * Builds a {@link GBPTree} from entries in ascending key order, the way an index population writes its sorted scan updates, with the single
+ * {@link Writer} that keeps everything in the left node on splits, and with the {@link BulkLoader}.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+// the page cache needs access to the buffer internals on newer JDKs
+@Fork( value = 1, jvmArgsAppend = {"--add-opens=java.base/java.nio=ALL-UNNAMED", "--add-opens=java.base/sun.nio.ch=ALL-UNNAMED"} )
+public class GBPTreeBulkLoadBenchmark
+{
+    @Param( "1000000" )
+    public int entries;
+
+    @Param( "50000" )
+    public int cachePages;
+
+    private Path directory;
+    private DefaultFileSystemAbstraction fs;
+    private JobScheduler scheduler;
+    private MuninnPageCache pageCache;
+    private GBPTree<MutableLong,MutableLong> tree;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        directory = Files.createTempDirectory( "gbptree-bulk-load" );
+        fs = new DefaultFileSystemAbstraction();
+        scheduler = JobSchedulerFactory.createInitialisedScheduler();
+        pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs ), scheduler, MuninnPageCache.config( cachePages ) );
+    }
+
+    @TearDown
+    public void tearDown() throws Exception
+    {
+        pageCache.close();
+        scheduler.close();
+        fs.close();
+        FileUtils.deleteDirectory( directory );
+    }
+
+    @Setup( Level.Invocation )
+    public void createTree() throws IOException
+    {
+        tree = new GBPTree<>( pageCache, directory.resolve( "index" ), new LongLayout(), NO_MONITOR, NO_HEADER_READER, NO_HEADER_WRITER, immediate(),
+                DatabaseReadOnlyChecker.writable(), PageCacheTracer.NULL, Sets.immutable.empty(), "benchmark", "benchmark tree" );
+    }
+
+    @TearDown( Level.Invocation )
+    public void deleteTree() throws IOException
+    {
+        tree.setDeleteOnClose( true );
+        tree.close();
+    }
+
+    @Benchmark
+    public void writer() throws IOException
+    {
+        MutableLong key = new MutableLong();
+        MutableLong value = new MutableLong();
+        try ( Writer<MutableLong,MutableLong> writer = tree.writer( 1, NULL ) )
+        {
+            for ( int i = 0; i < entries; i++ )
+            {
+                key.setValue( i );
+                value.setValue( i );
+                writer.put( key, value );
+            }
+        }
+    }
+
+    @Benchmark
+    public void bulkLoader() throws IOException
+    {
+        MutableLong key = new MutableLong();
+        MutableLong value = new MutableLong();
+        try ( BulkLoader<MutableLong,MutableLong> bulkLoader = tree.bulkLoader( 1, NULL ) )
+        {
+            for ( int i = 0; i < entries; i++ )
+            {
+                key.setValue( i );
+                value.setValue( i );
+                bulkLoader.add( key, value );
+            }
+        }
+    }
+}
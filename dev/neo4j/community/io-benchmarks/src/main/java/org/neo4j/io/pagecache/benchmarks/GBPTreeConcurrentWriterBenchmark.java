@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmarks;
+
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.eclipse.collections.api.factory.Sets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.configuration.helpers.DatabaseReadOnlyChecker;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_READER;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_WRITER;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_MONITOR;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+/**
+ * Inserts of random keys into a {@link GBPTree}, by a varying number of {@link GBPTree#concurrentWriter(org.neo4j.io.pagecache.context.CursorContext)
+ * concurrent writers}, and by the single {@link GBPTree#writer(org.neo4j.io.pagecache.context.CursorContext) writer} as a baseline. The tree starts out
+ * empty in every iteration and fits in the page cache, so that the results are about the locking in the tree rather than about page faults.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 5 )
+@Measurement( iterations = 5, time = 5 )
+// the page cache needs access to the buffer internals on newer JDKs
+@Fork( value = 1, jvmArgsAppend = {"--add-opens=java.base/java.nio=ALL-UNNAMED", "--add-opens=java.base/sun.nio.ch=ALL-UNNAMED"} )
+public class GBPTreeConcurrentWriterBenchmark
+{
+    private static final int BATCH = 100_000;
+
+    @Param( "50000" )
+    public int cachePages;
+
+    private Path directory;
+    private DefaultFileSystemAbstraction fs;
+    private JobScheduler scheduler;
+    private MuninnPageCache pageCache;
+    private GBPTree<MutableLong,MutableLong> tree;
+
+    @Setup( Level.Iteration )
+    public void setUp() throws IOException
+    {
+        directory = Files.createTempDirectory( "gbptree-writers" );
+        fs = new DefaultFileSystemAbstraction();
+        scheduler = JobSchedulerFactory.createInitialisedScheduler();
+        pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs ), scheduler, MuninnPageCache.config( cachePages ) );
+        tree = new GBPTree<>( pageCache, directory.resolve( "index" ), new LongLayout(), NO_MONITOR, NO_HEADER_READER, NO_HEADER_WRITER, immediate(),
+                DatabaseReadOnlyChecker.writable(), PageCacheTracer.NULL, Sets.immutable.empty(), "benchmark", "benchmark tree" );
+    }
+
+    @TearDown( Level.Iteration )
+    public void tearDown() throws Exception
+    {
+        tree.close();
+        pageCache.close();
+        scheduler.close();
+        fs.close();
+        FileUtils.deleteDirectory( directory );
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( BATCH )
+    public void singleWriter() throws IOException
+    {
+        insert( tree.writer( NULL ), BATCH );
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( BATCH )
+    public void concurrentWriters( Writers writers ) throws Exception
+    {
+        List<Future<?>> futures = new ArrayList<>( writers.writers );
+        for ( int i = 0; i < writers.writers; i++ )
+        {
+            futures.add( writers.executor.submit( () ->
+            {
+                insert( tree.concurrentWriter( NULL ), BATCH / writers.writers );
+                return null;
+            } ) );
+        }
+        for ( Future<?> future : futures )
+        {
+            future.get();
+        }
+    }
+
+    private static void insert( Writer<MutableLong,MutableLong> writer, int count ) throws IOException
+    {
+        MutableLong key = new MutableLong();
+        MutableLong value = new MutableLong();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try ( writer )
+        {
+            for ( int i = 0; i < count; i++ )
+            {
+                key.setValue( random.nextLong() );
+                value.setValue( i );
+                writer.put( key, value );
+            }
+        }
+    }
+
+    /**
+     * The threads of the concurrent writers, which share the inserts of every invocation between them.
+     */
+    @State( Scope.Benchmark )
+    public static class Writers
+    {
+        @Param( {"1", "2", "4", "8"} )
+        public int writers;
+
+        private ExecutorService executor;
+
+        @Setup
+        public void setUp()
+        {
+            executor = Executors.newFixedThreadPool( writers );
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            executor.shutdown();
+        }
+    }
+}
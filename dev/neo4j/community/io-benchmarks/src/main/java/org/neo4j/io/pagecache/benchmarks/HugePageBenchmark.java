@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmarks;
+
+import org.eclipse.collections.api.factory.Sets;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.mem.HugePageCoverage;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.neo4j.io.pagecache.PageCache.PAGE_SIZE;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+
+/**
+ * Random pins and unpins of pages of a file that fits in the page cache, so that every pin is a hit and the throughput is bound by the address
+ * translation of the page memory. The page cache memory is allocated with, and without, the huge page mode of the memory allocator. The huge page
+ * coverage of the page cache memory is reported with the results of every iteration, since the kernel may back none, some or all of the advised
+ * memory.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 5 )
+@Measurement( iterations = 5, time = 5 )
+@Threads( 4 )
+// the page cache needs access to the buffer internals on newer JDKs
+@Fork( value = 1, jvmArgsAppend = {"--add-opens=java.base/java.nio=ALL-UNNAMED", "--add-opens=java.base/sun.nio.ch=ALL-UNNAMED"} )
+public class HugePageBenchmark
+{
+    @Param( {"false", "true"} )
+    public boolean hugePages;
+
+    @Param( "262144" )
+    public int filePages;
+
+    private Path directory;
+    private DefaultFileSystemAbstraction fs;
+    private JobScheduler scheduler;
+    private MuninnPageCache pageCache;
+    private PagedFile pagedFile;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        directory = Files.createTempDirectory( "huge-pages" );
+        Path file = directory.resolve( "store" );
+        try ( RandomAccessFile raf = new RandomAccessFile( file.toFile(), "rw" ) )
+        {
+            raf.setLength( (long) filePages * PAGE_SIZE );
+        }
+        fs = new DefaultFileSystemAbstraction();
+        scheduler = JobSchedulerFactory.createInitialisedScheduler();
+        // room for every page of the file, and for the pages the page cache keeps free
+        long memory = MuninnPageCache.memoryRequiredForPages( filePages + filePages / 8 );
+        MemoryAllocator memoryAllocator = MemoryAllocator.createAllocator( memory, EmptyMemoryTracker.INSTANCE, hugePages );
+        pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs ), scheduler, MuninnPageCache.config( memoryAllocator ) );
+        pagedFile = pageCache.map( file, PAGE_SIZE, "benchmark", Sets.immutable.empty(), IOController.DISABLED );
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK, CursorContext.NULL ) )
+        {
+            while ( cursor.next() )
+            {
+                cursor.getLong( 0 );
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception
+    {
+        pagedFile.close();
+        pageCache.close();
+        scheduler.close();
+        fs.close();
+        FileUtils.deleteDirectory( directory );
+    }
+
+    @Benchmark
+    public long pinUnpin( HugePages hugePageCounters ) throws IOException
+    {
+        long pageId = ThreadLocalRandom.current().nextInt( filePages );
+        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK, CursorContext.NULL ) )
+        {
+            long value = 0;
+            if ( cursor.next() )
+            {
+                do
+                {
+                    value = cursor.getLong( (int) (pageId & 0x3FF) << 3 );
+                }
+                while ( cursor.shouldRetry() );
+            }
+            return value;
+        }
+    }
+
+    /**
+     * The huge page coverage of the page cache memory at the start of every iteration. Only the first thread reports it, since the counters of all
+     * threads are summed up.
+     */
+    @State( Scope.Thread )
+    @AuxCounters( AuxCounters.Type.EVENTS )
+    public static class HugePages
+    {
+        public long hugePageMegabytes;
+        public double hugePageCoveragePercent;
+
+        @Setup( Level.Iteration )
+        public void measure( HugePageBenchmark benchmark, ThreadParams threadParams )
+        {
+            hugePageMegabytes = 0;
+            hugePageCoveragePercent = 0;
+            if ( threadParams.getThreadIndex() == 0 )
+            {
+                HugePageCoverage coverage = benchmark.pageCache.hugePageCoverage();
+                hugePageMegabytes = coverage.hugePageMemory() >>> 20;
+                hugePageCoveragePercent = coverage.coverage() * 100.0;
+            }
+        }
+    }
+}
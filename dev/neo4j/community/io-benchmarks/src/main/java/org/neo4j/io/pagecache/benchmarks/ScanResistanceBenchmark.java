@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.EvictionPolicy;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.neo4j.io.pagecache.PageCache.PAGE_SIZE;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+
+/**
+ * A hot working set that is read at random, next to full scans of a store that is much larger than the page cache. The hot set fits in the
+ * cache, and is read at a steady pace, slower than the scan faults pages in. The hit ratio of the hot reads, a secondary result, shows how much
+ * of the working set survives the scans with each {@link EvictionPolicy}.
+ */
+@State( Scope.Group )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 5 )
+@Measurement( iterations = 5, time = 5 )
+// the page cache needs access to the buffer internals on newer JDKs
+@Fork( value = 1, jvmArgsAppend = {"--add-opens=java.base/java.nio=ALL-UNNAMED", "--add-opens=java.base/sun.nio.ch=ALL-UNNAMED"} )
+public class ScanResistanceBenchmark
+{
+    @Param( {"CLOCK", "TINY_LFU"} )
+    public EvictionPolicy policy;
+
+    @Param( "1000" )
+    public int cachePages;
+
+    @Param( "500" )
+    public int hotPages;
+
+    @Param( "20000" )
+    public int storePages;
+
+    // work done between two hot reads, which sets how often every hot page is used
+    @Param( "5000" )
+    public int hotReadTokens;
+
+    private Path directory;
+    private DefaultFileSystemAbstraction fs;
+    private JobScheduler scheduler;
+    private DefaultPageCacheTracer tracer;
+    private MuninnPageCache pageCache;
+    private PagedFile hotFile;
+    private PagedFile storeFile;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        directory = Files.createTempDirectory( "scan-resistance" );
+        fs = new DefaultFileSystemAbstraction();
+        scheduler = JobSchedulerFactory.createInitialisedScheduler();
+        tracer = new DefaultPageCacheTracer();
+        pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs ), scheduler,
+                MuninnPageCache.config( cachePages ).pageCacheTracer( tracer ).evictionPolicy( policy ) );
+        hotFile = pageCache.map( createFile( "hot", hotPages ), PAGE_SIZE, "benchmark" );
+        storeFile = pageCache.map( createFile( "store", storePages ), PAGE_SIZE, "benchmark" );
+
+        // the working set is used a few times before the scans start
+        try ( PageCursorTracer cursorTracer = tracer.createPageCursorTracer( "warmup" );
+              PageCursor cursor = hotFile.io( 0, PF_SHARED_READ_LOCK, new CursorContext( cursorTracer ) ) )
+        {
+            for ( int round = 0; round < 4; round++ )
+            {
+                for ( int pageId = 0; pageId < hotPages; pageId++ )
+                {
+                    read( cursor, pageId );
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception
+    {
+        hotFile.close();
+        storeFile.close();
+        pageCache.close();
+        scheduler.close();
+        fs.close();
+        FileUtils.deleteDirectory( directory );
+    }
+
+    @Benchmark
+    @Group( "scan" )
+    @GroupThreads( 1 )
+    public long hotRead( HotReader reader, HotReads reads ) throws IOException
+    {
+        Blackhole.consumeCPU( hotReadTokens );
+        long value = read( reader.cursor, reader.random.nextInt( hotPages ) );
+        reads.read( reader.cursorTracer );
+        return value;
+    }
+
+    @Benchmark
+    @Group( "scan" )
+    @GroupThreads( 1 )
+    public long storeScan( Scanner scanner ) throws IOException
+    {
+        // one page per operation, starting over at the end of the store
+        long value = read( scanner.cursor, scanner.nextPageId );
+        scanner.nextPageId = scanner.nextPageId + 1 == storePages ? 0 : scanner.nextPageId + 1;
+        return value;
+    }
+
+    private static long read( PageCursor cursor, long pageId ) throws IOException
+    {
+        cursor.next( pageId );
+        long value;
+        do
+        {
+            value = cursor.getLong( 0 );
+        }
+        while ( cursor.shouldRetry() );
+        return value;
+    }
+
+    private Path createFile( String name, int pages ) throws IOException
+    {
+        Path file = directory.resolve( name );
+        try ( RandomAccessFile raf = new RandomAccessFile( file.toFile(), "rw" ) )
+        {
+            raf.setLength( (long) pages * PAGE_SIZE );
+        }
+        return file;
+    }
+
+    @State( Scope.Thread )
+    public static class HotReader
+    {
+        private final SplittableRandom random = new SplittableRandom( 42 );
+        private PageCursorTracer cursorTracer;
+        private PageCursor cursor;
+
+        @Setup
+        public void setUp( ScanResistanceBenchmark benchmark ) throws IOException
+        {
+            cursorTracer = benchmark.tracer.createPageCursorTracer( "hot" );
+            cursor = benchmark.hotFile.io( 0, PF_SHARED_READ_LOCK, new CursorContext( cursorTracer ) );
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            cursor.close();
+            cursorTracer.close();
+        }
+    }
+
+    @State( Scope.Thread )
+    public static class Scanner
+    {
+        private long nextPageId;
+        private PageCursor cursor;
+
+        @Setup
+        public void setUp( ScanResistanceBenchmark benchmark ) throws IOException
+        {
+            cursor = benchmark.storeFile.io( 0, PF_SHARED_READ_LOCK, CursorContext.NULL );
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            cursor.close();
+        }
+    }
+
+    /**
+     * The hot reads and how many of them had to fault the page in, reset for every iteration.
+     */
+    @State( Scope.Thread )
+    @AuxCounters( AuxCounters.Type.EVENTS )
+    public static class HotReads
+    {
+        public long hotReads;
+        public long hotFaults;
+        private long faultsAtStart;
+
+        @Setup( Level.Iteration )
+        public void reset( HotReader reader )
+        {
+            hotReads = 0;
+            hotFaults = 0;
+            faultsAtStart = reader.cursorTracer.faults();
+        }
+
+        void read( PageCursorTracer cursorTracer )
+        {
+            hotReads++;
+            hotFaults = cursorTracer.faults() - faultsAtStart;
+        }
+
+        public double hotHitRatio()
+        {
+            return hotReads == 0 ? 0 : 1.0 - (double) hotFaults / hotReads;
+        }
+    }
+}
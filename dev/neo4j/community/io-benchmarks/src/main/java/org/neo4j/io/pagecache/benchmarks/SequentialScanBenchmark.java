@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmarks;
+
+import org.eclipse.collections.api.factory.Sets;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.neo4j.io.pagecache.PageCache.PAGE_SIZE;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+
+/**
+ * A full scan, with {@link PagedFile#PF_READ_AHEAD}, of a file that is much larger than the page cache, so that every page of the scan is faulted in.
+ * The scan is measured with the vectored read-ahead of the page cache, and without it, where the pages are faulted in one at a time. The number of
+ * read operations on the file per scan is a secondary result.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 5 )
+@Measurement( iterations = 5, time = 5 )
+// the page cache needs access to the buffer internals on newer JDKs
+@Fork( value = 1, jvmArgsAppend = {"--add-opens=java.base/java.nio=ALL-UNNAMED", "--add-opens=java.base/sun.nio.ch=ALL-UNNAMED"} )
+public class SequentialScanBenchmark
+{
+    // the feature toggle is read when the page cache first uses the read-ahead, so it can be set before the page cache is created
+    private static final String READ_AHEAD_TOGGLE = "org.neo4j.io.pagecache.impl.muninn.VectoredReadAhead.enabled";
+
+    @Param( {"true", "false"} )
+    public boolean vectoredReadAhead;
+
+    @Param( "1000" )
+    public int cachePages;
+
+    @Param( "20000" )
+    public int filePages;
+
+    private Path directory;
+    private DefaultFileSystemAbstraction fs;
+    private JobScheduler scheduler;
+    private MuninnPageCache pageCache;
+    private PagedFile pagedFile;
+    private final CountingIOController ioController = new CountingIOController();
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        System.setProperty( READ_AHEAD_TOGGLE, String.valueOf( vectoredReadAhead ) );
+        directory = Files.createTempDirectory( "sequential-scan" );
+        Path file = directory.resolve( "store" );
+        try ( RandomAccessFile raf = new RandomAccessFile( file.toFile(), "rw" ) )
+        {
+            raf.setLength( (long) filePages * PAGE_SIZE );
+        }
+        fs = new DefaultFileSystemAbstraction();
+        scheduler = JobSchedulerFactory.createInitialisedScheduler();
+        pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs ), scheduler, MuninnPageCache.config( cachePages ) );
+        pagedFile = pageCache.map( file, PAGE_SIZE, "benchmark", Sets.immutable.empty(), ioController );
+    }
+
+    @TearDown
+    public void tearDown() throws Exception
+    {
+        pagedFile.close();
+        pageCache.close();
+        scheduler.close();
+        fs.close();
+        FileUtils.deleteDirectory( directory );
+    }
+
+    @Benchmark
+    public long scan( ScanCounters counters ) throws IOException
+    {
+        long sum = 0;
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD, CursorContext.NULL ) )
+        {
+            while ( cursor.next() )
+            {
+                long value;
+                do
+                {
+                    value = cursor.getLong( 0 );
+                }
+                while ( cursor.shouldRetry() );
+                sum += value;
+            }
+        }
+        counters.scanned( ioController );
+        return sum;
+    }
+
+    /**
+     * The scans and the read operations they took, including those of the pre-fetcher. Like all event counters, they are summed over the iterations.
+     */
+    @State( Scope.Thread )
+    @AuxCounters( AuxCounters.Type.EVENTS )
+    public static class ScanCounters
+    {
+        public long scans;
+        public long fileReads;
+
+        @Setup( Level.Iteration )
+        public void reset()
+        {
+            scans = 0;
+            fileReads = 0;
+        }
+
+        void scanned( CountingIOController ioController )
+        {
+            scans++;
+            fileReads += ioController.reads.getAndSet( 0 );
+        }
+    }
+
+    /**
+     * Counts the read operations of the page swapper, which reports every read, vectored or not, as one IO.
+     */
+    private static class CountingIOController implements IOController
+    {
+        private final AtomicLong reads = new AtomicLong();
+
+        @Override
+        public void maybeLimitIO( int recentlyCompletedIOs, Flushable flushable, MajorFlushEvent flushEvent )
+        {
+        }
+
+        @Override
+        public void reportIO( int completedIOs )
+        {
+            reads.addAndGet( completedIOs );
+        }
+    }
+}
@@ -19,20 +19,30 @@
  */
 package org.neo4j.io.mem;
 
+import org.neo4j.internal.nativeimpl.NativeAccess;
+import org.neo4j.internal.nativeimpl.NativeAccessProvider;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.memory.MemoryTracker;
 
 import java.lang.ref.Cleaner;
 
 import static org.neo4j.io.ByteUnit.kibiBytes;
+import static org.neo4j.io.ByteUnit.mebiBytes;
 import static org.neo4j.util.FeatureToggles.getInteger;
 
 /**
  * This memory allocator is allocating memory in large segments, called "grabs", and the memory returned by the memory
  * manager is page aligned, and plays well with transparent huge pages and other operating system optimisations.
+ * <p>
+ * In huge page mode, the grabs are much larger, start at a huge page boundary, span a whole number of huge pages, and are advised to the operating
+ * system as candidates for transparent huge pages, so that the page cache memory is mapped with fewer TLB entries.
  */
 public final class GrabAllocator implements MemoryAllocator
 {
+    /**
+     * The size of a transparent huge page on x86-64 and most aarch64 kernels.
+     */
+    static final long HUGE_PAGE_SIZE = mebiBytes( 2 );
     private static final Cleaner globalCleaner = globalCleaner();
 
     private final Grabs grabs;
@@ -48,7 +58,19 @@ public final class GrabAllocator implements MemoryAllocator
      */
     GrabAllocator( long expectedMaxMemory, MemoryTracker memoryTracker )
     {
-        this.grabs = new Grabs( expectedMaxMemory, memoryTracker );
+        this( expectedMaxMemory, memoryTracker, false );
+    }
+
+    /**
+     * Create a new GrabAllocator, that optionally allocates its grabs in huge page mode.
+     *
+     * @param expectedMaxMemory The maximum amount of memory that this memory manager is expected to allocate.
+     * @param memoryTracker memory usage tracker
+     * @param hugePages {@code true} if the grabs should be aligned to, and advised as, transparent huge pages.
+     */
+    GrabAllocator( long expectedMaxMemory, MemoryTracker memoryTracker, boolean hugePages )
+    {
+        this.grabs = new Grabs( expectedMaxMemory, memoryTracker, hugePages );
         this.cleanable = globalCleaner.register( this, new GrabsDeallocator( grabs ) );
     }
 
@@ -70,6 +92,12 @@ public final class GrabAllocator implements MemoryAllocator
         return grabs.allocateAligned( bytes, alignment );
     }
 
+    @Override
+    public synchronized HugePageCoverage hugePageCoverage()
+    {
+        return grabs.hugePageCoverage();
+    }
+
     @Override
     public void close()
     {
@@ -79,27 +107,47 @@ public final class GrabAllocator implements MemoryAllocator
     private static class Grab
     {
         public final Grab next;
+        private final long allocatedAddress;
+        private final long allocatedSize;
         private final long address;
         private final long limit;
+        private final boolean advised;
         private final MemoryTracker memoryTracker;
         private long nextPointer;
 
-        Grab( Grab next, long size, MemoryTracker memoryTracker )
+        /**
+         * In huge page mode, the usable memory is the given size rounded up to whole huge pages, starting at a huge page boundary.
+         * One extra huge page is allocated to make room for the alignment.
+         */
+        Grab( Grab next, long size, MemoryTracker memoryTracker, boolean hugePages )
         {
+            long usableSize = hugePages ? nextAligned( size, HUGE_PAGE_SIZE ) : size;
             this.next = next;
-            this.address = UnsafeUtil.allocateMemory( size, memoryTracker );
-            this.limit = address + size;
+            this.allocatedSize = hugePages ? usableSize + HUGE_PAGE_SIZE : usableSize;
+            this.allocatedAddress = UnsafeUtil.allocateMemory( allocatedSize, memoryTracker );
+            this.address = hugePages ? nextAligned( allocatedAddress, HUGE_PAGE_SIZE ) : allocatedAddress;
+            this.limit = address + usableSize;
+            this.advised = hugePages && adviseHugePages( address, usableSize );
             this.memoryTracker = memoryTracker;
             nextPointer = address;
         }
 
-        Grab( Grab next, long address, long limit, long nextPointer, MemoryTracker memoryTracker )
+        private Grab( Grab next, Grab grab )
         {
             this.next = next;
-            this.address = address;
-            this.limit = limit;
-            this.nextPointer = nextPointer;
-            this.memoryTracker = memoryTracker;
+            this.allocatedAddress = grab.allocatedAddress;
+            this.allocatedSize = grab.allocatedSize;
+            this.address = grab.address;
+            this.limit = grab.limit;
+            this.advised = grab.advised;
+            this.nextPointer = grab.nextPointer;
+            this.memoryTracker = grab.memoryTracker;
+        }
+
+        private static boolean adviseHugePages( long address, long size )
+        {
+            NativeAccess nativeAccess = NativeAccessProvider.getNativeAccess();
+            return nativeAccess.isAvailable() && !nativeAccess.tryAdviseHugePages( address, size ).isError();
         }
 
         private static long nextAligned( long pointer, long alignment )
@@ -125,7 +173,7 @@ public final class GrabAllocator implements MemoryAllocator
 
         void free()
         {
-            UnsafeUtil.free( address, limit - address, memoryTracker );
+            UnsafeUtil.free( allocatedAddress, allocatedSize, memoryTracker );
         }
 
         boolean canAllocate( long bytes, long alignment )
@@ -135,7 +183,7 @@ public final class GrabAllocator implements MemoryAllocator
 
         Grab setNext( Grab grab )
         {
-            return new Grab( grab, address, limit, nextPointer, memoryTracker );
+            return new Grab( grab, this );
         }
 
         @Override
@@ -155,14 +203,53 @@ public final class GrabAllocator implements MemoryAllocator
          */
         private static final long GRAB_SIZE = getInteger( GrabAllocator.class, "GRAB_SIZE", (int) kibiBytes( 512 ) );
 
+        /**
+         * The amount of memory, in bytes, to grab in each Grab in huge page mode. Every grab wastes up to a huge page on alignment, so they are large.
+         */
+        private static final long HUGE_PAGE_GRAB_SIZE = getInteger( GrabAllocator.class, "HUGE_PAGE_GRAB_SIZE", (int) mebiBytes( 1024 ) );
+
         private final MemoryTracker memoryTracker;
+        private final boolean hugePages;
+        private final long maxGrabSize;
         private long expectedMaxMemory;
         private Grab head;
 
-        Grabs( long expectedMaxMemory, MemoryTracker memoryTracker )
+        Grabs( long expectedMaxMemory, MemoryTracker memoryTracker, boolean hugePages )
         {
             this.expectedMaxMemory = expectedMaxMemory;
             this.memoryTracker = memoryTracker;
+            this.hugePages = hugePages;
+            this.maxGrabSize = hugePages ? HUGE_PAGE_GRAB_SIZE : GRAB_SIZE;
+        }
+
+        private Grab newGrab( Grab next, long size )
+        {
+            return new Grab( next, size, memoryTracker, hugePages );
+        }
+
+        HugePageCoverage hugePageCoverage()
+        {
+            long allocated = 0;
+            int advisedGrabs = 0;
+            for ( Grab grab = head; grab != null; grab = grab.next )
+            {
+                allocated += grab.limit - grab.address;
+                advisedGrabs += grab.advised ? 1 : 0;
+            }
+            long[] advisedRanges = new long[advisedGrabs * 2];
+            long advised = 0;
+            int index = 0;
+            for ( Grab grab = head; grab != null; grab = grab.next )
+            {
+                if ( grab.advised )
+                {
+                    advisedRanges[index++] = grab.address;
+                    advisedRanges[index++] = grab.limit;
+                    advised += grab.limit - grab.address;
+                }
+            }
+            long backed = advisedGrabs == 0 ? 0 : HugePageCoverage.hugePageBackedBytes( advisedRanges );
+            return new HugePageCoverage( allocated, advised, backed );
         }
 
         long usedMemory()
@@ -206,19 +293,19 @@ public final class GrabAllocator implements MemoryAllocator
             {
                 throw new IllegalArgumentException( "Invalid alignment: " + alignment + ". Alignment must be positive." );
             }
-            long grabSize = Math.min( GRAB_SIZE, expectedMaxMemory );
+            long grabSize = Math.min( maxGrabSize, expectedMaxMemory );
             long maxAllocationSize = bytes + alignment - 1;
-            if ( maxAllocationSize > GRAB_SIZE )
+            if ( maxAllocationSize > maxGrabSize )
             {
                 // This is a huge allocation. Put it in its own grab and keep any existing grab at the head.
                 grabSize = bytes;
                 Grab nextGrab = head == null ? null : head.next;
-                Grab allocationGrab = new Grab( nextGrab, grabSize, memoryTracker );
+                Grab allocationGrab = newGrab( nextGrab, grabSize );
                 if ( !allocationGrab.canAllocate( bytes, alignment ) )
                 {
                     allocationGrab.free();
                     grabSize = maxAllocationSize;
-                    allocationGrab = new Grab( nextGrab, grabSize, memoryTracker );
+                    allocationGrab = newGrab( nextGrab, grabSize );
                 }
                 long allocation = allocationGrab.allocate( bytes, alignment );
                 head = head == null ? allocationGrab : head.setNext( allocationGrab );
@@ -231,7 +318,7 @@ public final class GrabAllocator implements MemoryAllocator
                 if ( grabSize < maxAllocationSize )
                 {
                     grabSize = bytes;
-                    Grab grab = new Grab( head, grabSize, memoryTracker );
+                    Grab grab = newGrab( head, grabSize );
                     if ( grab.canAllocate( bytes, alignment ) )
                     {
                         expectedMaxMemory -= grabSize;
@@ -241,7 +328,7 @@ public final class GrabAllocator implements MemoryAllocator
                     grab.free();
                     grabSize = maxAllocationSize;
                 }
-                head = new Grab( head, grabSize, memoryTracker );
+                head = newGrab( head, grabSize );
                 expectedMaxMemory -= grabSize;
             }
             return head.allocate( bytes, alignment );
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.mem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.lang.String.format;
+
+/**
+ * How much of the memory of a {@link MemoryAllocator} has been advised as transparent huge pages, and how much of that the kernel actually
+ * backs with huge pages. The kernel promotes advised memory to huge pages when it is first touched, or later by khugepaged, and only
+ * when it has free huge pages at hand, so the backed memory can be anywhere between none and all of the advised memory.
+ */
+public final class HugePageCoverage
+{
+    private static final Path SMAPS = Path.of( "/proc/self/smaps" );
+    private static final String ANON_HUGE_PAGES = "AnonHugePages:";
+
+    private final long allocatedMemory;
+    private final long advisedMemory;
+    private final long hugePageMemory;
+
+    public HugePageCoverage( long allocatedMemory, long advisedMemory, long hugePageMemory )
+    {
+        this.allocatedMemory = allocatedMemory;
+        this.advisedMemory = advisedMemory;
+        this.hugePageMemory = hugePageMemory;
+    }
+
+    /**
+     * @return the memory, in bytes, that the allocator has allocated from the operating system.
+     */
+    public long allocatedMemory()
+    {
+        return allocatedMemory;
+    }
+
+    /**
+     * @return the memory, in bytes, that has been advised to the operating system as candidate for transparent huge pages.
+     */
+    public long advisedMemory()
+    {
+        return advisedMemory;
+    }
+
+    /**
+     * @return the memory, in bytes, that is currently backed by transparent huge pages.
+     */
+    public long hugePageMemory()
+    {
+        return hugePageMemory;
+    }
+
+    /**
+     * @return the portion, between 0 and 1, of the allocated memory that is backed by transparent huge pages.
+     */
+    public double coverage()
+    {
+        return allocatedMemory == 0 ? 0 : Math.min( 1, hugePageMemory / (double) allocatedMemory );
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "HugePageCoverage[allocated = %d bytes, advised = %d bytes, huge pages = %d bytes, coverage = %5.2f %%]",
+                allocatedMemory, advisedMemory, hugePageMemory, coverage() * 100.0 );
+    }
+
+    /**
+     * Sum up the memory backed by transparent huge pages in the given address ranges, from the memory mappings of this process. Advising a range
+     * splits the mapping it is part of, so every advised range is covered by mappings of its own, and their huge pages are all in the range.
+     *
+     * @param ranges pairs of start, inclusive, and end, exclusive, addresses.
+     * @return the memory, in bytes, backed by huge pages in the ranges, or 0 if the memory mappings of this process are not available.
+     */
+    static long hugePageBackedBytes( long[] ranges )
+    {
+        if ( !Files.isReadable( SMAPS ) )
+        {
+            return 0;
+        }
+        long backed = 0;
+        try ( BufferedReader reader = Files.newBufferedReader( SMAPS ) )
+        {
+            long mappingStart = 0;
+            long mappingEnd = 0;
+            String line;
+            while ( (line = reader.readLine()) != null )
+            {
+                int dash = line.indexOf( '-' );
+                int space = line.indexOf( ' ' );
+                if ( dash > 0 && space > dash && isHex( line, 0, dash ) && isHex( line, dash + 1, space ) )
+                {
+                    mappingStart = Long.parseUnsignedLong( line, 0, dash, 16 );
+                    mappingEnd = Long.parseUnsignedLong( line, dash + 1, space, 16 );
+                }
+                else if ( line.startsWith( ANON_HUGE_PAGES ) )
+                {
+                    long overlap = overlap( ranges, mappingStart, mappingEnd );
+                    if ( overlap > 0 )
+                    {
+                        backed += Math.min( overlap, parseKibiBytes( line ) * 1024 );
+                    }
+                }
+            }
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            return 0;
+        }
+        return backed;
+    }
+
+    private static long overlap( long[] ranges, long start, long end )
+    {
+        long overlap = 0;
+        for ( int i = 0; i < ranges.length; i += 2 )
+        {
+            long from = Math.max( ranges[i], start );
+            long to = Math.min( ranges[i + 1], end );
+            overlap += Math.max( 0, to - from );
+        }
+        return overlap;
+    }
+
+    private static long parseKibiBytes( String line )
+    {
+        // "AnonHugePages:      2048 kB"
+        int end = line.lastIndexOf( ' ' );
+        return Long.parseLong( line.substring( ANON_HUGE_PAGES.length(), end ).trim() );
+    }
+
+    private static boolean isHex( String line, int from, int to )
+    {
+        for ( int i = from; i < to; i++ )
+        {
+            if ( Character.digit( line.charAt( i ), 16 ) < 0 )
+            {
+                return false;
+            }
+        }
+        return from < to;
+    }
+}
@@ -31,6 +31,14 @@ public interface MemoryAllocator
         return new GrabAllocator( expectedMemory, memoryTracker );
     }
 
+    /**
+     * @param hugePages {@code true} if the memory should be allocated in huge page aligned regions, that are advised as transparent huge pages.
+     */
+    static MemoryAllocator createAllocator( long expectedMemory, MemoryTracker memoryTracker, boolean hugePages )
+    {
+        return new GrabAllocator( expectedMemory, memoryTracker, hugePages );
+    }
+
     /**
      * @return The sum, in bytes, of all the memory currently allocating through this allocator.
      */
@@ -50,6 +58,14 @@ public interface MemoryAllocator
      */
     long allocateAligned( long bytes, long alignment );
 
+    /**
+     * @return how much of the allocated memory is advised as, and backed by, transparent huge pages.
+     */
+    default HugePageCoverage hugePageCoverage()
+    {
+        return new HugePageCoverage( usedMemory(), 0, 0 );
+    }
+
     /**
      * Close all allocated resources and free all allocated memory.
      * Closing can happen by calling close explicitly or by GC as soon as allocator will become phantom reachable.
@@ -81,6 +81,12 @@ public class ExternallyManagedPageCache implements PageCache
         delegate.flushAndForce();
     }
 
+    @Override
+    public void flushAndForce( List<? extends PagedFile> files ) throws IOException
+    {
+        delegate.flushAndForce( files );
+    }
+
     @Override
     public int pageSize()
     {
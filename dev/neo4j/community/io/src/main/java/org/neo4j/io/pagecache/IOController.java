@@ -59,6 +59,19 @@ public interface IOController
      */
     void maybeLimitIO( int recentlyCompletedIOs, Flushable flushable, MajorFlushEvent flushEvent );
 
+    /**
+     * Like {@link #maybeLimitIO(int, Flushable, MajorFlushEvent)}, for controllers that also limit the number of bytes written.
+     *
+     * @param recentlyCompletedIOs The number of IOs completed by caller since the last call to this method.
+     * @param recentlyWrittenBytes The number of bytes written by those IOs.
+     * @param flushable A {@link Flushable} instance that can flush any relevant dirty system buffers.
+     * @param flushEvent A {@link MajorFlushEvent} event that describes ongoing io represented by flushable instance.
+     */
+    default void maybeLimitIO( int recentlyCompletedIOs, long recentlyWrittenBytes, Flushable flushable, MajorFlushEvent flushEvent )
+    {
+        maybeLimitIO( recentlyCompletedIOs, flushable, flushEvent );
+    }
+
     /**
      * Temporarily disable the IOController, to allow IO to proceed at full speed.
      * This call <strong>MUST</strong> be paired with a subsequent {@link #enable()} call.
@@ -156,6 +156,21 @@ public interface PageCache extends AutoCloseable
      */
     void flushAndForce() throws IOException;
 
+    /**
+     * Flush all dirty pages of the given files, which must be mapped by this page cache, like {@link PagedFile#flushAndForce()} does for each of them.
+     * The files may be flushed concurrently, each with the {@link IOController} it was mapped with.
+     *
+     * @param files the files to flush.
+     * @throws IOException if any of the files could not be flushed.
+     */
+    default void flushAndForce( List<? extends PagedFile> files ) throws IOException
+    {
+        for ( PagedFile file : files )
+        {
+            file.flushAndForce();
+        }
+    }
+
     /**
      * Close the page cache to prevent any future mapping of files.
      *
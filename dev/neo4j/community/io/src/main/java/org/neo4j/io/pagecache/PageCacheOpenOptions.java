@@ -44,5 +44,32 @@ public enum PageCacheOpenOptions implements OpenOption
      * Please check that your platform is supported before providing this option.
      * @see ExtendedOpenOption for details.
      */
-    DIRECT
+    DIRECT,
+
+    /**
+     * Map the file with a high eviction priority. The pages of the file are passed over by eviction, for as long as pages of files without a
+     * high priority can be evicted instead.
+     * This is meant for small files that are accessed often, and where page faults are costly, like the roots and inner nodes of indexes.
+     */
+    HIGH_PRIORITY,
+
+    /**
+     * Map the file with a low eviction priority. The pages of the file are evicted when the eviction comes across them, even if they have been used
+     * recently.
+     * This is meant for files that are read or written once, like the files of a backup or an import.
+     */
+    LOW_PRIORITY;
+
+    /**
+     * Map the file with a reservation of the given number of pages. Eviction passes over the pages of the file, for as long as the file has no more
+     * than that many pages in the page cache, and pages of other files can be evicted instead.
+     * Reservations are not set aside up front, and pages of the file that have not been faulted in are free for use by other files.
+     *
+     * @param pages the number of pages to reserve for the file.
+     * @return an {@link OpenOption} that reserves the given number of pages.
+     */
+    public static OpenOption reservePages( int pages )
+    {
+        return new PageReservation( pages );
+    }
 }
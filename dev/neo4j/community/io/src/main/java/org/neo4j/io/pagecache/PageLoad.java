@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * File pages that have been requested with {@link PagedFile#requestPages(long[], org.neo4j.io.pagecache.context.CursorContext)}, and are loaded into
+ * the page cache in the background.
+ */
+public interface PageLoad
+{
+    /**
+     * A page load that is already done, for when the pages were loaded by the caller.
+     */
+    PageLoad DONE = new PageLoad()
+    {
+        @Override
+        public boolean isDone()
+        {
+            return true;
+        }
+
+        @Override
+        public void await()
+        {
+        }
+    };
+
+    /**
+     * @return {@code true} if all the requested pages have been loaded, or the load has failed.
+     */
+    boolean isDone();
+
+    /**
+     * Wait for all the requested pages to be loaded. The pages are not pinned, so they can be evicted again before a cursor gets to them, if the
+     * page cache is under pressure.
+     *
+     * @throws IOException if the pages could not be read from the file, e.g. because the file was unmapped.
+     * @throws InterruptedIOException if the thread was interrupted while waiting.
+     */
+    void await() throws IOException;
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+import java.nio.file.OpenOption;
+
+import static org.neo4j.util.Preconditions.requirePositive;
+
+/**
+ * An {@link OpenOption} that reserves a number of pages in the page cache for a mapped file.
+ *
+ * @see PageCacheOpenOptions#reservePages(int)
+ */
+public final class PageReservation implements OpenOption
+{
+    private final int pages;
+
+    PageReservation( int pages )
+    {
+        this.pages = requirePositive( pages );
+    }
+
+    /**
+     * @return the number of pages that are reserved.
+     */
+    public int pages()
+    {
+        return pages;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        return pages == ((PageReservation) o).pages;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return pages;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PageReservation[pages=" + pages + "]";
+    }
+}
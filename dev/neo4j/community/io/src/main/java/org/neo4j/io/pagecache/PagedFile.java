@@ -168,6 +168,65 @@ public interface PagedFile extends AutoCloseable
      */
     long getLastPageId() throws IOException;
 
+    /**
+     * Get the number of pages of this file that are currently in the page cache.
+     * <p>
+     * The number is only updated when pages are faulted in and evicted, and may be slightly behind when there are concurrent page faults.
+     */
+    int residentPages();
+
+    /**
+     * Load the given range of file pages into the page cache, if they are not in memory already, without pinning them. This is useful for warming up
+     * the page cache.
+     * <p>
+     * The default implementation pins the pages that are not in memory one by one with a read cursor.
+     *
+     * @param pageId the file-page-id of the first page to load.
+     * @param count the number of consecutive pages to load.
+     * @param context underlying page cursor context
+     * @return the number of pages that this call loaded. Pages that were in memory already, or that were loaded by another thread at the same time,
+     * and pages past the end of the file, are not counted.
+     * @throws IOException if there was an error accessing the underlying file.
+     */
+    default int touch( long pageId, int count, CursorContext context ) throws IOException
+    {
+        int loaded = 0;
+        try ( PageCursor probe = io( pageId, PF_SHARED_READ_LOCK | PF_NO_FAULT, context );
+              PageCursor cursor = io( pageId, PF_SHARED_READ_LOCK, context ) )
+        {
+            for ( long filePageId = pageId; filePageId < pageId + count && probe.next( filePageId ); filePageId++ )
+            {
+                // a cursor that must not fault is not bound to a page that is not in memory
+                if ( probe.getCurrentPageId() == PageCursor.UNBOUND_PAGE_ID && cursor.next( filePageId ) )
+                {
+                    loaded++;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Request the given file pages to be loaded into the page cache, if they are not in memory already, without pinning them, and return without
+     * waiting for them. This lets the caller ask for all the pages that it is going to visit, e.g. the pages of a chain of records, so that they are
+     * read together, and then {@link PageLoad#await() wait} for all of them at once.
+     * <p>
+     * Pages that are past the end of the file are ignored. The default implementation loads the pages one by one, before it returns.
+     *
+     * @param filePageIds the file-page-ids of the pages to load, in any order.
+     * @param context underlying page cursor context
+     * @return the pages that are being loaded.
+     * @throws IOException if there was an error accessing the underlying file.
+     */
+    default PageLoad requestPages( long[] filePageIds, CursorContext context ) throws IOException
+    {
+        for ( long filePageId : filePageIds )
+        {
+            touch( filePageId, 1, context );
+        }
+        return PageLoad.DONE;
+    }
+
     /**
      * Release a handle to a paged file.
      * <p>
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import com.github.luben.zstd.Zstd;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongLongHashMap;
+
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.memory.MemoryTracker;
+
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+/**
+ * A second tier of the {@link MuninnPageCache}, that keeps clean pages that have been evicted, compressed with zstd, in off-heap memory. A page fault
+ * looks for the page in this tier before it reads the page from the file.
+ * <p>
+ * The memory is split into stripes, so evictions and page faults of different pages do not contend for the same lock. Every stripe is a log of
+ * segments that are allocated when they are first needed, and the compressed pages are appended to the log one after the other. When the log wraps
+ * around, the pages in the segment that is about to be overwritten are dropped, so the pages that were evicted the longest time ago go first.
+ * <p>
+ * The tier only ever has copies of clean pages, which are the same as what is in the file. A page is removed from the tier when it is faulted back
+ * in, and it is replaced or removed every time it is evicted, so the tier never has an outdated copy of a page.
+ */
+final class CompressedPageTier
+{
+    // zstd level 1 compresses store pages at several hundred megabytes per second, higher levels are too slow to keep up with eviction.
+    private static final int compressionLevel = getInteger( CompressedPageTier.class, "compressionLevel", 1 );
+    private static final int SEGMENT_SIZE = 1 << 20;
+    private static final int MAX_STRIPES = 16;
+    // Each compressed page is preceded by its compressed size, and entries are 8-byte aligned.
+    private static final int HEADER_SIZE = Long.BYTES;
+
+    private final MemoryAllocator allocator;
+    private final Stripe[] stripes;
+    private final int maxCompressedSize;
+
+    CompressedPageTier( long size, int cachePageSize, MemoryTracker memoryTracker )
+    {
+        this.maxCompressedSize = Math.toIntExact( Zstd.compressBound( cachePageSize ) );
+        long minStripeSize = 4L * SEGMENT_SIZE;
+        int stripeCount = Integer.highestOneBit( (int) Math.max( 1, Math.min( MAX_STRIPES, size / minStripeSize ) ) );
+        long stripeSize = size / stripeCount;
+        int segmentSize = (int) Math.min( SEGMENT_SIZE, stripeSize );
+        if ( segmentSize < HEADER_SIZE + maxCompressedSize )
+        {
+            throw new IllegalArgumentException( "The compressed tier of the page cache must have room for at least one page of " + cachePageSize +
+                    " bytes, but was only " + size + " bytes." );
+        }
+        this.allocator = MemoryAllocator.createAllocator( size, memoryTracker );
+        this.stripes = new Stripe[stripeCount];
+        for ( int i = 0; i < stripeCount; i++ )
+        {
+            stripes[i] = new Stripe( (int) (stripeSize / segmentSize), segmentSize );
+        }
+    }
+
+    /**
+     * Keep a compressed copy of the given clean page, that is being evicted, or make sure that there is no copy of it if it does not compress well.
+     */
+    void store( int swapperId, long filePageId, long address, int size )
+    {
+        stripe( swapperId, filePageId ).store( swapperId, filePageId, address, size );
+    }
+
+    /**
+     * Decompress the given page into the given memory, if there is a copy of it, and remove the copy.
+     * @return {@code true} if the page was loaded, otherwise it has to be read from the file.
+     */
+    boolean load( int swapperId, long filePageId, long address, int size )
+    {
+        return stripe( swapperId, filePageId ).load( swapperId, filePageId, address, size );
+    }
+
+    /**
+     * Remove the copy of the given page, if there is one.
+     */
+    void discard( int swapperId, long filePageId )
+    {
+        stripe( swapperId, filePageId ).discard( swapperId, filePageId );
+    }
+
+    /**
+     * Remove all pages of the given file, when it has been unmapped.
+     */
+    void invalidate( int swapperId )
+    {
+        for ( Stripe stripe : stripes )
+        {
+            stripe.invalidate( swapperId );
+        }
+    }
+
+    /**
+     * @return the number of pages in the tier.
+     */
+    long pageCount()
+    {
+        long count = 0;
+        for ( Stripe stripe : stripes )
+        {
+            count += stripe.pageCount();
+        }
+        return count;
+    }
+
+    void close()
+    {
+        allocator.close();
+    }
+
+    private Stripe stripe( int swapperId, long filePageId )
+    {
+        long hash = (filePageId * 0x9E3779B97F4A7C15L) ^ swapperId;
+        return stripes[(int) (hash >>> 32) & (stripes.length - 1)];
+    }
+
+    private final class Stripe
+    {
+        private final int segmentSize;
+        // The addresses of the segments, 0 until the log first gets to them.
+        private final long[] segments;
+        // The swapper id, file page id and position of every page that has been written to each segment.
+        private final LongArrayList[] segmentPages;
+        // The position in the log of every page in the tier, by swapper id and file page id.
+        private final IntObjectHashMap<LongLongHashMap> positions = new IntObjectHashMap<>();
+        // The position that the next page is written to. It only ever grows, the segment is the position divided by the segment size, modulo the
+        // number of segments.
+        private long writePosition;
+
+        Stripe( int segmentCount, int segmentSize )
+        {
+            this.segmentSize = segmentSize;
+            this.segments = new long[segmentCount];
+            this.segmentPages = new LongArrayList[segmentCount];
+        }
+
+        synchronized void store( int swapperId, long filePageId, long address, int size )
+        {
+            removePosition( swapperId, filePageId );
+            if ( segmentSize - offset( writePosition ) < HEADER_SIZE + maxCompressedSize )
+            {
+                writePosition += segmentSize - offset( writePosition );
+            }
+            int segment = segment( writePosition );
+            if ( offset( writePosition ) == 0 )
+            {
+                startSegment( segment );
+            }
+
+            long entry = segments[segment] + offset( writePosition );
+            long compressedSize = Zstd.compressUnsafe( entry + HEADER_SIZE, maxCompressedSize, address, size, compressionLevel );
+            if ( Zstd.isError( compressedSize ) || compressedSize > size - size / 8 )
+            {
+                // not worth the memory, and the page is no slower to read from the file than it would have been without this tier
+                return;
+            }
+            UnsafeUtil.putInt( entry, (int) compressedSize );
+            pagesOf( swapperId ).put( filePageId, writePosition );
+            segmentPages[segment].addAll( swapperId, filePageId, writePosition );
+            writePosition += align( HEADER_SIZE + compressedSize );
+        }
+
+        synchronized boolean load( int swapperId, long filePageId, long address, int size )
+        {
+            long position = removePosition( swapperId, filePageId );
+            if ( position == -1 )
+            {
+                return false;
+            }
+            long entry = segments[segment( position )] + offset( position );
+            int compressedSize = UnsafeUtil.getInt( entry );
+            long decompressedSize = Zstd.decompressUnsafe( address, size, entry + HEADER_SIZE, compressedSize );
+            return !Zstd.isError( decompressedSize ) && decompressedSize == size;
+        }
+
+        synchronized void discard( int swapperId, long filePageId )
+        {
+            removePosition( swapperId, filePageId );
+        }
+
+        synchronized void invalidate( int swapperId )
+        {
+            positions.remove( swapperId );
+        }
+
+        synchronized long pageCount()
+        {
+            long count = 0;
+            for ( LongLongHashMap pages : positions.values() )
+            {
+                count += pages.size();
+            }
+            return count;
+        }
+
+        private void startSegment( int segment )
+        {
+            if ( segments[segment] == 0 )
+            {
+                segments[segment] = allocator.allocateAligned( segmentSize, Long.BYTES );
+                segmentPages[segment] = new LongArrayList();
+                return;
+            }
+            // drop the pages that were written to the segment the last time around, unless they have been written again since
+            LongArrayList pages = segmentPages[segment];
+            for ( int i = 0; i < pages.size(); i += 3 )
+            {
+                int swapperId = (int) pages.get( i );
+                LongLongHashMap filePages = positions.get( swapperId );
+                if ( filePages != null && filePages.getIfAbsent( pages.get( i + 1 ), -1 ) == pages.get( i + 2 ) )
+                {
+                    removePosition( swapperId, pages.get( i + 1 ) );
+                }
+            }
+            pages.clear();
+        }
+
+        private LongLongHashMap pagesOf( int swapperId )
+        {
+            return positions.getIfAbsentPut( swapperId, LongLongHashMap::new );
+        }
+
+        private long removePosition( int swapperId, long filePageId )
+        {
+            LongLongHashMap pages = positions.get( swapperId );
+            if ( pages == null )
+            {
+                return -1;
+            }
+            long position = pages.removeKeyIfAbsent( filePageId, -1 );
+            if ( pages.isEmpty() )
+            {
+                positions.remove( swapperId );
+            }
+            return position;
+        }
+
+        private int segment( long position )
+        {
+            return (int) ((position / segmentSize) % segments.length);
+        }
+
+        private int offset( long position )
+        {
+            return (int) (position % segmentSize);
+        }
+    }
+
+    private static long align( long size )
+    {
+        return (size + Long.BYTES - 1) & -Long.BYTES;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.Arrays;
+
+/**
+ * How the {@link MuninnPageCache} picks the pages to evict, when it needs free pages for page faults.
+ */
+public enum EvictionPolicy
+{
+    /**
+     * A clock sweep over the usage stamps of all pages. Pages that have been used recently survive the sweep.
+     */
+    CLOCK
+    {
+        @Override
+        PageAdmission createAdmission( int pageCount )
+        {
+            return PageAdmission.ADMIT_ALL;
+        }
+    },
+    /**
+     * The clock sweep, behind a TinyLFU admission filter. A page that is faulted in without having been faulted in recently, like the pages of a
+     * full store scan, is only admitted to a small probation window, and pages are evicted from that window before the clock sweeps over the
+     * rest of the cache. This keeps a scan from evicting the working set.
+     */
+    TINY_LFU
+    {
+        @Override
+        PageAdmission createAdmission( int pageCount )
+        {
+            return new TinyLfuAdmission( pageCount );
+        }
+    };
+
+    abstract PageAdmission createAdmission( int pageCount );
+
+    /**
+     * @param name the name of an eviction policy, in any case.
+     * @throws IllegalArgumentException if there is no eviction policy with that name.
+     */
+    public static EvictionPolicy forName( String name )
+    {
+        for ( EvictionPolicy policy : values() )
+        {
+            if ( policy.name().equalsIgnoreCase( name ) )
+            {
+                return policy;
+            }
+        }
+        throw new IllegalArgumentException( "Unknown page cache eviction policy '" + name + "', expected one of " + Arrays.toString( values() ) );
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * A count-min sketch of how often keys have been seen, with 4-bit counters that are halved periodically, so that the sketch tracks recent
+ * frequencies. This is the frequency histogram of TinyLFU.
+ * <p>
+ * Every key has one counter in each of four rows, and its frequency is the smallest of those counters. The counters are packed sixteen to a
+ * long. This class is not thread-safe.
+ */
+final class FrequencySketch
+{
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final long sampleSize;
+    private long additions;
+
+    /**
+     * @param expectedKeys the number of keys whose frequencies should be told apart, which decides the size of the sketch.
+     * @param sampleSize the number of additions after which all counters are halved.
+     */
+    FrequencySketch( int expectedKeys, long sampleSize )
+    {
+        // sixteen counters per key keep the counters of the many keys that are only seen once from adding up
+        int length = Integer.highestOneBit( Math.max( 16, expectedKeys ) - 1 ) << 1;
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = sampleSize;
+    }
+
+    int frequency( long key )
+    {
+        long hash = spread( key );
+        int frequency = MAX_COUNT;
+        for ( int row = 0; row < SEEDS.length; row++ )
+        {
+            int offset = counterOffset( hash, row );
+            int count = (int) ((table[indexOf( hash, row )] >>> offset) & MAX_COUNT);
+            frequency = Math.min( frequency, count );
+        }
+        return frequency;
+    }
+
+    void increment( long key )
+    {
+        long hash = spread( key );
+        boolean added = false;
+        for ( int row = 0; row < SEEDS.length; row++ )
+        {
+            int index = indexOf( hash, row );
+            int offset = counterOffset( hash, row );
+            if ( ((table[index] >>> offset) & MAX_COUNT) < MAX_COUNT )
+            {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if ( added && ++additions == sampleSize )
+        {
+            reset();
+        }
+    }
+
+    private void reset()
+    {
+        for ( int i = 0; i < table.length; i++ )
+        {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private int indexOf( long hash, int row )
+    {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return (int) h & tableMask;
+    }
+
+    private static int counterOffset( long hash, int row )
+    {
+        // 4 bits of the hash per row pick one of the 16 counters in the long
+        return (int) ((hash >>> (row << 2)) & 15) << 2;
+    }
+
+    private static long spread( long key )
+    {
+        long h = key * 0x9e3779b97f4a7c15L;
+        return h ^ (h >>> 31);
+    }
+}
@@ -109,6 +109,24 @@ final class LatchMap
         return null;
     }
 
+    /**
+     * Like {@link #takeOrAwaitLatch(long)}, except that {@code null} is returned right away, without waiting, if a latch is currently installed for the
+     * given (or any colliding) identifier.
+     */
+    Latch tryTakeLatch( long identifier )
+    {
+        int index = index( identifier );
+        if ( getLatch( index ) == null )
+        {
+            Latch latch = new Latch( this, index );
+            if ( tryInsertLatch( index, latch ) )
+            {
+                return latch;
+            }
+        }
+        return null;
+    }
+
     private int index( long identifier )
     {
         return (int) (identifier & faultLockMask);
@@ -32,17 +32,21 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
 
+import org.neo4j.internal.helpers.Exceptions;
 import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.mem.HugePageCoverage;
 import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCacheOpenOptions;
+import org.neo4j.io.pagecache.PageReservation;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.buffer.IOBufferFactory;
@@ -135,6 +139,10 @@ public class MuninnPageCache implements PageCache
     private static final int cooperativeEvictionLiveLockThreshold = getInteger(
             MuninnPageCache.class, "cooperativeEvictionLiveLockThreshold", 100 );
 
+    // This is how many times the clock sweeps over the entire set of pages without finding a page to evict, before it also evicts the pages of files
+    // with a high priority or a page reservation. A page that is in constant use needs this many sweeps to get its usage stamp down.
+    private static final int protectedPagesSweeps = 4;
+
     // This is a pre-allocated constant, so we can throw it without allocating any objects:
     @SuppressWarnings( "ThrowableInstanceNeverThrown" )
     private static final IOException oomException = new IOException(
@@ -159,6 +167,11 @@ public class MuninnPageCache implements PageCache
     // Used when trying to figure out number of available pages in a page cache. Could be returned from tryGetNumberOfAvailablePages.
     private static final int UNKNOWN_AVAILABLE_PAGES = -1;
 
+    // Flushes of many files are bound by the latency of the storage device more than by its bandwidth, so this many files are flushed at the same time.
+    public static final int DEFAULT_FLUSH_PARALLELISM = 8;
+    // Each worker reads the pages that have been requested in batches, so a few of them keep the storage device busy.
+    public static final int DEFAULT_PAGE_LOAD_WORKERS = 4;
+
     private final int pageCacheId;
     private final PageSwapperFactory swapperFactory;
     private final int cachePageSize;
@@ -168,6 +181,16 @@ public class MuninnPageCache implements PageCache
     private final int faultLockStriping;
     private final boolean preallocateStoreFiles;
     private final boolean enableEvictionThread;
+    private final int flushParallelism;
+    private final MemoryAllocator memoryAllocator;
+    // Decides which faulted pages are only admitted on probation, and are evicted before the clock sweeps over the other pages.
+    private final PageAdmission admission;
+    // the files that have been mapped with an eviction priority or a page reservation, indexed by their swapper id
+    private volatile MuninnPagedFile[] guardedFiles = new MuninnPagedFile[0];
+    // Keeps evicted pages compressed, so page faults can get them back without reading from the file. Null if there is no such tier.
+    final CompressedPageTier compressedTier;
+    // Loads the pages that are requested with PagedFile.requestPages in the background. Null if they are loaded by the requesting thread.
+    final PageLoader pageLoader;
     final PageList pages;
     // All PageCursors are initialised with their pointers pointing to the victim page. This way, we don't have to throw
     // exceptions on bounds checking failures; we can instead return the victim page pointer, and permit the page
@@ -190,6 +213,8 @@ public class MuninnPageCache implements PageCache
     // The thread that runs the eviction algorithm. We unpark this when we've run out of
     // free pages to grab.
     private volatile Thread evictionThread;
+    // Counted down when the eviction thread has stopped sweeping, after the page cache has been closed.
+    private final CountDownLatch evictionStopped = new CountDownLatch( 1 );
     // True if the eviction thread is currently parked, without someone having
     // signalled it to wake up. This is used as a weak guard for unparking the
     // eviction thread, because calling unpark too much (from many page
@@ -241,10 +266,15 @@ public class MuninnPageCache implements PageCache
         private final int faultLockStriping;
         private final boolean enableEvictionThread;
         private final boolean preallocateStoreFiles;
+        private final EvictionPolicy evictionPolicy;
+        private final int flushParallelism;
+        private final long compressedTierSize;
+        private final int pageLoadWorkers;
 
         private Configuration( MemoryAllocator memoryAllocator, SystemNanoClock clock, MemoryTracker memoryTracker, PageCacheTracer pageCacheTracer,
                 int pageSize, IOBufferFactory bufferFactory, int faultLockStriping,
-                boolean enableEvictionThread, boolean preallocateStoreFiles )
+                boolean enableEvictionThread, boolean preallocateStoreFiles, EvictionPolicy evictionPolicy, int flushParallelism,
+                long compressedTierSize, int pageLoadWorkers )
         {
             this.memoryAllocator = memoryAllocator;
             this.clock = clock;
@@ -255,6 +285,10 @@ public class MuninnPageCache implements PageCache
             this.faultLockStriping = faultLockStriping;
             this.enableEvictionThread = enableEvictionThread;
             this.preallocateStoreFiles = preallocateStoreFiles;
+            this.evictionPolicy = evictionPolicy;
+            this.flushParallelism = flushParallelism;
+            this.compressedTierSize = compressedTierSize;
+            this.pageLoadWorkers = pageLoadWorkers;
         }
 
         /**
@@ -263,7 +297,8 @@ public class MuninnPageCache implements PageCache
         public Configuration memoryAllocator( MemoryAllocator memoryAllocator )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, evictionPolicy, flushParallelism, compressedTierSize,
+                    pageLoadWorkers );
         }
 
         /**
@@ -272,7 +307,8 @@ public class MuninnPageCache implements PageCache
         public Configuration clock( SystemNanoClock clock )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, evictionPolicy, flushParallelism, compressedTierSize,
+                    pageLoadWorkers );
         }
 
         /**
@@ -281,7 +317,8 @@ public class MuninnPageCache implements PageCache
         public Configuration memoryTracker( MemoryTracker memoryTracker )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, evictionPolicy, flushParallelism, compressedTierSize,
+                    pageLoadWorkers );
         }
 
         /**
@@ -290,7 +327,8 @@ public class MuninnPageCache implements PageCache
         public Configuration pageCacheTracer( PageCacheTracer pageCacheTracer )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, evictionPolicy, flushParallelism, compressedTierSize,
+                    pageLoadWorkers );
         }
 
         /**
@@ -299,7 +337,8 @@ public class MuninnPageCache implements PageCache
         public Configuration pageSize( int pageSize )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, evictionPolicy, flushParallelism, compressedTierSize,
+                    pageLoadWorkers );
         }
 
         /**
@@ -308,7 +347,8 @@ public class MuninnPageCache implements PageCache
         public Configuration bufferFactory( IOBufferFactory bufferFactory )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, evictionPolicy, flushParallelism, compressedTierSize,
+                    pageLoadWorkers );
         }
 
         /**
@@ -317,7 +357,8 @@ public class MuninnPageCache implements PageCache
         public Configuration faultLockStriping( int faultLockStriping )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, evictionPolicy, flushParallelism, compressedTierSize,
+                    pageLoadWorkers );
         }
 
         /**
@@ -326,7 +367,8 @@ public class MuninnPageCache implements PageCache
         public Configuration disableEvictionThread()
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, false, preallocateStoreFiles );
+                    faultLockStriping, false, preallocateStoreFiles, evictionPolicy, flushParallelism, compressedTierSize,
+                    pageLoadWorkers );
         }
 
         /**
@@ -335,7 +377,57 @@ public class MuninnPageCache implements PageCache
         public Configuration preallocateStoreFiles( boolean preallocateStoreFiles )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, evictionPolicy, flushParallelism, compressedTierSize,
+                    pageLoadWorkers );
+        }
+
+        /**
+         * @param evictionPolicy how pages are picked for eviction
+         */
+        public Configuration evictionPolicy( EvictionPolicy evictionPolicy )
+        {
+            return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, evictionPolicy, flushParallelism, compressedTierSize,
+                    pageLoadWorkers );
+        }
+
+        /**
+         * @param evictionPolicyName the name of one of the {@link EvictionPolicy eviction policies}
+         */
+        public Configuration evictionPolicy( String evictionPolicyName )
+        {
+            return evictionPolicy( EvictionPolicy.forName( evictionPolicyName ) );
+        }
+
+        /**
+         * @param flushParallelism the maximum number of files that are flushed concurrently, when several files are flushed at once
+         */
+        public Configuration flushParallelism( int flushParallelism )
+        {
+            return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, evictionPolicy, flushParallelism, compressedTierSize,
+                    pageLoadWorkers );
+        }
+
+        /**
+         * @param compressedTierSize the memory, in bytes, for keeping evicted pages compressed, or {@code 0} to not keep evicted pages
+         */
+        public Configuration compressedTierSize( long compressedTierSize )
+        {
+            return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, evictionPolicy, flushParallelism, compressedTierSize,
+                    pageLoadWorkers );
+        }
+
+        /**
+         * @param pageLoadWorkers the maximum number of threads that load the pages requested with {@link PagedFile#requestPages}, or {@code 0} to load
+         * them in the requesting thread
+         */
+        public Configuration pageLoadWorkers( int pageLoadWorkers )
+        {
+            return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, evictionPolicy, flushParallelism, compressedTierSize,
+                    pageLoadWorkers );
         }
     }
 
@@ -355,7 +447,8 @@ public class MuninnPageCache implements PageCache
     public static Configuration config( MemoryAllocator memoryAllocator )
     {
         return new Configuration( memoryAllocator, Clocks.nanoClock(), EmptyMemoryTracker.INSTANCE, PageCacheTracer.NULL,
-                PAGE_SIZE, DISABLED_BUFFER_FACTORY, LatchMap.faultLockStriping, true, true );
+                PAGE_SIZE, DISABLED_BUFFER_FACTORY, LatchMap.faultLockStriping, true, true, EvictionPolicy.CLOCK, DEFAULT_FLUSH_PARALLELISM, 0,
+                DEFAULT_PAGE_LOAD_WORKERS );
     }
 
     /**
@@ -385,6 +478,12 @@ public class MuninnPageCache implements PageCache
         this.faultLockStriping = configuration.faultLockStriping;
         this.enableEvictionThread = configuration.enableEvictionThread;
         this.preallocateStoreFiles = configuration.preallocateStoreFiles;
+        this.admission = configuration.evictionPolicy.createAdmission( maxPages );
+        this.flushParallelism = configuration.flushParallelism;
+        this.memoryAllocator = configuration.memoryAllocator;
+        this.compressedTier = configuration.compressedTierSize > 0 ?
+                new CompressedPageTier( configuration.compressedTierSize, cachePageSize, configuration.memoryTracker ) : null;
+        this.pageLoader = configuration.pageLoadWorkers > 0 ? new PageLoader( jobScheduler, pageCacheTracer, configuration.pageLoadWorkers ) : null;
         setFreelistHead( new AtomicInteger() );
 
         // Expose the total number of pages
@@ -439,6 +538,9 @@ public class MuninnPageCache implements PageCache
         boolean deleteOnClose = false;
         boolean anyPageSize = false;
         boolean useDirectIO = false;
+        boolean highPriority = false;
+        boolean lowPriority = false;
+        int reservedPages = 0;
         for ( OpenOption option : openOptions )
         {
             if ( option.equals( StandardOpenOption.CREATE ) )
@@ -461,12 +563,29 @@ public class MuninnPageCache implements PageCache
             {
                 useDirectIO = true;
             }
+            else if ( option.equals( PageCacheOpenOptions.HIGH_PRIORITY ) )
+            {
+                highPriority = true;
+            }
+            else if ( option.equals( PageCacheOpenOptions.LOW_PRIORITY ) )
+            {
+                lowPriority = true;
+            }
+            else if ( option instanceof PageReservation )
+            {
+                reservedPages = ((PageReservation) option).pages();
+            }
             else if ( !ignoredOpenOptions.contains( option ) )
             {
                 throw new UnsupportedOperationException( "Unsupported OpenOption: " + option );
             }
         }
 
+        if ( highPriority && lowPriority )
+        {
+            throw new IllegalArgumentException( "Cannot map file " + path + " with both a high and a low priority." );
+        }
+
         FileMapping current = mappedFiles;
 
         // find an existing mapping
@@ -515,12 +634,19 @@ public class MuninnPageCache implements PageCache
                 preallocateStoreFiles,
                 databaseName,
                 faultLockStriping,
-                ioController );
+                ioController,
+                highPriority,
+                lowPriority,
+                reservedPages );
         pagedFile.incrementRefCount();
         pagedFile.setDeleteOnClose( deleteOnClose );
         current = new FileMapping( path, pagedFile );
         current.next = mappedFiles;
         mappedFiles = current;
+        if ( highPriority || lowPriority || reservedPages > 0 )
+        {
+            setGuardedFile( pagedFile.swapperId, pagedFile );
+        }
         pageCacheTracer.mappedFile( pagedFile.swapperId, pagedFile );
         return pagedFile;
     }
@@ -634,8 +760,13 @@ public class MuninnPageCache implements PageCache
                     {
                         prev.next = current.next;
                     }
-                    pageCacheTracer.unmappedFile( file.swapperId, file );
+                    setGuardedFile( file.swapperId, null );
                     flushAndCloseWithoutFail( file );
+                    if ( compressedTier != null )
+                    {
+                        compressedTier.invalidate( file.swapperId );
+                    }
+                    pageCacheTracer.unmappedFile( file.swapperId, file );
                     break;
                 }
                 prev = current;
@@ -687,45 +818,77 @@ public class MuninnPageCache implements PageCache
         try ( MajorFlushEvent ignored = pageCacheTracer.beginCacheFlush() )
         {
             // When we flush whole page cache it can only happen on shutdown and we should be able to progress as fast as we can with disabled io controller
-            flushAllPagesParallel( files, IOController.DISABLED );
+            flushInParallel( files, file -> flushFile( (MuninnPagedFile) file, IOController.DISABLED ) );
         }
         clearEvictorException();
     }
 
-    private void flushAllPagesParallel( List<PagedFile> files, IOController limiter ) throws IOException
+    @Override
+    public void flushAndForce( List<? extends PagedFile> files ) throws IOException
+    {
+        flushInParallel( files, PagedFile::flushAndForce );
+    }
+
+    /**
+     * Flush the given files with at most {@link #flushParallelism} workers, that take the next file that nobody is flushing yet until there are no
+     * files left. Returns when all workers are done, also when some of the flushes failed.
+     */
+    private void flushInParallel( List<? extends PagedFile> files, FileFlush flush ) throws IOException
     {
-        List<JobHandle<?>> flushes = new ArrayList<>( files.size() );
+        int workers = Math.min( flushParallelism, files.size() );
+        if ( workers <= 1 )
+        {
+            for ( PagedFile file : files )
+            {
+                flush.flush( file );
+            }
+            return;
+        }
 
-        // Submit all flushes to the background thread
-        for ( PagedFile file : files )
+        AtomicInteger nextFile = new AtomicInteger();
+        List<JobHandle<?>> flushes = new ArrayList<>( workers );
+        for ( int i = 0; i < workers; i++ )
         {
-            flushes.add( scheduler.schedule( FILE_IO_HELPER,
-                    systemJob( file.getDatabaseName(), "Flushing changes to file '" + file.path().getFileName() + "'" ),
-                    () ->
+            flushes.add( scheduler.schedule( FILE_IO_HELPER, systemJob( "Flushing changes to mapped files" ), () ->
+            {
+                for ( int index = nextFile.getAndIncrement(); index < files.size(); index = nextFile.getAndIncrement() )
+                {
+                    PagedFile file = files.get( index );
+                    try
                     {
-                        try
-                        {
-                            flushFile( (MuninnPagedFile) file, limiter );
-                        }
-                        catch ( IOException e )
-                        {
-                            throw new UncheckedIOException( e );
-                        }
-                    } ) );
+                        flush.flush( file );
+                    }
+                    catch ( IOException e )
+                    {
+                        throw new UncheckedIOException( "Failed to flush changes to file '" + file.path() + "'", e );
+                    }
+                }
+            } ) );
         }
 
         // Wait for all to complete
-        for ( JobHandle<?> flush : flushes )
+        IOException failure = null;
+        for ( JobHandle<?> handle : flushes )
         {
             try
             {
-                flush.waitTermination();
+                handle.waitTermination();
             }
             catch ( InterruptedException | ExecutionException e )
             {
-                throw new IOException( e );
+                failure = Exceptions.chain( failure, new IOException( e ) );
             }
         }
+        if ( failure != null )
+        {
+            throw failure;
+        }
+    }
+
+    @FunctionalInterface
+    private interface FileFlush
+    {
+        void flush( PagedFile file ) throws IOException;
     }
 
     private void flushFile( MuninnPagedFile muninnPagedFile, IOController limiter ) throws IOException
@@ -764,8 +927,23 @@ public class MuninnPageCache implements PageCache
 
         closed = true;
 
-        interrupt( evictionThread );
+        Thread evictor = evictionThread;
+        interrupt( evictor );
         evictionThread = null;
+        if ( pageLoader != null )
+        {
+            pageLoader.close();
+        }
+        if ( compressedTier != null )
+        {
+            // The eviction thread stores the pages it evicts in the compressed tier, so it must have stopped before the memory of the tier is freed.
+            // An eviction thread that had not started sweeping yet sees that the page cache is closed, and never touches the tier.
+            if ( evictor != null )
+            {
+                awaitEvictionStopped();
+            }
+            compressedTier.close();
+        }
     }
 
     private static void interrupt( Thread thread )
@@ -776,6 +954,27 @@ public class MuninnPageCache implements PageCache
         }
     }
 
+    private void awaitEvictionStopped()
+    {
+        boolean interrupted = false;
+        while ( true )
+        {
+            try
+            {
+                evictionStopped.await();
+                break;
+            }
+            catch ( InterruptedException e )
+            {
+                interrupted = true;
+            }
+        }
+        if ( interrupted )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private void assertHealthy() throws IOException
     {
         assertNotClosed();
@@ -806,6 +1005,14 @@ public class MuninnPageCache implements PageCache
         return pages.getPageCount();
     }
 
+    /**
+     * @return how much of the memory of the cached pages is advised as, and backed by, transparent huge pages.
+     */
+    public HugePageCoverage hugePageCoverage()
+    {
+        return memoryAllocator.hugePageCoverage();
+    }
+
     @Override
     public IOBufferFactory getBufferFactory()
     {
@@ -907,6 +1114,7 @@ public class MuninnPageCache implements PageCache
         int iterations = 0;
         int pageCount = pages.getPageCount();
         int clockArm = ThreadLocalRandom.current().nextInt( pageCount );
+        long swept = 0;
         boolean evicted = false;
         long pageRef;
         do
@@ -917,6 +1125,13 @@ public class MuninnPageCache implements PageCache
                 return 0;
             }
 
+            pageRef = admission.pollVictim();
+            if ( pageRef != 0 )
+            {
+                evicted = !isEvictionProtected( pageRef ) && pages.tryEvict( pageRef, faultEvent );
+                continue;
+            }
+
             if ( clockArm == pageCount )
             {
                 if ( iterations == cooperativeEvictionLiveLockThreshold )
@@ -928,11 +1143,12 @@ public class MuninnPageCache implements PageCache
             }
 
             pageRef = pages.deref( clockArm );
-            if ( PageList.isLoaded( pageRef ) && PageList.decrementUsage( pageRef ) )
+            if ( PageList.isLoaded( pageRef ) && isEvictionCandidate( pageRef, swept < (long) pageCount * protectedPagesSweeps ) )
             {
                 evicted = pages.tryEvict( pageRef, faultEvent );
             }
             clockArm++;
+            swept++;
         }
         while ( !evicted );
         return pageRef;
@@ -997,18 +1213,25 @@ public class MuninnPageCache implements PageCache
         evictionThread = Thread.currentThread();
         int clockArm = 0;
 
-        while ( !closed )
+        try
         {
-            int pageCountToEvict = parkUntilEvictionRequired( keepFree );
-            try ( EvictionRunEvent evictionRunEvent = pageCacheTracer.beginPageEvictions( pageCountToEvict ) )
+            while ( !closed )
             {
-                clockArm = evictPages( pageCountToEvict, clockArm, evictionRunEvent );
+                int pageCountToEvict = parkUntilEvictionRequired( keepFree );
+                try ( EvictionRunEvent evictionRunEvent = pageCacheTracer.beginPageEvictions( pageCountToEvict ) )
+                {
+                    clockArm = evictPages( pageCountToEvict, clockArm, evictionRunEvent );
+                }
             }
-        }
 
-        // The last thing we do, is signalling the shutdown of the cache via
-        // the freelist. This signal is looked out for in grabFreePage.
-        setFreelistHead( shutdownSignal );
+            // The last thing we do, is signalling the shutdown of the cache via
+            // the freelist. This signal is looked out for in grabFreePage.
+            setFreelistHead( shutdownSignal );
+        }
+        finally
+        {
+            evictionStopped.countDown();
+        }
     }
 
     private int parkUntilEvictionRequired( int keepFree )
@@ -1062,6 +1285,7 @@ public class MuninnPageCache implements PageCache
 
     int evictPages( int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent )
     {
+        long sweptSinceEviction = 0;
         while ( pageCountToEvict > 0 && !closed )
         {
             if ( clockArm == pages.getPageCount() )
@@ -1075,31 +1299,29 @@ public class MuninnPageCache implements PageCache
                 return 0;
             }
 
-            long pageRef = pages.deref( clockArm );
-            if ( PageList.isLoaded( pageRef ) && PageList.decrementUsage( pageRef ) )
+            // pages on probation go first, and the clock arm only moves when there are none
+            long pageRef = admission.pollVictim();
+            if ( pageRef != 0 )
             {
-                try
+                if ( !isEvictionProtected( pageRef ) )
                 {
                     pageCountToEvict--;
-                    if ( pages.tryEvict( pageRef, evictionRunEvent ) )
-                    {
-                        clearEvictorException();
-                        addFreePageToFreelist( pageRef, evictionRunEvent );
-                    }
-                }
-                catch ( IOException e )
-                {
-                    evictorException = e;
-                }
-                catch ( OutOfMemoryError oom )
-                {
-                    evictorException = oomException;
-                }
-                catch ( Throwable th )
-                {
-                    evictorException = new IOException(
-                            "Eviction thread encountered a problem", th );
+                    evictToFreelist( pageRef, evictionRunEvent );
                 }
+                continue;
+            }
+
+            // protected pages are only evicted when the clock has not found anything else to evict for a number of sweeps
+            pageRef = pages.deref( clockArm );
+            if ( PageList.isLoaded( pageRef ) && isEvictionCandidate( pageRef, sweptSinceEviction < (long) pages.getPageCount() * protectedPagesSweeps ) )
+            {
+                pageCountToEvict--;
+                sweptSinceEviction = 0;
+                evictToFreelist( pageRef, evictionRunEvent );
+            }
+            else
+            {
+                sweptSinceEviction++;
             }
 
             clockArm++;
@@ -1108,6 +1330,84 @@ public class MuninnPageCache implements PageCache
         return clockArm;
     }
 
+    /**
+     * Decrement the usage stamp of the given loaded page, and decide if the clock should evict it. Pages of files with a low priority are always
+     * evicted. Pages of files with a high priority or a page reservation are passed over, if {@code protect} is {@code true}.
+     */
+    private boolean isEvictionCandidate( long pageRef, boolean protect )
+    {
+        boolean unused = PageList.decrementUsage( pageRef );
+        MuninnPagedFile file = guardedFile( pageRef );
+        if ( file == null )
+        {
+            return unused;
+        }
+        return file.lowPriority || (unused && !(protect && file.isEvictionProtected()));
+    }
+
+    private boolean isEvictionProtected( long pageRef )
+    {
+        MuninnPagedFile file = guardedFile( pageRef );
+        return file != null && file.isEvictionProtected();
+    }
+
+    /**
+     * @return the file of the given page, if that file has been mapped with an eviction priority or a page reservation, otherwise {@code null}.
+     */
+    private MuninnPagedFile guardedFile( long pageRef )
+    {
+        MuninnPagedFile[] files = guardedFiles;
+        if ( files.length == 0 )
+        {
+            return null;
+        }
+        int swapperId = PageList.getSwapperId( pageRef );
+        return swapperId < files.length ? files[swapperId] : null;
+    }
+
+    private void setGuardedFile( int swapperId, MuninnPagedFile file )
+    {
+        // Only called while holding the monitor lock of the page cache. The array is copied on write, so eviction never needs a lock to read it.
+        MuninnPagedFile[] files = guardedFiles;
+        if ( swapperId >= files.length && file == null )
+        {
+            return;
+        }
+        files = Arrays.copyOf( files, Math.max( files.length, swapperId + 1 ) );
+        files[swapperId] = file;
+        guardedFiles = files;
+    }
+
+    private void evictToFreelist( long pageRef, EvictionRunEvent evictionRunEvent )
+    {
+        try
+        {
+            if ( pages.tryEvict( pageRef, evictionRunEvent ) )
+            {
+                clearEvictorException();
+                addFreePageToFreelist( pageRef, evictionRunEvent );
+            }
+        }
+        catch ( IOException e )
+        {
+            evictorException = e;
+        }
+        catch ( OutOfMemoryError oom )
+        {
+            evictorException = oomException;
+        }
+        catch ( Throwable th )
+        {
+            evictorException = new IOException(
+                    "Eviction thread encountered a problem", th );
+        }
+    }
+
+    void pageFaulted( long pageRef )
+    {
+        admission.pageFaulted( pageRef );
+    }
+
     void addFreePageToFreelist( long pageRef, EvictionRunEvent evictions )
     {
         Object current;
@@ -1164,6 +1464,11 @@ public class MuninnPageCache implements PageCache
                         }
                     }
                 }
+                if ( compressedTier != null )
+                {
+                    // evictions that raced with the unmapping of a file could have put its pages in the tier, after it was unmapped
+                    swapperIds.each( compressedTier::invalidate );
+                }
             }
             catch ( IOException e )
             {
@@ -43,6 +43,7 @@ import org.neo4j.util.VisibleForTesting;
 
 import static org.neo4j.io.pagecache.PagedFile.PF_EAGER_FLUSH;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.io.pagecache.impl.muninn.MuninnPagedFile.UNMAPPED_TTE;
 import static org.neo4j.util.FeatureToggles.flag;
@@ -75,6 +76,8 @@ public abstract class MuninnPageCursor extends PageCursor
     protected boolean eagerFlush;
     protected boolean noFault;
     protected boolean noGrow;
+    private boolean readAheadOnFault;
+    private long lastFaultedPageId;
     @SuppressWarnings( "unused" ) // accessed via VarHandle.
     private long currentPageId;
     private static final VarHandle CURRENT_PAGE_ID;
@@ -127,6 +130,9 @@ public abstract class MuninnPageCursor extends PageCursor
         this.eagerFlush = isFlagRaised( pf_flags, PF_EAGER_FLUSH );
         this.noFault = isFlagRaised( pf_flags, PF_NO_FAULT );
         this.noGrow = noFault || isFlagRaised( pf_flags, PagedFile.PF_NO_GROW );
+        this.readAheadOnFault = VectoredReadAhead.enabled && pagedFile.pageCache.pageLoader != null && isFlagRaised( pf_flags, PF_READ_AHEAD ) &&
+                                !noFault && !isWriteLocked();
+        this.lastFaultedPageId = UNBOUND_PAGE_ID;
     }
 
     private static boolean isFlagRaised( int flagSet, int flag )
@@ -379,6 +385,10 @@ public abstract class MuninnPageCursor extends PageCursor
                 // Sweet, we didn't race with any other fault on this translation table entry.
                 long pageRef = pageFault( filePageId, swapper, chunkIndex, chunk, latch );
                 pinCursorToPage( pageRef, filePageId, swapper );
+                if ( readAheadOnFault )
+                {
+                    readAheadAfterFault( filePageId );
+                }
                 return true;
             }
             // Oops, looks like we raced with another page fault on this file page.
@@ -391,6 +401,27 @@ public abstract class MuninnPageCursor extends PageCursor
         return false;
     }
 
+    /**
+     * A scanning read cursor that had to fault in a page has the {@link PageLoader} read the pages that it will move on to in the background, with one
+     * {@link VectoredReadAhead vectored read}. The cursor does not wait for that read, and a failure of it is not a failure of the cursor.
+     * @param filePageId The file page that was just faulted in.
+     */
+    private void readAheadAfterFault( long filePageId )
+    {
+        // The scan goes forwards, unless the cursor faults on a page before the page it last faulted on.
+        boolean backwards = lastFaultedPageId != UNBOUND_PAGE_ID && filePageId < lastFaultedPageId;
+        lastFaultedPageId = filePageId;
+        int runCapacity = VectoredReadAhead.runCapacity( pagedFile.pageCache );
+        if ( backwards )
+        {
+            pagedFile.pageCache.pageLoader.readAhead( pagedFile, Math.max( 0, filePageId - runCapacity ), filePageId );
+        }
+        else
+        {
+            pagedFile.pageCache.pageLoader.readAhead( pagedFile, filePageId + 1, filePageId + 1 + runCapacity );
+        }
+    }
+
     private long pageFault( long filePageId, PageSwapper swapper, int chunkIndex, int[] chunk, LatchMap.Latch latch ) throws IOException
     {
         // We are page faulting. This is a critical time, because we currently have the given latch in the chunk array
@@ -427,6 +458,7 @@ public abstract class MuninnPageCursor extends PageCursor
                 assertPagedFileStillMappedAndGetIdOfLastPage();
                 pagedFile.initBuffer( pageRef );
                 pagedFile.fault( pageRef, swapper, pagedFile.swapperId, filePageId, faultEvent );
+                pagedFile.pageFaulted( pageRef );
             }
             catch ( Throwable throwable )
             {
@@ -30,6 +30,7 @@ import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageLoad;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
@@ -78,6 +79,10 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
     private final CursorFactory cursorFactory;
     final String databaseName;
     private final IOController ioController;
+    // how eviction treats the pages of this file, see PageCacheOpenOptions
+    final boolean highPriority;
+    final boolean lowPriority;
+    final int reservedPages;
 
     private volatile boolean deleteOnClose;
 
@@ -89,6 +94,11 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
     private volatile long highestEvictedTransactionId;
     private static final VarHandle HIGHEST_EVICTED_TRANSACTION_ID;
 
+    // number of pages of this file in the page cache, incremented by page faults and decremented by evictions
+    @SuppressWarnings( "unused" ) // accessed with VarHandle
+    private volatile int residentPages;
+    private static final VarHandle RESIDENT_PAGES;
+
     /**
      * The header state includes both the reference count of the PagedFile – 15 bits – and the ID of the last page in
      * the file – 48 bits, plus an empty file marker bit. Because our pages are usually 2^13 bytes, this means that we
@@ -114,6 +124,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
             MethodHandles.Lookup l = MethodHandles.lookup();
             HEADER_STATE = l.findVarHandle( MuninnPagedFile.class, "headerState", long.class );
             HIGHEST_EVICTED_TRANSACTION_ID = l.findVarHandle( MuninnPagedFile.class, "highestEvictedTransactionId", long.class );
+            RESIDENT_PAGES = l.findVarHandle( MuninnPagedFile.class, "residentPages", int.class );
             TRANSLATION_TABLE_ARRAY = MethodHandles.arrayElementVarHandle( int[].class );
         }
         catch ( ReflectiveOperationException e )
@@ -136,11 +147,14 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
      * @param databaseName an optional name of the database this file belongs to. This option associates the mapped file with a database.
      * This information is currently used only for monitoring purposes.
      * @param ioController io controller to report page file io operations
+     * @param highPriority pages of the file are passed over by eviction, while other pages can be evicted
+     * @param lowPriority pages of the file are evicted regardless of their usage
+     * @param reservedPages pages of the file are passed over by eviction, while the file has no more than this many pages in the cache
      * @throws IOException If the {@link PageSwapper} could not be created.
      */
     MuninnPagedFile( Path path, MuninnPageCache pageCache, int filePageSize, PageSwapperFactory swapperFactory, PageCacheTracer pageCacheTracer,
             boolean createIfNotExists, boolean truncateExisting, boolean useDirectIo, boolean preallocateStoreFiles, String databaseName,
-            int faultLockStriping, IOController ioController ) throws IOException
+            int faultLockStriping, IOController ioController, boolean highPriority, boolean lowPriority, int reservedPages ) throws IOException
     {
         super( pageCache.pages );
         this.pageCache = pageCache;
@@ -151,6 +165,9 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         this.bufferFactory = pageCache.getBufferFactory();
         this.databaseName = requireNonNull( databaseName );
         this.ioController = requireNonNull( ioController );
+        this.highPriority = highPriority;
+        this.lowPriority = lowPriority;
+        this.reservedPages = reservedPages;
 
         // The translation table is an array of arrays of integers that are either UNMAPPED_TTE, or the id of a page in
         // the page list. The table only grows the outer array, and all the inner "chunks" all stay the same size. This
@@ -535,7 +552,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
                 if ( pagesGrabbed > 0 )
                 {
                     vectoredFlush( pages, bufferAddresses, flushStamps, bufferLengths, numberOfBuffers, pagesGrabbed, mergedPages, flushes, forClosing );
-                    limiter.maybeLimitIO( numberOfBuffers, this, flushes );
+                    limiter.maybeLimitIO( numberOfBuffers, (long) pagesGrabbed * filePageSize, this, flushes );
                     pagesGrabbed = 0;
                     nextSequentialAddress = -1;
                     numberOfBuffers = 0;
@@ -549,7 +566,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
             if ( pagesGrabbed > 0 )
             {
                 vectoredFlush( pages, bufferAddresses, flushStamps, bufferLengths, numberOfBuffers, pagesGrabbed, mergedPages, flushes, forClosing );
-                limiter.maybeLimitIO( numberOfBuffers, this, flushes );
+                limiter.maybeLimitIO( numberOfBuffers, (long) pagesGrabbed * filePageSize, this, flushes );
                 flushPerChunk++;
             }
             chunkEvent.chunkFlushed( notModifiedPages, flushPerChunk, buffersPerChunk, mergesPerChunk );
@@ -654,6 +671,54 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         return state & headerStateLastPageIdMask;
     }
 
+    @Override
+    public int residentPages()
+    {
+        return (int) RESIDENT_PAGES.getVolatile( this );
+    }
+
+    /**
+     * @return {@code true} if eviction should pass over the pages of this file, because of its priority or page reservation.
+     */
+    boolean isEvictionProtected()
+    {
+        return highPriority || (reservedPages > 0 && residentPages() <= reservedPages);
+    }
+
+    /**
+     * Loads the pages that are not in memory with {@link VectoredReadAhead vectored reads}, unless that has been disabled. Pages that another thread
+     * is faulting in at the same time are left to that thread, and are not counted.
+     */
+    @Override
+    public int touch( long pageId, int count, CursorContext context ) throws IOException
+    {
+        if ( !VectoredReadAhead.enabled )
+        {
+            return PagedFile.super.touch( pageId, count, context );
+        }
+        long endPageId = Math.min( pageId + count, getLastPageId() + 1 );
+        if ( endPageId <= pageId )
+        {
+            return 0;
+        }
+        VectoredReadAhead readAhead = new VectoredReadAhead( this );
+        readAhead.read( pageId, endPageId, context.getCursorTracer() );
+        return (int) readAhead.pagesRead();
+    }
+
+    @Override
+    public PageLoad requestPages( long[] filePageIds, CursorContext context ) throws IOException
+    {
+        PageLoader pageLoader = pageCache.pageLoader;
+        if ( pageLoader == null || !VectoredReadAhead.enabled )
+        {
+            return PagedFile.super.requestPages( filePageIds, context );
+        }
+        // fail right away if the file has been unmapped
+        getLastPageId();
+        return pageLoader.request( this, filePageIds );
+    }
+
     private FileIsNotMappedException fileIsNotMappedException()
     {
         FileIsNotMappedException exception = new FileIsNotMappedException( path() );
@@ -788,6 +853,43 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         return pageCache.grabFreeAndExclusivelyLockedPage( faultEvent );
     }
 
+    @Override
+    long readPage( PageSwapper swapper, int swapperId, long filePageId, long address ) throws IOException
+    {
+        CompressedPageTier compressedTier = pageCache.compressedTier;
+        if ( compressedTier != null && compressedTier.load( swapperId, filePageId, address, filePageSize ) )
+        {
+            return 0;
+        }
+        return super.readPage( swapper, swapperId, filePageId, address );
+    }
+
+    @Override
+    long faultRun( long[] pageRefs, int length, PageSwapper swapper, int swapperId, long startFilePageId, long[] bufferAddresses, int[] bufferLengths )
+            throws IOException
+    {
+        CompressedPageTier compressedTier = pageCache.compressedTier;
+        if ( compressedTier != null )
+        {
+            // The run is read from the file, so the compressed copies of its pages will not be needed.
+            for ( int i = 0; i < length; i++ )
+            {
+                compressedTier.discard( swapperId, startFilePageId + i );
+            }
+        }
+        return super.faultRun( pageRefs, length, swapper, swapperId, startFilePageId, bufferAddresses, bufferLengths );
+    }
+
+    /**
+     * Tell the page cache that a page has been faulted in, so it can decide how to admit it.
+     * @param pageRef The page that was faulted in, and is still exclusively locked.
+     */
+    void pageFaulted( long pageRef )
+    {
+        RESIDENT_PAGES.getAndAdd( this, 1 );
+        pageCache.pageFaulted( pageRef );
+    }
+
     /**
      * Remove the mapping of the given filePageId from the translation table, and return the evicted page object.
      * @param filePageId The id of the file page to evict.
@@ -800,6 +902,15 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
 
         int mappedPageId = (int) TRANSLATION_TABLE_ARRAY.getVolatile( chunk, chunkIndex );
         long pageRef = deref( mappedPageId );
+        if ( mappedPageId != UNMAPPED_TTE )
+        {
+            RESIDENT_PAGES.getAndAdd( this, -1 );
+            if ( pageCache.compressedTier != null )
+            {
+                // The page has been flushed, if it was dirty, so this is a clean copy of what is in the file.
+                pageCache.compressedTier.store( swapperId, filePageId, getAddress( pageRef ), filePageSize );
+            }
+        }
         setHighestEvictedTransactionId( getAndResetLastModifiedTransactionId( pageRef ) );
         TRANSLATION_TABLE_ARRAY.setVolatile( chunk, chunkIndex, UNMAPPED_TTE );
     }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * Decides, for every page fault, whether the faulted page is admitted to the main part of the cache, where it is subject to the clock sweep,
+ * or only on probation. Pages on probation are the first to be evicted.
+ */
+interface PageAdmission
+{
+    PageAdmission ADMIT_ALL = new PageAdmission()
+    {
+        @Override
+        public void pageFaulted( long pageRef )
+        {
+        }
+
+        @Override
+        public long pollVictim()
+        {
+            return 0;
+        }
+    };
+
+    /**
+     * Called after the page has been faulted in, while it is still exclusively locked.
+     */
+    void pageFaulted( long pageRef );
+
+    /**
+     * @return a page on probation that should be evicted before any other page, or {@code 0} if there is none.
+     */
+    long pollVictim();
+}
@@ -343,6 +343,22 @@ class PageList implements PageReferenceTranslator
         return usage <= 1;
     }
 
+    /**
+     * Get the usage stamp, a number from 0 to 4.
+     **/
+    static int getUsage( long pageRef )
+    {
+        return (int) (UnsafeUtil.getLongVolatile( offPageBinding( pageRef ) ) & MASK_USAGE_COUNT);
+    }
+
+    /**
+     * Get the file page id and the swapper id of the page as a single value, which changes when the page is evicted or bound to another file page.
+     **/
+    static long getBinding( long pageRef )
+    {
+        return UnsafeUtil.getLongVolatile( offPageBinding( pageRef ) ) >>> SHIFT_SWAPPER_ID;
+    }
+
     static long getFilePageId( long pageRef )
     {
         long filePageId = UnsafeUtil.getLong( offPageBinding( pageRef ) ) >>> SHIFT_FILE_PAGE_ID;
@@ -429,11 +445,59 @@ class PageList implements PageReferenceTranslator
         // the file page, so any subsequent thread that finds the page in their
         // translation table will re-do the page fault.
         setFilePageId( pageRef, filePageId ); // Page now considered isLoaded()
-        long bytesRead = swapper.read( filePageId, getAddress( pageRef ) );
+        long bytesRead = readPage( swapper, swapperId, filePageId, getAddress( pageRef ) );
         event.addBytesRead( bytesRead );
         setSwapperId( pageRef, swapperId ); // Page now considered isBoundTo( swapper, filePageId )
     }
 
+    /**
+     * Read the contents of the given file page into the given page memory, when it is faulted in.
+     * @return the number of bytes read from the file.
+     */
+    long readPage( PageSwapper swapper, int swapperId, long filePageId, long address ) throws IOException
+    {
+        return swapper.read( filePageId, address );
+    }
+
+    /**
+     * Like {@link #fault(long, PageSwapper, int, long, PageFaultEvent)}, but for a run of consecutive file pages, starting at the given file page id,
+     * that are read into the given pages with one vectored read.
+     * @param bufferAddresses scratch space for the addresses of the pages, at least {@code length} long.
+     * @param bufferLengths the number of bytes to read into each page, at least {@code length} long.
+     * @return the number of bytes read.
+     */
+    long faultRun( long[] pageRefs, int length, PageSwapper swapper, int swapperId, long startFilePageId, long[] bufferAddresses, int[] bufferLengths )
+            throws IOException
+    {
+        if ( swapper == null )
+        {
+            throw swapperCannotBeNull();
+        }
+        for ( int i = 0; i < length; i++ )
+        {
+            long pageRef = pageRefs[i];
+            long filePageId = startFilePageId + i;
+            int currentSwapper = getSwapperId( pageRef );
+            long currentFilePageId = getFilePageId( pageRef );
+            if ( !isExclusivelyLocked( pageRef ) || currentSwapper != 0 || currentFilePageId != PageCursor.UNBOUND_PAGE_ID )
+            {
+                throw cannotFaultException( pageRef, swapper, swapperId, filePageId, currentSwapper, currentFilePageId );
+            }
+        }
+        // See the note in fault() on why the file page ids are assigned before, and the swapper id after, the swapping in.
+        for ( int i = 0; i < length; i++ )
+        {
+            setFilePageId( pageRefs[i], startFilePageId + i );
+            bufferAddresses[i] = getAddress( pageRefs[i] );
+        }
+        long bytesRead = swapper.read( startFilePageId, bufferAddresses, bufferLengths, length );
+        for ( int i = 0; i < length; i++ )
+        {
+            setSwapperId( pageRefs[i], swapperId );
+        }
+        return bytesRead;
+    }
+
     private static IllegalArgumentException swapperCannotBeNull()
     {
         return new IllegalArgumentException( "swapper cannot be null" );
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.io.pagecache.PageLoad;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.neo4j.scheduler.Group.FILE_IO_HELPER;
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
+
+/**
+ * Loads the pages that are requested with {@link MuninnPagedFile#requestPages(long[], org.neo4j.io.pagecache.context.CursorContext)} in the
+ * background, with a bounded number of workers.
+ * <p>
+ * Every worker takes the requests that are waiting, from any number of threads and for any number of files, and loads them as one batch: the
+ * requested pages of every file are sorted, and every run of consecutive pages that are not in memory is read with one vectored read. The requests
+ * of a batch are completed together, when all of their pages have been read.
+ */
+final class PageLoader
+{
+    private static final String TRACER_PAGE_LOADER_TAG = "Page loader";
+    // Taking fewer requests at a time lets the other workers share the load, when many requests come in at once.
+    private static final int MAX_BATCH_REQUESTS = 64;
+
+    private final JobScheduler scheduler;
+    private final PageCacheTracer pageCacheTracer;
+    private final int maxWorkers;
+    private final Queue<Request> requests = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger workers = new AtomicInteger();
+    private volatile boolean closed;
+
+    PageLoader( JobScheduler scheduler, PageCacheTracer pageCacheTracer, int maxWorkers )
+    {
+        this.scheduler = scheduler;
+        this.pageCacheTracer = pageCacheTracer;
+        this.maxWorkers = maxWorkers;
+    }
+
+    PageLoad request( MuninnPagedFile pagedFile, long[] filePageIds )
+    {
+        Request request = new Request( pagedFile, filePageIds.clone() );
+        requests.add( request );
+        if ( closed )
+        {
+            failWaitingRequests();
+        }
+        else
+        {
+            startWorker();
+        }
+        return request;
+    }
+
+    /**
+     * Read the file pages from {@code fromFilePageId}, inclusive, to {@code toFilePageId}, exclusive, in the background. Nobody waits for them, so
+     * a failure to read them is ignored, and left to the page faults of the cursors that go on to pin them.
+     */
+    void readAhead( MuninnPagedFile pagedFile, long fromFilePageId, long toFilePageId )
+    {
+        if ( toFilePageId <= fromFilePageId )
+        {
+            return;
+        }
+        long[] filePageIds = new long[(int) (toFilePageId - fromFilePageId)];
+        for ( int i = 0; i < filePageIds.length; i++ )
+        {
+            filePageIds[i] = fromFilePageId + i;
+        }
+        requests.add( new Request( pagedFile, filePageIds ) );
+        if ( closed )
+        {
+            failWaitingRequests();
+        }
+        else
+        {
+            startWorker();
+        }
+    }
+
+    /**
+     * Fail the requests that are waiting, and all requests that come in after this.
+     */
+    void close()
+    {
+        closed = true;
+        failWaitingRequests();
+    }
+
+    private void startWorker()
+    {
+        int current;
+        do
+        {
+            current = workers.get();
+            if ( current >= maxWorkers )
+            {
+                return;
+            }
+        }
+        while ( !workers.compareAndSet( current, current + 1 ) );
+
+        try
+        {
+            scheduler.schedule( FILE_IO_HELPER, systemJob( "Loading requested pages" ), this::work );
+        }
+        catch ( RuntimeException e )
+        {
+            workers.decrementAndGet();
+            Request request;
+            while ( (request = requests.poll()) != null )
+            {
+                request.completeExceptionally( e );
+            }
+        }
+    }
+
+    private void work()
+    {
+        try ( PageCursorTracer cursorTracer = pageCacheTracer.createPageCursorTracer( TRACER_PAGE_LOADER_TAG ) )
+        {
+            List<Request> batch = takeBatch();
+            while ( !batch.isEmpty() && !closed )
+            {
+                load( batch, cursorTracer );
+                cursorTracer.reportEvents();
+                batch = takeBatch();
+            }
+            batch.forEach( request -> request.completeExceptionally( closedException() ) );
+        }
+        finally
+        {
+            workers.decrementAndGet();
+        }
+        // a request could have come in after this worker took its last batch, and before it stopped counting as a worker
+        if ( !requests.isEmpty() )
+        {
+            if ( closed )
+            {
+                failWaitingRequests();
+            }
+            else
+            {
+                startWorker();
+            }
+        }
+    }
+
+    private List<Request> takeBatch()
+    {
+        List<Request> batch = new ArrayList<>();
+        Request request;
+        while ( batch.size() < MAX_BATCH_REQUESTS && (request = requests.poll()) != null )
+        {
+            batch.add( request );
+        }
+        return batch;
+    }
+
+    private static void load( List<Request> batch, PageCursorTracer cursorTracer )
+    {
+        Map<MuninnPagedFile,List<Request>> requestsPerFile = new IdentityHashMap<>();
+        for ( Request request : batch )
+        {
+            requestsPerFile.computeIfAbsent( request.pagedFile, file -> new ArrayList<>() ).add( request );
+        }
+        requestsPerFile.forEach( ( pagedFile, fileRequests ) ->
+        {
+            try
+            {
+                load( pagedFile, fileRequests, cursorTracer );
+                fileRequests.forEach( request -> request.complete( null ) );
+            }
+            catch ( Throwable e )
+            {
+                fileRequests.forEach( request -> request.completeExceptionally( e ) );
+            }
+        } );
+    }
+
+    private static void load( MuninnPagedFile pagedFile, List<Request> fileRequests, PageCursorTracer cursorTracer ) throws IOException
+    {
+        LongHashSet uniqueFilePageIds = new LongHashSet();
+        for ( Request request : fileRequests )
+        {
+            for ( long filePageId : request.filePageIds )
+            {
+                if ( filePageId >= 0 )
+                {
+                    uniqueFilePageIds.add( filePageId );
+                }
+            }
+        }
+        long[] filePageIds = uniqueFilePageIds.toSortedArray();
+        VectoredReadAhead readAhead = new VectoredReadAhead( pagedFile );
+        int start = 0;
+        while ( start < filePageIds.length )
+        {
+            int end = start + 1;
+            while ( end < filePageIds.length && filePageIds[end] == filePageIds[end - 1] + 1 )
+            {
+                end++;
+            }
+            if ( !readAhead.read( filePageIds[start], filePageIds[end - 1] + 1, cursorTracer ) )
+            {
+                // the rest of the pages are past the end of the file
+                return;
+            }
+            start = end;
+        }
+    }
+
+    private void failWaitingRequests()
+    {
+        Request request;
+        while ( (request = requests.poll()) != null )
+        {
+            request.completeExceptionally( closedException() );
+        }
+    }
+
+    private static IllegalStateException closedException()
+    {
+        return new IllegalStateException( "The page cache has been closed." );
+    }
+
+    private static final class Request extends CompletableFuture<Void> implements PageLoad
+    {
+        private final MuninnPagedFile pagedFile;
+        private final long[] filePageIds;
+
+        Request( MuninnPagedFile pagedFile, long[] filePageIds )
+        {
+            this.pagedFile = pagedFile;
+            this.filePageIds = filePageIds;
+        }
+
+        @Override
+        public void await() throws IOException
+        {
+            try
+            {
+                get();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                InterruptedIOException exception = new InterruptedIOException( "Interrupted while waiting for pages of " + pagedFile.path() );
+                exception.initCause( e );
+                throw exception;
+            }
+            catch ( ExecutionException e )
+            {
+                Throwable cause = e.getCause();
+                if ( cause instanceof IOException )
+                {
+                    throw (IOException) cause;
+                }
+                throw new IOException( "Failed to load pages of " + pagedFile.path(), cause );
+            }
+        }
+    }
+}
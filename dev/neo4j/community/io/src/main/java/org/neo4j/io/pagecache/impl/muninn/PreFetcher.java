@@ -48,6 +48,9 @@ import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
  * The pre-fetcher is adaptive because the number of pages the pre-fetcher will move ahead of the scanning cursor, and the length of time the pre-fetcher
  * will wait in between checking on the progress of the scanner, are dynamically computed and updated based on how fast the scanner appears to be.
  * The pre-fetcher also automatically figures out if the scanner is scanning the file in a forward or backwards direction.
+ *
+ * Unless {@link VectoredReadAhead} is disabled, the pages ahead of the scanner are read with one vectored read per run of pages that are not in memory,
+ * rather than by touching them one by one with a cursor.
  */
 class PreFetcher implements Runnable, CancelListener
 {
@@ -123,6 +126,8 @@ class PreFetcher implements Runnable, CancelListener
         // The initial value don't matter so much. Just same as offset, so we initially fetch one page.
         long jump = offset;
 
+        VectoredReadAhead readAhead = VectoredReadAhead.enabled ? new VectoredReadAhead( observedCursor.pagedFile ) : null;
+
         try ( var tracer = this.tracer.createPageCursorTracer( TRACER_PRE_FETCHER_TAG );
                 PageCursor prefetchCursor = cursorFactory.takeReadCursor( 0, PF_SHARED_READ_LOCK, new CursorContext( tracer ) ) )
         {
@@ -140,13 +145,24 @@ class PreFetcher implements Runnable, CancelListener
                     fromPage = Math.max( 0, cp + jump );
                     toPage = cp;
                 }
-                while ( fromPage < toPage )
+                if ( readAhead != null )
                 {
-                    if ( !prefetchCursor.next( fromPage ) || cancelled )
+                    // Read the pages that are not in memory yet, in runs of consecutive pages.
+                    if ( !readAhead.read( fromPage, toPage, tracer ) || cancelled )
                     {
                         return; // Reached the end of the file. Or got cancelled.
                     }
-                    fromPage++;
+                }
+                else
+                {
+                    while ( fromPage < toPage )
+                    {
+                        if ( !prefetchCursor.next( fromPage ) || cancelled )
+                        {
+                            return; // Reached the end of the file. Or got cancelled.
+                        }
+                        fromPage++;
+                    }
                 }
 
                 // Phase 3.5: After each prefetch round, we wait for the cursor to move again.
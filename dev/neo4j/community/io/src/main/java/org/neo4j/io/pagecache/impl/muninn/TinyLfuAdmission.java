@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+/**
+ * TinyLFU admission for the {@link MuninnPageCache}. The frequency sketch counts page faults per file page. A page that has not been faulted in
+ * recently is put on probation in a window of the most recently faulted pages. Pages are evicted from the window, oldest first, before the clock
+ * sweeps over the rest of the cache.
+ * <p>
+ * A full store scan faults in every page of the store once, so its pages end up in the window, and it only keeps evicting its own pages. The
+ * pages of the working set are faulted in again and again when they do get evicted, so they are admitted to the main part of the cache.
+ * <p>
+ * Page faults do not take a lock. They are recorded in fault buffers, striped by thread, and the sketch and the window are only updated when the
+ * buffers are drained. Draining takes the admission lock, but only with {@link ReentrantLock#tryLock()}: when another thread is already draining
+ * or polling victims, a faulting thread moves on, and an evicting thread falls back to the clock. A fault that finds its buffer full and the
+ * lock taken is not recorded, and its page is left to the clock.
+ */
+final class TinyLfuAdmission implements PageAdmission
+{
+    // The number of times a file page must have been faulted in recently, counting the current fault, to skip probation.
+    private static final int admissionFrequency = getInteger( TinyLfuAdmission.class, "admissionFrequency", 2 );
+    // The percentage of the cache pages that are protected in the window.
+    private static final int windowPercentage = getInteger( TinyLfuAdmission.class, "windowPercentage", 1 );
+    // A pre-fetcher and the scan itself both pin the pages of a scan, so pages on probation that have been used more than that are left to the clock.
+    private static final int MAX_PROBATION_USAGE = 2;
+    // The number of faults each fault buffer can hold before it has to be drained.
+    private static final int FAULT_BUFFER_SIZE = 64;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final FaultBuffer[] faultBuffers;
+    private final int faultBufferMask;
+
+    // The sketch and the window are only accessed under the lock.
+    private final FrequencySketch sketch;
+    // Pairs of page reference and page binding, oldest first, in a ring that can hold every page of the cache.
+    private final long[] window;
+    private final int capacity;
+    private final int protectedPages;
+    private int head;
+    private int size;
+
+    TinyLfuAdmission( int pageCount )
+    {
+        this( pageCount, Runtime.getRuntime().availableProcessors() );
+    }
+
+    TinyLfuAdmission( int pageCount, int concurrency )
+    {
+        // the sketch remembers about two cache fills worth of page faults
+        this.sketch = new FrequencySketch( pageCount, 2L * pageCount );
+        this.protectedPages = (int) Math.max( 1, (long) pageCount * windowPercentage / 100 );
+        this.capacity = pageCount;
+        this.window = new long[2 * capacity];
+        int stripes = Integer.highestOneBit( Math.max( 1, 2 * concurrency - 1 ) );
+        this.faultBuffers = new FaultBuffer[stripes];
+        for ( int i = 0; i < stripes; i++ )
+        {
+            faultBuffers[i] = new FaultBuffer();
+        }
+        this.faultBufferMask = stripes - 1;
+    }
+
+    @Override
+    public void pageFaulted( long pageRef )
+    {
+        long binding = PageList.getBinding( pageRef );
+        FaultBuffer buffer = faultBuffers[stripe()];
+        if ( !buffer.offer( pageRef, binding ) && lock.tryLock() )
+        {
+            try
+            {
+                drainFaultBuffers();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+            buffer.offer( pageRef, binding );
+        }
+    }
+
+    @Override
+    public long pollVictim()
+    {
+        if ( !lock.tryLock() )
+        {
+            return 0;
+        }
+        try
+        {
+            drainFaultBuffers();
+            // the most recently faulted pages are protected, so a scan does not lose its pages before it has read them
+            while ( size > protectedPages )
+            {
+                long pageRef = window[2 * head];
+                long binding = window[2 * head + 1];
+                head = next( head );
+                size--;
+                // the page may have been evicted by the clock already, and even be bound to another file page by now
+                if ( PageList.getBinding( pageRef ) == binding && PageList.getUsage( pageRef ) <= MAX_PROBATION_USAGE )
+                {
+                    return pageRef;
+                }
+            }
+            return 0;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private void drainFaultBuffers()
+    {
+        for ( FaultBuffer buffer : faultBuffers )
+        {
+            buffer.drainTo( this );
+        }
+    }
+
+    private void admit( long pageRef, long binding )
+    {
+        sketch.increment( binding );
+        if ( sketch.frequency( binding ) >= admissionFrequency )
+        {
+            return;
+        }
+        if ( size == capacity )
+        {
+            // the oldest page in the window is left to the clock
+            head = next( head );
+            size--;
+        }
+        int tail = (head + size) % capacity;
+        window[2 * tail] = pageRef;
+        window[2 * tail + 1] = binding;
+        size++;
+    }
+
+    private int next( int index )
+    {
+        return index + 1 == capacity ? 0 : index + 1;
+    }
+
+    private int stripe()
+    {
+        long id = Thread.currentThread().getId();
+        return (int) ((id * 0x9e3779b97f4a7c15L) >>> 32) & faultBufferMask;
+    }
+
+    /**
+     * A bounded buffer of page faults that many threads add to, and that is drained by one thread at a time, under the admission lock.
+     */
+    private static final class FaultBuffer
+    {
+        private static final int MASK = FAULT_BUFFER_SIZE - 1;
+
+        private final AtomicLong writes = new AtomicLong();
+        // Pairs of page reference and page binding. A page reference of 0 marks a slot that has not been published yet, or has been drained.
+        private final AtomicLongArray faults = new AtomicLongArray( 2 * FAULT_BUFFER_SIZE );
+        private volatile long reads;
+
+        /**
+         * @return {@code false} if the buffer is full, or if another thread took the same slot at the same time.
+         */
+        boolean offer( long pageRef, long binding )
+        {
+            long write = writes.get();
+            if ( write - reads >= FAULT_BUFFER_SIZE || !writes.compareAndSet( write, write + 1 ) )
+            {
+                return false;
+            }
+            int index = 2 * (int) (write & MASK);
+            faults.lazySet( index + 1, binding );
+            faults.lazySet( index, pageRef );
+            return true;
+        }
+
+        void drainTo( TinyLfuAdmission admission )
+        {
+            long read = reads;
+            long write = writes.get();
+            for ( ; read < write; read++ )
+            {
+                int index = 2 * (int) (read & MASK);
+                long pageRef = faults.get( index );
+                if ( pageRef == 0 )
+                {
+                    // the fault that took this slot is still being published, so it is left for the next drain
+                    break;
+                }
+                long binding = faults.get( index + 1 );
+                faults.lazySet( index, 0 );
+                admission.admit( pageRef, binding );
+            }
+            reads = read;
+        }
+    }
+}
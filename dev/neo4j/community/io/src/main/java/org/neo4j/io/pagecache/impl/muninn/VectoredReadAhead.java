@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
+import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+import org.neo4j.io.pagecache.tracing.PinEvent;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+
+import static org.neo4j.io.pagecache.impl.muninn.MuninnPagedFile.TRANSLATION_TABLE_ARRAY;
+import static org.neo4j.io.pagecache.impl.muninn.MuninnPagedFile.UNMAPPED_TTE;
+import static org.neo4j.util.FeatureToggles.flag;
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+/**
+ * Reads runs of consecutive file pages that are not in memory into free pages, with one vectored read per run, instead of one page fault per page.
+ * This is the read-ahead of the {@link PreFetcher}, and of the {@link PageLoader}, which also reads ahead for read cursors that are opened with
+ * {@link PagedFile#PF_READ_AHEAD} when they have to fault in a page.
+ * <p>
+ * A file page that is already in memory, or that is being faulted in by another thread, ends the current run and is skipped. The pages that are
+ * read are not pinned, but their usage counter is incremented like that of a page fault, so they are not evicted before the scan gets to them.
+ * <p>
+ * Instances are not thread-safe.
+ */
+final class VectoredReadAhead
+{
+    static final boolean enabled = flag( VectoredReadAhead.class, "enabled", true );
+    // The largest number of pages to read with one vectored read.
+    static final int maxRunPages = getInteger( VectoredReadAhead.class, "maxRunPages", 32 );
+
+    private final MuninnPagedFile pagedFile;
+    private final int runCapacity;
+    private final long[] pageRefs;
+    private final LatchMap.Latch[] latches;
+    private final PinEvent[] pinEvents;
+    private final PageFaultEvent[] faultEvents;
+    private final long[] bufferAddresses;
+    private final int[] bufferLengths;
+    private long runStart;
+    private int runLength;
+    private long pagesRead;
+
+    VectoredReadAhead( MuninnPagedFile pagedFile )
+    {
+        this.pagedFile = pagedFile;
+        this.runCapacity = runCapacity( pagedFile.pageCache );
+        this.pageRefs = new long[runCapacity];
+        this.latches = new LatchMap.Latch[runCapacity];
+        this.pinEvents = new PinEvent[runCapacity];
+        this.faultEvents = new PageFaultEvent[runCapacity];
+        this.bufferAddresses = new long[runCapacity];
+        this.bufferLengths = new int[runCapacity];
+        Arrays.fill( bufferLengths, pagedFile.filePageSize );
+    }
+
+    /**
+     * @return the largest number of pages that are read with one vectored read, in the given page cache.
+     */
+    static int runCapacity( MuninnPageCache pageCache )
+    {
+        // the pages of a run are held exclusively locked until it is read, so a run must only ever take a small part of the cache
+        return (int) Math.max( 1, Math.min( maxRunPages, pageCache.maxCachedPages() / 16 ) );
+    }
+
+    /**
+     * @return the number of pages that this read-ahead has read into the cache so far. Pages that it skipped are not counted.
+     */
+    long pagesRead()
+    {
+        return pagesRead;
+    }
+
+    /**
+     * Read the file pages from {@code fromFilePageId}, inclusive, to {@code toFilePageId}, exclusive, that are not in memory.
+     * @return {@code false} if the range goes past the end of the file, in which case the pages up to the end of the file have been read.
+     */
+    boolean read( long fromFilePageId, long toFilePageId, PageCursorTracer tracer ) throws IOException
+    {
+        long lastPageId = pagedFile.getLastPageId();
+        long endFilePageId = Math.min( toFilePageId, lastPageId + 1 );
+        try
+        {
+            for ( long filePageId = fromFilePageId; filePageId < endFilePageId; filePageId++ )
+            {
+                if ( !addToRun( filePageId, tracer ) || runLength == runCapacity )
+                {
+                    readRun();
+                }
+            }
+            readRun();
+        }
+        catch ( Throwable throwable )
+        {
+            abandonRun( throwable );
+            throw throwable;
+        }
+        return toFilePageId <= lastPageId + 1;
+    }
+
+    /**
+     * Add the given file page to the current run, if it is not in memory and nobody else is faulting it in.
+     * @return {@code false} if the file page was skipped.
+     */
+    private boolean addToRun( long filePageId, PageCursorTracer tracer ) throws IOException
+    {
+        int[] chunk = chunk( filePageId );
+        int chunkIndex = MuninnPagedFile.computeChunkIndex( filePageId );
+        if ( (int) TRANSLATION_TABLE_ARRAY.getVolatile( chunk, chunkIndex ) != UNMAPPED_TTE )
+        {
+            return false;
+        }
+        LatchMap.Latch latch = pagedFile.pageFaultLatches.tryTakeLatch( filePageId );
+        if ( latch == null )
+        {
+            return false;
+        }
+        // double-check that a page fault did not complete in-between our look up and us getting the latch
+        if ( (int) TRANSLATION_TABLE_ARRAY.getVolatile( chunk, chunkIndex ) != UNMAPPED_TTE )
+        {
+            latch.release();
+            return false;
+        }
+        if ( runLength == 0 )
+        {
+            runStart = filePageId;
+        }
+        PinEvent pinEvent = tracer.beginPin( false, filePageId, pagedFile.swapper );
+        PageFaultEvent faultEvent = pinEvent.beginPageFault( filePageId, pagedFile.swapperId );
+        latches[runLength] = latch;
+        pinEvents[runLength] = pinEvent;
+        faultEvents[runLength] = faultEvent;
+        pageRefs[runLength] = 0;
+        runLength++;
+        // the page is only grabbed when it is part of the run, so that abandonRun takes care of it if this throws
+        pageRefs[runLength - 1] = pagedFile.grabFreeAndExclusivelyLockedPage( faultEvent );
+        return true;
+    }
+
+    private void readRun() throws IOException
+    {
+        if ( runLength == 0 )
+        {
+            return;
+        }
+        // check if we're racing with unmapping, like a page fault does, before the read would reopen the file channel
+        pagedFile.getLastPageId();
+        for ( int i = 0; i < runLength; i++ )
+        {
+            pagedFile.initBuffer( pageRefs[i] );
+        }
+        long bytesRead = pagedFile.faultRun( pageRefs, runLength, pagedFile.swapper, pagedFile.swapperId, runStart, bufferAddresses, bufferLengths );
+        for ( int i = 0; i < runLength; i++ )
+        {
+            long pageRef = pageRefs[i];
+            long filePageId = runStart + i;
+            pagedFile.pageFaulted( pageRef );
+            PageList.incrementUsage( pageRef );
+            int pageId = pagedFile.toId( pageRef );
+            PageFaultEvent faultEvent = faultEvents[i];
+            long pageBytesRead = Math.min( bytesRead, pagedFile.filePageSize );
+            bytesRead -= pageBytesRead;
+            faultEvent.addBytesRead( pageBytesRead );
+            faultEvent.setCachePageId( pageId );
+            TRANSLATION_TABLE_ARRAY.setVolatile( chunk( filePageId ), MuninnPagedFile.computeChunkIndex( filePageId ), pageId );
+            PageList.unlockExclusive( pageRef );
+            latches[i].release();
+            faultEvent.done();
+            pinEvents[i].done();
+        }
+        pagesRead += runLength;
+        clearRun();
+    }
+
+    private void abandonRun( Throwable throwable )
+    {
+        for ( int i = 0; i < runLength; i++ )
+        {
+            long pageRef = pageRefs[i];
+            if ( pageRef != 0 )
+            {
+                if ( PageList.isLoaded( pageRef ) )
+                {
+                    // like a failed page fault, leave the page to the eviction thread
+                    PageList.unlockExclusive( pageRef );
+                }
+                else
+                {
+                    // free pages are kept exclusively locked on the freelist
+                    pagedFile.pageCache.addFreePageToFreelist( pageRef, EvictionRunEvent.NULL );
+                }
+            }
+            latches[i].release();
+            faultEvents[i].fail( throwable );
+            pinEvents[i].done();
+        }
+        clearRun();
+    }
+
+    private void clearRun()
+    {
+        Arrays.fill( latches, 0, runLength, null );
+        Arrays.fill( pinEvents, 0, runLength, null );
+        Arrays.fill( faultEvents, 0, runLength, null );
+        runLength = 0;
+    }
+
+    private int[] chunk( long filePageId ) throws IOException
+    {
+        int chunkId = MuninnPagedFile.computeChunkId( filePageId );
+        int[][] tt = pagedFile.translationTable;
+        if ( tt.length <= chunkId )
+        {
+            tt = pagedFile.expandCapacity( chunkId );
+        }
+        return tt[chunkId];
+    }
+}
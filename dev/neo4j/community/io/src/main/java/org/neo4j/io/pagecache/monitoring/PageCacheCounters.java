@@ -19,6 +19,9 @@
  */
 package org.neo4j.io.pagecache.monitoring;
 
+import java.nio.file.Path;
+import java.util.Map;
+
 /**
  * The PageCacheCounters exposes internal counters from the page cache.
  * The data for these counters is sourced through the PageCacheTracer API.
@@ -30,6 +33,11 @@ public interface PageCacheCounters
      */
     long faults();
 
+    /**
+     * @return The number of nanoseconds spent in page faults thus far.
+     */
+    long faultNanos();
+
     /**
      * @return The number of page evictions observed thus far.
      */
@@ -96,6 +104,14 @@ public interface PageCacheCounters
      */
     double usageRatio();
 
+    /**
+     * @return The number of pages in the page cache of every mapped file, by the path of the file, or an empty map if it cannot be determined.
+     */
+    default Map<Path,Integer> residentPages()
+    {
+        return Map.of();
+    }
+
     /**
      * @return The number of IOPQ performed thus far.
      */
@@ -20,6 +20,12 @@
 package org.neo4j.io.pagecache.tracing;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
 
@@ -35,6 +41,7 @@ import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 public class DefaultPageCacheTracer implements PageCacheTracer
 {
     protected final LongAdder faults = new LongAdder();
+    protected final LongAdder faultNanos = new LongAdder();
     protected final LongAdder evictions = new LongAdder();
     protected final LongAdder pins = new LongAdder();
     protected final LongAdder unpins = new LongAdder();
@@ -50,6 +57,9 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     protected final LongAdder ioLimitedTimes = new LongAdder();
     protected final LongAdder ioLimitedMillis = new LongAdder();
     protected final AtomicLong maxPages = new AtomicLong();
+    private final Map<Path,FileFlushEvent> lastFileFlushes = new ConcurrentHashMap<>();
+    private final Map<Path,PagedFile> mappedFiles = new ConcurrentHashMap<>();
+    private final PageAccessHeatmap heatmap;
 
     private final FlushEvent flushEvent = new FlushEvent()
     {
@@ -181,22 +191,61 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         }
     };
 
+    public DefaultPageCacheTracer()
+    {
+        this( new PageAccessHeatmap( 0 ) );
+    }
+
+    /**
+     * @param heatmap counts a sample of the pins of the page cursor tracers of this tracer, per file and region of the file.
+     */
+    public DefaultPageCacheTracer( PageAccessHeatmap heatmap )
+    {
+        this.heatmap = heatmap;
+    }
+
     @Override
     public PageCursorTracer createPageCursorTracer( String tag )
     {
-        return new DefaultPageCursorTracer( this, tag );
+        return new DefaultPageCursorTracer( this, tag, heatmap );
+    }
+
+    /**
+     * @return the sampled pins and page faults per file and region of the file.
+     */
+    public PageAccessHeatmap heatmap()
+    {
+        return heatmap;
     }
 
     @Override
     public void mappedFile( int swapperId, PagedFile mappedFile )
     {
         filesMapped.increment();
+        if ( mappedFile.path() != null )
+        {
+            mappedFiles.put( mappedFile.path(), mappedFile );
+        }
     }
 
     @Override
     public void unmappedFile( int swapperId, PagedFile mappedFile )
     {
         filesUnmapped.increment();
+        if ( mappedFile.path() != null )
+        {
+            lastFileFlushes.remove( mappedFile.path() );
+            mappedFiles.remove( mappedFile.path(), mappedFile );
+            heatmap.forget( mappedFile.path() );
+        }
+    }
+
+    @Override
+    public Map<Path,Integer> residentPages()
+    {
+        Map<Path,Integer> residentPages = new HashMap<>();
+        mappedFiles.forEach( ( path, file ) -> residentPages.put( path, file.residentPages() ) );
+        return residentPages;
     }
 
     @Override
@@ -214,7 +263,23 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     @Override
     public MajorFlushEvent beginFileFlush( PageSwapper swapper )
     {
-        return majorFlushEvent;
+        return new FileFlushEvent( this, swapper.path() );
+    }
+
+    /**
+     * @return the last flush of every mapped file that has been flushed in full, in no particular order.
+     */
+    public List<FileFlushEvent> lastFileFlushes()
+    {
+        return new ArrayList<>( lastFileFlushes.values() );
+    }
+
+    void fileFlushed( FileFlushEvent flush )
+    {
+        if ( flush.file() != null )
+        {
+            lastFileFlushes.put( flush.file(), flush );
+        }
     }
 
     @Override
@@ -229,6 +294,12 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         return faults.sum();
     }
 
+    @Override
+    public long faultNanos()
+    {
+        return faultNanos.sum();
+    }
+
     @Override
     public long evictions()
     {
@@ -367,6 +438,12 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         this.faults.add( faults );
     }
 
+    @Override
+    public void faultNanos( long faultNanos )
+    {
+        this.faultNanos.add( faultNanos );
+    }
+
     @Override
     public void bytesRead( long bytesRead )
     {
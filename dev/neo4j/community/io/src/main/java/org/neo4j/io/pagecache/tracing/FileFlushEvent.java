@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.tracing;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.neo4j.io.pagecache.PageSwapper;
+
+/**
+ * A flush of the pages of one file, as traced by the {@link DefaultPageCacheTracer}. Next to the counters of the tracer, it counts what was done for this
+ * file, so that the files that make a flush of many files slow can be told apart.
+ * <p>
+ * The counters are written by the flushing thread only, and can be read once the flush is {@link #close() closed}.
+ */
+public class FileFlushEvent implements MajorFlushEvent
+{
+    private final DefaultPageCacheTracer tracer;
+    private final Path file;
+    private final long startNanos;
+    private boolean wholeFile;
+    private long pagesFlushed;
+    private long pagesMerged;
+    private long bytesWritten;
+    private long ios;
+    private long ioLimitedTimes;
+    private long ioLimitedMillis;
+    private long durationNanos;
+
+    private final FlushEvent flushEvent = new FlushEvent()
+    {
+        @Override
+        public void addBytesWritten( long bytes )
+        {
+            bytesWritten += bytes;
+            tracer.bytesWritten.add( bytes );
+        }
+
+        @Override
+        public void done()
+        {
+        }
+
+        @Override
+        public void done( IOException exception )
+        {
+            done();
+        }
+
+        @Override
+        public void addPagesFlushed( int pageCount )
+        {
+            pagesFlushed += pageCount;
+            tracer.flushes.add( pageCount );
+        }
+
+        @Override
+        public void addPagesMerged( int pagesMerged )
+        {
+            FileFlushEvent.this.pagesMerged += pagesMerged;
+            tracer.merges.add( pagesMerged );
+        }
+    };
+
+    FileFlushEvent( DefaultPageCacheTracer tracer, Path file )
+    {
+        this.tracer = tracer;
+        this.file = file;
+        this.startNanos = System.nanoTime();
+    }
+
+    @Override
+    public FlushEvent beginFlush( long[] pageRefs, PageSwapper swapper, PageReferenceTranslator pageReferenceTranslator, int pagesToFlush, int mergedPages )
+    {
+        return flushEvent;
+    }
+
+    @Override
+    public FlushEvent beginFlush( long pageRef, PageSwapper swapper, PageReferenceTranslator pageReferenceTranslator )
+    {
+        return flushEvent;
+    }
+
+    @Override
+    public void startFlush( int[][] translationTable )
+    {
+        wholeFile = true;
+    }
+
+    @Override
+    public ChunkEvent startChunk( int[] chunk )
+    {
+        return ChunkEvent.NULL;
+    }
+
+    @Override
+    public void throttle( long millis )
+    {
+        ioLimitedTimes++;
+        ioLimitedMillis += millis;
+        tracer.limitIO( millis );
+    }
+
+    @Override
+    public void reportIO( int completedIOs )
+    {
+        ios += completedIOs;
+        tracer.iopq( completedIOs );
+    }
+
+    @Override
+    public void close()
+    {
+        durationNanos = System.nanoTime() - startNanos;
+        if ( wholeFile )
+        {
+            tracer.fileFlushed( this );
+        }
+    }
+
+    /**
+     * @return the flushed file.
+     */
+    public Path file()
+    {
+        return file;
+    }
+
+    /**
+     * @return the number of pages that were written.
+     */
+    public long pagesFlushed()
+    {
+        return pagesFlushed;
+    }
+
+    /**
+     * @return the number of pages that were written together with the page before them.
+     */
+    public long pagesMerged()
+    {
+        return pagesMerged;
+    }
+
+    /**
+     * @return the number of bytes that were written.
+     */
+    public long bytesWritten()
+    {
+        return bytesWritten;
+    }
+
+    /**
+     * @return the number of IOs that were reported to the io controller.
+     */
+    public long ios()
+    {
+        return ios;
+    }
+
+    /**
+     * @return the number of times the flush was paused by the io controller.
+     */
+    public long ioLimitedTimes()
+    {
+        return ioLimitedTimes;
+    }
+
+    /**
+     * @return the number of milliseconds the flush was paused by the io controller.
+     */
+    public long ioLimitedMillis()
+    {
+        return ioLimitedMillis;
+    }
+
+    /**
+     * @return how long the flush took, including forcing the file to the storage device, in nanoseconds.
+     */
+    public long durationNanos()
+    {
+        return durationNanos;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format( "FileFlushEvent[%s, pagesFlushed=%d, bytesWritten=%d, ios=%d, ioLimitedMillis=%d, durationNanos=%d]", file, pagesFlushed,
+                bytesWritten, ios, ioLimitedMillis, durationNanos );
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.tracing;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.neo4j.util.Preconditions.requireNonNegative;
+
+/**
+ * Counts the pins and page faults of a sample of the page cursor pins, per file and per region of consecutive file pages, so that it can be told
+ * which files, and which parts of them, are used the most and cause the most IO.
+ * <p>
+ * Only one in {@link #sampleInterval()} pins is counted, by every {@link org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer}. The page faults
+ * are counted for the sampled pins only, so the counts of the {@link #regions() regions} are estimates, that are the sampled counts times the sample
+ * interval.
+ */
+public class PageAccessHeatmap
+{
+    /**
+     * The number of file pages in a region.
+     */
+    public static final int REGION_PAGES = 1024;
+    private static final int REGION_SHIFT = Integer.numberOfTrailingZeros( REGION_PAGES );
+
+    private final int sampleInterval;
+    private final Map<Path,Map<Long,RegionCounters>> files = new ConcurrentHashMap<>();
+
+    /**
+     * @param sampleInterval count one in this many pins, or {@code 0} to not count any.
+     */
+    public PageAccessHeatmap( int sampleInterval )
+    {
+        this.sampleInterval = requireNonNegative( sampleInterval );
+    }
+
+    /**
+     * @return the number of pins for every pin that is counted, or {@code 0} if no pins are counted.
+     */
+    public int sampleInterval()
+    {
+        return sampleInterval;
+    }
+
+    /**
+     * A sampled pin of the given file page.
+     */
+    public void pinned( Path file, long filePageId )
+    {
+        counters( file, filePageId ).pins.increment();
+    }
+
+    /**
+     * A page fault of the given file page, by a sampled pin.
+     */
+    public void faulted( Path file, long filePageId )
+    {
+        counters( file, filePageId ).faults.increment();
+    }
+
+    /**
+     * @return the estimated pins and page faults of every region that has had a sampled pin, ordered by file and by region.
+     */
+    public List<Region> regions()
+    {
+        List<Region> regions = new ArrayList<>();
+        files.forEach( ( file, fileRegions ) -> fileRegions.forEach( ( region, counters ) -> regions.add(
+                new Region( file, region << REGION_SHIFT, counters.pins.sum() * sampleInterval, counters.faults.sum() * sampleInterval ) ) ) );
+        regions.sort( Comparator.comparing( Region::file ).thenComparingLong( Region::firstPageId ) );
+        return regions;
+    }
+
+    /**
+     * Forget the counts of the given file, when it has been unmapped.
+     */
+    public void forget( Path file )
+    {
+        files.remove( file );
+    }
+
+    private RegionCounters counters( Path file, long filePageId )
+    {
+        return files.computeIfAbsent( file, f -> new ConcurrentHashMap<>() ).computeIfAbsent( filePageId >>> REGION_SHIFT, r -> new RegionCounters() );
+    }
+
+    private static class RegionCounters
+    {
+        private final LongAdder pins = new LongAdder();
+        private final LongAdder faults = new LongAdder();
+    }
+
+    /**
+     * The estimated pins and page faults of the file pages from {@link #firstPageId()} to {@link #lastPageId()}, inclusive, of a file.
+     */
+    public static class Region
+    {
+        private final Path file;
+        private final long firstPageId;
+        private final long pins;
+        private final long faults;
+
+        Region( Path file, long firstPageId, long pins, long faults )
+        {
+            this.file = file;
+            this.firstPageId = firstPageId;
+            this.pins = pins;
+            this.faults = faults;
+        }
+
+        public Path file()
+        {
+            return file;
+        }
+
+        public long firstPageId()
+        {
+            return firstPageId;
+        }
+
+        public long lastPageId()
+        {
+            return firstPageId + REGION_PAGES - 1;
+        }
+
+        public long pins()
+        {
+            return pins;
+        }
+
+        public long faults()
+        {
+            return faults;
+        }
+
+        @Override
+        public String toString()
+        {
+            return file + "[" + firstPageId + ".." + lastPageId() + "] pins=" + pins + ", faults=" + faults;
+        }
+    }
+}
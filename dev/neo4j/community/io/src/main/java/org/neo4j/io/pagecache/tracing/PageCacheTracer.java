@@ -82,6 +82,12 @@ public interface PageCacheTracer extends PageCacheCounters
             return 0;
         }
 
+        @Override
+        public long faultNanos()
+        {
+            return 0;
+        }
+
         @Override
         public long evictions()
         {
@@ -198,6 +204,11 @@ public interface PageCacheTracer extends PageCacheCounters
         {
         }
 
+        @Override
+        public void faultNanos( long faultNanos )
+        {
+        }
+
         @Override
         public void bytesRead( long bytesRead )
         {
@@ -316,6 +327,12 @@ public interface PageCacheTracer extends PageCacheCounters
      */
     void faults( long faults );
 
+    /**
+     * Report time spent in page faults
+     * @param faultNanos number of nanoseconds spent in page faults
+     */
+    void faultNanos( long faultNanos );
+
     /**
      * Report number of bytes read
      * @param bytesRead number of read bytes
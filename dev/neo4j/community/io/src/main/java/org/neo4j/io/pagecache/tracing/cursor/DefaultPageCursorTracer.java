@@ -20,11 +20,14 @@
 package org.neo4j.io.pagecache.tracing.cursor;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.neo4j.internal.helpers.MathUtil;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.tracing.EvictionEvent;
 import org.neo4j.io.pagecache.tracing.FlushEvent;
+import org.neo4j.io.pagecache.tracing.PageAccessHeatmap;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
 import org.neo4j.io.pagecache.tracing.PageReferenceTranslator;
@@ -36,6 +39,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
     private long unpins;
     private long hits;
     private long faults;
+    private long faultNanos;
     private long bytesRead;
     private long bytesWritten;
     private long evictions;
@@ -46,11 +50,24 @@ public class DefaultPageCursorTracer implements PageCursorTracer
     private final DefaultPinEvent pinTracingEvent = new DefaultPinEvent();
     private final PageCacheTracer pageCacheTracer;
     private final String tag;
+    private final PageAccessHeatmap heatmap;
+    private int pinsUntilSample;
 
     public DefaultPageCursorTracer( PageCacheTracer pageCacheTracer, String tag )
+    {
+        this( pageCacheTracer, tag, null );
+    }
+
+    /**
+     * @param heatmap counts a sample of the pins of this tracer, or {@code null} to not count pins per file.
+     */
+    public DefaultPageCursorTracer( PageCacheTracer pageCacheTracer, String tag, PageAccessHeatmap heatmap )
     {
         this.pageCacheTracer = pageCacheTracer;
         this.tag = tag;
+        this.heatmap = heatmap != null && heatmap.sampleInterval() > 0 ? heatmap : null;
+        // Cursor tracers often only see a handful of pins, so they start at a random point of the interval, to not only ever sample their first pin.
+        this.pinsUntilSample = this.heatmap != null ? ThreadLocalRandom.current().nextInt( this.heatmap.sampleInterval() ) + 1 : 0;
     }
 
     @Override
@@ -77,6 +94,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         if ( faults > 0 )
         {
             pageCacheTracer.faults( faults );
+            pageCacheTracer.faultNanos( faultNanos );
         }
         if ( bytesRead > 0 )
         {
@@ -111,6 +129,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         unpins = 0;
         hits = 0;
         faults = 0;
+        faultNanos = 0;
         bytesRead = 0;
         bytesWritten = 0;
         evictions = 0;
@@ -190,6 +209,18 @@ public class DefaultPageCursorTracer implements PageCursorTracer
     {
         pins++;
         pinTracingEvent.eventHits = 1;
+        pinTracingEvent.sampledFile = null;
+        if ( heatmap != null && --pinsUntilSample == 0 )
+        {
+            pinsUntilSample = heatmap.sampleInterval();
+            Path file = swapper.path();
+            if ( file != null )
+            {
+                heatmap.pinned( file, filePageId );
+                pinTracingEvent.sampledFile = file;
+                pinTracingEvent.sampledFilePageId = filePageId;
+            }
+        }
         return pinTracingEvent;
     }
 
@@ -224,8 +255,14 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         }
     };
 
-    private final PageFaultEvent pageFaultEvent = new PageFaultEvent()
+    /**
+     * Unlike the other events, a page fault event is not shared, because a read-ahead has the page faults of a whole run of pages open at the same
+     * time, and each of them is timed from when it began.
+     */
+    private class DefaultPageFaultEvent implements PageFaultEvent
     {
+        private final long startNanos = System.nanoTime();
+
         @Override
         public void addBytesRead( long bytes )
         {
@@ -236,6 +273,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public void done()
         {
             faults++;
+            faultNanos += System.nanoTime() - startNanos;
         }
 
         @Override
@@ -259,7 +297,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public void setCachePageId( long cachePageId )
         {
         }
-    };
+    }
 
     private final FlushEvent flushEvent = new FlushEvent()
     {
@@ -296,6 +334,8 @@ public class DefaultPageCursorTracer implements PageCursorTracer
     private class DefaultPinEvent implements PinEvent
     {
         private int eventHits = 1;
+        private Path sampledFile;
+        private long sampledFilePageId;
 
         @Override
         public void setCachePageId( long cachePageId )
@@ -306,7 +346,11 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public PageFaultEvent beginPageFault( long filePageId, int swapperId )
         {
             eventHits = 0;
-            return pageFaultEvent;
+            if ( sampledFile != null )
+            {
+                heatmap.faulted( sampledFile, sampledFilePageId );
+            }
+            return new DefaultPageFaultEvent();
         }
 
         @Override
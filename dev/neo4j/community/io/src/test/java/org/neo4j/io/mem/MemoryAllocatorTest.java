@@ -21,6 +21,8 @@ package org.neo4j.io.mem;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
 
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.ByteUnit;
@@ -218,6 +220,50 @@ class MemoryAllocatorTest
         UnsafeUtil.getLong( address + ONE_PAGE - Long.BYTES ); // End of allocation.
     }
 
+    @Test
+    void hugePageModeMustAlignAllocationsToHugePages()
+    {
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+        MemoryAllocator mman = createAllocator( ByteUnit.mebiBytes( 3 ), memoryTracker, true );
+        long address = mman.allocateAligned( ByteUnit.mebiBytes( 3 ), UnsafeUtil.pageSize() );
+        assertThat( address % GrabAllocator.HUGE_PAGE_SIZE ).isEqualTo( 0L );
+        // the grab is rounded up to whole huge pages, plus one for the alignment
+        assertThat( memoryTracker.usedNativeMemory() ).isEqualTo( ByteUnit.mebiBytes( 6 ) );
+
+        // This must not throw any bad access exceptions.
+        UnsafeUtil.setMemory( address, ByteUnit.mebiBytes( 3 ), (byte) 1 );
+
+        closeAllocator();
+        assertThat( memoryTracker.usedNativeMemory() ).isZero();
+    }
+
+    @Test
+    void plainAllocatorMustNotAdviseHugePages()
+    {
+        MemoryAllocator mman = createAllocator( EIGHT_PAGES );
+        mman.allocateAligned( EIGHT_PAGES, 8 );
+
+        HugePageCoverage coverage = mman.hugePageCoverage();
+        assertThat( coverage.allocatedMemory() ).isEqualTo( EIGHT_PAGES );
+        assertThat( coverage.advisedMemory() ).isZero();
+        assertThat( coverage.hugePageMemory() ).isZero();
+    }
+
+    @Test
+    @EnabledOnOs( OS.LINUX )
+    void hugePageModeMustAdviseAllocatedMemoryOnLinux()
+    {
+        MemoryAllocator mman = createAllocator( ByteUnit.mebiBytes( 8 ), new LocalMemoryTracker(), true );
+        long address = mman.allocateAligned( ByteUnit.mebiBytes( 8 ), UnsafeUtil.pageSize() );
+        UnsafeUtil.setMemory( address, ByteUnit.mebiBytes( 8 ), (byte) 1 );
+
+        HugePageCoverage coverage = mman.hugePageCoverage();
+        assertThat( coverage.allocatedMemory() ).isEqualTo( ByteUnit.mebiBytes( 8 ) );
+        assertThat( coverage.advisedMemory() ).isEqualTo( ByteUnit.mebiBytes( 8 ) );
+        // the kernel is free to back none of it with huge pages, if it has none at hand
+        assertThat( coverage.hugePageMemory() ).isBetween( 0L, ByteUnit.mebiBytes( 8 ) );
+    }
+
     private void closeAllocator()
     {
         if ( allocator != null )
@@ -233,4 +279,11 @@ class MemoryAllocatorTest
         allocator = MemoryAllocator.createAllocator( expectedMaxMemory, new LocalMemoryTracker() );
         return allocator;
     }
+
+    private MemoryAllocator createAllocator( long expectedMaxMemory, LocalMemoryTracker memoryTracker, boolean hugePages )
+    {
+        closeAllocator();
+        allocator = MemoryAllocator.createAllocator( expectedMaxMemory, memoryTracker, hugePages );
+        return allocator;
+    }
 }
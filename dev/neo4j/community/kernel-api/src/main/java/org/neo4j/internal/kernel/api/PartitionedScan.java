@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.kernel.api;
+
+import org.neo4j.io.pagecache.context.CursorContext;
+
+/**
+ * Initializer for spreading an index scan or seek over multiple cursors, for use from different threads in parallel.
+ * Unlike {@link Scan}, the index is split into a fixed number of partitions up front, at the splitter keys of the index tree,
+ * so that every partition can be read with a single seek.
+ *
+ * @param <Cursor>
+ *         the type of cursor this object initializes.
+ */
+public interface PartitionedScan<Cursor extends org.neo4j.internal.kernel.api.Cursor>
+{
+    /**
+     * @return the number of partitions, which may be lower than the number of partitions that was asked for.
+     */
+    int getNumberOfPartitions();
+
+    /**
+     * Will attempt to reserve a partition to read.
+     * <p>
+     * A <code>PartitionedScan</code> instance can be shared among threads and guarantees that each call to
+     * <code>reservePartition</code> reserves a partition that no other call has reserved. The basic usage pattern is that
+     * every thread keeps its own cursor and calls <code>reservePartition</code> until it returns <code>false</code>.
+     * <p>
+     * Example:
+     * <pre>
+     * {@code
+     *   try ( NodeValueIndexCursor cursor = cursors.allocateNodeValueIndexCursor( cursorContext, memoryTracker ) )
+     *   {
+     *     while ( scan.reservePartition( cursor, cursorContext ) )
+     *     {
+     *       while ( cursor.next() )
+     *       {
+     *         //do things with the node
+     *       }
+     *     }
+     *   }
+     * }
+     * </pre>
+     *
+     * @param cursor The cursor to be used for reading.
+     * @param cursorContext The page cursor context of the calling thread.
+     * @return <code>true</code> if a partition was reserved, otherwise <code>false</code>
+     */
+    boolean reservePartition( Cursor cursor, CursorContext cursorContext );
+}
@@ -20,6 +20,7 @@
 package org.neo4j.internal.kernel.api;
 
 import org.neo4j.exceptions.KernelException;
+import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotApplicableKernelException;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexOrder;
@@ -103,6 +104,35 @@ public interface Read
      */
     void nodeIndexScan( IndexReadSession index, NodeValueIndexCursor cursor, IndexQueryConstraints constraints ) throws KernelException;
 
+    /**
+     * Seek all nodes matching the provided index query in an index, split into partitions that can be read in parallel.
+     * Only supported in transactions without changes, and on indexes that can be partitioned, like the native indexes.
+     *
+     * @param index {@link IndexReadSession} index read session to query.
+     * @param desiredNumberOfPartitions the number of partitions to split the result into, fewer partitions may be returned for small indexes.
+     * @param constraints The requested constraints on the query result of every partition, such as whether the index should fetch property values
+     * together with node ids. The result can not be ordered, skipped or limited.
+     * @param query Combination of {@link PropertyIndexQuery index queries} to run against referenced index.
+     * @return {@link PartitionedScan} to reserve partitions from.
+     * @throws IndexNotApplicableKernelException if the index can not be partitioned.
+     */
+    PartitionedScan<NodeValueIndexCursor> nodeIndexSeek( IndexReadSession index, int desiredNumberOfPartitions, IndexQueryConstraints constraints,
+            PropertyIndexQuery... query ) throws KernelException;
+
+    /**
+     * Scan all values in an index, split into partitions that can be read in parallel.
+     * Only supported in transactions without changes, and on indexes that can be partitioned, like the native indexes.
+     *
+     * @param index {@link IndexReadSession} index read session to query.
+     * @param desiredNumberOfPartitions the number of partitions to split the index into, fewer partitions may be returned for small indexes.
+     * @param constraints The requested constraints on the query result of every partition, such as whether the index should fetch property values
+     * together with node ids. The result can not be ordered, skipped or limited.
+     * @return {@link PartitionedScan} to reserve partitions from.
+     * @throws IndexNotApplicableKernelException if the index can not be partitioned.
+     */
+    PartitionedScan<NodeValueIndexCursor> nodeIndexScan( IndexReadSession index, int desiredNumberOfPartitions, IndexQueryConstraints constraints )
+            throws KernelException;
+
     /**
      * Scan all values in an index.
      *
@@ -126,6 +156,16 @@ public interface Read
     void nodeLabelScan( TokenReadSession session, NodeLabelIndexCursor cursor, IndexQueryConstraints constraints, TokenPredicate query )
             throws KernelException;
 
+    /**
+     * Scan all nodes in a token index, split into partitions of node ids that can be read in parallel.
+     * @param session {@link TokenReadSession} token read session to query.
+     * @param desiredNumberOfPartitions the number of partitions to split the nodes into, fewer partitions may be returned for small indexes.
+     * @param query the query to run against index
+     * @return {@link PartitionedScan} to reserve partitions from.
+     */
+    PartitionedScan<NodeLabelIndexCursor> nodeLabelScan( TokenReadSession session, int desiredNumberOfPartitions, TokenPredicate query )
+            throws KernelException;
+
     /**
      * Return all nodes in the graph.
      *
@@ -317,6 +357,16 @@ public interface Read
     void relationshipTypeScan( TokenReadSession session, RelationshipTypeIndexCursor cursor, IndexQueryConstraints constraints, TokenPredicate query )
             throws KernelException;
 
+    /**
+     * Scan all relationships in a token index of the specified type, split into partitions of relationship ids that can be read in parallel.
+     * @param session {@link TokenReadSession} token read session to query.
+     * @param desiredNumberOfPartitions the number of partitions to split the relationships into, fewer partitions may be returned for small indexes.
+     * @param query the query to run against index
+     * @return {@link PartitionedScan} to reserve partitions from.
+     */
+    PartitionedScan<RelationshipTypeIndexCursor> relationshipTypeScan( TokenReadSession session, int desiredNumberOfPartitions, TokenPredicate query )
+            throws KernelException;
+
     /**
      * @param nodeReference
      *         a reference from {@link NodeCursor#nodeReference()}.
@@ -23,6 +23,7 @@ import java.io.Closeable;
 
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException;
 import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.scheduler.JobHandle;
 
 /**
  * Component able to sample schema index.
@@ -39,8 +40,40 @@ public interface IndexSampler extends Closeable
      */
     IndexSample sampleIndex( CursorContext cursorContext ) throws IndexNotFoundKernelException;
 
+    /**
+     * Sample this index, where parts of the index that can be sampled independently may be sampled by jobs scheduled on the
+     * given {@link SamplingWorkScheduler}. By default the whole index is sampled on the current thread.
+     *
+     * @return the index sampling result
+     * @throws IndexNotFoundKernelException if the index is dropped while sampling
+     */
+    default IndexSample sampleIndex( CursorContext cursorContext, SamplingWorkScheduler workScheduler ) throws IndexNotFoundKernelException
+    {
+        return sampleIndex( cursorContext );
+    }
+
     @Override
     default void close()
     {   // no-op
     }
+
+    /**
+     * A scheduler for delegating parts of the sampling of an index to other threads.
+     */
+    interface SamplingWorkScheduler
+    {
+        /**
+         * Schedules a job on another thread, with a {@link CursorContext} of its own.
+         */
+        <T> JobHandle<T> schedule( SamplingJob<T> job );
+    }
+
+    /**
+     * A part of the sampling of an index.
+     */
+    @FunctionalInterface
+    interface SamplingJob<T>
+    {
+        T sample( CursorContext cursorContext ) throws Exception;
+    }
 }
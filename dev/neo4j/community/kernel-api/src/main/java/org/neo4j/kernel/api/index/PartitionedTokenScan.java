@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import org.neo4j.io.pagecache.context.CursorContext;
+
+/**
+ * A scan of the entities with a given token that is split into partitions which can be read in parallel, from different threads.
+ */
+public interface PartitionedTokenScan
+{
+    /**
+     * @return the number of partitions of this scan, which may be lower than the number of partitions that was asked for.
+     */
+    int getNumberOfPartitions();
+
+    /**
+     * Reserves the next partition of this scan that no one has reserved yet.
+     * This method can be called concurrently from different threads, each with its own client.
+     *
+     * @param client the client used for consuming the entities of the partition.
+     * @param cursorContext underlying page cursor context of the calling thread.
+     * @return a progressor over the entities of the partition, or {@code null} if all partitions have been reserved.
+     */
+    IndexProgressor reservePartition( IndexProgressor.EntityTokenClient client, CursorContext cursorContext );
+}
@@ -52,6 +52,16 @@ public interface TokenIndexReader extends IndexReader
 
     TokenScan entityTokenScan( int tokenId, CursorContext cursorContext );
 
+    /**
+     * Splits the entities with the token of the given {@link TokenPredicate} into partitions of entity ids that can be read in parallel.
+     *
+     * @param desiredNumberOfPartitions the number of partitions to split the entities into, fewer partitions may be returned for small indexes.
+     * @param cursorContext underlying page cursor context of the calling thread.
+     * @param query the predicate to identify the token being queried.
+     * @return a {@link PartitionedTokenScan} to reserve partitions from.
+     */
+    PartitionedTokenScan entityTokenScan( int desiredNumberOfPartitions, CursorContext cursorContext, TokenPredicate query );
+
     TokenIndexReader EMPTY = new TokenIndexReader()
     {
         @Override
@@ -72,6 +82,12 @@ public interface TokenIndexReader extends IndexReader
             throw new UnsupportedOperationException( "EMPTY implementation does not support this method." );
         }
 
+        @Override
+        public PartitionedTokenScan entityTokenScan( int desiredNumberOfPartitions, CursorContext cursorContext, TokenPredicate query )
+        {
+            throw new UnsupportedOperationException( "EMPTY implementation does not support this method." );
+        }
+
         @Override
         public void close()
         {
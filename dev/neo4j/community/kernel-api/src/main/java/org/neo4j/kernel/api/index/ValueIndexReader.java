@@ -49,6 +49,22 @@ public interface ValueIndexReader extends IndexReader
     void query( QueryContext context, IndexProgressor.EntityValueClient client, IndexQueryConstraints constraints,
                 PropertyIndexQuery... query ) throws IndexNotApplicableKernelException;
 
+    /**
+     * Splits the entries of the index that match the given {@link PropertyIndexQuery} predicates into partitions that can be read in parallel.
+     * Indexes that can not be partitioned throw {@link IndexNotApplicableKernelException}.
+     *
+     * @param desiredNumberOfPartitions the number of partitions to split the entries into, fewer partitions may be returned for small indexes.
+     * @param constraints constraints upon the query result of every partition, which can not be ordered, skipped or limited.
+     * @param cursorContext underlying page cursor context of the calling thread.
+     * @param query the query to serve.
+     * @return a {@link PartitionedValueSeek} to reserve partitions from.
+     */
+    default PartitionedValueSeek valueSeek( int desiredNumberOfPartitions, IndexQueryConstraints constraints, CursorContext cursorContext,
+            PropertyIndexQuery... query ) throws IndexNotApplicableKernelException
+    {
+        throw new IndexNotApplicableKernelException( getClass().getSimpleName() + " does not support partitioned seeks." );
+    }
+
     ValueIndexReader EMPTY = new ValueIndexReader()
     {
         // Used for checking index correctness
@@ -71,6 +87,13 @@ public interface ValueIndexReader extends IndexReader
             // do nothing
         }
 
+        @Override
+        public PartitionedValueSeek valueSeek( int desiredNumberOfPartitions, IndexQueryConstraints constraints, CursorContext cursorContext,
+                PropertyIndexQuery... query )
+        {
+            return PartitionedValueSeek.EMPTY;
+        }
+
         @Override
         public void close()
         {
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.api.index;
 
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.configuration.GraphDatabaseSettings;
 
 public class IndexSamplingConfig
@@ -27,19 +28,30 @@ public class IndexSamplingConfig
     private final int sampleSizeLimit;
     private final double updateRatio;
     private final boolean backgroundSampling;
+    private final int samplingPartitions;
+    private final double samplingFraction;
 
     public IndexSamplingConfig( Config config )
     {
         this( config.get( GraphDatabaseSettings.index_sample_size_limit ),
                           config.get( GraphDatabaseSettings.index_sampling_update_percentage ) / 100.0d,
-                          config.get( GraphDatabaseSettings.index_background_sampling_enabled ) );
+                          config.get( GraphDatabaseSettings.index_background_sampling_enabled ),
+                          config.get( GraphDatabaseInternalSettings.index_sampling_partitions ),
+                          config.get( GraphDatabaseInternalSettings.index_sampling_fraction ) );
     }
 
     public IndexSamplingConfig( int sampleSizeLimit, double updateRatio, boolean backgroundSampling )
+    {
+        this( sampleSizeLimit, updateRatio, backgroundSampling, 1, 1.0 );
+    }
+
+    public IndexSamplingConfig( int sampleSizeLimit, double updateRatio, boolean backgroundSampling, int samplingPartitions, double samplingFraction )
     {
         this.sampleSizeLimit = sampleSizeLimit;
         this.updateRatio = updateRatio;
         this.backgroundSampling = backgroundSampling;
+        this.samplingPartitions = samplingPartitions;
+        this.samplingFraction = samplingFraction;
     }
 
     public int sampleSizeLimit()
@@ -57,6 +69,16 @@ public class IndexSamplingConfig
         return backgroundSampling;
     }
 
+    public int samplingPartitions()
+    {
+        return samplingPartitions;
+    }
+
+    public double samplingFraction()
+    {
+        return samplingFraction;
+    }
+
     @Override
     public boolean equals( Object o )
     {
@@ -74,7 +96,9 @@ public class IndexSamplingConfig
 
         return backgroundSampling == that.backgroundSampling &&
                sampleSizeLimit == that.sampleSizeLimit &&
-               Double.compare( that.updateRatio, updateRatio ) == 0;
+               Double.compare( that.updateRatio, updateRatio ) == 0 &&
+               samplingPartitions == that.samplingPartitions &&
+               Double.compare( that.samplingFraction, samplingFraction ) == 0;
     }
 
     @Override
@@ -84,6 +108,9 @@ public class IndexSamplingConfig
         long temp = Double.doubleToLongBits( updateRatio );
         result = 31 * result + (int) (temp ^ (temp >>> 32));
         result = 31 * result + (backgroundSampling ? 1 : 0);
+        result = 31 * result + samplingPartitions;
+        temp = Double.doubleToLongBits( samplingFraction );
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
         return result;
     }
 }
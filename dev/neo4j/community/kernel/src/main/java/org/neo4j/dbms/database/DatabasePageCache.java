@@ -33,6 +33,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageLoad;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.buffer.IOBufferFactory;
 import org.neo4j.io.pagecache.context.CursorContext;
@@ -86,10 +87,7 @@ public class DatabasePageCache implements PageCache
     @Override
     public void flushAndForce() throws IOException
     {
-        for ( PagedFile pagedFile : databasePagedFiles )
-        {
-            pagedFile.flushAndForce();
-        }
+        globalPageCache.flushAndForce( listExistingMappings() );
     }
 
     @Override
@@ -160,6 +158,12 @@ public class DatabasePageCache implements PageCache
             return delegate.path();
         }
 
+        @Override
+        public int residentPages()
+        {
+            return delegate.residentPages();
+        }
+
         @Override
         public void flushAndForce() throws IOException
         {
@@ -172,6 +176,18 @@ public class DatabasePageCache implements PageCache
             return delegate.getLastPageId();
         }
 
+        @Override
+        public int touch( long pageId, int count, CursorContext context ) throws IOException
+        {
+            return delegate.touch( pageId, count, context );
+        }
+
+        @Override
+        public PageLoad requestPages( long[] filePageIds, CursorContext context ) throws IOException
+        {
+            return delegate.requestPages( filePageIds, context );
+        }
+
         @Override
         public void close()
         {
@@ -102,6 +102,7 @@ import org.neo4j.kernel.impl.factory.KernelTransactionFactory;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.pagecache.IOControllerService;
 import org.neo4j.kernel.impl.pagecache.PageCacheLifecycle;
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmer;
 import org.neo4j.kernel.impl.query.QueryEngineProvider;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
 import org.neo4j.kernel.impl.query.TransactionExecutionMonitor;
@@ -322,7 +323,7 @@ public class Database extends LifecycleAdapter
         try
         {
             databaseDependencies = new Dependencies( globalDependencies );
-            ioController = ioControllerService.createIOController( databaseConfig, clock );
+            ioController = ioControllerService.createIOController( databaseConfig, clock, tracers.getPageCacheTracer() );
             databasePageCache = new DatabasePageCache( globalPageCache, ioController );
             databaseMonitors = new Monitors( parentMonitors, internalLogProvider );
 
@@ -498,6 +499,9 @@ public class Database extends LifecycleAdapter
 
             this.checkpointerLifecycle = new CheckpointerLifecycle( transactionLogModule.checkPointer(), databaseHealth, ioController );
 
+            // the warmup runs after all files of the database have been mapped, and before the database becomes available
+            life.add( new PageCacheWarmer( databasePageCache, fs, scheduler, databaseLayout.databaseDirectory(), tracers.getPageCacheTracer(),
+                    databaseConfig, readOnlyDatabaseChecker, internalLogProvider.getLog( PageCacheWarmer.class ), namedDatabaseId.name() ) );
             life.add( databaseHealth );
             life.add( databaseAvailabilityGuard );
             life.add( databaseAvailability );
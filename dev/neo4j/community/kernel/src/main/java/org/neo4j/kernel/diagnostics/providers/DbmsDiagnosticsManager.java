@@ -33,6 +33,7 @@ import org.neo4j.internal.diagnostics.DiagnosticsLogger;
 import org.neo4j.internal.diagnostics.DiagnosticsManager;
 import org.neo4j.internal.diagnostics.DiagnosticsProvider;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.database.Database;
 import org.neo4j.kernel.database.NamedDatabaseId;
 import org.neo4j.kernel.impl.factory.DbmsInfo;
@@ -177,10 +178,12 @@ public class DbmsDiagnosticsManager
             FileSystemAbstraction fs = databaseResolver.resolveDependency( FileSystemAbstraction.class );
             StorageEngineFactory storageEngineFactory = databaseResolver.resolveDependency( StorageEngineFactory.class );
             StorageEngine storageEngine = databaseResolver.resolveDependency( StorageEngine.class );
+            PageCacheTracer pageCacheTracer = databaseResolver.resolveDependency( PageCacheTracer.class );
 
             DiagnosticsManager.dump( new VersionDiagnostics( dbmsInfo, database.getStoreId() ), log, stringJoiner::add );
             DiagnosticsManager.dump( new StoreFilesDiagnostics( storageEngineFactory, fs, database.getDatabaseLayout() ), log, stringJoiner::add );
             DiagnosticsManager.dump( new TransactionRangeDiagnostics( database ), log, stringJoiner::add );
+            DiagnosticsManager.dump( new PageCacheDiagnostics( pageCacheTracer, database.getDatabaseLayout() ), log, stringJoiner::add );
             storageEngine.dumpDiagnostics( log, stringJoiner::add );
         }, database.getNamedDatabaseId() );
     }
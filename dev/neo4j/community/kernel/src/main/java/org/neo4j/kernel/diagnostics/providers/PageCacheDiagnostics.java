@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.diagnostics.providers;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.neo4j.internal.diagnostics.DiagnosticsLogger;
+import org.neo4j.internal.diagnostics.NamedDiagnosticsProvider;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
+
+/**
+ * Logs how many pages of each mapped file of a database are in the page cache, to size the page reservations of the files with.
+ */
+public class PageCacheDiagnostics extends NamedDiagnosticsProvider
+{
+    private final PageCacheCounters pageCacheCounters;
+    private final DatabaseLayout databaseLayout;
+
+    PageCacheDiagnostics( PageCacheCounters pageCacheCounters, DatabaseLayout databaseLayout )
+    {
+        super( "Page cache" );
+        this.pageCacheCounters = pageCacheCounters;
+        this.databaseLayout = databaseLayout;
+    }
+
+    @Override
+    public void dump( DiagnosticsLogger logger )
+    {
+        Path databaseDirectory = databaseLayout.databaseDirectory();
+        Map<Path,Integer> residentPages = new TreeMap<>();
+        pageCacheCounters.residentPages().forEach( ( path, pages ) ->
+        {
+            if ( path.startsWith( databaseDirectory ) )
+            {
+                residentPages.put( databaseDirectory.relativize( path ), pages );
+            }
+        } );
+        logger.log( "Resident pages of mapped files: (filename : pages)" );
+        if ( residentPages.isEmpty() )
+        {
+            logger.log( "  no mapped files" );
+            return;
+        }
+        long total = 0;
+        for ( Map.Entry<Path,Integer> entry : residentPages.entrySet() )
+        {
+            logger.log( "  " + entry.getKey() + " : " + entry.getValue() );
+            total += entry.getValue();
+        }
+        logger.log( "  Total resident pages: " + total );
+    }
+}
@@ -29,6 +29,10 @@ import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
 import org.neo4j.kernel.impl.util.DurationLogger;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobMonitoringParams;
+import org.neo4j.scheduler.JobScheduler;
 
 import static java.lang.String.format;
 import static org.neo4j.internal.kernel.api.InternalIndexState.ONLINE;
@@ -43,9 +47,11 @@ class OnlineIndexSamplingJob implements IndexSamplingJob
     private final String indexUserDescription;
     private final String indexName;
     private final PageCacheTracer pageCacheTracer;
+    private final JobScheduler jobScheduler;
+    private final String databaseName;
 
     OnlineIndexSamplingJob( long indexId, IndexProxy indexProxy, IndexStatisticsStore indexStatisticsStore, String indexUserDescription, String indexName,
-            LogProvider logProvider, PageCacheTracer pageCacheTracer )
+            LogProvider logProvider, PageCacheTracer pageCacheTracer, JobScheduler jobScheduler, String databaseName )
     {
         this.indexId = indexId;
         this.indexProxy = indexProxy;
@@ -54,6 +60,8 @@ class OnlineIndexSamplingJob implements IndexSamplingJob
         this.indexUserDescription = indexUserDescription;
         this.indexName = indexName;
         this.pageCacheTracer = pageCacheTracer;
+        this.jobScheduler = jobScheduler;
+        this.databaseName = databaseName;
     }
 
     @Override
@@ -79,7 +87,7 @@ class OnlineIndexSamplingJob implements IndexSamplingJob
                       var cursorContext = new CursorContext( pageCacheTracer.createPageCursorTracer( INDEX_SAMPLER_TAG ) );
                       IndexSampler sampler = reader.createSampler() )
                 {
-                    IndexSample sample = sampler.sampleIndex( cursorContext );
+                    IndexSample sample = sampler.sampleIndex( cursorContext, new PartitionWorkScheduler() );
 
                     // check again if the index is online before saving the counts in the store
                     if ( indexProxy.getState() == ONLINE )
@@ -105,4 +113,20 @@ class OnlineIndexSamplingJob implements IndexSamplingJob
             }
         }
     }
+
+    private class PartitionWorkScheduler implements IndexSampler.SamplingWorkScheduler
+    {
+        @Override
+        public <T> JobHandle<T> schedule( IndexSampler.SamplingJob<T> job )
+        {
+            var monitoringParams = JobMonitoringParams.systemJob( databaseName, "Sampling of a partition of index '" + indexName + "'" );
+            return jobScheduler.schedule( Group.INDEX_SAMPLING_WORK, monitoringParams, () ->
+            {
+                try ( var cursorContext = new CursorContext( pageCacheTracer.createPageCursorTracer( INDEX_SAMPLER_TAG ) ) )
+                {
+                    return job.sample( cursorContext );
+                }
+            } );
+        }
+    }
 }
@@ -24,6 +24,7 @@ import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.impl.api.index.IndexProxy;
 import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
 import org.neo4j.logging.LogProvider;
+import org.neo4j.scheduler.JobScheduler;
 
 public class OnlineIndexSamplingJobFactory implements IndexSamplingJobFactory
 {
@@ -31,14 +32,18 @@ public class OnlineIndexSamplingJobFactory implements IndexSamplingJobFactory
     private final LogProvider logProvider;
     private final TokenNameLookup nameLookup;
     private final PageCacheTracer pageCacheTracer;
+    private final JobScheduler jobScheduler;
+    private final String databaseName;
 
     public OnlineIndexSamplingJobFactory( IndexStatisticsStore indexStatisticsStore, TokenNameLookup nameLookup, LogProvider logProvider,
-            PageCacheTracer pageCacheTracer )
+            PageCacheTracer pageCacheTracer, JobScheduler jobScheduler, String databaseName )
     {
         this.indexStatisticsStore = indexStatisticsStore;
         this.logProvider = logProvider;
         this.nameLookup = nameLookup;
         this.pageCacheTracer = pageCacheTracer;
+        this.jobScheduler = jobScheduler;
+        this.databaseName = databaseName;
     }
 
     @Override
@@ -46,6 +51,7 @@ public class OnlineIndexSamplingJobFactory implements IndexSamplingJobFactory
     {
         final String indexUserDescription = indexProxy.getDescriptor().userDescription( nameLookup );
         String indexName = indexProxy.getDescriptor().getName();
-        return new OnlineIndexSamplingJob( indexId, indexProxy, indexStatisticsStore, indexUserDescription, indexName, logProvider, pageCacheTracer );
+        return new OnlineIndexSamplingJob( indexId, indexProxy, indexStatisticsStore, indexUserDescription, indexName, logProvider, pageCacheTracer,
+                jobScheduler, databaseName );
     }
 }
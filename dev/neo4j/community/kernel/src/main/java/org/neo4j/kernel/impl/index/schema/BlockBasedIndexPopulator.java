@@ -35,6 +35,7 @@ import java.util.stream.Collectors;
 
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.index.internal.gbptree.BulkLoader;
 import org.neo4j.index.internal.gbptree.Seeker;
 import org.neo4j.index.internal.gbptree.Writer;
 import org.neo4j.internal.helpers.Exceptions;
@@ -68,7 +69,8 @@ import static org.neo4j.util.concurrent.Runnables.runAll;
 
 /**
  * {@link IndexPopulator} for native indexes that stores scan updates in parallel append-only files. When all scan updates have been collected
- * each file is sorted and then all of them merged together into the resulting index.
+ * each file is sorted and then all of them merged together into the resulting index. The merged scan updates are in key order, so the
+ * index is built from them bottom-up with a {@link BulkLoader}, filling its nodes to {@link #fillFactor}, instead of inserting every entry.
  *
  * Note on buffers: basically each thread adding scan updates will make use of a {@link ByteBufferFactory#acquireThreadLocalBuffer(MemoryTracker)}
  * thread-local buffer}.
@@ -102,6 +104,10 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,V
      * i.e. the number of blocks shrinks by a factor {@link #mergeFactor} every pass, until one block is left.
      */
     private final int mergeFactor;
+    /**
+     * How large part of every tree node to fill when building the tree from the merged scan updates.
+     */
+    private final double fillFactor;
     private final BlockStorage.Monitor blockStorageMonitor;
     // written to in a synchronized method when creating new thread-local instances, read from when population completes
     private final List<ThreadLocalBlockStorage> allScanUpdates = new CopyOnWriteArrayList<>();
@@ -135,6 +141,7 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,V
         this.archiveFailedIndex = archiveFailedIndex;
         this.memoryTracker = memoryTracker;
         this.mergeFactor = config.get( GraphDatabaseInternalSettings.index_populator_merge_factor );
+        this.fillFactor = config.get( GraphDatabaseInternalSettings.index_populator_fill_factor );
         this.blockStorageMonitor = blockStorageMonitor;
         this.scanUpdates = ThreadLocal.withInitial( this::newThreadLocalBlockStorage );
         this.bufferFactory = bufferFactory;
@@ -403,7 +410,7 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,V
         }
 
         // Merge the (sorted) scan updates from all the different threads in pairs until only one stream remain,
-        // and direct that stream towards the tree writer (which itself is only single threaded)
+        // and direct that stream towards the tree bulk loader (which itself is only single threaded)
         try ( var readBuffers = new CompositeBuffer();
               var singleBlockScopedBuffer = allocator.allocate( (int) kibiBytes( 8 ), memoryTracker ) )
         {
@@ -425,11 +432,18 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,V
             Comparator<KEY> samplingComparator = descriptor.isUnique() ? null : layout::compareValue;
             try ( var merger = new PartMerger<>( populationWorkScheduler, parts, layout, samplingComparator, cancellation, PartMerger.DEFAULT_BATCH_SIZE );
                   var allEntries = merger.startMerge();
-                  var writer = tree.writer( 1, cursorContext ) )
+                  var bulkLoader = tree.bulkLoader( fillFactor, cursorContext ) )
             {
+                KEY previousKey = layout.newKey();
+                boolean first = true;
                 while ( allEntries.next() && !cancellation.cancelled() )
                 {
-                    writeToTree( writer, recordingConflictDetector, allEntries.key(), allEntries.value() );
+                    if ( first || !isDuplicate( recordingConflictDetector, previousKey, allEntries.key(), allEntries.value() ) )
+                    {
+                        bulkLoader.add( allEntries.key(), allEntries.value() );
+                        layout.copyKey( allEntries.key(), previousKey );
+                        first = false;
+                    }
                     numberOfAppliedScanUpdates.incrementAndGet();
                 }
                 return descriptor.isUnique() ? null : allEntries.buildIndexSample();
@@ -610,6 +624,34 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,V
         handleMergeConflict( writer, recordingConflictDetector, key, value );
     }
 
+    /**
+     * Checks a scan update against the previous one, which is the only entry it can be equal to since they come in key order, the way
+     * a merge into the tree would, see {@link #writeToTree}. Records a conflict if they have the same value but different entity ids in a unique
+     * index, in which case both are still added, like a merge does.
+     *
+     * @return {@code true} if the scan update is the same entry as the previous one, so that it should not be added again.
+     */
+    private boolean isDuplicate( RecordingConflictDetector<KEY,VALUE> recordingConflictDetector, KEY previousKey, KEY key, VALUE value )
+            throws IndexEntryConflictException
+    {
+        recordingConflictDetector.controlConflictDetection( key );
+        boolean equal = layout.compare( previousKey, key ) == 0;
+        if ( equal )
+        {
+            recordingConflictDetector.merge( previousKey, key, null, value );
+        }
+        // Entries are added in full key order, including entity id
+        recordingConflictDetector.relaxUniqueness( key );
+        if ( recordingConflictDetector.wasConflicting() )
+        {
+            KEY copy = layout.newKey();
+            layout.copyKey( key, copy );
+            recordingConflictDetector.reportConflict( copy );
+            return false;
+        }
+        return equal;
+    }
+
     /**
      * Will check if recording conflict detector saw a conflict. If it did, that conflict has been recorded and we will verify uniqueness for this
      * value later on. But for now we try and insert conflicting value again but with a relaxed uniqueness constraint. Insert is done with a throwing
@@ -19,12 +19,18 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import org.eclipse.collections.api.set.ImmutableSet;
+
+import java.nio.file.OpenOption;
+
 import org.neo4j.configuration.helpers.DatabaseReadOnlyChecker;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.monitoring.Monitors;
 
+import static org.eclipse.collections.api.factory.Sets.immutable;
+
 public class DatabaseIndexContext
 {
     final PageCache pageCache;
@@ -34,9 +40,10 @@ public class DatabaseIndexContext
     final DatabaseReadOnlyChecker readOnlyChecker;
     final PageCacheTracer pageCacheTracer;
     final String databaseName;
+    final ImmutableSet<OpenOption> openOptions;
 
     private DatabaseIndexContext( PageCache pageCache, FileSystemAbstraction fileSystem, Monitors monitors, String monitorTag,
-            DatabaseReadOnlyChecker readOnlyChecker, PageCacheTracer pageCacheTracer, String databaseName )
+            DatabaseReadOnlyChecker readOnlyChecker, PageCacheTracer pageCacheTracer, String databaseName, ImmutableSet<OpenOption> openOptions )
     {
         this.pageCache = pageCache;
         this.fileSystem = fileSystem;
@@ -45,6 +52,7 @@ public class DatabaseIndexContext
         this.readOnlyChecker = readOnlyChecker;
         this.pageCacheTracer = pageCacheTracer;
         this.databaseName = databaseName;
+        this.openOptions = openOptions;
     }
 
     /**
@@ -70,7 +78,8 @@ public class DatabaseIndexContext
                 .withReadOnlyChecker( copy.readOnlyChecker )
                 .withMonitors( copy.monitors )
                 .withTag( copy.monitorTag )
-                .withPageCacheTracer( copy.pageCacheTracer );
+                .withPageCacheTracer( copy.pageCacheTracer )
+                .withOpenOptions( copy.openOptions );
     }
 
     public static class Builder
@@ -82,6 +91,7 @@ public class DatabaseIndexContext
         private String monitorTag;
         private DatabaseReadOnlyChecker readOnlyChecker;
         private PageCacheTracer pageCacheTracer;
+        private ImmutableSet<OpenOption> openOptions;
 
         private Builder( PageCache pageCache, FileSystemAbstraction fileSystem, String databaseName )
         {
@@ -92,6 +102,7 @@ public class DatabaseIndexContext
             this.monitorTag = "";
             this.readOnlyChecker = DatabaseReadOnlyChecker.writable();
             this.pageCacheTracer = PageCacheTracer.NULL;
+            this.openOptions = immutable.empty();
         }
 
         /**
@@ -142,9 +153,21 @@ public class DatabaseIndexContext
             return this;
         }
 
+        /**
+         * Default is no options.
+         *
+         * @param openOptions {@link OpenOption options} to open the index trees with.
+         * @return {@link Builder this builder}
+         */
+        public Builder withOpenOptions( ImmutableSet<OpenOption> openOptions )
+        {
+            this.openOptions = openOptions;
+            return this;
+        }
+
         public DatabaseIndexContext build()
         {
-            return new DatabaseIndexContext( pageCache, fileSystem, monitors, monitorTag, readOnlyChecker, pageCacheTracer, databaseName );
+            return new DatabaseIndexContext( pageCache, fileSystem, monitors, monitorTag, readOnlyChecker, pageCacheTracer, databaseName, openOptions );
         }
     }
 }
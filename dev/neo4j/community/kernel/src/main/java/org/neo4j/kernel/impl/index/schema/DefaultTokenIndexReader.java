@@ -22,6 +22,8 @@ package org.neo4j.kernel.impl.index.schema;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.index.internal.gbptree.GBPTree;
@@ -32,11 +34,13 @@ import org.neo4j.internal.schema.IndexOrder;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.api.index.EntityRange;
 import org.neo4j.kernel.api.index.IndexProgressor;
+import org.neo4j.kernel.api.index.PartitionedTokenScan;
 import org.neo4j.kernel.api.index.TokenIndexReader;
 import org.neo4j.util.VisibleForTesting;
 
 import static org.neo4j.kernel.impl.index.schema.TokenIndexUpdater.rangeOf;
 import static org.neo4j.kernel.impl.index.schema.TokenScanValue.RANGE_SIZE;
+import static org.neo4j.util.Preconditions.requirePositive;
 
 public class DefaultTokenIndexReader implements TokenIndexReader
 {
@@ -86,6 +90,23 @@ public class DefaultTokenIndexReader implements TokenIndexReader
         }
     }
 
+    @Override
+    public PartitionedTokenScan entityTokenScan( int desiredNumberOfPartitions, CursorContext cursorContext, TokenPredicate query )
+    {
+        requirePositive( desiredNumberOfPartitions );
+        int tokenId = query.tokenId();
+        try
+        {
+            List<TokenScanKey> edges = index.partitionEdges( new TokenScanKey( tokenId, Long.MIN_VALUE ), new TokenScanKey( tokenId, Long.MAX_VALUE ),
+                    desiredNumberOfPartitions, cursorContext );
+            return new NativePartitionedTokenScan( edges );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
     private long highestEntityIdForToken( int tokenId, CursorContext cursorContext ) throws IOException
     {
         try ( Seeker<TokenScanKey,TokenScanValue> seeker = index.seek( new TokenScanKey( tokenId, Long.MAX_VALUE ),
@@ -125,6 +146,46 @@ public class DefaultTokenIndexReader implements TokenIndexReader
         return ((sizeHint + RANGE_SIZE - 1) / RANGE_SIZE) * RANGE_SIZE;
     }
 
+    private class NativePartitionedTokenScan implements PartitionedTokenScan
+    {
+        private final List<TokenScanKey> edges;
+        private final AtomicInteger nextPartition = new AtomicInteger();
+
+        NativePartitionedTokenScan( List<TokenScanKey> edges )
+        {
+            this.edges = edges;
+        }
+
+        @Override
+        public int getNumberOfPartitions()
+        {
+            return edges.size() - 1;
+        }
+
+        @Override
+        public IndexProgressor reservePartition( IndexProgressor.EntityTokenClient client, CursorContext cursorContext )
+        {
+            int partition = nextPartition.getAndIncrement();
+            if ( partition >= getNumberOfPartitions() )
+            {
+                return null;
+            }
+            // The seeker may change the keys it is given, and the edge between two partitions belongs to both of them
+            TokenScanKey from = edges.get( partition );
+            TokenScanKey to = edges.get( partition + 1 );
+            try
+            {
+                Seeker<TokenScanKey,TokenScanValue> seeker = index.seek( new TokenScanKey( from.tokenId, from.idRange ),
+                        new TokenScanKey( to.tokenId, to.idRange ), cursorContext );
+                return new TokenScanValueIndexProgressor( seeker, client, IndexOrder.NONE, EntityRange.FULL );
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+    }
+
     private class NativeTokenScan implements TokenScan
     {
         private final AtomicLong nextStart;
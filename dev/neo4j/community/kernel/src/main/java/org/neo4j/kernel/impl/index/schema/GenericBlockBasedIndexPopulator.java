@@ -28,6 +28,7 @@ import org.neo4j.gis.spatial.index.curves.SpaceFillingCurveConfiguration;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.io.memory.ByteBufferFactory;
 import org.neo4j.kernel.api.index.IndexValueValidator;
+import org.neo4j.kernel.impl.api.index.IndexSamplingConfig;
 import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.values.storable.Value;
@@ -37,6 +38,7 @@ class GenericBlockBasedIndexPopulator extends BlockBasedIndexPopulator<GenericKe
     private final IndexSpecificSpaceFillingCurveSettings spatialSettings;
     private final SpaceFillingCurveConfiguration configuration;
     private final TokenNameLookup tokenNameLookup;
+    private final IndexSamplingConfig samplingConfig;
 
     GenericBlockBasedIndexPopulator( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles, IndexLayout<GenericKey,NativeIndexValue> layout,
             IndexDescriptor descriptor, IndexSpecificSpaceFillingCurveSettings spatialSettings, SpaceFillingCurveConfiguration configuration,
@@ -46,12 +48,13 @@ class GenericBlockBasedIndexPopulator extends BlockBasedIndexPopulator<GenericKe
         this.spatialSettings = spatialSettings;
         this.configuration = configuration;
         this.tokenNameLookup = tokenNameLookup;
+        this.samplingConfig = new IndexSamplingConfig( config );
     }
 
     @Override
     NativeIndexReader<GenericKey,NativeIndexValue> newReader()
     {
-        return new GenericNativeIndexReader( tree, layout, descriptor, spatialSettings, configuration );
+        return new GenericNativeIndexReader( tree, layout, descriptor, spatialSettings, configuration, samplingConfig );
     }
 
     @Override
@@ -19,6 +19,9 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import org.eclipse.collections.api.set.ImmutableSet;
+
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
 
 import org.neo4j.annotations.service.ServiceProvider;
@@ -33,6 +36,9 @@ import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.api.index.IndexDirectoryStructure;
 import org.neo4j.monitoring.Monitors;
 
+import static org.eclipse.collections.api.factory.Sets.immutable;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.index_prefix_compressed_leaves;
+import static org.neo4j.index.internal.gbptree.GBPTreeOpenOptions.PREFIX_COMPRESSED_LEAVES;
 import static org.neo4j.kernel.api.index.IndexDirectoryStructure.directoriesByProvider;
 
 @ServiceProvider
@@ -70,8 +76,10 @@ public class GenericNativeIndexProviderFactory extends AbstractIndexProviderFact
                                                      String databaseName )
     {
         IndexDirectoryStructure.Factory directoryStructure = directoriesByProvider( storeDir );
+        ImmutableSet<OpenOption> openOptions = config.get( index_prefix_compressed_leaves ) ? immutable.of( PREFIX_COMPRESSED_LEAVES ) : immutable.empty();
         DatabaseIndexContext databaseIndexContext = DatabaseIndexContext.builder( pageCache, fs, databaseName ).withMonitors( monitors ).withTag( monitorTag )
                                                                         .withReadOnlyChecker( readOnlyChecker ).withPageCacheTracer( pageCacheTracer )
+                                                                        .withOpenOptions( openOptions )
                                                                         .build();
         return new GenericNativeIndexProvider( databaseIndexContext, directoryStructure, recoveryCleanupWorkCollector, config );
     }
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.index.schema;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.neo4j.gis.spatial.index.curves.SpaceFillingCurve;
 import org.neo4j.gis.spatial.index.curves.SpaceFillingCurveConfiguration;
@@ -31,8 +32,11 @@ import org.neo4j.internal.kernel.api.PropertyIndexQuery.RangePredicate;
 import org.neo4j.internal.kernel.api.PropertyIndexQuery.StringPrefixPredicate;
 import org.neo4j.internal.kernel.api.QueryContext;
 import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.api.index.BridgingIndexProgressor;
 import org.neo4j.kernel.api.index.IndexProgressor;
+import org.neo4j.kernel.api.index.PartitionedValueSeek;
+import org.neo4j.kernel.impl.api.index.IndexSamplingConfig;
 import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
 import org.neo4j.values.storable.Value;
@@ -50,9 +54,9 @@ class GenericNativeIndexReader extends NativeIndexReader<GenericKey,NativeIndexV
 
     GenericNativeIndexReader( GBPTree<GenericKey,NativeIndexValue> tree, IndexLayout<GenericKey,NativeIndexValue> layout,
             IndexDescriptor descriptor, IndexSpecificSpaceFillingCurveSettings spaceFillingCurveSettings,
-            SpaceFillingCurveConfiguration configuration )
+            SpaceFillingCurveConfiguration configuration, IndexSamplingConfig samplingConfig )
     {
-        super( tree, layout, descriptor );
+        super( tree, layout, descriptor, samplingConfig );
         this.spaceFillingCurveSettings = spaceFillingCurveSettings;
         this.configuration = configuration;
     }
@@ -72,37 +76,77 @@ class GenericNativeIndexReader extends NativeIndexReader<GenericKey,NativeIndexV
         if ( geometryRangePredicate != null )
         {
             validateQuery( constraints, query );
-            try
+            queryGeometryRange( client, constraints, query, geometryRangePredicate, context.cursorContext() );
+        }
+        else
+        {
+            super.query( context, client, constraints, query );
+        }
+    }
+
+    @Override
+    public PartitionedValueSeek valueSeek( int desiredNumberOfPartitions, IndexQueryConstraints constraints, CursorContext cursorContext,
+            PropertyIndexQuery... query )
+    {
+        PropertyIndexQuery.GeometryRangePredicate geometryRangePredicate = getGeometryRangePredicateIfAny( query );
+        if ( geometryRangePredicate == null )
+        {
+            return super.valueSeek( desiredNumberOfPartitions, constraints, cursorContext, query );
+        }
+
+        // A geometry range is already split into sub-queries of the space filling curve, which are all served by a single partition.
+        validatePartitionedSeek( desiredNumberOfPartitions, constraints, query );
+        AtomicBoolean reserved = new AtomicBoolean();
+        return new PartitionedValueSeek()
+        {
+            @Override
+            public int getNumberOfPartitions()
+            {
+                return 1;
+            }
+
+            @Override
+            public boolean reservePartition( IndexProgressor.EntityValueClient client, CursorContext cursorContext )
             {
-                // If there's a GeometryRangeQuery among the predicates then this query changes from a straight-forward: build from/to and seek...
-                // into a query that is split into multiple sub-queries. Predicates both before and after will have to be accompanied each sub-query.
-                BridgingIndexProgressor multiProgressor = new BridgingIndexProgressor( client, descriptor.schema().getPropertyIds() );
-                client.initialize( descriptor, multiProgressor, query, constraints, false );
-                double[] from = geometryRangePredicate.from() == null ? null : geometryRangePredicate.from().coordinate();
-                double[] to = geometryRangePredicate.to() == null ? null : geometryRangePredicate.to().coordinate();
-                CoordinateReferenceSystem crs = geometryRangePredicate.crs();
-                SpaceFillingCurve curve = spaceFillingCurveSettings.forCrs( crs );
-                List<SpaceFillingCurve.LongRange> ranges = curve.getTilesIntersectingEnvelope( from, to, configuration );
-                for ( SpaceFillingCurve.LongRange range : ranges )
+                if ( reserved.getAndSet( true ) )
                 {
-                    // Here's a sub-query that we'll have to do for this geometry range. Build this query from all predicates
-                    // and when getting to the geometry range predicate that sparked these sub-query chenanigans, swap in this sub-query in its place.
-                    GenericKey treeKeyFrom = layout.newKey();
-                    GenericKey treeKeyTo = layout.newKey();
-                    initializeFromToKeys( treeKeyFrom, treeKeyTo );
-                    boolean needFiltering = initializeRangeForGeometrySubQuery( treeKeyFrom, treeKeyTo, query, crs, range );
-                    startSeekForInitializedRange( multiProgressor, treeKeyFrom, treeKeyTo, query, constraints, needFiltering, context.cursorContext() );
+                    return false;
                 }
+                queryGeometryRange( client, constraints, query, geometryRangePredicate, cursorContext );
+                return true;
             }
-            catch ( IllegalArgumentException e )
+        };
+    }
+
+    private void queryGeometryRange( IndexProgressor.EntityValueClient client, IndexQueryConstraints constraints, PropertyIndexQuery[] query,
+            PropertyIndexQuery.GeometryRangePredicate geometryRangePredicate, CursorContext cursorContext )
+    {
+        try
+        {
+            // If there's a GeometryRangeQuery among the predicates then this query changes from a straight-forward: build from/to and seek...
+            // into a query that is split into multiple sub-queries. Predicates both before and after will have to be accompanied each sub-query.
+            BridgingIndexProgressor multiProgressor = new BridgingIndexProgressor( client, descriptor.schema().getPropertyIds() );
+            client.initialize( descriptor, multiProgressor, query, constraints, false );
+            double[] from = geometryRangePredicate.from() == null ? null : geometryRangePredicate.from().coordinate();
+            double[] to = geometryRangePredicate.to() == null ? null : geometryRangePredicate.to().coordinate();
+            CoordinateReferenceSystem crs = geometryRangePredicate.crs();
+            SpaceFillingCurve curve = spaceFillingCurveSettings.forCrs( crs );
+            List<SpaceFillingCurve.LongRange> ranges = curve.getTilesIntersectingEnvelope( from, to, configuration );
+            for ( SpaceFillingCurve.LongRange range : ranges )
             {
-                // Invalid query ranges will cause this state (eg. min>max)
-                client.initialize( descriptor, IndexProgressor.EMPTY, query, constraints, false );
+                // Here's a sub-query that we'll have to do for this geometry range. Build this query from all predicates
+                // and when getting to the geometry range predicate that sparked these sub-query chenanigans, swap in this sub-query in its place.
+                GenericKey treeKeyFrom = layout.newKey();
+                GenericKey treeKeyTo = layout.newKey();
+                initializeFromToKeys( treeKeyFrom, treeKeyTo );
+                boolean needFiltering = initializeRangeForGeometrySubQuery( treeKeyFrom, treeKeyTo, query, crs, range );
+                startSeekForInitializedRange( multiProgressor, treeKeyFrom, treeKeyTo, query, constraints, needFiltering, cursorContext );
             }
         }
-        else
+        catch ( IllegalArgumentException e )
         {
-            super.query( context, client, constraints, query );
+            // Invalid query ranges will cause this state (eg. min>max)
+            client.initialize( descriptor, IndexProgressor.EMPTY, query, constraints, false );
         }
     }
 
@@ -19,8 +19,11 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import org.eclipse.collections.api.set.ImmutableSet;
+
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.util.function.Consumer;
 
@@ -39,7 +42,6 @@ import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.api.index.IndexProvider;
 import org.neo4j.monitoring.Monitors;
 
-import static org.eclipse.collections.api.factory.Sets.immutable;
 import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_READER;
 
 abstract class NativeIndex<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue> implements ConsistencyCheckable
@@ -54,6 +56,7 @@ abstract class NativeIndex<KEY extends NativeIndexKey<KEY>, VALUE extends Native
     private final DatabaseReadOnlyChecker readOnlyChecker;
     private final PageCacheTracer pageCacheTracer;
     private final String databaseName;
+    private final ImmutableSet<OpenOption> openOptions;
 
     protected GBPTree<KEY,VALUE> tree;
 
@@ -66,6 +69,7 @@ abstract class NativeIndex<KEY extends NativeIndexKey<KEY>, VALUE extends Native
         this.readOnlyChecker = databaseIndexContext.readOnlyChecker;
         this.pageCacheTracer = databaseIndexContext.pageCacheTracer;
         this.databaseName = databaseIndexContext.databaseName;
+        this.openOptions = databaseIndexContext.openOptions;
         this.indexFiles = indexFiles;
         this.layout = layout;
         this.descriptor = descriptor;
@@ -77,7 +81,7 @@ abstract class NativeIndex<KEY extends NativeIndexKey<KEY>, VALUE extends Native
         GBPTree.Monitor monitor = treeMonitor();
         Path storeFile = indexFiles.getStoreFile();
         tree = new GBPTree<>( pageCache, storeFile, layout, monitor, NO_HEADER_READER, headerWriter, recoveryCleanupWorkCollector, readOnlyChecker,
-                pageCacheTracer, immutable.empty(), databaseName, descriptor.getName() );
+                pageCacheTracer, openOptions, databaseName, descriptor.getName() );
         afterTreeInstantiation( tree );
     }
 
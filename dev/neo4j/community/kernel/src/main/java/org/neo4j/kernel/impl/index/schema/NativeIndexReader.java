@@ -21,6 +21,9 @@ package org.neo4j.kernel.impl.index.schema;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Seeker;
@@ -33,24 +36,31 @@ import org.neo4j.internal.schema.IndexOrder;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
 import org.neo4j.kernel.api.index.IndexProgressor;
+import org.neo4j.kernel.api.index.IndexSample;
 import org.neo4j.kernel.api.index.IndexSampler;
+import org.neo4j.kernel.api.index.PartitionedValueSeek;
 import org.neo4j.kernel.api.index.ValueIndexReader;
+import org.neo4j.kernel.impl.api.index.IndexSamplingConfig;
 import org.neo4j.values.storable.Value;
 
 import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCause;
 import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRAL;
+import static org.neo4j.util.Preconditions.checkArgument;
+import static org.neo4j.util.Preconditions.requirePositive;
 
 abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue> implements ValueIndexReader
 {
     protected final IndexDescriptor descriptor;
     final IndexLayout<KEY,VALUE> layout;
     final GBPTree<KEY,VALUE> tree;
+    private final IndexSamplingConfig samplingConfig;
 
-    NativeIndexReader( GBPTree<KEY,VALUE> tree, IndexLayout<KEY,VALUE> layout, IndexDescriptor descriptor )
+    NativeIndexReader( GBPTree<KEY,VALUE> tree, IndexLayout<KEY,VALUE> layout, IndexDescriptor descriptor, IndexSamplingConfig samplingConfig )
     {
         this.tree = tree;
         this.layout = layout;
         this.descriptor = descriptor;
+        this.samplingConfig = samplingConfig;
     }
 
     @Override
@@ -65,25 +75,41 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
         // the number of indexed values and create a sample for that count. The GBPTree doesn't have an O(1)
         // count mechanism, it will have to manually count the indexed values in it to get it.
         // For that reason this implementation opts for keeping complexity down by just using the existing
-        // non-unique sampler which scans the index and counts (potentially duplicates, of which there will
-        // be none in a unique index).
+        // non-unique sampler which scans (partitions of) the index and counts (potentially duplicates, of which
+        // there will be none in a unique index).
 
-        FullScanNonUniqueIndexSampler<KEY,VALUE> sampler = new FullScanNonUniqueIndexSampler<>( tree, layout );
-        return tracer ->
+        PartitionedNonUniqueIndexSampler<KEY,VALUE> sampler = new PartitionedNonUniqueIndexSampler<>( tree, layout,
+                samplingConfig.samplingPartitions(), samplingConfig.samplingFraction() );
+        return new IndexSampler()
         {
-            try
+            @Override
+            public IndexSample sampleIndex( CursorContext cursorContext ) throws IndexNotFoundKernelException
             {
-                return sampler.sample( tracer );
+                return sampleIndex( () -> sampler.sample( cursorContext ) );
             }
-            catch ( UncheckedIOException e )
+
+            @Override
+            public IndexSample sampleIndex( CursorContext cursorContext, SamplingWorkScheduler workScheduler ) throws IndexNotFoundKernelException
+            {
+                return sampleIndex( () -> sampler.sample( cursorContext, workScheduler ) );
+            }
+
+            private IndexSample sampleIndex( Supplier<IndexSample> sampling ) throws IndexNotFoundKernelException
             {
-                if ( getRootCause( e ) instanceof FileIsNotMappedException )
+                try
+                {
+                    return sampling.get();
+                }
+                catch ( UncheckedIOException e )
                 {
-                    IndexNotFoundKernelException exception = new IndexNotFoundKernelException( "Index dropped while sampling." );
-                    exception.addSuppressed( e );
-                    throw exception;
+                    if ( getRootCause( e ) instanceof FileIsNotMappedException )
+                    {
+                        IndexNotFoundKernelException exception = new IndexNotFoundKernelException( "Index dropped while sampling." );
+                        exception.addSuppressed( e );
+                        throw exception;
+                    }
+                    throw e;
                 }
-                throw e;
             }
         };
     }
@@ -132,6 +158,40 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
         startSeekForInitializedRange( cursor, treeKeyFrom, treeKeyTo, predicates, constraints, needFilter, context.cursorContext() );
     }
 
+    @Override
+    public PartitionedValueSeek valueSeek( int desiredNumberOfPartitions, IndexQueryConstraints constraints, CursorContext cursorContext,
+            PropertyIndexQuery... query )
+    {
+        validatePartitionedSeek( desiredNumberOfPartitions, constraints, query );
+
+        KEY treeKeyFrom = layout.newKey();
+        KEY treeKeyTo = layout.newKey();
+        initializeFromToKeys( treeKeyFrom, treeKeyTo );
+
+        boolean needFilter = initializeRangeForQuery( treeKeyFrom, treeKeyTo, query );
+        if ( isEmptyRange( treeKeyFrom, treeKeyTo ) )
+        {
+            return PartitionedValueSeek.EMPTY;
+        }
+        try
+        {
+            List<KEY> edges = tree.partitionEdges( treeKeyFrom, treeKeyTo, desiredNumberOfPartitions, cursorContext );
+            return new NativePartitionedValueSeek( edges, query, constraints, needFilter );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    void validatePartitionedSeek( int desiredNumberOfPartitions, IndexQueryConstraints constraints, PropertyIndexQuery[] query )
+    {
+        requirePositive( desiredNumberOfPartitions );
+        checkArgument( !constraints.isOrdered() && constraints.skip().isEmpty() && constraints.limit().isEmpty(),
+                "Partitioned seeks can not be ordered, skipped or limited." );
+        validateQuery( constraints, query );
+    }
+
     void initializeFromToKeys( KEY treeKeyFrom, KEY treeKeyTo )
     {
         treeKeyFrom.initialize( Long.MIN_VALUE );
@@ -187,4 +247,42 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
     {
         return layout.compare( treeKeyFrom, treeKeyTo ) > 0;
     }
+
+    private class NativePartitionedValueSeek implements PartitionedValueSeek
+    {
+        private final List<KEY> edges;
+        private final PropertyIndexQuery[] query;
+        private final IndexQueryConstraints constraints;
+        private final boolean needFilter;
+        private final AtomicInteger nextPartition = new AtomicInteger();
+
+        NativePartitionedValueSeek( List<KEY> edges, PropertyIndexQuery[] query, IndexQueryConstraints constraints, boolean needFilter )
+        {
+            this.edges = edges;
+            this.query = query;
+            this.constraints = constraints;
+            this.needFilter = needFilter;
+        }
+
+        @Override
+        public int getNumberOfPartitions()
+        {
+            return edges.size() - 1;
+        }
+
+        @Override
+        public boolean reservePartition( IndexProgressor.EntityValueClient client, CursorContext cursorContext )
+        {
+            int partition = nextPartition.getAndIncrement();
+            if ( partition >= getNumberOfPartitions() )
+            {
+                return false;
+            }
+            // The seeker may change the keys it is given, and the edge between two partitions belongs to both of them
+            KEY treeKeyFrom = layout.copyKey( edges.get( partition ), layout.newKey() );
+            KEY treeKeyTo = layout.copyKey( edges.get( partition + 1 ), layout.newKey() );
+            startSeekForInitializedRange( client, treeKeyFrom, treeKeyTo, query, constraints, needFilter, cursorContext );
+            return true;
+        }
+    }
 }
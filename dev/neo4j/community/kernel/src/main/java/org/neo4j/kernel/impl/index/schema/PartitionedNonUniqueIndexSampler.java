@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Seeker;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexSampler.SamplingWorkScheduler;
+import org.neo4j.scheduler.JobHandle;
+
+import static org.neo4j.internal.helpers.Exceptions.chain;
+import static org.neo4j.util.Preconditions.checkArgument;
+import static org.neo4j.util.Preconditions.requirePositive;
+
+/**
+ * Samples a {@link GBPTree} in partitions, which are seeked independently of each other and can therefore be sampled by different threads.
+ * The partial samples of the partitions are merged in key order, where a value that spans the edge between two partitions is only counted once.
+ * <p>
+ * With a {@code fraction} less than 1, the tree is split into proportionally more partitions, of which only partitions spread evenly over
+ * the tree are read. The number of unique values and the sample size then come from the read partitions, and the size of the index is estimated
+ * from how many of the partitions were read.
+ *
+ * @param <KEY> type of keys in tree.
+ * @param <VALUE> type of values in tree.
+ */
+class PartitionedNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue>
+{
+    /**
+     * Upper limit of the number of partitions to split a tree into, since a small fraction asks for many partitions.
+     */
+    private static final int MAX_PARTITIONS = 1 << 14;
+
+    private final GBPTree<KEY,VALUE> gbpTree;
+    private final IndexLayout<KEY,VALUE> layout;
+    private final int partitions;
+    private final double fraction;
+
+    PartitionedNonUniqueIndexSampler( GBPTree<KEY,VALUE> gbpTree, IndexLayout<KEY,VALUE> layout, int partitions, double fraction )
+    {
+        checkArgument( fraction > 0 && fraction <= 1, "Fraction must be in (0,1] but was %f", fraction );
+        this.gbpTree = gbpTree;
+        this.layout = layout;
+        this.partitions = requirePositive( partitions );
+        this.fraction = fraction;
+    }
+
+    /**
+     * Samples all the selected partitions on the current thread.
+     */
+    IndexSample sample( CursorContext cursorContext )
+    {
+        List<KEY> edges = partitionEdges( cursorContext );
+        int[] selected = selectPartitions( edges.size() - 1 );
+        List<PartitionSample<KEY>> samples = new ArrayList<>( selected.length );
+        for ( int partition : selected )
+        {
+            samples.add( samplePartition( partition, edges.get( partition ), edges.get( partition + 1 ), cursorContext ) );
+        }
+        return merge( samples, edges.size() - 1 );
+    }
+
+    /**
+     * Samples every selected partition in a job of its own on the given {@link SamplingWorkScheduler}, or on the current thread if
+     * there is only one.
+     */
+    IndexSample sample( CursorContext cursorContext, SamplingWorkScheduler workScheduler )
+    {
+        List<KEY> edges = partitionEdges( cursorContext );
+        int[] selected = selectPartitions( edges.size() - 1 );
+        if ( selected.length == 1 )
+        {
+            return sample( cursorContext );
+        }
+
+        List<JobHandle<PartitionSample<KEY>>> jobs = new ArrayList<>( selected.length );
+        for ( int partition : selected )
+        {
+            // Neighbouring partitions share an edge, copy them so that no key is used by more than one seek
+            KEY from = layout.copyKey( edges.get( partition ), layout.newKey() );
+            KEY to = layout.copyKey( edges.get( partition + 1 ), layout.newKey() );
+            jobs.add( workScheduler.schedule( partitionContext -> samplePartition( partition, from, to, partitionContext ) ) );
+        }
+
+        List<PartitionSample<KEY>> samples = new ArrayList<>( selected.length );
+        RuntimeException failure = null;
+        for ( JobHandle<PartitionSample<KEY>> job : jobs )
+        {
+            try
+            {
+                samples.add( job.get() );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                failure = chain( failure, new RuntimeException( "Interrupted while sampling index", e ) );
+            }
+            catch ( ExecutionException e )
+            {
+                Throwable cause = e.getCause();
+                failure = chain( failure, cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException( cause ) );
+            }
+        }
+        if ( failure != null )
+        {
+            throw failure;
+        }
+        return merge( samples, edges.size() - 1 );
+    }
+
+    private List<KEY> partitionEdges( CursorContext cursorContext )
+    {
+        KEY lowest = layout.newKey();
+        lowest.initialize( Long.MIN_VALUE );
+        lowest.initValuesAsLowest();
+        KEY highest = layout.newKey();
+        highest.initialize( Long.MAX_VALUE );
+        highest.initValuesAsHighest();
+        int desiredPartitions = (int) Math.min( MAX_PARTITIONS, Math.ceil( partitions / fraction ) );
+        try
+        {
+            return gbpTree.partitionEdges( lowest, highest, desiredPartitions, cursorContext );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * @return the partitions to read, the given fraction of all partitions, spread evenly and in ascending order.
+     */
+    private int[] selectPartitions( int numberOfPartitions )
+    {
+        int numberOfSelected = (int) Math.max( 1, Math.min( numberOfPartitions, Math.ceil( numberOfPartitions * fraction ) ) );
+        int[] selected = new int[numberOfSelected];
+        for ( int i = 0; i < numberOfSelected; i++ )
+        {
+            selected[i] = (int) ((long) i * numberOfPartitions / numberOfSelected);
+        }
+        return selected;
+    }
+
+    private PartitionSample<KEY> samplePartition( int partition, KEY fromInclusive, KEY toExclusive, CursorContext cursorContext )
+    {
+        try ( Seeker<KEY,VALUE> seek = gbpTree.seek( fromInclusive, toExclusive, cursorContext ) )
+        {
+            PartitionSample<KEY> sample = new PartitionSample<>( partition );
+            if ( seek.next() )
+            {
+                sample.first = layout.copyKey( seek.key(), layout.newKey() );
+                sample.last = layout.copyKey( seek.key(), layout.newKey() );
+                sample.sampledValues++;
+                sample.uniqueValues++;
+
+                while ( seek.next() )
+                {
+                    if ( layout.compareValue( sample.last, seek.key() ) != 0 )
+                    {
+                        sample.uniqueValues++;
+                        layout.copyKey( seek.key(), sample.last );
+                    }
+                    // else this is a duplicate of the previous one
+                    sample.sampledValues++;
+                }
+            }
+            return sample;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * Merges the samples of the read partitions, in key order. A value that ends one partition and starts the next is the same value,
+     * and is only counted once when the partitions, and all empty partitions between them, were read.
+     */
+    private IndexSample merge( List<PartitionSample<KEY>> samples, int numberOfPartitions )
+    {
+        long sampledValues = 0;
+        long uniqueValues = 0;
+        KEY last = null;
+        int previousPartition = -1;
+        for ( PartitionSample<KEY> sample : samples )
+        {
+            if ( sample.partition != previousPartition + 1 )
+            {
+                // there are unread partitions in between
+                last = null;
+            }
+            previousPartition = sample.partition;
+            if ( sample.sampledValues == 0 )
+            {
+                continue;
+            }
+
+            sampledValues += sample.sampledValues;
+            uniqueValues += sample.uniqueValues;
+            if ( last != null && layout.compareValue( last, sample.first ) == 0 )
+            {
+                uniqueValues--;
+            }
+            last = sample.last;
+        }
+
+        long indexSize = samples.size() == numberOfPartitions ? sampledValues : Math.round( (double) sampledValues * numberOfPartitions / samples.size() );
+        return new IndexSample( indexSize, uniqueValues, sampledValues );
+    }
+
+    private static class PartitionSample<KEY>
+    {
+        private final int partition;
+        private long sampledValues;
+        private long uniqueValues;
+        private KEY first;
+        private KEY last;
+
+        PartitionSample( int partition )
+        {
+            this.partition = partition;
+        }
+    }
+}
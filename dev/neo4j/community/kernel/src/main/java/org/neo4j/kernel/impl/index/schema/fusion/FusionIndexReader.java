@@ -32,6 +32,7 @@ import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.api.index.BridgingIndexProgressor;
 import org.neo4j.kernel.api.index.IndexProgressor;
 import org.neo4j.kernel.api.index.IndexSampler;
+import org.neo4j.kernel.api.index.PartitionedValueSeek;
 import org.neo4j.kernel.api.index.ValueIndexReader;
 import org.neo4j.values.storable.Value;
 
@@ -106,6 +107,19 @@ class FusionIndexReader extends FusionIndexBase<ValueIndexReader> implements Val
         }
     }
 
+    @Override
+    public PartitionedValueSeek valueSeek( int desiredNumberOfPartitions, IndexQueryConstraints constraints, CursorContext cursorContext,
+            PropertyIndexQuery... predicates ) throws IndexNotApplicableKernelException
+    {
+        IndexSlot slot = slotSelector.selectSlot( predicates, PropertyIndexQuery::valueCategory );
+        if ( slot == null )
+        {
+            throw new IndexNotApplicableKernelException( format( "Partitioned seeks spanning several index slots are not supported, query was %s.",
+                    Arrays.toString( predicates ) ) );
+        }
+        return instanceSelector.select( slot ).valueSeek( desiredNumberOfPartitions, constraints, cursorContext, predicates );
+    }
+
     private static final class InnerException extends RuntimeException
     {
         private InnerException( IndexNotApplicableKernelException e )
@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.index.schema.fusion;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.neo4j.function.ThrowingFunction;
 import org.neo4j.internal.helpers.Exceptions;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException;
 import org.neo4j.io.pagecache.context.CursorContext;
@@ -44,6 +45,18 @@ public class FusionIndexSampler implements IndexSampler
 
     @Override
     public IndexSample sampleIndex( CursorContext cursorContext ) throws IndexNotFoundKernelException
+    {
+        return sampleIndex( sampler -> sampler.sampleIndex( cursorContext ) );
+    }
+
+    @Override
+    public IndexSample sampleIndex( CursorContext cursorContext, SamplingWorkScheduler workScheduler ) throws IndexNotFoundKernelException
+    {
+        return sampleIndex( sampler -> sampler.sampleIndex( cursorContext, workScheduler ) );
+    }
+
+    private IndexSample sampleIndex( ThrowingFunction<IndexSampler,IndexSample,IndexNotFoundKernelException> sampling )
+            throws IndexNotFoundKernelException
     {
         List<IndexSample> samples = new ArrayList<>();
         Exception exception = null;
@@ -51,7 +64,7 @@ public class FusionIndexSampler implements IndexSampler
         {
             try
             {
-                samples.add( sampler.sampleIndex( cursorContext ) );
+                samples.add( sampling.apply( sampler ) );
             }
             catch ( IndexNotFoundKernelException | RuntimeException e )
             {
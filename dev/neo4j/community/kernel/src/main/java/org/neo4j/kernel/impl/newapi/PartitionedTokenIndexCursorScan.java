@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.eclipse.collections.api.iterator.LongIterator;
+import org.eclipse.collections.api.set.primitive.LongSet;
+import org.eclipse.collections.impl.iterator.ImmutableEmptyLongIterator;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.neo4j.internal.kernel.api.Cursor;
+import org.neo4j.internal.kernel.api.PartitionedScan;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.api.index.IndexProgressor;
+import org.neo4j.kernel.api.index.PartitionedTokenScan;
+
+class PartitionedTokenIndexCursorScan<C extends Cursor> implements PartitionedScan<C>
+{
+    private final Read read;
+    private final PartitionedTokenScan tokenScan;
+    private final int token;
+    private final LongSet added;
+    private final LongSet removed;
+    private final AtomicBoolean addedItemsReserved = new AtomicBoolean();
+
+    /**
+     * @param added entities that got the token in the transaction, which are all returned by the first partition that is reserved.
+     * @param removed entities that lost the token, or were deleted, in the transaction, which are excluded from all partitions.
+     */
+    PartitionedTokenIndexCursorScan( Read read, PartitionedTokenScan tokenScan, int token, LongSet added, LongSet removed )
+    {
+        this.read = read;
+        this.tokenScan = tokenScan;
+        this.token = token;
+        this.added = added;
+        this.removed = removed;
+    }
+
+    @Override
+    public int getNumberOfPartitions()
+    {
+        return tokenScan.getNumberOfPartitions();
+    }
+
+    @Override
+    public boolean reservePartition( C cursor, CursorContext cursorContext )
+    {
+        DefaultEntityTokenIndexCursor<?> indexCursor = (DefaultEntityTokenIndexCursor<?>) cursor;
+        indexCursor.setRead( read );
+        IndexProgressor progressor = tokenScan.reservePartition( indexCursor, cursorContext );
+        if ( progressor == null )
+        {
+            return false;
+        }
+        LongIterator addedItems = addedItemsReserved.getAndSet( true ) ? ImmutableEmptyLongIterator.INSTANCE : added.longIterator();
+        indexCursor.initialize( progressor, token, addedItems, removed );
+        return true;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.neo4j.internal.kernel.api.Cursor;
+import org.neo4j.internal.kernel.api.PartitionedScan;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.api.index.PartitionedValueSeek;
+
+import static org.neo4j.util.Preconditions.checkState;
+
+class PartitionedValueIndexCursorSeek<C extends Cursor> implements PartitionedScan<C>
+{
+    private final Read read;
+    private final PartitionedValueSeek valueSeek;
+
+    PartitionedValueIndexCursorSeek( Read read, PartitionedValueSeek valueSeek )
+    {
+        this.read = read;
+        this.valueSeek = valueSeek;
+    }
+
+    @Override
+    public int getNumberOfPartitions()
+    {
+        return valueSeek.getNumberOfPartitions();
+    }
+
+    @Override
+    public boolean reservePartition( C cursor, CursorContext cursorContext )
+    {
+        checkState( !read.hasTxStateWithChanges(),
+                "Transaction contains changes, partitioned index seeks are only supported in transactions without changes." );
+        EntityIndexSeekClient client = (EntityIndexSeekClient) cursor;
+        client.setRead( read );
+        return valueSeek.reservePartition( client, cursorContext );
+    }
+}
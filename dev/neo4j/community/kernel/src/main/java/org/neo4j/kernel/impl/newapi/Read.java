@@ -19,10 +19,14 @@
  */
 package org.neo4j.kernel.impl.newapi;
 
+import org.eclipse.collections.api.set.primitive.LongSet;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
+
 import java.util.Iterator;
 
 import org.neo4j.common.EntityType;
 import org.neo4j.exceptions.KernelException;
+import org.neo4j.internal.kernel.api.Cursor;
 import org.neo4j.internal.kernel.api.CursorFactory;
 import org.neo4j.internal.kernel.api.IndexQueryConstraints;
 import org.neo4j.internal.kernel.api.IndexReadSession;
@@ -30,6 +34,7 @@ import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
 import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.PartitionedScan;
 import org.neo4j.internal.kernel.api.PropertyCursor;
 import org.neo4j.internal.kernel.api.PropertyIndexQuery;
 import org.neo4j.internal.kernel.api.QueryContext;
@@ -48,6 +53,8 @@ import org.neo4j.internal.schema.SchemaDescriptorSupplier;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.api.AssertOpen;
 import org.neo4j.kernel.api.exceptions.schema.IndexBrokenKernelException;
+import org.neo4j.kernel.api.index.PartitionedTokenScan;
+import org.neo4j.kernel.api.index.PartitionedValueSeek;
 import org.neo4j.kernel.api.index.ValueIndexReader;
 import org.neo4j.kernel.api.txstate.TransactionState;
 import org.neo4j.kernel.api.txstate.TxStateHolder;
@@ -62,7 +69,9 @@ import org.neo4j.storageengine.api.StorageReader;
 import org.neo4j.storageengine.api.txstate.ReadableTransactionState;
 
 import static java.lang.String.format;
+import static org.neo4j.collection.PrimitiveLongCollections.mergeToSet;
 import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unconstrained;
+import static org.neo4j.util.Preconditions.checkState;
 
 abstract class Read implements TxStateHolder,
         org.neo4j.internal.kernel.api.Read,
@@ -196,6 +205,49 @@ abstract class Read implements TxStateHolder,
         scanIndex( indexSession, (EntityIndexSeekClient) cursor, constraints );
     }
 
+    @Override
+    public final PartitionedScan<NodeValueIndexCursor> nodeIndexSeek( IndexReadSession index, int desiredNumberOfPartitions,
+            IndexQueryConstraints constraints, PropertyIndexQuery... query ) throws KernelException
+    {
+        ktx.assertOpen();
+        DefaultIndexReadSession indexSession = (DefaultIndexReadSession) index;
+
+        if ( indexSession.reference.schema().entityType() != EntityType.NODE )
+        {
+            throw new IndexNotApplicableKernelException( "Node index seek can only be performed on node indexes: " +
+                                                         index.reference().userDescription( ktx.tokenRead() ) );
+        }
+
+        return partitionedIndexSeek( indexSession, desiredNumberOfPartitions, constraints, query );
+    }
+
+    @Override
+    public final PartitionedScan<NodeValueIndexCursor> nodeIndexScan( IndexReadSession index, int desiredNumberOfPartitions,
+            IndexQueryConstraints constraints ) throws KernelException
+    {
+        ktx.assertOpen();
+        DefaultIndexReadSession indexSession = (DefaultIndexReadSession) index;
+
+        if ( indexSession.reference.schema().entityType() != EntityType.NODE )
+        {
+            throw new IndexNotApplicableKernelException( "Node index scan can only be performed on node indexes: " +
+                                                         index.reference().userDescription( ktx.tokenRead() ) );
+        }
+
+        // for a scan, we simply query for existence of the first property, which covers all entries in an index
+        int firstProperty = indexSession.reference.schema().getPropertyIds()[0];
+        return partitionedIndexSeek( indexSession, desiredNumberOfPartitions, constraints, PropertyIndexQuery.exists( firstProperty ) );
+    }
+
+    private <C extends Cursor> PartitionedScan<C> partitionedIndexSeek( DefaultIndexReadSession indexSession, int desiredNumberOfPartitions,
+            IndexQueryConstraints constraints, PropertyIndexQuery... query ) throws IndexNotApplicableKernelException
+    {
+        // the transaction state of a query can not be split into partitions of the index
+        checkState( !hasTxStateWithChanges(), "Transaction contains changes, partitioned index seeks are only supported in transactions without changes." );
+        PartitionedValueSeek valueSeek = indexSession.reader.valueSeek( desiredNumberOfPartitions, constraints, ktx.cursorContext(), query );
+        return new PartitionedValueIndexCursorSeek<>( this, valueSeek );
+    }
+
     private void scanIndex( DefaultIndexReadSession indexSession,
             EntityIndexSeekClient indexSeekClient,
             IndexQueryConstraints constraints ) throws KernelException
@@ -251,6 +303,31 @@ abstract class Read implements TxStateHolder,
         tokenSession.reader.query( indexCursor, constraints, query, ktx.cursorContext() );
     }
 
+    @Override
+    public final PartitionedScan<NodeLabelIndexCursor> nodeLabelScan( TokenReadSession session, int desiredNumberOfPartitions, TokenPredicate query )
+            throws KernelException
+    {
+        ktx.assertOpen();
+
+        if ( session.reference().schema().entityType() != EntityType.NODE )
+        {
+            throw new IndexNotApplicableKernelException( "Node label index scan can not be performed on index " +
+                                                         session.reference().userDescription( ktx.tokenRead() ) );
+        }
+
+        var tokenSession = (DefaultTokenReadSession) session;
+        PartitionedTokenScan tokenScan = tokenSession.reader.entityTokenScan( desiredNumberOfPartitions, ktx.cursorContext(), query );
+        int label = query.tokenId();
+        if ( hasTxStateWithChanges() )
+        {
+            TransactionState txState = txState();
+            LongSet added = txState.nodesWithLabelChanged( label ).getAdded().freeze();
+            LongSet removed = mergeToSet( txState.addedAndRemovedNodes().getRemoved(), txState.nodesWithLabelChanged( label ).getRemoved() );
+            return new PartitionedTokenIndexCursorScan<>( this, tokenScan, label, added, removed );
+        }
+        return new PartitionedTokenIndexCursorScan<>( this, tokenScan, label, LongSets.immutable.empty(), LongSets.immutable.empty() );
+    }
+
     @Override
     public final void allNodesScan( NodeCursor cursor )
     {
@@ -313,6 +390,31 @@ abstract class Read implements TxStateHolder,
         tokenSession.reader.query( indexCursor, constraints, query, ktx.cursorContext() );
     }
 
+    @Override
+    public final PartitionedScan<RelationshipTypeIndexCursor> relationshipTypeScan( TokenReadSession session, int desiredNumberOfPartitions,
+            TokenPredicate query ) throws KernelException
+    {
+        ktx.assertOpen();
+
+        if ( session.reference().schema().entityType() != EntityType.RELATIONSHIP )
+        {
+            throw new IndexNotApplicableKernelException( "Relationship type index scan can not be performed on index " +
+                                                         session.reference().userDescription( ktx.tokenRead() ) );
+        }
+
+        var tokenSession = (DefaultTokenReadSession) session;
+        PartitionedTokenScan tokenScan = tokenSession.reader.entityTokenScan( desiredNumberOfPartitions, ktx.cursorContext(), query );
+        int type = query.tokenId();
+        if ( hasTxStateWithChanges() )
+        {
+            TransactionState txState = txState();
+            LongSet added = txState.relationshipsWithTypeChanged( type ).getAdded().freeze();
+            LongSet removed = txState.addedAndRemovedRelationships().getRemoved().freeze();
+            return new PartitionedTokenIndexCursorScan<>( this, tokenScan, type, added, removed );
+        }
+        return new PartitionedTokenIndexCursorScan<>( this, tokenScan, type, LongSets.immutable.empty(), LongSets.immutable.empty() );
+    }
+
     @Override
     public void relationships( long nodeReference, long reference, RelationshipSelection selection, RelationshipTraversalCursor cursor )
     {
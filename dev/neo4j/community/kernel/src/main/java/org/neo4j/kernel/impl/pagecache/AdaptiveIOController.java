@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.time.SystemNanoClock;
+
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.check_point_io_limit_adaptive;
+import static org.neo4j.configuration.GraphDatabaseSettings.check_point_iops_limit;
+import static org.neo4j.configuration.GraphDatabaseSettings.check_point_throughput_limit;
+
+/**
+ * An {@link IOController} that limits the IOs and the bytes per second of page cache flushes, as configured by
+ * {@link org.neo4j.configuration.GraphDatabaseSettings#check_point_iops_limit} and
+ * {@link org.neo4j.configuration.GraphDatabaseSettings#check_point_throughput_limit}.
+ * <p>
+ * The limits are enforced per quantum of {@value #QUANTUM_MILLIS} milliseconds. A flush that has used up the budget of the current quantum is paused
+ * until the next one, and the IOs it has written are forced to the storage device while it is paused anyway. IOs that are reported by the page swappers,
+ * like page faults, count towards the IO budget too. A budget that is overdrawn by a large IO is paid back in the following quanta.
+ * <p>
+ * With {@link org.neo4j.configuration.GraphDatabaseInternalSettings#check_point_io_limit_adaptive}, the budget also adapts to the latency of the page
+ * faults that are traced by the {@link PageCacheTracer}. The latency between flushes is the baseline. While flushing, the latency is sampled every
+ * {@value #SAMPLE_MILLIS} milliseconds: when it is more than {@value #LATENCY_TOLERANCE} times the baseline, the budget is halved, down to
+ * {@value #MIN_RATE_PERCENT}% of the configured limits, and otherwise, also when there are no page faults at all, it grows back towards the configured
+ * limits by {@value #RATE_INCREASE_PERCENT}% of them.
+ */
+public class AdaptiveIOController implements IOController
+{
+    static final long QUANTUM_MILLIS = 100;
+    static final long SAMPLE_MILLIS = 500;
+    static final long MIN_SAMPLE_FAULTS = 16;
+    static final int LATENCY_TOLERANCE = 2;
+    static final int MIN_RATE_PERCENT = 5;
+    static final int RATE_INCREASE_PERCENT = 10;
+    private static final long QUANTUMS_PER_SECOND = TimeUnit.SECONDS.toMillis( 1 ) / QUANTUM_MILLIS;
+    // a flush that has not called in for this long is over, and the page faults since then happened without flushing
+    private static final long IDLE_MILLIS = 2 * SAMPLE_MILLIS;
+
+    private final Config config;
+    private final SystemNanoClock clock;
+    private final PageCacheTracer pageCacheTracer;
+    private final LongConsumer pauseMillis;
+    private final AtomicInteger disableCounter = new AtomicInteger();
+    private final LongAdder externalIOs = new LongAdder();
+
+    // the fields below are guarded by this
+    private long quantumStartMillis;
+    private long lastLimitMillis;
+    private long quantumIOs;
+    private long quantumBytes;
+    private long iopq;
+    private long bytesPerQuantum;
+    private int ratePercent = 100;
+    private long sampleStartMillis;
+    private long sampleFaults;
+    private long sampleFaultNanos;
+    private long baselineFaultNanos = -1;
+
+    public AdaptiveIOController( Config config, SystemNanoClock clock, PageCacheTracer pageCacheTracer )
+    {
+        this( config, clock, pageCacheTracer, AdaptiveIOController::sleep );
+    }
+
+    AdaptiveIOController( Config config, SystemNanoClock clock, PageCacheTracer pageCacheTracer, LongConsumer pauseMillis )
+    {
+        this.config = config;
+        this.clock = clock;
+        this.pageCacheTracer = pageCacheTracer;
+        this.pauseMillis = pauseMillis;
+        long now = clock.millis();
+        quantumStartMillis = now - QUANTUM_MILLIS;
+        lastLimitMillis = now - IDLE_MILLIS;
+        startSample( now );
+    }
+
+    @Override
+    public void maybeLimitIO( int recentlyCompletedIOs, Flushable flushable, MajorFlushEvent flushEvent )
+    {
+        maybeLimitIO( recentlyCompletedIOs, 0, flushable, flushEvent );
+    }
+
+    @Override
+    public void maybeLimitIO( int recentlyCompletedIOs, long recentlyWrittenBytes, Flushable flushable, MajorFlushEvent flushEvent )
+    {
+        flushEvent.reportIO( recentlyCompletedIOs );
+        if ( disableCounter.get() > 0 )
+        {
+            return;
+        }
+
+        long pause;
+        synchronized ( this )
+        {
+            long now = clock.millis();
+            if ( now - quantumStartMillis >= QUANTUM_MILLIS )
+            {
+                startQuantum( now );
+            }
+            lastLimitMillis = now;
+            quantumIOs += recentlyCompletedIOs + externalIOs.sumThenReset();
+            quantumBytes += recentlyWrittenBytes;
+            boolean overBudget = (iopq > 0 && quantumIOs >= iopq) || (bytesPerQuantum > 0 && quantumBytes >= bytesPerQuantum);
+            pause = overBudget ? quantumStartMillis + QUANTUM_MILLIS - now : 0;
+        }
+
+        if ( pause > 0 )
+        {
+            flushEvent.throttle( pause );
+            pauseMillis.accept( pause );
+            try
+            {
+                flushable.flush();
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+    }
+
+    @Override
+    public void reportIO( int completedIOs )
+    {
+        externalIOs.add( completedIOs );
+    }
+
+    @Override
+    public void disable()
+    {
+        disableCounter.incrementAndGet();
+    }
+
+    @Override
+    public void enable()
+    {
+        disableCounter.decrementAndGet();
+    }
+
+    @Override
+    public boolean isEnabled()
+    {
+        return disableCounter.get() == 0 && (config.get( check_point_iops_limit ) > 0 || config.get( check_point_throughput_limit ) > 0);
+    }
+
+    /**
+     * @return the percentage of the configured limits that flushes currently get.
+     */
+    synchronized int ratePercent()
+    {
+        return ratePercent;
+    }
+
+    private void startQuantum( long now )
+    {
+        long elapsedQuantums = (now - quantumStartMillis) / QUANTUM_MILLIS;
+        quantumStartMillis = now;
+        // the reported IOs of past quantums do not matter anymore
+        externalIOs.reset();
+        adapt( now );
+
+        long previousIopq = iopq;
+        long previousBytesPerQuantum = bytesPerQuantum;
+        iopq = budgetPerQuantum( config.get( check_point_iops_limit ) );
+        bytesPerQuantum = budgetPerQuantum( config.get( check_point_throughput_limit ) );
+        quantumIOs = overdraft( quantumIOs, previousIopq, elapsedQuantums );
+        quantumBytes = overdraft( quantumBytes, previousBytesPerQuantum, elapsedQuantums );
+    }
+
+    private long budgetPerQuantum( long limitPerSecond )
+    {
+        return limitPerSecond > 0 ? Math.max( 1, limitPerSecond / QUANTUMS_PER_SECOND * ratePercent / 100 ) : 0;
+    }
+
+    private static long overdraft( long used, long budgetPerQuantum, long elapsedQuantums )
+    {
+        if ( budgetPerQuantum <= 0 || elapsedQuantums > used / budgetPerQuantum )
+        {
+            return 0;
+        }
+        return used - elapsedQuantums * budgetPerQuantum;
+    }
+
+    private void adapt( long now )
+    {
+        if ( !config.get( check_point_io_limit_adaptive ) )
+        {
+            ratePercent = 100;
+            return;
+        }
+
+        long faults = pageCacheTracer.faults() - sampleFaults;
+        long faultNanos = pageCacheTracer.faultNanos() - sampleFaultNanos;
+        if ( now - lastLimitMillis >= IDLE_MILLIS )
+        {
+            // a new flush: the page faults since the last sample are the baseline, and the flush starts out at the configured limits
+            if ( faults >= MIN_SAMPLE_FAULTS )
+            {
+                long latency = faultNanos / faults;
+                baselineFaultNanos = baselineFaultNanos < 0 ? latency : (3 * baselineFaultNanos + latency) / 4;
+            }
+            ratePercent = 100;
+            startSample( now );
+        }
+        else if ( now - sampleStartMillis >= SAMPLE_MILLIS )
+        {
+            if ( faults >= MIN_SAMPLE_FAULTS && baselineFaultNanos >= 0 && faultNanos / faults > LATENCY_TOLERANCE * baselineFaultNanos )
+            {
+                ratePercent = Math.max( MIN_RATE_PERCENT, ratePercent / 2 );
+            }
+            else
+            {
+                ratePercent = Math.min( 100, ratePercent + RATE_INCREASE_PERCENT );
+            }
+            startSample( now );
+        }
+    }
+
+    private void startSample( long now )
+    {
+        sampleStartMillis = now;
+        sampleFaults = pageCacheTracer.faults();
+        sampleFaultNanos = pageCacheTracer.faultNanos();
+    }
+
+    private static void sleep( long millis )
+    {
+        try
+        {
+            Thread.sleep( millis );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -22,14 +22,21 @@ package org.neo4j.kernel.impl.pagecache;
 import org.neo4j.annotations.service.ServiceProvider;
 import org.neo4j.configuration.Config;
 import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.time.SystemNanoClock;
 
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.community_check_point_io_limit_enabled;
+
 @ServiceProvider
 public class CommunityIOControllerService implements IOControllerService
 {
     @Override
-    public IOController createIOController( Config config, SystemNanoClock clock )
+    public IOController createIOController( Config config, SystemNanoClock clock, PageCacheTracer pageCacheTracer )
     {
+        if ( config.get( community_check_point_io_limit_enabled ) )
+        {
+            return new AdaptiveIOController( config, clock, pageCacheTracer );
+        }
         return IOController.DISABLED;
     }
 
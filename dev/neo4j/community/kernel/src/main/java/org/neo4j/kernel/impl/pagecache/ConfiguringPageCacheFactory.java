@@ -24,6 +24,7 @@ import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.configuration.pagecache.ConfigurableIOBufferFactory;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.mem.HugePageCoverage;
 import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.os.OsBeanUtil;
 import org.neo4j.io.pagecache.PageCache;
@@ -38,6 +39,11 @@ import org.neo4j.memory.MemoryTracker;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.time.SystemNanoClock;
 
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_compressed_tier_size;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_eviction_policy;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_flush_parallelism;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_huge_pages;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_page_load_workers;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_memory;
 import static org.neo4j.configuration.GraphDatabaseSettings.preallocate_store_files;
 import static org.neo4j.configuration.SettingValueParsers.BYTES;
@@ -99,14 +105,36 @@ public class ConfiguringPageCacheFactory
                 .memoryTracker( memoryTracker )
                 .bufferFactory( bufferFactory )
                 .preallocateStoreFiles( config.get( preallocate_store_files ) )
+                .evictionPolicy( config.get( pagecache_eviction_policy ).name() )
+                .flushParallelism( config.get( pagecache_flush_parallelism ) )
+                .compressedTierSize( config.get( pagecache_compressed_tier_size ) )
+                .pageLoadWorkers( config.get( pagecache_page_load_workers ) )
                 .clock( clock )
                 .pageCacheTracer( pageCacheTracer );
-        return new MuninnPageCache( swapperFactory, scheduler, configuration );
+        MuninnPageCache muninnPageCache = new MuninnPageCache( swapperFactory, scheduler, configuration );
+        if ( config.get( pagecache_huge_pages ) )
+        {
+            logHugePageCoverage( muninnPageCache.hugePageCoverage() );
+        }
+        return muninnPageCache;
     }
 
     private MemoryAllocator buildMemoryAllocator( long pageCacheMaxMemory, MemoryTracker memoryTracker )
     {
-        return createAllocator( pageCacheMaxMemory, memoryTracker );
+        return createAllocator( pageCacheMaxMemory, memoryTracker, config.get( pagecache_huge_pages ) );
+    }
+
+    private void logHugePageCoverage( HugePageCoverage coverage )
+    {
+        if ( coverage.advisedMemory() == 0 )
+        {
+            log.warn( "The " + pagecache_huge_pages.name() + " setting is enabled, but the page cache memory could not be advised as transparent " +
+                      "huge pages. This is only supported on Linux, with native access available." );
+        }
+        else
+        {
+            log.info( "Page cache memory is advised as transparent huge pages: " + coverage );
+        }
     }
 
     private long getPageCacheMaxMemory( Config config )
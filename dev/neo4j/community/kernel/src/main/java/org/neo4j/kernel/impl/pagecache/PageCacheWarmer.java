@@ -0,0 +1,375 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.helpers.DatabaseReadOnlyChecker;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.community_pagecache_warmup_enabled;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_enabled;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_max_time;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch_allowlist;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_profiling_interval;
+import static org.neo4j.io.pagecache.PageCursor.UNBOUND_PAGE_ID;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
+
+/**
+ * Warms up the page cache of a database when it starts.
+ * <p>
+ * While the database runs, and once more when it stops, the pages of its mapped files that are in memory are written to a profile, one compressed
+ * bitmap per file in the {@value #PROFILES_DIRECTORY} directory of the database. When the database starts, before it becomes available, the
+ * pages of the profiles are loaded back in parallel, one file per thread, with {@link PagedFile#touch(long, int, CursorContext) large reads} of the
+ * runs of consecutive pages. With {@link org.neo4j.configuration.GraphDatabaseSettings#pagecache_warmup_prefetch preload}, the whole files that
+ * match the allowlist are loaded instead. The warmup stops when it runs out of time, or when it has loaded as many pages as fit in the cache.
+ * <p>
+ * Only done when enabled with {@link org.neo4j.configuration.GraphDatabaseInternalSettings#community_pagecache_warmup_enabled}. No profiles are
+ * written while the database is read only.
+ */
+public class PageCacheWarmer extends LifecycleAdapter
+{
+    public static final String PROFILES_DIRECTORY = "profiles";
+    static final String PROFILE_SUFFIX = ".cacheprof";
+    private static final String TRACER_TAG = "pageCacheWarmer";
+    // The number of pages that are loaded in between checks of the deadline.
+    private static final int TOUCH_CHUNK_PAGES = 1024;
+
+    private final PageCache pageCache;
+    private final FileSystemAbstraction fs;
+    private final JobScheduler scheduler;
+    private final Path databaseDirectory;
+    private final Path profilesDirectory;
+    private final PageCacheTracer pageCacheTracer;
+    private final Config config;
+    private final DatabaseReadOnlyChecker readOnlyChecker;
+    private final Log log;
+    private final String databaseName;
+    private volatile JobHandle<?> profileHandle;
+    private volatile boolean warmupStopped;
+
+    public PageCacheWarmer( PageCache pageCache, FileSystemAbstraction fs, JobScheduler scheduler, Path databaseDirectory, PageCacheTracer pageCacheTracer,
+            Config config, DatabaseReadOnlyChecker readOnlyChecker, Log log, String databaseName )
+    {
+        this.pageCache = pageCache;
+        this.fs = fs;
+        this.scheduler = scheduler;
+        this.databaseDirectory = databaseDirectory;
+        this.profilesDirectory = databaseDirectory.resolve( PROFILES_DIRECTORY );
+        this.pageCacheTracer = pageCacheTracer;
+        this.config = config;
+        this.readOnlyChecker = readOnlyChecker;
+        this.log = log;
+        this.databaseName = databaseName;
+    }
+
+    @Override
+    public void start() throws Exception
+    {
+        if ( !config.get( community_pagecache_warmup_enabled ) || !config.get( pagecache_warmup_enabled ) )
+        {
+            return;
+        }
+        warmUp();
+        long intervalMillis = config.get( pagecache_warmup_profiling_interval ).toMillis();
+        profileHandle = scheduler.scheduleRecurring( Group.FILE_IO_HELPER, systemJob( databaseName, "Profiling of the page cache" ), this::profileQuietly,
+                intervalMillis, intervalMillis, MILLISECONDS );
+    }
+
+    @Override
+    public void stop()
+    {
+        JobHandle<?> handle = profileHandle;
+        if ( handle != null )
+        {
+            profileHandle = null;
+            handle.cancel();
+            // the pages that are in memory now are the best guess of what is needed after a restart
+            profileQuietly();
+        }
+    }
+
+    /**
+     * Load the pages of the profiles, or of the preloaded files, into the page cache, within the configured maximum time.
+     * @return the number of pages that were loaded.
+     */
+    long warmUp() throws Exception
+    {
+        Duration maxTime = config.get( pagecache_warmup_max_time );
+        if ( maxTime.isZero() || maxTime.isNegative() )
+        {
+            return 0;
+        }
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + maxTime.toNanos();
+        boolean preload = config.get( pagecache_warmup_prefetch );
+        Pattern allowlist = Pattern.compile( config.get( pagecache_warmup_prefetch_allowlist ) );
+        // pages beyond what fits in the cache would only evict the pages loaded before them
+        AtomicLong pageBudget = new AtomicLong( pageCache.maxCachedPages() );
+
+        warmupStopped = false;
+        List<Future<Long>> loads = new ArrayList<>();
+        for ( PagedFile file : pageCache.listExistingMappings() )
+        {
+            Path relativePath = relativePath( file );
+            if ( relativePath == null )
+            {
+                continue;
+            }
+            if ( preload )
+            {
+                if ( allowlist.matcher( relativePath.getFileName().toString() ).matches() )
+                {
+                    loads.add( scheduler.executor( Group.FILE_IO_HELPER ).submit( () -> preload( file, pageBudget, deadlineNanos ) ) );
+                }
+            }
+            else if ( fs.fileExists( profileOf( relativePath ) ) )
+            {
+                loads.add( scheduler.executor( Group.FILE_IO_HELPER ).submit( () -> warmUp( file, relativePath, pageBudget, deadlineNanos ) ) );
+            }
+        }
+
+        long pagesLoaded = 0;
+        for ( Future<Long> load : loads )
+        {
+            try
+            {
+                pagesLoaded += awaitLoad( load, deadlineNanos );
+            }
+            catch ( ExecutionException e )
+            {
+                log.warn( "Page cache warmup of a file failed.", e.getCause() );
+            }
+        }
+        if ( !loads.isEmpty() )
+        {
+            long endNanos = System.nanoTime();
+            boolean timedOut = endNanos - deadlineNanos > 0;
+            log.info( "Page cache warmup %s %d pages of %d files in %d ms.", timedOut ? "ran out of time after loading" : "loaded", pagesLoaded,
+                    loads.size(), NANOSECONDS.toMillis( endNanos - startNanos ) );
+        }
+        return pagesLoaded;
+    }
+
+    private long awaitLoad( Future<Long> load, long deadlineNanos ) throws InterruptedException, ExecutionException
+    {
+        if ( !warmupStopped )
+        {
+            try
+            {
+                return load.get( Math.max( 0, deadlineNanos - System.nanoTime() ), NANOSECONDS );
+            }
+            catch ( TimeoutException e )
+            {
+                // the loads check this flag in between chunks, so none of them takes much longer from here on
+                warmupStopped = true;
+            }
+        }
+        return load.get();
+    }
+
+    private long warmUp( PagedFile file, Path relativePath, AtomicLong pageBudget, long deadlineNanos ) throws IOException
+    {
+        BitSet pages = readProfile( profileOf( relativePath ) );
+        long pagesLoaded = 0;
+        try ( PageCursorTracer cursorTracer = pageCacheTracer.createPageCursorTracer( TRACER_TAG ) )
+        {
+            CursorContext cursorContext = new CursorContext( cursorTracer );
+            // the file can be shorter than when it was profiled
+            long lastPageId = file.getLastPageId();
+            int runStart = pages.nextSetBit( 0 );
+            while ( runStart >= 0 && runStart <= lastPageId && canContinue( pageBudget, deadlineNanos ) )
+            {
+                int runEnd = pages.nextClearBit( runStart );
+                pagesLoaded += load( file, runStart, Math.min( runEnd, lastPageId + 1 ), pageBudget, deadlineNanos, cursorContext );
+                runStart = pages.nextSetBit( runEnd );
+            }
+        }
+        return pagesLoaded;
+    }
+
+    private long preload( PagedFile file, AtomicLong pageBudget, long deadlineNanos ) throws IOException
+    {
+        try ( PageCursorTracer cursorTracer = pageCacheTracer.createPageCursorTracer( TRACER_TAG ) )
+        {
+            return load( file, 0, file.getLastPageId() + 1, pageBudget, deadlineNanos, new CursorContext( cursorTracer ) );
+        }
+    }
+
+    /**
+     * Load the pages from {@code fromPageId}, inclusive, to {@code toPageId}, exclusive, in chunks, for as long as there is time and budget left.
+     * @return the number of pages loaded, which does not count the pages that were in memory already.
+     */
+    private long load( PagedFile file, long fromPageId, long toPageId, AtomicLong pageBudget, long deadlineNanos, CursorContext cursorContext )
+            throws IOException
+    {
+        long pagesLoaded = 0;
+        long pageId = fromPageId;
+        while ( pageId < toPageId && canContinue( pageBudget, deadlineNanos ) )
+        {
+            int chunk = (int) Math.min( TOUCH_CHUNK_PAGES, toPageId - pageId );
+            if ( pageBudget.addAndGet( -chunk ) < 0 )
+            {
+                break;
+            }
+            int loaded = file.touch( pageId, chunk, cursorContext );
+            // pages that were in memory already, or past the end of the file, do not take up any more of the cache
+            pageBudget.addAndGet( chunk - loaded );
+            pagesLoaded += loaded;
+            pageId += chunk;
+        }
+        return pagesLoaded;
+    }
+
+    private boolean canContinue( AtomicLong pageBudget, long deadlineNanos )
+    {
+        return !warmupStopped && System.nanoTime() - deadlineNanos <= 0 && pageBudget.get() > 0;
+    }
+
+    private void profileQuietly()
+    {
+        if ( readOnlyChecker.isReadOnly() )
+        {
+            // profiles are files of the database, which must not be written to
+            return;
+        }
+        try
+        {
+            profile();
+        }
+        catch ( Exception e )
+        {
+            log.warn( "Page cache profiling failed.", e );
+        }
+    }
+
+    /**
+     * Write a profile of the pages that are in memory, for every mapped file of the database.
+     */
+    synchronized void profile() throws IOException
+    {
+        try ( PageCursorTracer cursorTracer = pageCacheTracer.createPageCursorTracer( TRACER_TAG ) )
+        {
+            CursorContext cursorContext = new CursorContext( cursorTracer );
+            for ( PagedFile file : pageCache.listExistingMappings() )
+            {
+                Path relativePath = relativePath( file );
+                if ( relativePath != null )
+                {
+                    writeProfile( profileOf( relativePath ), residentPages( file, cursorContext ) );
+                }
+            }
+        }
+    }
+
+    private static BitSet residentPages( PagedFile file, CursorContext cursorContext ) throws IOException
+    {
+        BitSet pages = new BitSet();
+        // page ids are bit indexes, which is good for files of up to 16 TiB with 8 KiB pages
+        long lastPageId = Math.min( file.getLastPageId(), Integer.MAX_VALUE - 1 );
+        try ( PageCursor cursor = file.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT, cursorContext ) )
+        {
+            for ( int pageId = 0; pageId <= lastPageId && cursor.next( pageId ); pageId++ )
+            {
+                if ( cursor.getCurrentPageId() != UNBOUND_PAGE_ID )
+                {
+                    pages.set( pageId );
+                }
+            }
+        }
+        return pages;
+    }
+
+    private void writeProfile( Path profile, BitSet pages ) throws IOException
+    {
+        fs.mkdirs( profile.getParent() );
+        // write to a temporary file first, so that a crash never leaves a partly written profile behind
+        Path temporaryProfile = profile.resolveSibling( profile.getFileName() + ".tmp" );
+        long[] words = pages.toLongArray();
+        try ( DataOutputStream out = new DataOutputStream( new GZIPOutputStream( fs.openAsOutputStream( temporaryProfile, false ) ) ) )
+        {
+            out.writeInt( words.length );
+            for ( long word : words )
+            {
+                out.writeLong( word );
+            }
+        }
+        fs.renameFile( temporaryProfile, profile, REPLACE_EXISTING );
+    }
+
+    private BitSet readProfile( Path profile ) throws IOException
+    {
+        try ( DataInputStream in = new DataInputStream( new GZIPInputStream( fs.openAsInputStream( profile ) ) ) )
+        {
+            long[] words = new long[in.readInt()];
+            for ( int i = 0; i < words.length; i++ )
+            {
+                words[i] = in.readLong();
+            }
+            return BitSet.valueOf( words );
+        }
+    }
+
+    private Path profileOf( Path relativePath )
+    {
+        return profilesDirectory.resolve( relativePath + PROFILE_SUFFIX );
+    }
+
+    /**
+     * @return the path of the file relative to the database directory, or {@code null} if it is not a file of the database.
+     */
+    private Path relativePath( PagedFile file )
+    {
+        Path path = file.path();
+        return path.startsWith( databaseDirectory ) ? databaseDirectory.relativize( path ) : null;
+    }
+}
@@ -24,6 +24,7 @@ import java.time.Clock;
 import org.neo4j.annotations.service.ServiceProvider;
 import org.neo4j.configuration.Config;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageAccessHeatmap;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.impl.api.tracer.DefaultTracer;
 import org.neo4j.kernel.impl.transaction.tracing.DatabaseTracer;
@@ -32,6 +33,8 @@ import org.neo4j.monitoring.Monitors;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.time.SystemNanoClock;
 
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_heatmap_sample_interval;
+
 /**
  * The default TracerFactory, when nothing else is otherwise configured.
  */
@@ -47,7 +50,7 @@ public class DefaultTracerFactory implements TracerFactory
     @Override
     public PageCacheTracer createPageCacheTracer( Monitors monitors, JobScheduler jobScheduler, SystemNanoClock clock, Log log, Config config )
     {
-        return new DefaultPageCacheTracer();
+        return new DefaultPageCacheTracer( new PageAccessHeatmap( config.get( pagecache_heatmap_sample_interval ) ) );
     }
 
     @Override
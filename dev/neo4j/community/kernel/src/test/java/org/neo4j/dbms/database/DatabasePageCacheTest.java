@@ -45,7 +45,9 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -69,6 +71,7 @@ class DatabasePageCacheTest
         globalPageCache = mock( PageCache.class );
         pagedFileMapper = new PagedFileAnswer();
         when( globalPageCache.map( any( Path.class ), eq( PAGE_SIZE ), any(), any(), any() ) ).then( pagedFileMapper );
+        doCallRealMethod().when( globalPageCache ).flushAndForce( anyList() );
         databasePageCache = new DatabasePageCache( globalPageCache, DISABLED );
     }
 
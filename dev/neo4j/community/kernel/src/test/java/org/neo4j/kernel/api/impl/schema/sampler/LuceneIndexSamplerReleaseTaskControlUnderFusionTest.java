@@ -63,6 +63,7 @@ import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
 import static org.neo4j.configuration.helpers.DatabaseReadOnlyChecker.writable;
 import static org.neo4j.internal.schema.SchemaDescriptor.forLabel;
 import static org.neo4j.kernel.api.index.IndexDirectoryStructure.directoriesByProvider;
@@ -168,7 +169,7 @@ class LuceneIndexSamplerReleaseTaskControlUnderFusionTest
             }
         };
         OnlineIndexSamplingJobFactory onlineIndexSamplingJobFactory = new OnlineIndexSamplingJobFactory( null, SIMPLE_NAME_LOOKUP, getInstance(),
-                PageCacheTracer.NULL );
+                PageCacheTracer.NULL, null, DEFAULT_DATABASE_NAME );
         return onlineIndexSamplingJobFactory.create( 1, indexProxy );
     }
 
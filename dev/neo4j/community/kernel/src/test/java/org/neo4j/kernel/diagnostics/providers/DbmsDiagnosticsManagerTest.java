@@ -41,6 +41,7 @@ import org.neo4j.internal.diagnostics.DiagnosticsLogger;
 import org.neo4j.internal.diagnostics.DiagnosticsProvider;
 import org.neo4j.io.fs.DefaultFileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.database.Database;
 import org.neo4j.kernel.database.DatabaseIdFactory;
 import org.neo4j.kernel.database.NamedDatabaseId;
@@ -321,7 +322,8 @@ class DbmsDiagnosticsManagerTest
         assertThat( logProvider ).containsMessages( "Database: " + DEFAULT_DATABASE_NAME.toLowerCase(),
                                                     "Version",
                                                     "Store files",
-                                                    "Transaction log" );
+                                                    "Transaction log",
+                                                    "Page cache" );
     }
 
     private Database prepareDatabase() throws IOException
@@ -337,6 +339,7 @@ class DbmsDiagnosticsManagerTest
         databaseDependencies.satisfyDependency( storageEngine );
         databaseDependencies.satisfyDependency( storageEngineFactory );
         databaseDependencies.satisfyDependency( new DefaultFileSystemAbstraction() );
+        databaseDependencies.satisfyDependency( PageCacheTracer.NULL );
         databaseDependencies.satisfyDependency(
                 logFilesBasedOnlyBuilder( directory.homePath(), directory.getFileSystem() ).withLogEntryReader( mock( LogEntryReader.class ) ).build() );
         when( database.getDependencyResolver() ).thenReturn( databaseDependencies );
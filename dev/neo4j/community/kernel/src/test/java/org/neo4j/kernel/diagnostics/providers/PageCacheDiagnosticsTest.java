@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.diagnostics.providers;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
+import org.neo4j.logging.AssertableLogProvider;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.logging.LogAssertions.assertThat;
+
+class PageCacheDiagnosticsTest
+{
+    private final DatabaseLayout databaseLayout = DatabaseLayout.ofFlat( Path.of( "data", "databases", "neo4j" ).toAbsolutePath() );
+    private final PageCacheCounters pageCacheCounters = mock( PageCacheCounters.class );
+    private final AssertableLogProvider logProvider = new AssertableLogProvider();
+
+    @Test
+    void shouldLogResidentPagesOfTheFilesOfTheDatabase()
+    {
+        Path otherDatabase = DatabaseLayout.ofFlat( Path.of( "data", "databases", "system" ).toAbsolutePath() ).nodeStore();
+        when( pageCacheCounters.residentPages() ).thenReturn( Map.of(
+                databaseLayout.nodeStore(), 12,
+                databaseLayout.relationshipStore(), 30,
+                otherDatabase, 7 ) );
+
+        new PageCacheDiagnostics( pageCacheCounters, databaseLayout ).dump( logProvider.getLog( getClass() )::info );
+
+        assertThat( logProvider ).containsMessages(
+                "  " + databaseLayout.nodeStore().getFileName() + " : 12",
+                "  " + databaseLayout.relationshipStore().getFileName() + " : 30",
+                "  Total resident pages: 42" );
+        assertThat( logProvider ).doesNotContainMessage( " : 7" );
+    }
+
+    @Test
+    void shouldLogWhenNoFilesAreMapped()
+    {
+        when( pageCacheCounters.residentPages() ).thenReturn( Map.of() );
+
+        new PageCacheDiagnostics( pageCacheCounters, databaseLayout ).dump( logProvider.getLog( getClass() )::info );
+
+        assertThat( logProvider ).containsMessages( "  no mapped files" );
+    }
+}
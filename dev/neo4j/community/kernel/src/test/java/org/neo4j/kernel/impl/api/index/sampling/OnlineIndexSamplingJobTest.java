@@ -34,6 +34,7 @@ import org.neo4j.kernel.impl.api.index.IndexProxy;
 import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.logging.NullLogProvider;
+import org.neo4j.scheduler.JobScheduler;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
@@ -41,6 +42,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
 import static org.neo4j.internal.kernel.api.InternalIndexState.FAILED;
 import static org.neo4j.internal.kernel.api.InternalIndexState.ONLINE;
 import static org.neo4j.internal.schema.IndexPrototype.forSchema;
@@ -56,6 +58,7 @@ class OnlineIndexSamplingJobTest
     private final IndexDescriptor indexDescriptor = forSchema( forLabel( 1, 2 ), IndexProviderDescriptor.UNDECIDED ).withName( "index" ).materialise( indexId );
     private final ValueIndexReader indexReader = mock( ValueIndexReader.class );
     private final IndexSampler indexSampler = mock( IndexSampler.class );
+    private final JobScheduler jobScheduler = mock( JobScheduler.class );
 
     private final long indexUniqueValues = 21L;
     private final long indexSize = 23L;
@@ -67,14 +70,15 @@ class OnlineIndexSamplingJobTest
         when( indexProxy.getDescriptor() ).thenReturn( indexDescriptor );
         when( indexProxy.newValueReader() ).thenReturn( indexReader );
         when( indexReader.createSampler() ).thenReturn( indexSampler );
-        when( indexSampler.sampleIndex( any() ) ).thenReturn( sample );
+        when( indexSampler.sampleIndex( any(), any() ) ).thenReturn( sample );
     }
 
     @Test
     void shouldSampleTheIndexAndStoreTheValueWhenTheIndexIsOnline()
     {
         // given
-        OnlineIndexSamplingJob job = new OnlineIndexSamplingJob( indexId, indexProxy, indexStatisticsStore, "Foo", "Foo", logProvider, NULL );
+        OnlineIndexSamplingJob job = new OnlineIndexSamplingJob( indexId, indexProxy, indexStatisticsStore, "Foo", "Foo", logProvider, NULL, jobScheduler,
+                DEFAULT_DATABASE_NAME );
         when( indexProxy.getState() ).thenReturn( ONLINE );
 
         // when
@@ -89,7 +93,8 @@ class OnlineIndexSamplingJobTest
     void shouldSampleTheIndexButDoNotStoreTheValuesIfTheIndexIsNotOnline()
     {
         // given
-        OnlineIndexSamplingJob job = new OnlineIndexSamplingJob( indexId, indexProxy, indexStatisticsStore, "Foo", "Foo", logProvider, NULL );
+        OnlineIndexSamplingJob job = new OnlineIndexSamplingJob( indexId, indexProxy, indexStatisticsStore, "Foo", "Foo", logProvider, NULL, jobScheduler,
+                DEFAULT_DATABASE_NAME );
         when( indexProxy.getState() ).thenReturn( FAILED );
 
         // when
@@ -106,12 +111,13 @@ class OnlineIndexSamplingJobTest
         var pageCursorTracer = mock( PageCursorTracer.class );
         when( pageCacheTracer.createPageCursorTracer( any() ) ).thenReturn( pageCursorTracer );
 
-        OnlineIndexSamplingJob job = new OnlineIndexSamplingJob( indexId, indexProxy, indexStatisticsStore, "Foo", "Foo", logProvider, pageCacheTracer );
+        OnlineIndexSamplingJob job = new OnlineIndexSamplingJob( indexId, indexProxy, indexStatisticsStore, "Foo", "Foo", logProvider, pageCacheTracer,
+                jobScheduler, DEFAULT_DATABASE_NAME );
         when( indexProxy.getState() ).thenReturn( ONLINE );
 
         // when
         job.run();
 
-        verify( indexSampler ).sampleIndex( argThat( context -> context.getCursorTracer().equals( pageCursorTracer ) ) );
+        verify( indexSampler ).sampleIndex( argThat( context -> context.getCursorTracer().equals( pageCursorTracer ) ), any() );
     }
 }
@@ -436,6 +436,44 @@ class BlockBasedIndexPopulatorTest
         assertEquals( numberOfUpdatesAfterCompleted, sample.updates() );
     }
 
+    @Test
+    void shouldBuildTreeFromScanUpdatesWithRepeatedEntriesAndSharedValues() throws IndexEntryConflictException, IOException
+    {
+        // given
+        BlockBasedIndexPopulator<GenericKey,NativeIndexValue> populator = instantiatePopulator( NO_MONITOR );
+        try
+        {
+            // the same entries twice, and other entities with the same values
+            populator.add( batchOfUpdates(), NULL );
+            populator.add( batchOfUpdates(), NULL );
+            List<IndexEntryUpdate<?>> sharedValues = new ArrayList<>();
+            for ( int i = 0; i < 50; i++ )
+            {
+                sharedValues.add( IndexEntryUpdate.add( 100 + i, INDEX_DESCRIPTOR, stringValue( "Value" + i ) ) );
+            }
+            populator.add( sharedValues, NULL );
+
+            // when
+            populator.scanCompleted( nullInstance, populationWorkScheduler, NULL );
+
+            // then
+            int count = 0;
+            try ( Seeker<GenericKey,NativeIndexValue> seek = seek( populator.tree, layout() ) )
+            {
+                while ( seek.next() )
+                {
+                    count++;
+                }
+            }
+            assertEquals( 100, count );
+            assertTrue( populator.tree.consistencyCheck( NULL ) );
+        }
+        finally
+        {
+            populator.close( true, NULL );
+        }
+    }
+
     @Test
     void shouldFlushTreeOnScanCompleted() throws IndexEntryConflictException, IOException
     {
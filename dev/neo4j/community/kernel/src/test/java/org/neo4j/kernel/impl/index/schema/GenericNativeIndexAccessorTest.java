@@ -23,12 +23,14 @@ import org.junit.jupiter.api.Test;
 
 import java.nio.file.Path;
 
+import org.neo4j.configuration.Config;
 import org.neo4j.gis.spatial.index.curves.SpaceFillingCurveConfiguration;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.SchemaDescriptor;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.api.index.IndexDirectoryStructure;
+import org.neo4j.kernel.impl.api.index.IndexSamplingConfig;
 import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.pagecache.PageCacheExtension;
@@ -64,7 +66,8 @@ class GenericNativeIndexAccessorTest
         DatabaseIndexContext databaseIndexContext = DatabaseIndexContext.builder( pageCache, fs, DEFAULT_DATABASE_NAME ).build();
         GenericNativeIndexAccessor accessor =
                 new GenericNativeIndexAccessor( databaseIndexContext, indexFiles, new GenericLayout( 1, spatialSettings ), immediate(), descriptor,
-                        spatialSettings, mock( SpaceFillingCurveConfiguration.class ), SIMPLE_NAME_LOOKUP );
+                        spatialSettings, mock( SpaceFillingCurveConfiguration.class ), SIMPLE_NAME_LOOKUP,
+                        new IndexSamplingConfig( Config.defaults() ) );
 
         // when
         accessor.drop();
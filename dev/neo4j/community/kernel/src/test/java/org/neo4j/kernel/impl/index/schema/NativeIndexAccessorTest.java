@@ -25,6 +25,7 @@ import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.internal.schema.IndexCapability;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.impl.api.index.IndexSamplingConfig;
 import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
 import org.neo4j.values.storable.ValueType;
 
@@ -49,9 +50,14 @@ class NativeIndexAccessorTest extends NativeIndexAccessorTests<GenericKey,Native
     NativeIndexAccessor<GenericKey,NativeIndexValue> createAccessor( PageCache pageCache )
     {
         RecoveryCleanupWorkCollector cleanup = RecoveryCleanupWorkCollector.immediate();
-        DatabaseIndexContext context = DatabaseIndexContext.builder( pageCache, fs, DEFAULT_DATABASE_NAME ).withReadOnlyChecker( writable() ).build();
+        DatabaseIndexContext context = contextBuilder( pageCache ).build();
         return new GenericNativeIndexAccessor( context, indexFiles, layout, cleanup, indexDescriptor, spaceFillingCurveSettings, configuration,
-                tokenNameLookup );
+                tokenNameLookup, new IndexSamplingConfig( Config.defaults() ) );
+    }
+
+    DatabaseIndexContext.Builder contextBuilder( PageCache pageCache )
+    {
+        return DatabaseIndexContext.builder( pageCache, fs, DEFAULT_DATABASE_NAME ).withReadOnlyChecker( writable() );
     }
 
     @Override
@@ -51,6 +51,7 @@ import org.neo4j.kernel.api.index.IndexProgressor;
 import org.neo4j.kernel.api.index.IndexSample;
 import org.neo4j.kernel.api.index.IndexSampler;
 import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.PartitionedValueSeek;
 import org.neo4j.kernel.api.index.ValueIndexReader;
 import org.neo4j.storageengine.api.ValueIndexEntryUpdate;
 import org.neo4j.storageengine.api.schema.SimpleEntityValueClient;
@@ -334,6 +335,60 @@ abstract class NativeIndexAccessorTests<KEY extends NativeIndexKey<KEY>, VALUE e
         }
     }
 
+    @Test
+    void shouldReturnAllEntriesForExistsPredicateInPartitionedSeek() throws Exception
+    {
+        // given
+        ValueIndexEntryUpdate<IndexDescriptor>[] updates = someUpdatesSingleType();
+        processAll( updates );
+
+        // when
+        var reader = accessor.newValueReader();
+        PartitionedValueSeek seek = reader.valueSeek( 4, unconstrained(), NULL, PropertyIndexQuery.exists( 0 ) );
+
+        // then
+        assertThat( seek.getNumberOfPartitions() ).isBetween( 1, 4 );
+        assertEntityIdHits( extractEntityIds( updates, alwaysTrue() ), partitionedQuery( seek ) );
+    }
+
+    @Test
+    void shouldReturnMatchingEntriesForRangePredicateInPartitionedSeek() throws Exception
+    {
+        // given
+        ValueIndexEntryUpdate<IndexDescriptor>[] updates = someUpdatesSingleTypeNoDuplicates( supportedTypesExcludingNonOrderable() );
+        processAll( updates );
+        ValueCreatorUtil.sort( updates );
+
+        // when
+        var reader = accessor.newValueReader();
+        PartitionedValueSeek seek = reader.valueSeek( 3, unconstrained(), NULL,
+                ValueCreatorUtil.rangeQuery( valueOf( updates[0] ), true, valueOf( updates[updates.length - 1] ), false ) );
+
+        // then
+        assertEntityIdHits( extractEntityIds( Arrays.copyOf( updates, updates.length - 1 ), alwaysTrue() ), partitionedQuery( seek ) );
+    }
+
+    @Test
+    void shouldReturnNoEntriesInPartitionedSeekForEmptyIndex() throws Exception
+    {
+        // when
+        var reader = accessor.newValueReader();
+        PartitionedValueSeek seek = reader.valueSeek( 4, unconstrained(), NULL, PropertyIndexQuery.exists( 0 ) );
+
+        // then
+        assertEquals( 0, partitionedQuery( seek ).size() );
+    }
+
+    @Test
+    void shouldNotSupportOrderedPartitionedSeek()
+    {
+        var reader = accessor.newValueReader();
+        assertThrows( IllegalArgumentException.class,
+                () -> reader.valueSeek( 4, constrained( IndexOrder.ASCENDING, false ), NULL, PropertyIndexQuery.exists( 0 ) ) );
+        assertThrows( IllegalArgumentException.class,
+                () -> reader.valueSeek( 0, unconstrained(), NULL, PropertyIndexQuery.exists( 0 ) ) );
+    }
+
     @Test
     void shouldReturnMatchingEntriesForExactPredicate() throws Exception
     {
@@ -883,6 +938,21 @@ abstract class NativeIndexAccessorTests<KEY extends NativeIndexKey<KEY>, VALUE e
         return client;
     }
 
+    private static List<Long> partitionedQuery( PartitionedValueSeek seek )
+    {
+        List<Long> result = new ArrayList<>();
+        NodeValueIterator client = new NodeValueIterator();
+        while ( seek.reservePartition( client, NULL ) )
+        {
+            while ( client.hasNext() )
+            {
+                result.add( client.next() );
+            }
+            client = new NodeValueIterator();
+        }
+        return result;
+    }
+
     private static void assertEntityIdHits( long[] expected, LongIterator result )
     {
         long[] actual = PrimitiveLongCollections.asArray( result );
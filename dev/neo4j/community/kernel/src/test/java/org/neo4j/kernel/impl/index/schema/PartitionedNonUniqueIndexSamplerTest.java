@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.api.index.IndexDirectoryStructure;
+import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexSampler;
+import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobMonitoringParams;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.data.Percentage.withPercentage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.internal.schema.IndexPrototype.forSchema;
+import static org.neo4j.internal.schema.SchemaDescriptor.forLabel;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.kernel.api.index.IndexDirectoryStructure.directoriesByProvider;
+import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRAL;
+import static org.neo4j.kernel.impl.index.schema.ValueCreatorUtil.countUniqueValues;
+
+class PartitionedNonUniqueIndexSamplerTest extends IndexTestUtil<GenericKey,NativeIndexValue,IndexLayout<GenericKey,NativeIndexValue>>
+{
+    private static final IndexSpecificSpaceFillingCurveSettings specificSettings = IndexSpecificSpaceFillingCurveSettings.fromConfig( Config.defaults() );
+
+    private static final IndexDescriptor index = forSchema( forLabel( 42, 666 ) ).withName( "index" ).materialise( 0 );
+
+    private final AtomicInteger scheduledJobs = new AtomicInteger();
+
+    @Test
+    void shouldSampleSameAsFullScanOnCurrentThread() throws Exception
+    {
+        // GIVEN
+        Value[] values = generateValuesWithDuplicates();
+        buildTree( values );
+
+        try ( GBPTree<GenericKey,NativeIndexValue> gbpTree = getTree() )
+        {
+            // WHEN
+            IndexSample sample = new PartitionedNonUniqueIndexSampler<>( gbpTree, layout, 8, 1.0 ).sample( NULL );
+
+            // THEN
+            assertFullSample( values, sample );
+        }
+    }
+
+    @Test
+    void shouldSampleSameAsFullScanInParallel() throws Exception
+    {
+        // GIVEN
+        Value[] values = generateValuesWithDuplicates();
+        buildTree( values );
+
+        try ( GBPTree<GenericKey,NativeIndexValue> gbpTree = getTree() )
+        {
+            // WHEN
+            IndexSample sample = new PartitionedNonUniqueIndexSampler<>( gbpTree, layout, 8, 1.0 ).sample( NULL, workScheduler() );
+
+            // THEN
+            assertFullSample( values, sample );
+            assertThat( scheduledJobs.get() ).isGreaterThan( 1 );
+        }
+    }
+
+    @Test
+    void shouldSampleEmptyTree() throws Exception
+    {
+        // GIVEN
+        buildTree( new Value[0] );
+
+        try ( GBPTree<GenericKey,NativeIndexValue> gbpTree = getTree() )
+        {
+            // WHEN
+            IndexSample sample = new PartitionedNonUniqueIndexSampler<>( gbpTree, layout, 8, 1.0 ).sample( NULL, workScheduler() );
+
+            // THEN
+            assertEquals( new IndexSample( 0, 0, 0 ), sample );
+        }
+    }
+
+    @Test
+    void shouldReadOnlyFractionOfTreeAndEstimateIndexSize() throws Exception
+    {
+        // GIVEN
+        Value[] values = generateValuesWithDuplicates();
+        buildTree( values );
+
+        try ( GBPTree<GenericKey,NativeIndexValue> gbpTree = getTree() )
+        {
+            // WHEN
+            IndexSample sample = new PartitionedNonUniqueIndexSampler<>( gbpTree, layout, 4, 0.25 ).sample( NULL, workScheduler() );
+
+            // THEN
+            assertThat( sample.sampleSize() ).isPositive().isLessThan( values.length );
+            assertThat( sample.uniqueValues() ).isPositive().isLessThanOrEqualTo( sample.sampleSize() );
+            assertThat( sample.indexSize() ).isCloseTo( values.length, withPercentage( 50 ) );
+        }
+    }
+
+    @Test
+    void shouldPropagatePartitionFailure() throws Exception
+    {
+        // GIVEN
+        buildTree( generateValuesWithDuplicates() );
+        RuntimeException failure = new RuntimeException( "Partition failure" );
+        IndexSampler.SamplingWorkScheduler failingScheduler = new IndexSampler.SamplingWorkScheduler()
+        {
+            @Override
+            public <T> JobHandle<T> schedule( IndexSampler.SamplingJob<T> job )
+            {
+                return jobScheduler.schedule( Group.INDEX_SAMPLING_WORK, new JobMonitoringParams( null, null, null ), () ->
+                {
+                    throw failure;
+                } );
+            }
+        };
+
+        try ( GBPTree<GenericKey,NativeIndexValue> gbpTree = getTree() )
+        {
+            // WHEN/THEN
+            PartitionedNonUniqueIndexSampler<GenericKey,NativeIndexValue> sampler = new PartitionedNonUniqueIndexSampler<>( gbpTree, layout, 8, 1.0 );
+            assertThatThrownBy( () -> sampler.sample( NULL, failingScheduler ) ).isSameAs( failure );
+        }
+    }
+
+    private void assertFullSample( Value[] values, IndexSample sample )
+    {
+        assertEquals( values.length, sample.sampleSize() );
+        assertEquals( countUniqueValues( values ), sample.uniqueValues() );
+        assertEquals( values.length, sample.indexSize() );
+    }
+
+    private IndexSampler.SamplingWorkScheduler workScheduler()
+    {
+        return new IndexSampler.SamplingWorkScheduler()
+        {
+            @Override
+            public <T> JobHandle<T> schedule( IndexSampler.SamplingJob<T> job )
+            {
+                scheduledJobs.incrementAndGet();
+                return jobScheduler.schedule( Group.INDEX_SAMPLING_WORK, new JobMonitoringParams( null, null, null ), () -> job.sample( CursorContext.NULL ) );
+            }
+        };
+    }
+
+    /**
+     * Enough values to fill many leaves, with runs of duplicates that are likely to span the edges between partitions.
+     */
+    private Value[] generateValuesWithDuplicates()
+    {
+        int size = 10_000;
+        Value[] result = new Value[size];
+        for ( int i = 0; i < size; i++ )
+        {
+            result[i] = Values.intValue( random.nextInt( size / 20 ) );
+        }
+        return result;
+    }
+
+    private void buildTree( Value[] values ) throws IOException
+    {
+        try ( GBPTree<GenericKey,NativeIndexValue> gbpTree = getTree() )
+        {
+            try ( Writer<GenericKey,NativeIndexValue> writer = gbpTree.writer( NULL ) )
+            {
+                GenericKey key = layout.newKey();
+                NativeIndexValue value = layout.newValue();
+                long nodeId = 0;
+                for ( Value number : values )
+                {
+                    key.initialize( nodeId );
+                    key.initFromValue( 0, number, NEUTRAL );
+                    value.from( number );
+                    writer.put( key, value );
+                    nodeId++;
+                }
+            }
+            gbpTree.checkpoint( NULL );
+        }
+    }
+
+    @Override
+    IndexFiles createIndexFiles( FileSystemAbstraction fs, TestDirectory directory, IndexDescriptor indexDescriptor )
+    {
+        IndexDirectoryStructure indexDirectoryStructure =
+                directoriesByProvider( directory.directory( "root" ) ).forProvider( indexDescriptor.getIndexProvider() );
+        return new IndexFiles.Directory( fs, indexDirectoryStructure, indexDescriptor.getId() );
+    }
+
+    @Override
+    IndexDescriptor indexDescriptor()
+    {
+        return index;
+    }
+
+    @Override
+    IndexLayout<GenericKey,NativeIndexValue> createLayout()
+    {
+        return new GenericLayout( 1, specificSettings );
+    }
+}
@@ -57,6 +57,7 @@ import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexAccessor;
 import org.neo4j.kernel.api.index.IndexProgressor;
 import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.PartitionedTokenScan;
 import org.neo4j.kernel.api.index.TokenIndexReader;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
 import org.neo4j.storageengine.api.TokenIndexEntryUpdate;
@@ -289,6 +290,62 @@ public class TokenIndexAccessorTest extends IndexAccessorTests<TokenScanKey,Toke
         readerShouldFindRandomizedUpdates( additionalOperation );
     }
 
+    @Test
+    void partitionedScanShouldFindRandomizedUpdates() throws Throwable
+    {
+        // Given
+        MutableLongObjectMap<long[]> entityTokens = LongObjectMaps.mutable.empty();
+        doRandomizedUpdatesWithAdditionalOperation( () -> {}, entityTokens );
+        MutableLongObjectMap<MutableLongList> entitiesPerToken = convertToExpectedEntitiesPerToken( entityTokens );
+
+        try ( var reader = accessor.newTokenReader() )
+        {
+            for ( long token : TOKENS )
+            {
+                // When
+                PartitionedTokenScan scan = reader.entityTokenScan( 4, NULL, new TokenPredicate( (int) token ) );
+                assertThat( scan.getNumberOfPartitions() ).isBetween( 1, 4 );
+                MutableLongList actualIds = LongLists.mutable.empty();
+                IndexProgressor.EntityTokenClient client = new IndexProgressor.EntityTokenClient()
+                {
+                    @Override
+                    public void initialize( IndexProgressor progressor, int token, IndexOrder order )
+                    {
+                        throw new UnsupportedOperationException( "Did not expect to use this method" );
+                    }
+
+                    @Override
+                    public void initialize( IndexProgressor progressor, int token, LongIterator added, LongSet removed )
+                    {
+                        throw new UnsupportedOperationException( "Did not expect to use this method" );
+                    }
+
+                    @Override
+                    public boolean acceptEntity( long reference, TokenSet tokens )
+                    {
+                        actualIds.add( reference );
+                        return true;
+                    }
+                };
+                for ( int i = 0; i < scan.getNumberOfPartitions(); i++ )
+                {
+                    try ( IndexProgressor progressor = scan.reservePartition( client, NULL ) )
+                    {
+                        while ( progressor.next() )
+                        {
+                            // the client collects every entity of the partition
+                        }
+                    }
+                }
+                assertThat( scan.reservePartition( client, NULL ) ).isNull();
+
+                // Then
+                MutableLongList expectedIds = entitiesPerToken.getIfAbsent( token, LongLists.mutable::empty );
+                assertThat( actualIds.sortThis() ).isEqualTo( expectedIds.toSortedList() );
+            }
+        }
+    }
+
     @Test
     void readingAfterDropShouldThrow()
     {
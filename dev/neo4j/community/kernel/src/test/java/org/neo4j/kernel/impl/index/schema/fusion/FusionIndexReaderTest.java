@@ -39,6 +39,7 @@ import org.neo4j.kernel.impl.index.schema.NodeIdsIndexReaderQueryAnswer;
 import org.neo4j.kernel.impl.index.schema.NodeValueIterator;
 import org.neo4j.values.storable.Value;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -310,6 +311,39 @@ abstract class FusionIndexReaderTest
         }
     }
 
+    /* partitioned seek */
+
+    @Test
+    void partitionedSeekMustSelectCorrectReader() throws Exception
+    {
+        // given
+        PropertyIndexQuery exact = PropertyIndexQuery.exact( PROP_KEY, 1 );
+
+        // when
+        fusionIndexReader.valueSeek( 4, unconstrained(), NULL, exact );
+
+        // then
+        verify( readers.get( GENERIC ) ).valueSeek( eq( 4 ), any(), any(), eq( exact ) );
+        for ( IndexReader reader : aliveReaders )
+        {
+            if ( reader != readers.get( GENERIC ) )
+            {
+                verifyNoMoreInteractions( reader );
+            }
+        }
+    }
+
+    @Test
+    void partitionedSeekSpanningSeveralReadersMustNotBeApplicable()
+    {
+        // given
+        PropertyIndexQuery.ExistsPredicate exists = PropertyIndexQuery.exists( PROP_KEY );
+
+        // then
+        assertThrows( IndexNotApplicableKernelException.class, () -> fusionIndexReader.valueSeek( 4, unconstrained(), NULL, exists ) );
+        verifyNoMoreInteractions( (Object[]) aliveReaders );
+    }
+
     private void verifyQueryWithCorrectReader( ValueIndexReader expectedReader, PropertyIndexQuery... indexQuery )
             throws IndexNotApplicableKernelException
     {
@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.Flushable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
+import org.neo4j.time.FakeClock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.check_point_io_limit_adaptive;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.community_check_point_io_limit_enabled;
+import static org.neo4j.configuration.GraphDatabaseSettings.check_point_iops_limit;
+import static org.neo4j.configuration.GraphDatabaseSettings.check_point_throughput_limit;
+import static org.neo4j.kernel.impl.pagecache.AdaptiveIOController.MIN_RATE_PERCENT;
+import static org.neo4j.kernel.impl.pagecache.AdaptiveIOController.QUANTUM_MILLIS;
+import static org.neo4j.kernel.impl.pagecache.AdaptiveIOController.RATE_INCREASE_PERCENT;
+import static org.neo4j.kernel.impl.pagecache.AdaptiveIOController.SAMPLE_MILLIS;
+
+class AdaptiveIOControllerTest
+{
+    private final FakeClock clock = new FakeClock();
+    private final DefaultPageCacheTracer pageCacheTracer = new DefaultPageCacheTracer();
+    private final List<Long> pauses = new ArrayList<>();
+    private int forces;
+    private final Flushable flushable = () -> forces++;
+
+    @Test
+    void shouldPauseUntilNextQuantumWhenIopsBudgetIsUsedUp()
+    {
+        // 10 IOs per quantum
+        AdaptiveIOController controller = controller( Config.defaults( check_point_iops_limit, 100 ) );
+
+        limit( controller, 5, 0 );
+        assertThat( pauses ).isEmpty();
+
+        clock.forward( Duration.ofMillis( 30 ) );
+        limit( controller, 5, 0 );
+        assertThat( pauses ).containsExactly( QUANTUM_MILLIS - 30 );
+        assertThat( forces ).isOne();
+
+        limit( controller, 5, 0 );
+        assertThat( pauses ).hasSize( 1 );
+    }
+
+    @Test
+    void shouldPauseWhenThroughputBudgetIsUsedUp()
+    {
+        Config config = Config.newBuilder()
+                .set( check_point_iops_limit, -1 )
+                .set( check_point_throughput_limit, 1000_000L )
+                .build();
+        AdaptiveIOController controller = controller( config );
+
+        limit( controller, 1, 60_000 );
+        assertThat( pauses ).isEmpty();
+        limit( controller, 1, 60_000 );
+        assertThat( pauses ).containsExactly( QUANTUM_MILLIS );
+    }
+
+    @Test
+    void shouldPayBackOverdrawnBudgetInFollowingQuantums()
+    {
+        Config config = Config.newBuilder()
+                .set( check_point_iops_limit, -1 )
+                .set( check_point_throughput_limit, 1000_000L )
+                .build();
+        AdaptiveIOController controller = controller( config );
+
+        // three quantums worth of bytes in one IO
+        limit( controller, 1, 300_000 );
+        limit( controller, 1, 0 );
+        limit( controller, 1, 0 );
+        limit( controller, 1, 0 );
+        assertThat( pauses ).hasSize( 3 );
+    }
+
+    @Test
+    void shouldCountReportedIOs()
+    {
+        AdaptiveIOController controller = controller( Config.defaults( check_point_iops_limit, 100 ) );
+
+        limit( controller, 1, 0 );
+        controller.reportIO( 9 );
+        limit( controller, 1, 0 );
+        assertThat( pauses ).hasSize( 1 );
+    }
+
+    @Test
+    void shouldNotLimitWhileDisabled()
+    {
+        AdaptiveIOController controller = controller( Config.defaults( check_point_iops_limit, 100 ) );
+
+        controller.disable();
+        controller.disable();
+        limit( controller, 100, 0 );
+        controller.enable();
+        limit( controller, 100, 0 );
+        assertThat( pauses ).isEmpty();
+        assertThat( controller.isEnabled() ).isFalse();
+
+        controller.enable();
+        assertThat( controller.isEnabled() ).isTrue();
+        limit( controller, 100, 0 );
+        assertThat( pauses ).hasSize( 1 );
+    }
+
+    @Test
+    void shouldNotLimitWithoutLimits()
+    {
+        Config config = Config.newBuilder()
+                .set( check_point_iops_limit, -1 )
+                .set( check_point_throughput_limit, 0L )
+                .build();
+        AdaptiveIOController controller = controller( config );
+
+        assertThat( controller.isEnabled() ).isFalse();
+        limit( controller, 10_000, 100_000_000 );
+        assertThat( pauses ).isEmpty();
+    }
+
+    @Test
+    void shouldPickUpChangedLimitsInNextQuantum()
+    {
+        Config config = Config.defaults( check_point_iops_limit, 100 );
+        AdaptiveIOController controller = controller( config );
+
+        limit( controller, 10, 0 );
+        assertThat( pauses ).hasSize( 1 );
+
+        config.setDynamic( check_point_iops_limit, 1000, getClass().getSimpleName() );
+        limit( controller, 10, 0 );
+        assertThat( pauses ).hasSize( 1 );
+    }
+
+    @Test
+    void shouldSlowDownWhenPageFaultsGetSlowerThanWithoutFlushing()
+    {
+        AdaptiveIOController controller = controller( Config.defaults( check_point_iops_limit, 1000 ) );
+
+        // the baseline, before the flush
+        faults( 100, 100_000 );
+        limit( controller, 1, 0 );
+        assertThat( controller.ratePercent() ).isEqualTo( 100 );
+
+        flushFor( controller, SAMPLE_MILLIS, 1_000_000 );
+        assertThat( controller.ratePercent() ).isEqualTo( 50 );
+        flushFor( controller, SAMPLE_MILLIS, 1_000_000 );
+        assertThat( controller.ratePercent() ).isEqualTo( 25 );
+        for ( int i = 0; i < 10; i++ )
+        {
+            flushFor( controller, SAMPLE_MILLIS, 1_000_000 );
+        }
+        assertThat( controller.ratePercent() ).isEqualTo( MIN_RATE_PERCENT );
+
+        // the page faults are fast again
+        flushFor( controller, SAMPLE_MILLIS, 100_000 );
+        assertThat( controller.ratePercent() ).isEqualTo( MIN_RATE_PERCENT + RATE_INCREASE_PERCENT );
+    }
+
+    @Test
+    void shouldSpeedUpWhenThereAreNoPageFaults()
+    {
+        AdaptiveIOController controller = controller( Config.defaults( check_point_iops_limit, 1000 ) );
+        faults( 100, 100_000 );
+        limit( controller, 1, 0 );
+        flushFor( controller, SAMPLE_MILLIS, 1_000_000 );
+        flushFor( controller, SAMPLE_MILLIS, 1_000_000 );
+        assertThat( controller.ratePercent() ).isEqualTo( 25 );
+
+        flushFor( controller, SAMPLE_MILLIS, 0 );
+        assertThat( controller.ratePercent() ).isEqualTo( 25 + RATE_INCREASE_PERCENT );
+    }
+
+    @Test
+    void shouldStartNextFlushAtConfiguredLimits()
+    {
+        AdaptiveIOController controller = controller( Config.defaults( check_point_iops_limit, 1000 ) );
+        faults( 100, 100_000 );
+        limit( controller, 1, 0 );
+        flushFor( controller, SAMPLE_MILLIS, 1_000_000 );
+        assertThat( controller.ratePercent() ).isEqualTo( 50 );
+
+        clock.forward( Duration.ofMinutes( 15 ) );
+        limit( controller, 1, 0 );
+        assertThat( controller.ratePercent() ).isEqualTo( 100 );
+    }
+
+    @Test
+    void shouldNotAdaptWhenNotAdaptive()
+    {
+        Config config = Config.newBuilder()
+                .set( check_point_iops_limit, 1000 )
+                .set( check_point_io_limit_adaptive, false )
+                .build();
+        AdaptiveIOController controller = controller( config );
+        faults( 100, 100_000 );
+        limit( controller, 1, 0 );
+        flushFor( controller, SAMPLE_MILLIS, 1_000_000 );
+        assertThat( controller.ratePercent() ).isEqualTo( 100 );
+    }
+
+    @Test
+    void communityEditionShouldNotLimitIOByDefault()
+    {
+        IOController controller = new CommunityIOControllerService().createIOController( Config.defaults(), clock, pageCacheTracer );
+        assertThat( controller ).isSameAs( IOController.DISABLED );
+    }
+
+    @Test
+    void communityEditionShouldLimitIOWhenEnabled()
+    {
+        Config config = Config.defaults( community_check_point_io_limit_enabled, true );
+        IOController controller = new CommunityIOControllerService().createIOController( config, clock, pageCacheTracer );
+        assertThat( controller ).isInstanceOf( AdaptiveIOController.class );
+    }
+
+    private AdaptiveIOController controller( Config config )
+    {
+        return new AdaptiveIOController( config, clock, pageCacheTracer, millis ->
+        {
+            pauses.add( millis );
+            clock.forward( Duration.ofMillis( millis ) );
+        } );
+    }
+
+    private void limit( AdaptiveIOController controller, int ios, long bytes )
+    {
+        controller.maybeLimitIO( ios, bytes, flushable, MajorFlushEvent.NULL );
+    }
+
+    /**
+     * Flush one IO per quantum for the given time, while there are page faults of the given latency.
+     */
+    private void flushFor( AdaptiveIOController controller, long millis, long faultNanos )
+    {
+        for ( long flushed = 0; flushed < millis; flushed += QUANTUM_MILLIS )
+        {
+            if ( faultNanos > 0 )
+            {
+                faults( 10, faultNanos );
+            }
+            clock.forward( Duration.ofMillis( QUANTUM_MILLIS ) );
+            limit( controller, 1, 0 );
+        }
+    }
+
+    private void faults( long count, long nanosEach )
+    {
+        pageCacheTracer.faults( count );
+        pageCacheTracer.faultNanos( count * nanosEach );
+    }
+}
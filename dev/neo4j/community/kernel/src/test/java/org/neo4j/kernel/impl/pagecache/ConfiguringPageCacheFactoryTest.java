@@ -23,10 +23,13 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Map;
 
 import org.neo4j.configuration.Config;
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -49,6 +52,7 @@ import org.neo4j.time.Clocks;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_huge_pages;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_memory;
 import static org.neo4j.configuration.GraphDatabaseSettings.preallocate_store_files;
 import static org.neo4j.io.pagecache.PageCache.PAGE_SIZE;
@@ -99,6 +103,24 @@ class ConfiguringPageCacheFactoryTest
         }
     }
 
+    @Test
+    @EnabledOnOs( OS.LINUX )
+    void shouldAdvisePageCacheMemoryAsHugePagesWhenEnabled()
+    {
+        long pageCount = 60;
+        long memory = MuninnPageCache.memoryRequiredForPages( pageCount );
+        Config config = Config.defaults( Map.of( pagecache_memory, Long.toString( memory ), pagecache_huge_pages, true ) );
+
+        ConfiguringPageCacheFactory factory =
+                new ConfiguringPageCacheFactory( fs, config, PageCacheTracer.NULL, NullLog.getInstance(), jobScheduler, Clocks.nanoClock(), new MemoryPools() );
+
+        try ( MuninnPageCache cache = (MuninnPageCache) factory.getOrCreatePageCache() )
+        {
+            assertThat( cache.maxCachedPages() ).isGreaterThanOrEqualTo( pageCount );
+            assertThat( cache.hugePageCoverage().advisedMemory() ).isGreaterThanOrEqualTo( cache.maxCachedPages() * PAGE_SIZE );
+        }
+    }
+
     @Test
     void createPageCacheWithoutPreallocationEnabled() throws IOException
     {
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.helpers.DatabaseReadOnlyChecker;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.logging.NullLog;
+import org.neo4j.memory.MemoryPools;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.time.Clocks;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.eclipse.collections.api.factory.Sets.immutable;
+import static java.time.Duration.ZERO;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.community_pagecache_warmup_enabled;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_memory;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_max_time;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch_allowlist;
+import static org.neo4j.io.pagecache.PageCache.PAGE_SIZE;
+import static org.neo4j.io.pagecache.PageCursor.UNBOUND_PAGE_ID;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+@EphemeralTestDirectoryExtension
+class PageCacheWarmerTest
+{
+    private static final int FILE_PAGES = 100;
+
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private TestDirectory testDirectory;
+
+    private JobScheduler jobScheduler;
+    private PageCache pageCache;
+    private Path databaseDirectory;
+    private Path nodeStore;
+    private Path relationshipStore;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        jobScheduler = JobSchedulerFactory.createInitialisedScheduler();
+        Config config = Config.defaults( pagecache_memory, Long.toString( MuninnPageCache.memoryRequiredForPages( 1000 ) ) );
+        pageCache = new ConfiguringPageCacheFactory( fs, config, PageCacheTracer.NULL, NullLog.getInstance(), jobScheduler, Clocks.nanoClock(),
+                new MemoryPools() ).getOrCreatePageCache();
+        databaseDirectory = testDirectory.directory( "neo4j" );
+        nodeStore = createFile( "neostore.nodestore.db" );
+        relationshipStore = createFile( "neostore.relationshipstore.db" );
+    }
+
+    @AfterEach
+    void tearDown() throws Exception
+    {
+        pageCache.close();
+        jobScheduler.close();
+    }
+
+    @Test
+    void shouldLoadProfiledPagesBack() throws Exception
+    {
+        try ( PagedFile nodes = pageCache.map( nodeStore, PAGE_SIZE, "neo4j" );
+              PagedFile relationships = pageCache.map( relationshipStore, PAGE_SIZE, "neo4j" ) )
+        {
+            read( nodes, 3, 4, 5, 40 );
+            read( relationships, 99 );
+            warmer( Config.defaults() ).profile();
+        }
+
+        // the pages of a file are evicted when it is unmapped
+        try ( PagedFile nodes = pageCache.map( nodeStore, PAGE_SIZE, "neo4j" );
+              PagedFile relationships = pageCache.map( relationshipStore, PAGE_SIZE, "neo4j" ) )
+        {
+            assertThat( residentPages( nodes ) ).isEmpty();
+
+            assertThat( warmer( Config.defaults() ).warmUp() ).isEqualTo( 5 );
+
+            assertThat( residentPages( nodes ) ).containsExactly( 3L, 4L, 5L, 40L );
+            assertThat( residentPages( relationships ) ).containsExactly( 99L );
+        }
+    }
+
+    @Test
+    void shouldNotCountPagesThatAreInMemoryAlready() throws Exception
+    {
+        try ( PagedFile nodes = pageCache.map( nodeStore, PAGE_SIZE, "neo4j" ) )
+        {
+            read( nodes, 3, 4, 5 );
+            warmer( Config.defaults() ).profile();
+        }
+
+        try ( PagedFile nodes = pageCache.map( nodeStore, PAGE_SIZE, "neo4j" ) )
+        {
+            read( nodes, 4 );
+
+            assertThat( warmer( Config.defaults() ).warmUp() ).isEqualTo( 2 );
+            assertThat( warmer( Config.defaults() ).warmUp() ).isZero();
+            assertThat( residentPages( nodes ) ).containsExactly( 3L, 4L, 5L );
+        }
+    }
+
+    @Test
+    void shouldNotLoadAnythingWithoutProfiles() throws Exception
+    {
+        try ( PagedFile nodes = pageCache.map( nodeStore, PAGE_SIZE, "neo4j" ) )
+        {
+            assertThat( warmer( Config.defaults() ).warmUp() ).isZero();
+            assertThat( residentPages( nodes ) ).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldNotWarmUpWithoutTime() throws Exception
+    {
+        try ( PagedFile nodes = pageCache.map( nodeStore, PAGE_SIZE, "neo4j" ) )
+        {
+            read( nodes, 1, 2 );
+            warmer( Config.defaults() ).profile();
+        }
+
+        try ( PagedFile nodes = pageCache.map( nodeStore, PAGE_SIZE, "neo4j" ) )
+        {
+            assertThat( warmer( Config.defaults( pagecache_warmup_max_time, ZERO ) ).warmUp() ).isZero();
+            assertThat( residentPages( nodes ) ).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldPreloadWholeFilesOnTheAllowlist() throws Exception
+    {
+        Config config = Config.newBuilder()
+                .set( pagecache_warmup_prefetch, true )
+                .set( pagecache_warmup_prefetch_allowlist, ".*nodestore.*" )
+                .build();
+        try ( PagedFile nodes = pageCache.map( nodeStore, PAGE_SIZE, "neo4j" );
+              PagedFile relationships = pageCache.map( relationshipStore, PAGE_SIZE, "neo4j" ) )
+        {
+            assertThat( warmer( config ).warmUp() ).isEqualTo( FILE_PAGES );
+
+            assertThat( residentPages( nodes ) ).hasSize( FILE_PAGES );
+            assertThat( residentPages( relationships ) ).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldIgnoreProfilesOfPagesBeyondTheEndOfTheFile() throws Exception
+    {
+        try ( PagedFile nodes = pageCache.map( nodeStore, PAGE_SIZE, "neo4j" ) )
+        {
+            read( nodes, 10, 99 );
+            warmer( Config.defaults() ).profile();
+        }
+        fs.truncate( nodeStore, 50L * PAGE_SIZE );
+
+        try ( PagedFile nodes = pageCache.map( nodeStore, PAGE_SIZE, "neo4j" ) )
+        {
+            assertThat( warmer( Config.defaults() ).warmUp() ).isEqualTo( 1 );
+            assertThat( residentPages( nodes ) ).containsExactly( 10L );
+        }
+    }
+
+    @Test
+    void shouldNeitherWarmUpNorProfileUnlessEnabled() throws Exception
+    {
+        try ( PagedFile nodes = pageCache.map( nodeStore, PAGE_SIZE, "neo4j" ) )
+        {
+            read( nodes, 1, 2 );
+            PageCacheWarmer warmer = warmer( Config.defaults() );
+            warmer.start();
+            warmer.stop();
+        }
+        assertThat( fs.fileExists( databaseDirectory.resolve( PageCacheWarmer.PROFILES_DIRECTORY ) ) ).isFalse();
+
+        try ( PagedFile nodes = pageCache.map( nodeStore, PAGE_SIZE, "neo4j" ) )
+        {
+            read( nodes, 1, 2 );
+            warmer( Config.defaults() ).profile();
+        }
+
+        try ( PagedFile nodes = pageCache.map( nodeStore, PAGE_SIZE, "neo4j" ) )
+        {
+            PageCacheWarmer warmer = warmer( Config.defaults() );
+            warmer.start();
+            assertThat( residentPages( nodes ) ).isEmpty();
+            warmer.stop();
+        }
+    }
+
+    @Test
+    void shouldWarmUpButNotProfileReadOnlyDatabase() throws Exception
+    {
+        Config config = Config.defaults( community_pagecache_warmup_enabled, true );
+        try ( PagedFile nodes = pageCache.map( nodeStore, PAGE_SIZE, "neo4j" ) )
+        {
+            read( nodes, 1, 2 );
+            PageCacheWarmer warmer = warmer( config );
+            warmer.start();
+            warmer.stop();
+        }
+
+        try ( PagedFile nodes = pageCache.map( nodeStore, PAGE_SIZE, "neo4j" ) )
+        {
+            read( nodes, 5 );
+            PageCacheWarmer warmer = warmer( config, DatabaseReadOnlyChecker.readOnly() );
+            warmer.start();
+            assertThat( residentPages( nodes ) ).containsExactly( 1L, 2L, 5L );
+            warmer.stop();
+        }
+
+        // the profile is still the one from before the database was read only
+        try ( PagedFile nodes = pageCache.map( nodeStore, PAGE_SIZE, "neo4j" ) )
+        {
+            assertThat( warmer( config ).warmUp() ).isEqualTo( 2 );
+            assertThat( residentPages( nodes ) ).containsExactly( 1L, 2L );
+        }
+    }
+
+    private PageCacheWarmer warmer( Config config )
+    {
+        return warmer( config, DatabaseReadOnlyChecker.writable() );
+    }
+
+    private PageCacheWarmer warmer( Config config, DatabaseReadOnlyChecker readOnlyChecker )
+    {
+        return new PageCacheWarmer( pageCache, fs, jobScheduler, databaseDirectory, PageCacheTracer.NULL, config, readOnlyChecker,
+                NullLog.getInstance(), "neo4j" );
+    }
+
+    private Path createFile( String name ) throws IOException
+    {
+        Path file = databaseDirectory.resolve( name );
+        try ( PagedFile pagedFile = pageCache.map( file, PAGE_SIZE, "neo4j", immutable.of( CREATE ) );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+        {
+            for ( int pageId = 0; pageId < FILE_PAGES; pageId++ )
+            {
+                cursor.next( pageId );
+                cursor.putLong( pageId );
+            }
+        }
+        return file;
+    }
+
+    private static void read( PagedFile file, long... pageIds ) throws IOException
+    {
+        try ( PageCursor cursor = file.io( 0, PF_SHARED_READ_LOCK, NULL ) )
+        {
+            for ( long pageId : pageIds )
+            {
+                assertThat( cursor.next( pageId ) ).isTrue();
+            }
+        }
+    }
+
+    private static List<Long> residentPages( PagedFile file ) throws IOException
+    {
+        List<Long> pages = new ArrayList<>();
+        try ( PageCursor cursor = file.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT, NULL ) )
+        {
+            while ( cursor.next() )
+            {
+                if ( cursor.getCurrentPageId() != UNBOUND_PAGE_ID )
+                {
+                    pages.add( cursor.getCurrentPageId() );
+                }
+            }
+        }
+        return pages;
+    }
+}
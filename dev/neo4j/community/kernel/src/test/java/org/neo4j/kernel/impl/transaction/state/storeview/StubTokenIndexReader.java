@@ -32,6 +32,7 @@ import org.neo4j.internal.schema.IndexOrder;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.api.index.EntityRange;
 import org.neo4j.kernel.api.index.IndexProgressor;
+import org.neo4j.kernel.api.index.PartitionedTokenScan;
 import org.neo4j.kernel.api.index.TokenIndexReader;
 import org.neo4j.kernel.impl.index.schema.TokenScan;
 
@@ -67,6 +68,12 @@ public class StubTokenIndexReader implements TokenIndexReader
         throw new UnsupportedOperationException( "Stub implementation does not support this method." );
     }
 
+    @Override
+    public PartitionedTokenScan entityTokenScan( int desiredNumberOfPartitions, CursorContext cursorContext, TokenPredicate query )
+    {
+        throw new UnsupportedOperationException( "Stub implementation does not support this method." );
+    }
+
     private static class StubIndexProgressor implements IndexProgressor
     {
         private final IndexProgressor.EntityTokenClient client;
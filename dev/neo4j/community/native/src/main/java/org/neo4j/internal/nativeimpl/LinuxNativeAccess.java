@@ -47,6 +47,12 @@ public class LinuxNativeAccess implements NativeAccess
      */
     private static final int POSIX_FADV_DONTNEED = 4;
 
+    /**
+     * Constant defined in mman.h and suggest that the pages in the specified range should be backed by transparent huge pages.
+     * For more info check man page for madvise.
+     */
+    private static final int MADV_HUGEPAGE = 14;
+
     private static final int EINVAL = 22;
     private static final int ERANGE = 34;
 
@@ -98,6 +104,16 @@ public class LinuxNativeAccess implements NativeAccess
      */
     private static native int posix_fallocate( int fd, long offset, long len ) throws LastErrorException;
 
+    /**
+     * Give advice about the use of the memory in the range starting at address and extending for length bytes, so that the kernel can choose
+     * appropriate paging techniques. The address must be aligned to the page size of the system.
+     * @param address start of the range
+     * @param length length of the range in bytes
+     * @param advice advice options
+     * @return 0 on success. On error, -1 is returned and errno is set
+     */
+    private static native int madvise( long address, long length, int advice ) throws LastErrorException;
+
     /**
      * Return pointer to a string describing error number, possibly using the LC_MESSAGES part of the current locale to select the appropriate language.
      * @param errnum error number to describe
@@ -156,6 +172,20 @@ public class LinuxNativeAccess implements NativeAccess
         return wrapResult( () -> posix_fallocate( fd, 0, bytes ) );
     }
 
+    @Override
+    public NativeCallResult tryAdviseHugePages( long address, long bytes )
+    {
+        if ( address == 0 )
+        {
+            return new NativeCallResult( ERROR, "Incorrect address." );
+        }
+        if ( bytes <= 0 )
+        {
+            return new NativeCallResult( ERROR, "Number of bytes to advise should be positive. Requested: " + bytes );
+        }
+        return wrapResult( () -> madvise( address, bytes, MADV_HUGEPAGE ) );
+    }
+
     @Override
     public String describe()
     {
@@ -69,6 +69,15 @@ public interface NativeAccess
      */
     NativeCallResult tryPreallocateSpace( int fd, long bytes );
 
+    /**
+     * Try to advise that the memory in the given range should be backed by transparent huge pages.
+     * Useful for large regions of memory that are accessed randomly, where the translation lookaside buffer misses are costly. For example: page cache.
+     * @param address start of the range, aligned to the size of an operating system page
+     * @param bytes length of the range in bytes
+     * @return returns zero on success, or an error number on failure
+     */
+    NativeCallResult tryAdviseHugePages( long address, long bytes );
+
     /**
      * Details about native access provider
      * @return details about native access
@@ -19,6 +19,7 @@
  */
 package org.neo4j.internal.nativeimpl;
 
+import com.sun.jna.Native;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledOnOs;
@@ -43,6 +44,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.neo4j.internal.nativeimpl.NativeAccess.ERROR;
 
 class LinuxNativeAccessTest
@@ -166,6 +168,40 @@ class LinuxNativeAccessTest
                 assertFalse( nativeAccess.tryEvictFromCache( descriptor ).isError() );
             }
         }
+
+        @Test
+        void failToAdviseHugePagesOnLinuxForIncorrectRange()
+        {
+            assertEquals( ERROR, nativeAccess.tryAdviseHugePages( 0, 4096 ).getErrorCode() );
+            assertEquals( ERROR, nativeAccess.tryAdviseHugePages( 4096, 0 ).getErrorCode() );
+            // not aligned to a page
+            long address = Native.malloc( 8192 );
+            try
+            {
+                assertTrue( nativeAccess.tryAdviseHugePages( (address | 4095) + 1 + 1, 4096 ).isError() );
+            }
+            finally
+            {
+                Native.free( address );
+            }
+        }
+
+        @Test
+        void adviseHugePagesOnLinuxForAllocatedMemory()
+        {
+            assumeTrue( Files.exists( Path.of( "/sys/kernel/mm/transparent_hugepage/enabled" ) ) );
+            long bytes = 4 * 1024 * 1024;
+            long address = Native.malloc( bytes + 4096 );
+            try
+            {
+                long alignedAddress = (address + 4095) & -4096L;
+                assertFalse( nativeAccess.tryAdviseHugePages( alignedAddress, bytes ).isError() );
+            }
+            finally
+            {
+                Native.free( address );
+            }
+        }
     }
 
     private void preallocate( Path file, long bytes ) throws IOException, IllegalAccessException, ClassNotFoundException
@@ -39,7 +39,11 @@ import org.neo4j.exceptions.KernelException;
 import org.neo4j.graphdb.facade.DatabaseManagementServiceFactory;
 import org.neo4j.graphdb.factory.module.GlobalModule;
 import org.neo4j.graphdb.factory.module.edition.context.EditionDatabaseComponents;
+import org.neo4j.internal.collector.CapturedPlansProcedures;
+import org.neo4j.internal.collector.CardinalityErrorsProcedures;
+import org.neo4j.internal.collector.CompilationPhaseTimesProcedures;
 import org.neo4j.internal.collector.DataCollectorProcedures;
+import org.neo4j.internal.collector.PageCacheHeatmapProcedures;
 import org.neo4j.io.fs.watcher.DatabaseLayoutWatcher;
 import org.neo4j.io.fs.watcher.FileWatcher;
 import org.neo4j.io.layout.DatabaseLayout;
@@ -107,6 +111,10 @@ public abstract class AbstractEditionModule
         globalProcedures.registerProcedure( BuiltInDbmsProcedures.class );
         globalProcedures.registerProcedure( FulltextProcedures.class );
         globalProcedures.registerProcedure( DataCollectorProcedures.class );
+        globalProcedures.registerProcedure( CapturedPlansProcedures.class );
+        globalProcedures.registerProcedure( CompilationPhaseTimesProcedures.class );
+        globalProcedures.registerProcedure( CardinalityErrorsProcedures.class );
+        globalProcedures.registerProcedure( PageCacheHeatmapProcedures.class );
         registerTemporalFunctions( globalProcedures, procedureConfig );
 
         registerEditionSpecificProcedures( globalProcedures, databaseManager );
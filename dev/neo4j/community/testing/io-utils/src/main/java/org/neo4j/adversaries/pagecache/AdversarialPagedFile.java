@@ -79,6 +79,12 @@ public class AdversarialPagedFile implements PagedFile
         return delegate.path();
     }
 
+    @Override
+    public int residentPages()
+    {
+        return delegate.residentPages();
+    }
+
     @Override
     public void flushAndForce() throws IOException
     {
@@ -87,4 +87,10 @@ public class DelegatingPageCache implements PageCache
         delegate.flushAndForce();
     }
 
+    @Override
+    public void flushAndForce( List<? extends PagedFile> files ) throws IOException
+    {
+        delegate.flushAndForce( files );
+    }
+
 }
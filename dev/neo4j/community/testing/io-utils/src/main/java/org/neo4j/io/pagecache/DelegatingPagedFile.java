@@ -51,6 +51,18 @@ public class DelegatingPagedFile implements PagedFile
         return delegate.getLastPageId();
     }
 
+    @Override
+    public int touch( long pageId, int count, CursorContext context ) throws IOException
+    {
+        return delegate.touch( pageId, count, context );
+    }
+
+    @Override
+    public PageLoad requestPages( long[] filePageIds, CursorContext context ) throws IOException
+    {
+        return delegate.requestPages( filePageIds, context );
+    }
+
     @Override
     public int pageSize()
     {
@@ -69,6 +81,12 @@ public class DelegatingPagedFile implements PagedFile
         return delegate.path();
     }
 
+    @Override
+    public int residentPages()
+    {
+        return delegate.residentPages();
+    }
+
     @Override
     public void close()
     {
@@ -70,6 +70,12 @@ public class StubPagedFile implements PagedFile
         return Path.of( "stub" );
     }
 
+    @Override
+    public int residentPages()
+    {
+        return 0;
+    }
+
     @Override
     public void flushAndForce()
     {